@@ -2,45 +2,367 @@ package Controller;
 
 import Model.*;
 import Excepciones.*;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 /**
  * Controlador que maneja la lógica de negocio del sistema bancario.
  * Gestiona las cuentas y coordina las operaciones con la persistencia.
  * 
+ * Cada escritura sobre una cuenta se hace con el bloqueo de esa cuenta tomado.
+ * Para reportes consistentes mientras siguen las escrituras ver crearInstantanea().
+ * 
+ * El controlador no escribe en consola: las operaciones devuelven su resultado
+ * (ResultadoOperacion) o lanzan una excepción, y la vista decide cómo mostrarlo.
+ * Así puede usarse como biblioteca sin pagar la salida estándar en cada operación.
+ * 
  * @author Andres Camilo Vargas
  * @version 1.0
  */
 public class ControladorBancario {
     
-    private ArrayList<CuentaBancaria> cuentas;
+    // Tiempo y cantidad de claves de idempotencia que se recuerdan
+    private static final long TIEMPO_VIDA_IDEMPOTENCIA = 24L * 60 * 60 * 1000;
+    private static final int MAXIMO_CLAVES_IDEMPOTENCIA = 1 << 16;
+    
+    // Ordenadas por número de cuenta para poder recorrerlas por páginas
+    private ConcurrentSkipListMap<Integer, CuentaBancaria> cuentas;
+    private CacheIdempotencia idempotencia;
+    
+    // Instantáneas abiertas. Las escrituras comparten el bloqueo de lectura; crear
+    // una instantánea toma el de escritura para que ninguna quede a medias.
+    private final ReentrantReadWriteLock bloqueoInstantaneas = new ReentrantReadWriteLock();
+    private final List<InstantaneaCuentas> instantaneas = new CopyOnWriteArrayList<>();
+    private final Object bloqueoRegistro = new Object();
+    
+    private final PublicadorEventos eventos = new PublicadorEventos();
+    
+    // Reglas sobre los retiros. Se reemplaza el arreglo completo al cambiarlas,
+    // así los retiros lo recorren sin bloqueo y sin crear un iterador.
+    private volatile ReglaRetiro[] reglasRetiro = new ReglaRetiro[0];
+    private final LongAdder retirosMarcados = new LongAdder();
+    private final LongAdder retirosBloqueados = new LongAdder();
+    
+    // Reproducción del archivo al iniciar con recuperar() (null si no se hizo)
+    private ReproductorRegistro.Resultado recuperacion;
     
     /**
      * Constructor que inicializa el controlador y el archivo de transacciones.
      */
     public ControladorBancario() {
-        this.cuentas = new ArrayList<>();
+        this(true);
+    }
+    
+    private ControladorBancario(boolean leerIdempotencia) {
+        this.cuentas = new ConcurrentSkipListMap<>();
+        this.idempotencia = new CacheIdempotencia(MAXIMO_CLAVES_IDEMPOTENCIA, TIEMPO_VIDA_IDEMPOTENCIA);
         PersistenciaBancaria.inicializarArchivo();
+        if (leerIdempotencia) {
+            reconstruirIdempotencia();
+        }
+    }
+    
+    /**
+     * Crea un controlador con las cuentas guardadas y les devuelve el saldo que
+     * dejó el archivo de transacciones, reproduciéndolo en paralelo (ver
+     * ReproductorRegistro). En la misma pasada recupera las claves de
+     * idempotencia recientes, así que no hace falta leer el archivo otra vez.
+     * Solo se restaura el saldo: los contadores de retiros quedan como en las
+     * cuentas guardadas.
+     * 
+     * @param cuentasGuardadas Cuentas a registrar (por ejemplo, de la última exportación CSV)
+     * @param aplicadores Hilos que aplican los registros, cada uno con sus cuentas
+     * @return Controlador listo para operar; getRecuperacion() tiene las métricas
+     * @throws IOException Si no se puede leer el archivo de transacciones
+     */
+    public static ControladorBancario recuperar(Collection<? extends CuentaBancaria> cuentasGuardadas,
+                                                int aplicadores) throws IOException {
+        ControladorBancario controlador = new ControladorBancario(false);
+        for (CuentaBancaria cuenta : cuentasGuardadas) {
+            controlador.registrarCuenta(cuenta);
+        }
+        
+        long ahora = System.currentTimeMillis();
+        long desde = ahora - TIEMPO_VIDA_IDEMPOTENCIA;
+        CacheIdempotencia idempotencia = controlador.idempotencia;
+        controlador.recuperacion = new ReproductorRegistro(aplicadores).reproducir(
+            PersistenciaBancaria.getEscaner(), controlador.cuentas, PersistenciaBancaria.getLongitudArchivo(),
+            t -> {
+                if (t.getClaveIdempotencia() != 0L) {
+                    long instante = t.getFechaHora().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    if (instante >= desde) {
+                        idempotencia.registrar(t.getClaveIdempotencia(), t.getNumeroCuenta(),
+                                               t.getSaldoFinal(), Math.min(instante, ahora));
+                    }
+                }
+            });
+        return controlador;
+    }
+    
+    /**
+     * Métricas de la reproducción del archivo hecha por recuperar().
+     * 
+     * @return Registros, cuentas restauradas y velocidad, o null si el controlador no se recuperó
+     */
+    public ReproductorRegistro.Resultado getRecuperacion() {
+        return recuperacion;
+    }
+    
+    /**
+     * Crea un controlador que no lee las claves de idempotencia del archivo:
+     * quien lo crea se las entrega con registrarIdempotencia(). Lo usa
+     * ControladorParticionado para leer el archivo una sola vez y darle a cada
+     * partición solo las claves de sus cuentas.
+     */
+    static ControladorBancario sinIdempotencia() {
+        return new ControladorBancario(false);
+    }
+    
+    /**
+     * Recupera las claves de idempotencia recientes desde el archivo de transacciones,
+     * para que los reintentos se reconozcan también después de reiniciar el sistema.
+     */
+    private void reconstruirIdempotencia() {
+        long ahora = System.currentTimeMillis();
+        recorrerClavesRecientes(t -> registrarIdempotencia(t, ahora));
+    }
+    
+    /**
+     * Entrega las transacciones del archivo con clave de idempotencia todavía vigente.
+     * 
+     * @param consumidor Recibe cada transacción con clave, en orden del archivo
+     */
+    static void recorrerClavesRecientes(Consumer<Transaccion> consumidor) {
+        LocalDateTime desde = LocalDateTime.now().minus(TIEMPO_VIDA_IDEMPOTENCIA, ChronoUnit.MILLIS);
+        for (Transaccion t : PersistenciaBancaria.consultarPorRango(desde, LocalDateTime.now().plusDays(1))) {
+            if (t.getClaveIdempotencia() != 0L) {
+                consumidor.accept(t);
+            }
+        }
+    }
+    
+    /**
+     * Registra la clave de idempotencia de una transacción leída del archivo.
+     * 
+     * @param t Transacción con clave
+     * @param ahora Instante actual (las fechas futuras se toman como ahora)
+     */
+    void registrarIdempotencia(Transaccion t, long ahora) {
+        long instante = t.getFechaHora().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        idempotencia.registrar(t.getClaveIdempotencia(), t.getNumeroCuenta(), 
+                               t.getSaldoFinal(), Math.min(instante, ahora));
+    }
+    
+    /**
+     * Busca el resultado de una operación ya procesada con la misma clave.
+     * 
+     * @return Saldo resultante original, o NaN si la clave es nueva
+     */
+    private double buscarOperacionRepetida(long claveIdempotencia, int numeroCuenta) 
+            throws OperacionInvalidaException {
+        if (claveIdempotencia == 0L) {
+            return Double.NaN;
+        }
+        try {
+            return idempotencia.consultarSaldo(claveIdempotencia, numeroCuenta, System.currentTimeMillis());
+        } catch (IllegalArgumentException e) {
+            throw new OperacionInvalidaException(e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Guarda un movimiento ya aplicado a la cuenta en el archivo y lo publica a
+     * los suscriptores. Se llama con el bloqueo de la cuenta tomado (o, en los
+     * depósitos a cuentas con saldo distribuido, con el de su SaldoDistribuido),
+     * así los eventos de una cuenta se publican en el mismo orden en que quedan
+     * en el archivo.
+     * 
+     * @param efecto Cambio de saldo del movimiento (en retiros, con la comisión)
+     * @return Saldo después del movimiento, tal como queda en el archivo
+     */
+    private double registrarMovimiento(CuentaBancaria cuenta, String tipo, double monto, double efecto,
+                                       long claveIdempotencia) {
+        SaldoDistribuido distribuido = cuenta.getSaldoDistribuido();
+        if (distribuido == null) {
+            double saldo = cuenta.getSaldo();
+            registrarTransaccion(cuenta.getNumeroCuenta(), tipo, monto, saldo, claveIdempotencia);
+            return saldo;
+        }
+        // Pueden llegar depósitos concurrentes: el saldo del registro sigue el orden del archivo
+        synchronized (distribuido) {
+            double saldo = distribuido.registrarMovimiento(efecto);
+            registrarTransaccion(cuenta.getNumeroCuenta(), tipo, monto, saldo, claveIdempotencia);
+            return saldo;
+        }
+    }
+    
+    private void registrarTransaccion(int numeroCuenta, String tipo, double monto, double saldo,
+                                      long claveIdempotencia) {
+        PersistenciaBancaria.guardarTransaccion(numeroCuenta, tipo, monto, saldo, claveIdempotencia);
+        if (eventos.tieneSuscriptores()) {
+            eventos.publicar(numeroCuenta, tipo, monto, saldo, claveIdempotencia);
+        }
+    }
+    
+    /**
+     * Suscribe un sistema externo a los eventos de transacción. Los eventos se
+     * entregan por lotes desde un hilo propio de la suscripción.
+     * 
+     * @param nombre Nombre de la suscripción
+     * @param suscriptor Receptor de los eventos
+     * @param capacidad Eventos que caben en la cola de la suscripción
+     * @param tamanoLote Máximo de eventos por entrega
+     * @param politica Qué hacer cuando la cola está llena
+     * @return Suscripción activa, con sus métricas (cerrarla para cancelar)
+     */
+    public PublicadorEventos.Suscripcion suscribir(String nombre, SuscriptorTransacciones suscriptor,
+                                                   int capacidad, int tamanoLote, PoliticaDesborde politica) {
+        return eventos.suscribir(nombre, suscriptor, capacidad, tamanoLote, politica);
+    }
+    
+    /**
+     * Publicador de eventos, para consultar las suscripciones y sus métricas.
+     * 
+     * @return Publicador de eventos del controlador
+     */
+    public PublicadorEventos getPublicadorEventos() {
+        return eventos;
+    }
+    
+    /**
+     * Agrega una regla que se evalúa antes de cada retiro (también los de las
+     * transferencias). Desde ese momento cada cuenta que retira mantiene su
+     * perfil de retiros (PerfilRetiros), que las reglas consultan.
+     * 
+     * @param regla Regla a agregar
+     */
+    public synchronized void agregarReglaRetiro(ReglaRetiro regla) {
+        ReglaRetiro[] reglas = Arrays.copyOf(reglasRetiro, reglasRetiro.length + 1);
+        reglas[reglas.length - 1] = regla;
+        reglasRetiro = reglas;
+    }
+    
+    /**
+     * Quita una regla de retiro.
+     * 
+     * @param regla Regla a quitar
+     * @return true si la regla estaba agregada
+     */
+    public synchronized boolean quitarReglaRetiro(ReglaRetiro regla) {
+        List<ReglaRetiro> reglas = new ArrayList<>(Arrays.asList(reglasRetiro));
+        boolean quitada = reglas.remove(regla);
+        reglasRetiro = reglas.toArray(new ReglaRetiro[0]);
+        return quitada;
+    }
+    
+    /**
+     * Retiros aplicados con alguna alerta de las reglas.
+     */
+    public long getRetirosMarcados() {
+        return retirosMarcados.sum();
+    }
+    
+    /**
+     * Retiros que alguna regla no dejó aplicar.
+     */
+    public long getRetirosBloqueados() {
+        return retirosBloqueados.sum();
+    }
+    
+    /**
+     * Evalúa las reglas sobre un retiro, con el bloqueo de la cuenta tomado.
+     * Solo crea objetos si alguna regla marca o bloquea el retiro.
+     * 
+     * @return Nombres de las reglas que marcaron el retiro, o null si ninguna
+     * @throws OperacionInvalidaException Si alguna regla bloquea el retiro
+     */
+    private String evaluarReglasRetiro(ReglaRetiro[] reglas, CuentaBancaria cuenta, double monto, 
+                                       long ahora) throws OperacionInvalidaException {
+        PerfilRetiros perfil = cuenta.obtenerPerfilRetiros();
+        String alerta = null;
+        for (ReglaRetiro regla : reglas) {
+            DecisionRegla decision = regla.evaluar(cuenta, monto, perfil, ahora);
+            if (decision == DecisionRegla.BLOQUEAR) {
+                retirosBloqueados.increment();
+                throw new OperacionInvalidaException("Retiro bloqueado por la regla " + regla.getNombre() + 
+                                                     " en la cuenta " + cuenta.getNumeroCuenta());
+            }
+            if (decision == DecisionRegla.MARCAR) {
+                alerta = alerta == null ? regla.getNombre() : alerta + ", " + regla.getNombre();
+            }
+        }
+        return alerta;
     }
     
     /**
      * Registra una nueva cuenta en el sistema.
      * 
      * @param cuenta Cuenta a registrar
-     * @return true si se registró exitosamente
+     * @return true si se registró exitosamente, false si ya existe una cuenta con ese número
      */
     public boolean registrarCuenta(CuentaBancaria cuenta) {
-        // Verificar que no exista una cuenta con el mismo número
-        if (buscarCuentaPorNumero(cuenta.getNumeroCuenta()) != null) {
-            System.out.println("❌ Error: Ya existe una cuenta con ese número.");
-            return false;
+        bloqueoInstantaneas.readLock().lock();
+        try {
+            synchronized (bloqueoRegistro) {
+                // Verificar que no exista una cuenta con el mismo número
+                if (buscarCuentaPorNumero(cuenta.getNumeroCuenta()) != null) {
+                    return false;
+                }
+                
+                // Las instantáneas abiertas no deben incluir la cuenta nueva
+                for (InstantaneaCuentas instantanea : instantaneas) {
+                    instantanea.excluir(cuenta.getNumeroCuenta());
+                }
+                cuentas.put(cuenta.getNumeroCuenta(), cuenta);
+            }
+        } finally {
+            bloqueoInstantaneas.readLock().unlock();
         }
-        
-        cuentas.add(cuenta);
-        System.out.println("✓ Cuenta registrada exitosamente.");
         return true;
     }
     
+    /**
+     * Activa o desactiva el saldo distribuido de una cuenta (ver SaldoDistribuido):
+     * para cuentas que reciben muchos depósitos concurrentes, que así no esperan
+     * el bloqueo de la cuenta ni compiten por la misma variable. Los retiros
+     * siguen haciéndose uno a la vez y con las mismas validaciones.
+     * Detiene un momento todas las escrituras mientras se cambia.
+     * 
+     * @param numeroCuenta Número de cuenta
+     * @param activo true para repartir el saldo en celdas
+     * @throws OperacionInvalidaException Si la cuenta no existe
+     */
+    public void setSaldoDistribuido(int numeroCuenta, boolean activo) throws OperacionInvalidaException {
+        CuentaBancaria cuenta = buscarCuentaPorNumero(numeroCuenta);
+        if (cuenta == null) {
+            throw new OperacionInvalidaException("Cuenta no encontrada: " + numeroCuenta);
+        }
+        bloqueoInstantaneas.writeLock().lock();
+        try {
+            synchronized (cuenta) {
+                if (activo) {
+                    cuenta.activarSaldoDistribuido();
+                } else {
+                    cuenta.desactivarSaldoDistribuido();
+                }
+            }
+        } finally {
+            bloqueoInstantaneas.writeLock().unlock();
+        }
+    }
+    
     /**
      * Busca una cuenta por su número.
      * 
@@ -48,40 +370,99 @@ public class ControladorBancario {
      * @return La cuenta encontrada o null si no existe
      */
     public CuentaBancaria buscarCuentaPorNumero(int numeroCuenta) {
-        for (CuentaBancaria cuenta : cuentas) {
-            if (cuenta.getNumeroCuenta() == numeroCuenta) {
-                return cuenta;
-            }
-        }
-        return null;
+        return cuentas.get(numeroCuenta);
     }
-    
+
+    /**
+     * Indica si ya se aplicó una operación con esta clave de idempotencia
+     * (también las registradas antes de reiniciar, si siguen vigentes).
+     *
+     * @param claveIdempotencia Clave de la operación
+     * @param numeroCuenta Cuenta de la operación
+     * @return true si la operación ya está aplicada y registrada
+     * @throws OperacionInvalidaException Si la clave se usó en otra cuenta
+     */
+    public boolean operacionRegistrada(long claveIdempotencia, int numeroCuenta) throws OperacionInvalidaException {
+        return claveIdempotencia != 0L && !Double.isNaN(buscarOperacionRepetida(claveIdempotencia, numeroCuenta));
+    }
+
     /**
      * Realiza un depósito en una cuenta.
      * 
      * @param numeroCuenta Número de cuenta
      * @param monto Monto a depositar
+     * @return Resultado con el saldo después del depósito
      * @throws OperacionInvalidaException Si la operación es inválida
      */
-    public void realizarDeposito(int numeroCuenta, double monto) 
+    public ResultadoOperacion realizarDeposito(int numeroCuenta, double monto) 
+            throws OperacionInvalidaException {
+        return realizarDeposito(numeroCuenta, monto, 0L);
+    }
+    
+    /**
+     * Realiza un depósito con clave de idempotencia.
+     * Si la clave ya se usó (reintento), no se vuelve a aplicar ni a registrar
+     * y se devuelve el saldo resultante de la operación original.
+     * 
+     * @param numeroCuenta Número de cuenta
+     * @param monto Monto a depositar
+     * @param claveIdempotencia Clave única de la operación (0 si no tiene)
+     * @return Resultado con el saldo después del depósito (el original si es un reintento)
+     * @throws OperacionInvalidaException Si la operación es inválida o la clave es de otra cuenta
+     */
+    public ResultadoOperacion realizarDeposito(int numeroCuenta, double monto, long claveIdempotencia) 
             throws OperacionInvalidaException {
         
+        EventoJfrOperacion jfr = new EventoJfrOperacion();
+        jfr.iniciar("DEPOSITO", numeroCuenta, 0, monto);
         CuentaBancaria cuenta = buscarCuentaPorNumero(numeroCuenta);
         
         if (cuenta == null) {
+            jfr.terminar(EventoJfrOperacion.INVALIDA);
             throw new OperacionInvalidaException("Cuenta no encontrada: " + numeroCuenta);
         }
         
-        // POLIMORFISMO: Llamar al método depositar() de la cuenta
-        // Cada tipo de cuenta tiene su propia implementación
-        cuenta.depositar(monto);
-        
-        // Guardar transacción
-        PersistenciaBancaria.guardarTransaccion(
-            numeroCuenta, "DEPOSITO", monto, cuenta.getSaldo()
-        );
+        double saldo;
+        eventos.esperarLugar(); // Con suscriptores BLOQUEAR: esperar lugar antes de tomar los bloqueos
+        bloqueoInstantaneas.readLock().lock();
+        try {
+            // Saldo distribuido: el depósito no necesita el bloqueo de la cuenta, salvo
+            // que haya que comprobar la clave o guardar la cuenta en una instantánea
+            if (cuenta.getSaldoDistribuido() != null && claveIdempotencia == 0L && instantaneas.isEmpty()) {
+                jfr.finValidacion();
+                cuenta.depositar(monto);
+                jfr.finCambio();
+                saldo = registrarMovimiento(cuenta, "DEPOSITO", monto, monto, 0L);
+            } else {
+                synchronized (cuenta) {
+                    double saldoOriginal = buscarOperacionRepetida(claveIdempotencia, numeroCuenta);
+                    if (!Double.isNaN(saldoOriginal)) {
+                        jfr.terminar(EventoJfrOperacion.REPETIDA);
+                        return new ResultadoOperacion("DEPOSITO", numeroCuenta, monto, saldoOriginal, true);
+                    }
+                    
+                    capturarAntesDeEscribir(cuenta);
+                    jfr.finValidacion();
+                    
+                    // Las reglas de cada tipo de cuenta están en su política
+                    cuenta.depositar(monto);
+                    jfr.finCambio();
+                    
+                    // Guardar transacción
+                    saldo = registrarMovimiento(cuenta, "DEPOSITO", monto, monto, claveIdempotencia);
+                    if (claveIdempotencia != 0L) {
+                        idempotencia.registrar(claveIdempotencia, numeroCuenta, saldo, System.currentTimeMillis());
+                    }
+                }
+            }
+            jfr.finPersistencia();
+            jfr.terminar(EventoJfrOperacion.OK);
+        } finally {
+            bloqueoInstantaneas.readLock().unlock();
+            jfr.terminar(EventoJfrOperacion.INVALIDA); // Si no terminó antes, falló
+        }
         
-        System.out.println("✓ Depósito realizado. Nuevo saldo: $" + String.format("%.2f", cuenta.getSaldo()));
+        return new ResultadoOperacion("DEPOSITO", numeroCuenta, monto, saldo, false);
     }
     
     /**
@@ -89,107 +470,310 @@ public class ControladorBancario {
      * 
      * @param numeroCuenta Número de cuenta
      * @param monto Monto a retirar
+     * @return Resultado con el saldo después del retiro
      * @throws SaldoInsuficienteException Si no hay saldo suficiente
      * @throws OperacionInvalidaException Si la operación es inválida
      */
-    public void realizarRetiro(int numeroCuenta, double monto) 
+    public ResultadoOperacion realizarRetiro(int numeroCuenta, double monto) 
+            throws SaldoInsuficienteException, OperacionInvalidaException {
+        return realizarRetiro(numeroCuenta, monto, 0L);
+    }
+    
+    /**
+     * Realiza un retiro con clave de idempotencia.
+     * Si la clave ya se usó (reintento), no se vuelve a aplicar ni a registrar
+     * y se devuelve el saldo resultante de la operación original.
+     * 
+     * @param numeroCuenta Número de cuenta
+     * @param monto Monto a retirar
+     * @param claveIdempotencia Clave única de la operación (0 si no tiene)
+     * @return Resultado con el saldo después del retiro (el original si es un reintento)
+     * @throws SaldoInsuficienteException Si no hay saldo suficiente
+     * @throws OperacionInvalidaException Si la operación es inválida o la clave es de otra cuenta
+     */
+    public ResultadoOperacion realizarRetiro(int numeroCuenta, double monto, long claveIdempotencia) 
             throws SaldoInsuficienteException, OperacionInvalidaException {
         
+        EventoJfrOperacion jfr = new EventoJfrOperacion();
+        jfr.iniciar("RETIRO", numeroCuenta, 0, monto);
         CuentaBancaria cuenta = buscarCuentaPorNumero(numeroCuenta);
         
         if (cuenta == null) {
+            jfr.terminar(EventoJfrOperacion.INVALIDA);
             throw new OperacionInvalidaException("Cuenta no encontrada: " + numeroCuenta);
         }
         
-        // POLIMORFISMO: Llamar al método retirar() de la cuenta
-        // Cada tipo de cuenta tiene su propia implementación
-        cuenta.retirar(monto);
+        double saldo;
+        double comision;
+        String alerta = null;
+        eventos.esperarLugar(); // Con suscriptores BLOQUEAR: esperar lugar antes de tomar los bloqueos
+        bloqueoInstantaneas.readLock().lock();
+        try {
+            synchronized (cuenta) {
+                double saldoOriginal = buscarOperacionRepetida(claveIdempotencia, numeroCuenta);
+                if (!Double.isNaN(saldoOriginal)) {
+                    jfr.terminar(EventoJfrOperacion.REPETIDA);
+                    return new ResultadoOperacion("RETIRO", numeroCuenta, monto, saldoOriginal, true);
+                }
+                
+                // Reglas contra patrones sospechosos, antes de tocar la cuenta
+                ReglaRetiro[] reglas = reglasRetiro;
+                long ahora = 0;
+                if (reglas.length > 0) {
+                    ahora = System.currentTimeMillis();
+                    try {
+                        alerta = evaluarReglasRetiro(reglas, cuenta, monto, ahora);
+                    } catch (OperacionInvalidaException e) {
+                        jfr.terminar(EventoJfrOperacion.BLOQUEADA);
+                        throw e;
+                    }
+                }
+                
+                capturarAntesDeEscribir(cuenta);
+                jfr.finValidacion();
+                
+                // Las reglas de cada tipo de cuenta están en su política
+                comision = cuenta.getPolitica().getComisionRetiro();
+                cuenta.retirar(monto);
+                if (reglas.length > 0) {
+                    cuenta.obtenerPerfilRetiros().registrar(monto, ahora);
+                    if (alerta != null) {
+                        retirosMarcados.increment();
+                    }
+                }
+                jfr.finCambio();
+                
+                // Guardar transacción
+                saldo = registrarMovimiento(cuenta, "RETIRO", monto, -(monto + comision), claveIdempotencia);
+                if (claveIdempotencia != 0L) {
+                    idempotencia.registrar(claveIdempotencia, numeroCuenta, saldo, System.currentTimeMillis());
+                }
+            }
+            jfr.finPersistencia();
+            jfr.terminar(EventoJfrOperacion.OK);
+        } catch (SaldoInsuficienteException e) {
+            jfr.terminar(EventoJfrOperacion.SALDO_INSUFICIENTE);
+            throw e;
+        } finally {
+            bloqueoInstantaneas.readLock().unlock();
+            jfr.terminar(EventoJfrOperacion.INVALIDA); // Si no terminó antes, falló
+        }
         
-        // Guardar transacción
-        PersistenciaBancaria.guardarTransaccion(
-            numeroCuenta, "RETIRO", monto, cuenta.getSaldo()
-        );
+        return new ResultadoOperacion("RETIRO", numeroCuenta, monto, comision, saldo, false, alerta);
+    }
+    
+    /**
+     * Transfiere dinero entre dos cuentas: un retiro en la cuenta origen seguido
+     * de un depósito en la cuenta destino. Se aplican las reglas de retiro de la
+     * cuenta origen (comisiones, límites, sobregiro).
+     * 
+     * @param cuentaOrigen Número de la cuenta que envía
+     * @param cuentaDestino Número de la cuenta que recibe
+     * @param monto Monto a transferir
+     * @throws SaldoInsuficienteException Si la cuenta origen no tiene saldo suficiente
+     * @throws OperacionInvalidaException Si alguna cuenta no existe o la operación es inválida
+     */
+    public void realizarTransferencia(int cuentaOrigen, int cuentaDestino, double monto) 
+            throws SaldoInsuficienteException, OperacionInvalidaException {
         
-        System.out.println("✓ Retiro realizado. Nuevo saldo: $" + cuenta.getSaldo());
+        // El retiro y el depósito registran además sus propios eventos, con sus fases
+        EventoJfrOperacion jfr = new EventoJfrOperacion();
+        jfr.iniciar("TRANSFERENCIA", cuentaOrigen, cuentaDestino, monto);
+        if (cuentaOrigen == cuentaDestino) {
+            jfr.terminar(EventoJfrOperacion.INVALIDA);
+            throw new OperacionInvalidaException("La cuenta origen y destino son la misma: " + cuentaOrigen);
+        }
+        if (buscarCuentaPorNumero(cuentaDestino) == null) {
+            jfr.terminar(EventoJfrOperacion.INVALIDA);
+            throw new OperacionInvalidaException("Cuenta no encontrada: " + cuentaDestino);
+        }
+        
+        eventos.esperarLugar(); // Con suscriptores BLOQUEAR: esperar lugar antes de tomar los bloqueos
+        
+        // Ninguna instantánea puede crearse entre el retiro y el depósito
+        bloqueoInstantaneas.readLock().lock();
+        try {
+            jfr.finValidacion();
+            // Si el retiro falla no se toca la cuenta destino
+            realizarRetiro(cuentaOrigen, monto);
+            realizarDeposito(cuentaDestino, monto);
+            jfr.finCambio();
+            jfr.terminar(EventoJfrOperacion.OK);
+        } catch (SaldoInsuficienteException e) {
+            jfr.terminar(EventoJfrOperacion.SALDO_INSUFICIENTE);
+            throw e;
+        } finally {
+            bloqueoInstantaneas.readLock().unlock();
+            jfr.terminar(EventoJfrOperacion.INVALIDA); // Si no terminó antes, falló
+        }
     }
     
     /**
      * Calcula y aplica los intereses a una cuenta.
      * 
      * @param numeroCuenta Número de cuenta
+     * @return Resultado con los intereses generados (0 si la cuenta no genera intereses) y el saldo
      * @throws OperacionInvalidaException Si la cuenta no existe
      */
-    public void calcularIntereses(int numeroCuenta) throws OperacionInvalidaException {
+    public ResultadoOperacion calcularIntereses(int numeroCuenta) throws OperacionInvalidaException {
+        EventoJfrOperacion jfr = new EventoJfrOperacion();
+        jfr.iniciar("INTERESES", numeroCuenta, 0, 0);
         CuentaBancaria cuenta = buscarCuentaPorNumero(numeroCuenta);
         
         if (cuenta == null) {
+            jfr.terminar(EventoJfrOperacion.INVALIDA);
             throw new OperacionInvalidaException("Cuenta no encontrada: " + numeroCuenta);
         }
         
-        // POLIMORFISMO: Cada cuenta calcula sus intereses de forma diferente
-        double intereses = cuenta.calcularIntereses();
+        double intereses;
+        double saldo;
+        eventos.esperarLugar(); // Con suscriptores BLOQUEAR: esperar lugar antes de tomar los bloqueos
+        bloqueoInstantaneas.readLock().lock();
+        try {
+            synchronized (cuenta) {
+                capturarAntesDeEscribir(cuenta);
+                jfr.finValidacion();
+                
+                // La tasa de interés depende de la política de la cuenta
+                intereses = cuenta.calcularIntereses();
+                saldo = cuenta.getSaldo();
+                jfr.finCambio();
+                jfr.setMonto(intereses);
+                
+                if (intereses > 0) {
+                    // Guardar transacción
+                    saldo = registrarMovimiento(cuenta, "INTERESES", intereses, intereses, 0L);
+                }
+            }
+            jfr.finPersistencia();
+            jfr.terminar(EventoJfrOperacion.OK);
+        } finally {
+            bloqueoInstantaneas.readLock().unlock();
+            jfr.terminar(EventoJfrOperacion.INVALIDA); // Si no terminó antes, falló
+        }
         
-        if (intereses > 0) {
-            // Guardar transacción
-            PersistenciaBancaria.guardarTransaccion(
-                numeroCuenta, "INTERESES", intereses, cuenta.getSaldo()
-            );
-            
-            System.out.println("✓ Intereses calculados: $" + String.format("%.2f", intereses));
-            System.out.println("✓ Nuevo saldo: $" + cuenta.getSaldo());
-        } else {
-            System.out.println("ℹ Esta cuenta no genera intereses.");
+        return new ResultadoOperacion("INTERESES", numeroCuenta, intereses, saldo, false);
+    }
+    
+    /**
+     * Crea una instantánea de todas las cuentas: una vista consistente del momento
+     * actual, que coincide con la posición actual del archivo de transacciones.
+     * Las escrituras siguen mientras está abierta; debe cerrarse al terminar.
+     * 
+     * @return Instantánea abierta
+     */
+    public InstantaneaCuentas crearInstantanea() {
+        bloqueoInstantaneas.writeLock().lock();
+        try {
+            InstantaneaCuentas instantanea = new InstantaneaCuentas(
+                this, cuentas, PersistenciaBancaria.getLongitudArchivo());
+            instantaneas.add(instantanea);
+            return instantanea;
+        } finally {
+            bloqueoInstantaneas.writeLock().unlock();
         }
     }
     
     /**
-     * Muestra información de una cuenta específica.
+     * Deja de mantener una instantánea (la llama InstantaneaCuentas.close()).
+     */
+    void cerrarInstantanea(InstantaneaCuentas instantanea) {
+        instantaneas.remove(instantanea);
+    }
+    
+    /**
+     * Antes de modificar una cuenta: guarda su estado en las instantáneas abiertas
+     * que todavía no lo tienen. Se llama con el bloqueo de la cuenta tomado.
+     */
+    private void capturarAntesDeEscribir(CuentaBancaria cuenta) {
+        for (InstantaneaCuentas instantanea : instantaneas) {
+            instantanea.capturar(cuenta);
+        }
+    }
+    
+    /**
+     * Obtiene una página de cuentas a partir de un número de cuenta (cursor).
+     * Las cuentas se recorren en orden de número de cuenta y solo se
+     * conservan las que cumplen el filtro, sin copiar el resto del listado.
      * 
-     * @param numeroCuenta Número de cuenta
+     * @param claveInicio Número de cuenta desde el que se empieza (inclusive);
+     *                    null para empezar desde la primera cuenta
+     * @param tamanoPagina Cantidad máxima de cuentas en la página (debe ser > 0)
+     * @param filtro Filtro a aplicar (TODAS para no filtrar)
+     * @return Página con las cuentas y la clave para pedir la siguiente
      */
-    public void consultarCuenta(int numeroCuenta) {
-        CuentaBancaria cuenta = buscarCuentaPorNumero(numeroCuenta);
-        
-        if (cuenta == null) {
-            System.out.println("❌ Cuenta no encontrada.");
-            return;
+    public PaginaCuentas listarCuentas(Integer claveInicio, int tamanoPagina, FiltroCuentas filtro) {
+        if (tamanoPagina <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor a cero: " + tamanoPagina);
         }
         
-        System.out.println("\n========== INFORMACIÓN DE LA CUENTA ==========");
-        System.out.println(cuenta.toString());
-        System.out.println("=============================================\n");
+        Iterator<CuentaBancaria> it = (claveInicio == null)
+            ? cuentas.values().iterator()
+            : cuentas.tailMap(claveInicio, true).values().iterator();
+        
+        ArrayList<CuentaBancaria> pagina = new ArrayList<>(tamanoPagina);
+        while (it.hasNext()) {
+            CuentaBancaria cuenta = it.next();
+            if (!filtro.acepta(cuenta)) {
+                continue;
+            }
+            if (pagina.size() == tamanoPagina) {
+                // La primera cuenta que ya no cabe es el cursor de la siguiente página
+                return new PaginaCuentas(pagina, cuenta.getNumeroCuenta());
+            }
+            pagina.add(cuenta);
+        }
+        return new PaginaCuentas(pagina, null);
     }
     
     /**
-     * Muestra todas las cuentas registradas en el sistema.
+     * Consulta el historial completo de transacciones de una cuenta.
+     * 
+     * @param numeroCuenta Número de cuenta
+     * @return Transacciones de la cuenta en orden (vacía si no tiene)
+     * @throws OperacionInvalidaException Si la cuenta no existe
      */
-    public void listarTodasCuentas() {
-        if (cuentas.isEmpty()) {
-            System.out.println("No hay cuentas registradas.");
-            return;
+    public List<Transaccion> consultarHistorial(int numeroCuenta) throws OperacionInvalidaException {
+        if (buscarCuentaPorNumero(numeroCuenta) == null) {
+            throw new OperacionInvalidaException("Cuenta no encontrada: " + numeroCuenta);
         }
-        
-        System.out.println("\n========== LISTADO DE CUENTAS ==========");
-        for (CuentaBancaria cuenta : cuentas) {
-            System.out.println(cuenta.toString());
+        return PersistenciaBancaria.obtenerTransacciones(numeroCuenta);
+    }
+    
+    /**
+     * Obtiene las transacciones de una cuenta en un rango de tiempo [desde, hasta).
+     * 
+     * @param numeroCuenta Número de cuenta
+     * @param desde Inicio del rango (inclusive)
+     * @param hasta Fin del rango (exclusive)
+     * @return Transacciones de la cuenta en el rango
+     * @throws OperacionInvalidaException Si la cuenta no existe
+     */
+    public List<Transaccion> consultarHistorial(int numeroCuenta, LocalDateTime desde, 
+                                                LocalDateTime hasta) throws OperacionInvalidaException {
+        if (buscarCuentaPorNumero(numeroCuenta) == null) {
+            throw new OperacionInvalidaException("Cuenta no encontrada: " + numeroCuenta);
         }
-        System.out.println("========================================\n");
+        return PersistenciaBancaria.consultarPorRango(numeroCuenta, desde, hasta);
     }
     
     /**
-     * Consulta el historial de transacciones de una cuenta.
+     * Consulta el saldo que tenía una cuenta justo antes de un instante (por
+     * ejemplo, al cierre de un día: el inicio del día siguiente). Usa los puntos
+     * de control del archivo, así que no recorre todo el historial de la cuenta.
      * 
      * @param numeroCuenta Número de cuenta
+     * @param instante Instante de la consulta (exclusive)
+     * @return Saldo en ese instante, o NaN si la cuenta no tenía movimientos antes
+     * @throws OperacionInvalidaException Si la cuenta no existe
+     * @throws IOException Si no se puede leer el archivo de transacciones
      */
-    public void consultarHistorial(int numeroCuenta) {
-        CuentaBancaria cuenta = buscarCuentaPorNumero(numeroCuenta);
-        
-        if (cuenta == null) {
-            System.out.println("❌ Cuenta no encontrada.");
-            return;
+    public double consultarSaldoAl(int numeroCuenta, LocalDateTime instante) 
+            throws OperacionInvalidaException, IOException {
+        if (buscarCuentaPorNumero(numeroCuenta) == null) {
+            throw new OperacionInvalidaException("Cuenta no encontrada: " + numeroCuenta);
         }
-        
-        PersistenciaBancaria.consultarTransacciones(numeroCuenta);
+        return PersistenciaBancaria.consultarSaldoAl(numeroCuenta, instante);
     }
     
     /**
@@ -202,7 +786,8 @@ public class ControladorBancario {
     }
     
     /**
-     * Exporta todas las cuentas a formato CSV.
+     * Exporta todas las cuentas a formato CSV, tal como estaban en un mismo
+     * momento (usa una instantánea).
      * 
      * @return String con todas las cuentas en formato CSV
      */
@@ -210,8 +795,8 @@ public class ControladorBancario {
         StringBuilder sb = new StringBuilder();
         sb.append("TipoCuenta,Titular,Saldo,NumeroCuenta,DatosAdicionales\n");
         
-        for (CuentaBancaria cuenta : cuentas) {
-            sb.append(cuenta.toCSV()).append("\n");
+        try (InstantaneaCuentas instantanea = crearInstantanea()) {
+            instantanea.recorrer(cuenta -> sb.append(cuenta.toCSV()).append("\n"));
         }
         
         return sb.toString();
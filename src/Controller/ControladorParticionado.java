@@ -0,0 +1,394 @@
+package Controller;
+
+import Excepciones.CompensacionFallidaException;
+import Excepciones.OperacionInvalidaException;
+import Model.CuentaBancaria;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Controlador que reparte las cuentas en N particiones independientes.
+ *
+ * Cada partición es un ControladorBancario propio atendido por un único hilo
+ * con una cola acotada: todas las operaciones de una cuenta se ejecutan en el
+ * hilo de su partición, por lo que no hace falta sincronizar las cuentas.
+ * Las operaciones devuelven un CompletableFuture que se completa cuando el hilo
+ * de la partición termina (o falla con la excepción de la operación).
+ *
+ * Si la cola de una partición está llena, quien envía la operación espera
+ * hasta que haya espacio (contrapresión). Los hilos de las particiones nunca
+ * esperan: los pasos de una transferencia entre particiones se encadenan en
+ * un ejecutor aparte (coordinador), y si desde el hilo de una partición se
+ * envía una operación a una cola llena, se rechaza en el acto. Si dos
+ * particiones esperaran por espacio en la cola de la otra, ninguna avanzaría.
+ *
+ * Al crearse lee una sola vez las claves de idempotencia recientes del
+ * archivo y le entrega a cada partición solo las de sus cuentas.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class ControladorParticionado implements AutoCloseable {
+
+    /**
+     * Operación que se ejecuta sobre el controlador de una partición.
+     */
+    @FunctionalInterface
+    private interface Operacion<T> {
+        T ejecutar(ControladorBancario controlador) throws Exception;
+    }
+
+    // Marca los hilos de las particiones, que no deben esperar por espacio en una cola
+    private static final ThreadLocal<Boolean> EN_PARTICION = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Una partición: su controlador, su hilo y sus métricas.
+     */
+    private static class Particion {
+        private final ControladorBancario controlador = ControladorBancario.sinIdempotencia();
+        private final ThreadPoolExecutor hilo;
+        private final AtomicLong operacionesProcesadas = new AtomicLong();
+
+        Particion(int indice, int capacidadCola) {
+            this.hilo = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola),
+                tarea -> {
+                    Thread t = new Thread(() -> {
+                        EN_PARTICION.set(true);
+                        tarea.run();
+                    }, "particion-" + indice);
+                    t.setDaemon(true);
+                    return t;
+                },
+                (tarea, ejecutor) -> {
+                    if (ejecutor.isShutdown()) {
+                        throw new RejectedExecutionException("La partición " + indice + " está cerrada");
+                    }
+                    if (EN_PARTICION.get()) {
+                        throw new RejectedExecutionException("La cola de la partición " + indice + " está llena");
+                    }
+                    // Cola llena: bloquear a quien envía hasta que haya espacio
+                    try {
+                        ejecutor.getQueue().put(tarea);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Envío interrumpido", e);
+                    }
+                });
+        }
+    }
+
+    private final Particion[] particiones;
+    private final ExecutorService coordinador;
+    private final AtomicLong transferenciasEnCurso = new AtomicLong();
+    private final AtomicLong compensacionesFallidas = new AtomicLong();
+    
+    // Claves de idempotencia de las transferencias entre particiones: positivas,
+    // distintas entre ejecuciones y de a dos (el retiro y su devolución)
+    private final AtomicLong siguienteClaveTransferencia = new AtomicLong(System.currentTimeMillis() << 20);
+
+    /**
+     * Constructor de ControladorParticionado.
+     *
+     * @param cantidadParticiones Número de particiones (hilos) a crear
+     * @param capacidadCola Máximo de operaciones pendientes por partición
+     */
+    public ControladorParticionado(int cantidadParticiones, int capacidadCola) {
+        if (cantidadParticiones <= 0 || capacidadCola <= 0) {
+            throw new IllegalArgumentException("Particiones y capacidad de cola deben ser mayores a cero");
+        }
+        this.particiones = new Particion[cantidadParticiones];
+        for (int i = 0; i < cantidadParticiones; i++) {
+            particiones[i] = new Particion(i, capacidadCola);
+        }
+        this.coordinador = Executors.newFixedThreadPool(cantidadParticiones, tarea -> {
+            Thread t = new Thread(tarea, "particion-coordinador");
+            t.setDaemon(true);
+            return t;
+        });
+
+        // Antes de aceptar operaciones: nadie más usa los controladores todavía
+        long ahora = System.currentTimeMillis();
+        ControladorBancario.recorrerClavesRecientes(
+            t -> particiones[particionDe(t.getNumeroCuenta())].controlador.registrarIdempotencia(t, ahora));
+    }
+
+    /**
+     * Calcula la partición dueña de una cuenta.
+     *
+     * @param numeroCuenta Número de cuenta
+     * @return Índice de la partición (0..N-1)
+     */
+    public int particionDe(int numeroCuenta) {
+        // El mismo reparto que el clúster de varios procesos
+        return EnrutadorBanco.particionDe(numeroCuenta, particiones.length);
+    }
+
+    /**
+     * Registra una cuenta en la partición que le corresponde.
+     *
+     * @param cuenta Cuenta a registrar
+     * @return Futuro con true si se registró
+     */
+    public CompletableFuture<Boolean> registrarCuenta(CuentaBancaria cuenta) {
+        return enviar(cuenta.getNumeroCuenta(), c -> c.registrarCuenta(cuenta));
+    }
+
+    /**
+     * Realiza un depósito en el hilo de la partición de la cuenta.
+     *
+     * @param numeroCuenta Número de cuenta
+     * @param monto Monto a depositar
+     * @return Futuro que falla con OperacionInvalidaException si la operación es inválida
+     */
+    public CompletableFuture<Void> realizarDeposito(int numeroCuenta, double monto) {
+        return enviar(numeroCuenta, c -> {
+            c.realizarDeposito(numeroCuenta, monto);
+            return null;
+        });
+    }
+
+    /**
+     * Realiza un retiro en el hilo de la partición de la cuenta.
+     *
+     * @param numeroCuenta Número de cuenta
+     * @param monto Monto a retirar
+     * @return Futuro que falla con SaldoInsuficienteException u OperacionInvalidaException
+     */
+    public CompletableFuture<Void> realizarRetiro(int numeroCuenta, double monto) {
+        return enviar(numeroCuenta, c -> {
+            c.realizarRetiro(numeroCuenta, monto);
+            return null;
+        });
+    }
+
+    /**
+     * Realiza un depósito con clave de idempotencia en el hilo de la partición de la cuenta.
+     *
+     * @param numeroCuenta Número de cuenta
+     * @param monto Monto a depositar
+     * @param claveIdempotencia Clave única de la operación (0 si no tiene)
+     * @return Futuro con el saldo resultante (el original si es un reintento)
+     */
+    public CompletableFuture<Double> realizarDeposito(int numeroCuenta, double monto, long claveIdempotencia) {
+        return enviar(numeroCuenta, c -> c.realizarDeposito(numeroCuenta, monto, claveIdempotencia).getSaldoFinal());
+    }
+
+    /**
+     * Realiza un retiro con clave de idempotencia en el hilo de la partición de la cuenta.
+     *
+     * @param numeroCuenta Número de cuenta
+     * @param monto Monto a retirar
+     * @param claveIdempotencia Clave única de la operación (0 si no tiene)
+     * @return Futuro con el saldo resultante (el original si es un reintento)
+     */
+    public CompletableFuture<Double> realizarRetiro(int numeroCuenta, double monto, long claveIdempotencia) {
+        return enviar(numeroCuenta, c -> c.realizarRetiro(numeroCuenta, monto, claveIdempotencia).getSaldoFinal());
+    }
+
+    /**
+     * Calcula los intereses de una cuenta en el hilo de su partición.
+     *
+     * @param numeroCuenta Número de cuenta
+     * @return Futuro que falla con OperacionInvalidaException si la cuenta no existe
+     */
+    public CompletableFuture<Void> calcularIntereses(int numeroCuenta) {
+        return enviar(numeroCuenta, c -> {
+            c.calcularIntereses(numeroCuenta);
+            return null;
+        });
+    }
+
+    /**
+     * Consulta el saldo de una cuenta en el hilo de su partición.
+     *
+     * @param numeroCuenta Número de cuenta
+     * @return Futuro con el saldo, o null si la cuenta no existe
+     */
+    public CompletableFuture<Double> consultarSaldo(int numeroCuenta) {
+        return enviar(numeroCuenta, c -> {
+            CuentaBancaria cuenta = c.buscarCuentaPorNumero(numeroCuenta);
+            return cuenta == null ? null : cuenta.getSaldo();
+        });
+    }
+
+    /**
+     * Transfiere dinero entre dos cuentas.
+     *
+     * Si ambas cuentas están en la misma partición, la transferencia se ejecuta
+     * completa en su hilo. Si están en particiones distintas se hace en pasos:
+     * 1. Verificar que la cuenta destino existe (partición destino)
+     * 2. Retirar de la cuenta origen (partición origen)
+     * 3. Depositar en la cuenta destino (partición destino)
+     * Si el paso 3 falla, se devuelve a la cuenta origen todo lo que se le
+     * debitó (monto y comisión) con un depósito de compensación, y el futuro
+     * falla con el error del depósito. El retiro y la devolución llevan claves
+     * de idempotencia de la transferencia, así que reenviarlos no los repite.
+     * Si la devolución también falla, el futuro falla con
+     * CompensacionFallidaException (ver compensar()).
+     * Cada paso se envía desde el coordinador, nunca desde el hilo de la
+     * partición que terminó el paso anterior.
+     *
+     * @param cuentaOrigen Número de la cuenta que envía
+     * @param cuentaDestino Número de la cuenta que recibe
+     * @param monto Monto a transferir
+     * @return Futuro que se completa cuando termina la transferencia
+     */
+    public CompletableFuture<Void> realizarTransferencia(int cuentaOrigen, int cuentaDestino, double monto) {
+        if (particionDe(cuentaOrigen) == particionDe(cuentaDestino)) {
+            return enviar(cuentaOrigen, c -> {
+                c.realizarTransferencia(cuentaOrigen, cuentaDestino, monto);
+                return null;
+            });
+        }
+
+        transferenciasEnCurso.incrementAndGet();
+        long claveRetiro = siguienteClaveTransferencia.addAndGet(2);
+        return enviar(cuentaDestino, c -> {
+                if (c.buscarCuentaPorNumero(cuentaDestino) == null) {
+                    throw new OperacionInvalidaException("Cuenta no encontrada: " + cuentaDestino);
+                }
+                return null;
+            })
+            .thenComposeAsync(v -> enviar(cuentaOrigen, c -> c.realizarRetiro(cuentaOrigen, monto, claveRetiro)),
+                              coordinador)
+            .thenComposeAsync(retiro -> realizarDeposito(cuentaDestino, monto)
+                .handle((r, error) -> error)
+                .thenComposeAsync(error -> {
+                    if (error == null) {
+                        return CompletableFuture.completedFuture((Void) null);
+                    }
+                    return compensar(retiro, claveRetiro + 1, cuentaDestino, error);
+                }, coordinador), coordinador)
+            .whenComplete((v, error) -> transferenciasEnCurso.decrementAndGet());
+    }
+
+    /**
+     * Devuelve a la cuenta origen lo que le debitó el retiro de una
+     * transferencia cuyo depósito falló.
+     *
+     * Si la devolución se aplica, el futuro falla con el error del depósito.
+     * Si no, el dinero quedó fuera de las dos cuentas: se avisa por la salida
+     * de errores, se cuenta en getCompensacionesFallidas() y el futuro falla
+     * con CompensacionFallidaException (causa: el error de la devolución;
+     * suprimido: el del depósito).
+     *
+     * @param retiro Resultado del retiro en la cuenta origen
+     * @param clave Clave de idempotencia de la devolución
+     * @param cuentaDestino Cuenta en la que falló el depósito
+     * @param errorDeposito Error del depósito
+     */
+    private CompletableFuture<Void> compensar(ResultadoOperacion retiro, long clave, int cuentaDestino,
+                                              Throwable errorDeposito) {
+        int cuentaOrigen = retiro.getNumeroCuenta();
+        double debitado = retiro.getMonto() + retiro.getComision();
+        return realizarDeposito(cuentaOrigen, debitado, clave)
+            .handle((saldo, errorDevolucion) -> {
+                if (errorDevolucion == null) {
+                    return CompletableFuture.<Void>failedFuture(errorDeposito);
+                }
+                compensacionesFallidas.incrementAndGet();
+                String mensaje = String.format("Transferencia de la cuenta %d a la %d: falló el depósito y no se " +
+                                               "pudo devolver $%.2f a la cuenta origen (clave %d)",
+                                               cuentaOrigen, cuentaDestino, debitado, clave);
+                System.err.println("ALERTA: " + mensaje + ": " + errorDevolucion);
+                CompensacionFallidaException alerta =
+                    new CompensacionFallidaException(mensaje, cuentaOrigen, debitado, errorDevolucion);
+                alerta.addSuppressed(errorDeposito);
+                return CompletableFuture.<Void>failedFuture(alerta);
+            })
+            .thenCompose(resultado -> resultado);
+    }
+
+    /**
+     * Envía una operación al hilo de la partición dueña de la cuenta.
+     */
+    private <T> CompletableFuture<T> enviar(int numeroCuenta, Operacion<T> operacion) {
+        Particion particion = particiones[particionDe(numeroCuenta)];
+        CompletableFuture<T> futuro = new CompletableFuture<>();
+
+        try {
+            particion.hilo.execute(() -> {
+                try {
+                    futuro.complete(operacion.ejecutar(particion.controlador));
+                } catch (Exception e) {
+                    futuro.completeExceptionally(e);
+                } finally {
+                    particion.operacionesProcesadas.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            futuro.completeExceptionally(e);
+        }
+        return futuro;
+    }
+
+    // ==================== MÉTRICAS ====================
+
+    public int getCantidadParticiones() {
+        return particiones.length;
+    }
+
+    /**
+     * Operaciones en espera en la cola de una partición.
+     *
+     * @param particion Índice de la partición
+     * @return Profundidad actual de la cola
+     */
+    public int getProfundidadCola(int particion) {
+        return particiones[particion].hilo.getQueue().size();
+    }
+
+    /**
+     * Transferencias entre particiones cuyo depósito falló y cuya devolución a
+     * la cuenta origen también falló (el dinero hay que devolverlo a mano).
+     */
+    public long getCompensacionesFallidas() {
+        return compensacionesFallidas.get();
+    }
+
+    /**
+     * Operaciones ya ejecutadas por una partición (exitosas o no).
+     *
+     * @param particion Índice de la partición
+     * @return Total de operaciones procesadas
+     */
+    public long getOperacionesProcesadas(int particion) {
+        return particiones[particion].operacionesProcesadas.get();
+    }
+
+    /**
+     * Detiene los hilos de las particiones después de ejecutar las operaciones
+     * pendientes, incluidos los pasos que faltan de las transferencias en curso.
+     */
+    @Override
+    public void close() {
+        long limite = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+        try {
+            while (transferenciasEnCurso.get() > 0 && System.currentTimeMillis() < limite) {
+                Thread.sleep(1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        coordinador.shutdown();
+        for (Particion particion : particiones) {
+            particion.hilo.shutdown();
+        }
+        for (Particion particion : particiones) {
+            try {
+                particion.hilo.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package Controller;
+
+/**
+ * Resultado de evaluar una regla sobre un retiro (ver ReglaRetiro).
+ * 
+ * @author Andres
+ * @version 1.0
+ */
+public enum DecisionRegla {
+    /** El retiro no tiene nada sospechoso para esta regla. */
+    PERMITIR,
+    /** El retiro se aplica, pero el resultado lleva una alerta con el nombre de la regla. */
+    MARCAR,
+    /** El retiro no se aplica: se lanza OperacionInvalidaException. */
+    BLOQUEAR
+}
\ No newline at end of file
@@ -0,0 +1,754 @@
+package Controller;
+
+import Excepciones.OperacionInvalidaException;
+import Excepciones.SaldoInsuficienteException;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enrutador del clúster: envía cada operación al nodo (NodoBanco) dueño de la
+ * cuenta y coordina las transferencias entre cuentas de nodos distintos.
+ *
+ * Se usa como biblioteca (métodos realizarDeposito(), realizarTransferencia(),
+ * ...) o como proceso intermedio con atender(), que recibe las mismas líneas
+ * que un nodo y las reenvía. Mantiene unas pocas conexiones abiertas por nodo
+ * y las reutiliza.
+ *
+ * Las transferencias entre nodos se hacen en dos fases (ver ProtocoloCluster):
+ * 1. Votos: primero el destino (PREPARAR_DEPOSITO, no cambia nada) y después
+ *    el origen (PREPARAR_RETIRO, aplica el retiro con la clave tx). Si alguno
+ *    vota que no, la transferencia se aborta sin haber tocado el destino.
+ * 2. Decisión: con los dos votos a favor la transferencia está hecha y se
+ *    confirma el depósito en el destino. Si no se sabe cómo votó el origen
+ *    (se perdió la conexión), se aborta su retiro.
+ * Confirmar y abortar se pueden repetir sin efecto doble, así que si un nodo
+ * no responde el mensaje queda pendiente y se reintenta cada segundo hasta
+ * que llegue (ver getMensajesPendientes()). Los pendientes se guardan en un
+ * archivo cada vez que cambian, y un enrutador nuevo con el mismo archivo
+ * sigue reintentándolos: cerrar o reiniciar el enrutador no los pierde.
+ *
+ * El archivo también guarda las transferencias en curso, con aborto presunto:
+ * antes de pedir el voto del origen se anota el ABORTAR_RETIRO de la
+ * transacción (en memoria no se envía mientras la transferencia sigue), y
+ * antes de la segunda fase se reemplaza, en una sola escritura, por el
+ * CONFIRMAR_DEPOSITO. Si el enrutador se cae en medio, el enrutador nuevo
+ * encuentra cada transacción con su decisión: la que no llegó a decidirse se
+ * aborta en el origen (el destino no cambió nada al votar) y la confirmada
+ * se vuelve a confirmar. Los mensajes ya entregados salen del archivo en la
+ * siguiente escritura; reenviarlos después de reiniciar no tiene efecto.
+ * Si un nodo rechaza un mensaje de la segunda fase (no debería pasar después
+ * de votar), el mensaje tampoco se descarta: se avisa con una ALERTA, se
+ * cuenta en getRechazosSegundaFase() y se sigue reintentando hasta que alguien
+ * corrija el nodo.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class EnrutadorBanco implements AutoCloseable {
+
+    private static final int TIEMPO_CONEXION_MILLIS = 2000;
+    private static final int TIEMPO_RESPUESTA_MILLIS = 10_000;
+    private static final long INTERVALO_REINTENTO_MILLIS = 1000;
+    private static final long ESPERA_CIERRE_MILLIS = 5000;
+
+    /**
+     * Mensaje de la segunda fase que un nodo todavía no recibió.
+     */
+    private static final class MensajePendiente {
+        private final int nodo;
+        private final String linea;
+        private volatile boolean rechazado; // Ya se avisó que el nodo lo rechaza
+        private volatile boolean enCurso;   // Aborto presunto de una transferencia que todavía sigue
+
+        MensajePendiente(int nodo, String linea) {
+            this.nodo = nodo;
+            this.linea = linea;
+        }
+    }
+
+    /**
+     * Conexión abierta con un nodo: una petición y su respuesta a la vez.
+     */
+    private static final class Conexion {
+        private final Socket socket;
+        private final BufferedReader entrada;
+        private final BufferedWriter salida;
+
+        Conexion(InetSocketAddress direccion) throws IOException {
+            socket = new Socket();
+            try {
+                socket.connect(direccion, TIEMPO_CONEXION_MILLIS);
+                socket.setSoTimeout(TIEMPO_RESPUESTA_MILLIS);
+                socket.setTcpNoDelay(true);
+                entrada = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                salida = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        String enviar(String linea) throws IOException {
+            salida.write(linea);
+            salida.newLine();
+            salida.flush();
+            String respuesta = entrada.readLine();
+            if (respuesta == null) {
+                throw new IOException("El nodo cerró la conexión");
+            }
+            return respuesta;
+        }
+
+        void cerrar() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Ya cerrada
+            }
+        }
+    }
+
+    /**
+     * Un nodo del clúster y sus conexiones libres.
+     */
+    private static final class Nodo {
+        private final InetSocketAddress direccion;
+        private final ConcurrentLinkedQueue<Conexion> libres = new ConcurrentLinkedQueue<>();
+
+        Nodo(InetSocketAddress direccion) {
+            this.direccion = direccion;
+        }
+
+        String enviar(String linea) throws IOException {
+            Conexion conexion = libres.poll();
+            if (conexion == null) {
+                conexion = new Conexion(direccion);
+            }
+            try {
+                String respuesta = conexion.enviar(linea);
+                libres.offer(conexion);
+                return respuesta;
+            } catch (IOException e) {
+                // Una conexión que falló no se reutiliza
+                conexion.cerrar();
+                throw new IOException("Nodo " + direccion + " no disponible: " + e.getMessage(), e);
+            }
+        }
+
+        void cerrar() {
+            Conexion conexion;
+            while ((conexion = libres.poll()) != null) {
+                conexion.cerrar();
+            }
+        }
+    }
+
+    private final Nodo[] nodos;
+    private final AtomicLong siguienteTransaccion;
+    private final ConcurrentLinkedQueue<MensajePendiente> pendientes = new ConcurrentLinkedQueue<>();
+    private final File archivoPendientes; // null: los pendientes solo están en memoria
+    private final Object bloqueoArchivoPendientes = new Object();
+    private final Object bloqueoReintentos = new Object();
+    private final ScheduledExecutorService reintentos;
+
+    // Solo en modo proceso intermedio (atender())
+    private ServerSocket servidor;
+    private ExecutorService conexionesClientes;
+    private final Set<Socket> clientes = ConcurrentHashMap.newKeySet();
+
+    // Métricas
+    private final AtomicLong transferenciasEntreNodos = new AtomicLong();
+    private final AtomicLong transferenciasAbortadas = new AtomicLong();
+    private final AtomicLong rechazosSegundaFase = new AtomicLong();
+
+    /**
+     * Constructor de EnrutadorBanco sin archivo de pendientes: al cerrar espera
+     * un poco a que lleguen los mensajes pendientes, y los que no lleguen se pierden.
+     *
+     * @param direcciones Dirección de cada nodo, en el orden de sus particiones
+     */
+    public EnrutadorBanco(List<InetSocketAddress> direcciones) {
+        this(null, direcciones);
+    }
+
+    /**
+     * Constructor de EnrutadorBanco con archivo de pendientes. Si el archivo
+     * existe (de una ejecución anterior), sus mensajes se vuelven a reintentar.
+     *
+     * @param direcciones Dirección de cada nodo, en el orden de sus particiones
+     * @param archivoPendientes Archivo donde se guardan los mensajes pendientes
+     * @throws IOException Si el archivo existe y no se puede leer
+     */
+    public EnrutadorBanco(List<InetSocketAddress> direcciones, File archivoPendientes) throws IOException {
+        this(archivoPendientes, direcciones);
+        cargarPendientes();
+        // Las transferencias que quedaron sin terminar se resuelven enseguida
+        reintentos.execute(this::reintentarPendientes);
+    }
+
+    private EnrutadorBanco(File archivoPendientes, List<InetSocketAddress> direcciones) {
+        if (direcciones.isEmpty()) {
+            throw new IllegalArgumentException("El clúster necesita al menos un nodo");
+        }
+        this.nodos = new Nodo[direcciones.size()];
+        for (int i = 0; i < nodos.length; i++) {
+            nodos[i] = new Nodo(direcciones.get(i));
+        }
+        // Números de transacción positivos y distintos entre ejecuciones del enrutador
+        this.siguienteTransaccion = new AtomicLong(System.currentTimeMillis() << 20);
+        this.archivoPendientes = archivoPendientes;
+        this.reintentos = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread t = new Thread(tarea, "enrutador-reintentos");
+            t.setDaemon(true);
+            return t;
+        });
+        reintentos.scheduleWithFixedDelay(this::reintentarPendientes, INTERVALO_REINTENTO_MILLIS,
+                                          INTERVALO_REINTENTO_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Nodos en el mismo equipo, uno por puerto.
+     *
+     * @param puertos Puerto de cada nodo, en el orden de sus particiones
+     * @return Direcciones en la interfaz local (loopback)
+     */
+    public static List<InetSocketAddress> direccionesLocales(int... puertos) {
+        List<InetSocketAddress> direcciones = new ArrayList<>();
+        for (int puerto : puertos) {
+            direcciones.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto));
+        }
+        return direcciones;
+    }
+
+    /**
+     * Partición (nodo) dueña de una cuenta. Es la misma función de reparto que
+     * usa ControladorParticionado dentro de un proceso.
+     *
+     * @param numeroCuenta Número de cuenta
+     * @param cantidadParticiones Total de particiones
+     * @return Índice de la partición (0..cantidadParticiones-1)
+     */
+    public static int particionDe(int numeroCuenta, int cantidadParticiones) {
+        // Mezclar los bits para que números de cuenta consecutivos se repartan bien
+        int h = numeroCuenta * 0x9E3779B9;
+        h ^= (h >>> 16);
+        return Math.floorMod(h, cantidadParticiones);
+    }
+
+    // ==================== OPERACIONES ====================
+
+    /**
+     * Registra una cuenta en su nodo.
+     *
+     * @param lineaCuenta Cuenta en el formato del modo por lotes
+     *                    (por ejemplo "AHORROS;titular;saldo;numero;tasa;periodicidad;retiros")
+     * @return Saldo inicial de la cuenta
+     */
+    public double registrarCuenta(String lineaCuenta)
+            throws SaldoInsuficienteException, OperacionInvalidaException, IOException {
+        return Double.parseDouble(ejecutar(lineaCuenta)[0]);
+    }
+
+    public double realizarDeposito(int numeroCuenta, double monto, long claveIdempotencia)
+            throws SaldoInsuficienteException, OperacionInvalidaException, IOException {
+        return saldo(numeroCuenta, ProtocoloCluster.linea("DEPOSITO", numeroCuenta, monto, claveIdempotencia));
+    }
+
+    public double realizarRetiro(int numeroCuenta, double monto, long claveIdempotencia)
+            throws SaldoInsuficienteException, OperacionInvalidaException, IOException {
+        return saldo(numeroCuenta, ProtocoloCluster.linea("RETIRO", numeroCuenta, monto, claveIdempotencia));
+    }
+
+    public double calcularIntereses(int numeroCuenta)
+            throws SaldoInsuficienteException, OperacionInvalidaException, IOException {
+        return saldo(numeroCuenta, ProtocoloCluster.linea("INTERESES", numeroCuenta));
+    }
+
+    public double consultarSaldo(int numeroCuenta)
+            throws SaldoInsuficienteException, OperacionInvalidaException, IOException {
+        return saldo(numeroCuenta, ProtocoloCluster.linea("SALDO", numeroCuenta));
+    }
+
+    /**
+     * Transfiere dinero entre dos cuentas. Si están en el mismo nodo la
+     * transferencia la hace ese nodo; si no, se coordina en dos fases.
+     *
+     * @return Saldo de la cuenta origen después del retiro
+     * @throws SaldoInsuficienteException Si la cuenta origen votó que no por saldo
+     * @throws OperacionInvalidaException Si alguna cuenta no existe o la operación es inválida
+     * @throws IOException Si no se pudo completar la primera fase con algún nodo
+     *                     o guardar la transacción en el archivo de pendientes
+     *                     (la transferencia queda abortada)
+     */
+    public double realizarTransferencia(int cuentaOrigen, int cuentaDestino, double monto)
+            throws SaldoInsuficienteException, OperacionInvalidaException, IOException {
+        int nodoOrigen = particionDe(cuentaOrigen, nodos.length);
+        int nodoDestino = particionDe(cuentaDestino, nodos.length);
+        if (nodoOrigen == nodoDestino) {
+            return saldo(cuentaOrigen, ProtocoloCluster.linea("TRANSFERENCIA", cuentaOrigen, cuentaDestino, monto));
+        }
+
+        transferenciasEntreNodos.incrementAndGet();
+        long tx = siguienteTransaccion.incrementAndGet();
+
+        // Fase 1: votos. Si el destino vota que no, no hay nada que deshacer
+        enviarA(nodoDestino, ProtocoloCluster.linea(ProtocoloCluster.PREPARAR_DEPOSITO, tx, cuentaDestino, monto));
+
+        // Antes de que el origen retire, la transacción queda en el archivo con el aborto presunto
+        MensajePendiente aborto = new MensajePendiente(nodoOrigen,
+            ProtocoloCluster.linea(ProtocoloCluster.ABORTAR_RETIRO, tx, cuentaOrigen, monto));
+        aborto.enCurso = true;
+        try {
+            cambiarPendientes(null, aborto);
+        } catch (IOException e) {
+            transferenciasAbortadas.incrementAndGet();
+            throw new IOException("No se pudo guardar la transferencia " + tx + ": " + e.getMessage(), e);
+        }
+
+        double saldoOrigen;
+        try {
+            saldoOrigen = Double.parseDouble(enviarA(nodoOrigen,
+                ProtocoloCluster.linea(ProtocoloCluster.PREPARAR_RETIRO, tx, cuentaOrigen, monto))[0]);
+        } catch (IOException e) {
+            // No se sabe si el retiro se aplicó: abortarlo (si no se aplicó, no hace nada)
+            transferenciasAbortadas.incrementAndGet();
+            entregarAnotado(aborto);
+            throw e;
+        } catch (SaldoInsuficienteException | OperacionInvalidaException e) {
+            // El origen votó que no y ya dejó la transacción abortada
+            transferenciasAbortadas.incrementAndGet();
+            pendientes.remove(aborto);
+            throw e;
+        }
+
+        // Fase 2: los dos votaron que sí. La decisión queda en el archivo antes de enviarla
+        MensajePendiente confirmacion = new MensajePendiente(nodoDestino,
+            ProtocoloCluster.linea(ProtocoloCluster.CONFIRMAR_DEPOSITO, tx, cuentaDestino, monto));
+        try {
+            cambiarPendientes(aborto, confirmacion);
+        } catch (IOException e) {
+            // En el archivo sigue el aborto presunto: la decisión tiene que ser esa
+            transferenciasAbortadas.incrementAndGet();
+            entregarAnotado(aborto);
+            throw new IOException("No se pudo guardar la decisión de la transferencia " + tx + ": " +
+                                  e.getMessage(), e);
+        }
+        entregarAnotado(confirmacion);
+        return saldoOrigen;
+    }
+
+    /**
+     * Cantidad de cuentas y suma de saldos de todo el clúster.
+     *
+     * @return { cuentas, saldo total }
+     */
+    public double[] resumen() throws SaldoInsuficienteException, OperacionInvalidaException, IOException {
+        double[] total = new double[2];
+        for (int i = 0; i < nodos.length; i++) {
+            String[] valores = enviarA(i, ProtocoloCluster.RESUMEN);
+            total[0] += Double.parseDouble(valores[0]);
+            total[1] += Double.parseDouble(valores[1]);
+        }
+        return total;
+    }
+
+    /**
+     * Concilia el archivo de transacciones de cada nodo con sus cuentas.
+     *
+     * @return Discrepancias encontradas por cada nodo
+     */
+    public long[] verificarNodos() throws SaldoInsuficienteException, OperacionInvalidaException, IOException {
+        long[] discrepancias = new long[nodos.length];
+        for (int i = 0; i < nodos.length; i++) {
+            discrepancias[i] = Long.parseLong(enviarA(i, ProtocoloCluster.VERIFICAR)[1]);
+        }
+        return discrepancias;
+    }
+
+    // ==================== ENVÍO ====================
+
+    /**
+     * Ejecuta una línea de comando en el nodo que corresponde y devuelve los
+     * valores de la respuesta. Las transferencias entre nodos se coordinan aquí.
+     */
+    private String[] ejecutar(String linea)
+            throws SaldoInsuficienteException, OperacionInvalidaException, IOException {
+        String[] campos = linea.trim().split(ProtocoloCluster.SEPARADOR, -1);
+        String comando = campos[0].toUpperCase(Locale.ROOT);
+        try {
+            switch (comando) {
+                case "AHORROS":
+                case "CORRIENTE":
+                case "EMPRESARIAL":
+                    requerirCampos(campos, 4);
+                    return enviarA(particionDe(Integer.parseInt(campos[3].trim()), nodos.length), linea);
+                case "DEPOSITO":
+                case "RETIRO":
+                case "INTERESES":
+                case "SALDO":
+                    requerirCampos(campos, 2);
+                    return enviarA(particionDe(Integer.parseInt(campos[1].trim()), nodos.length), linea);
+                case "TRANSFERENCIA":
+                    requerirCampos(campos, 4);
+                    return new String[] { String.valueOf(realizarTransferencia(
+                        Integer.parseInt(campos[1].trim()), Integer.parseInt(campos[2].trim()),
+                        Double.parseDouble(campos[3].trim()))) };
+                case ProtocoloCluster.RESUMEN: {
+                    double[] total = resumen();
+                    return new String[] { String.valueOf((long) total[0]), String.valueOf(total[1]) };
+                }
+                default:
+                    throw new OperacionInvalidaException("Comando desconocido: " + campos[0]);
+            }
+        } catch (NumberFormatException e) {
+            throw new OperacionInvalidaException("Número inválido en: " + linea, e);
+        }
+    }
+
+    private double saldo(int numeroCuenta, String linea)
+            throws SaldoInsuficienteException, OperacionInvalidaException, IOException {
+        return Double.parseDouble(enviarA(particionDe(numeroCuenta, nodos.length), linea)[0]);
+    }
+
+    private String[] enviarA(int nodo, String linea)
+            throws SaldoInsuficienteException, OperacionInvalidaException, IOException {
+        return ProtocoloCluster.leerRespuesta(nodos[nodo].enviar(linea));
+    }
+
+    /**
+     * Envía un mensaje de la segunda fase. Si el nodo no responde queda pendiente.
+     */
+    private void entregar(int nodo, String linea) {
+        MensajePendiente mensaje = new MensajePendiente(nodo, linea);
+        if (!intentarEntrega(mensaje)) {
+            pendientes.add(mensaje);
+            guardarPendientes();
+        }
+    }
+
+    /**
+     * Envía un mensaje de la segunda fase que ya está en la lista (y en el
+     * archivo). Si llega sale de la lista; el archivo se actualiza en la
+     * siguiente escritura.
+     */
+    private void entregarAnotado(MensajePendiente mensaje) {
+        mensaje.enCurso = false;
+        if (intentarEntrega(mensaje)) {
+            pendientes.remove(mensaje);
+        }
+    }
+
+    /**
+     * Envía un mensaje de la segunda fase una vez.
+     *
+     * @return false si el nodo no respondió o lo rechazó (hay que reintentar)
+     */
+    private boolean intentarEntrega(MensajePendiente mensaje) {
+        try {
+            enviarA(mensaje.nodo, mensaje.linea);
+            return true;
+        } catch (IOException e) {
+            return false;
+        } catch (SaldoInsuficienteException | OperacionInvalidaException e) {
+            // La decisión ya está tomada: descartarla dejaría el dinero a medio camino
+            if (!mensaje.rechazado) {
+                mensaje.rechazado = true;
+                rechazosSegundaFase.incrementAndGet();
+                System.err.println("ALERTA: Enrutador: el nodo " + mensaje.nodo + " rechazó \"" + mensaje.linea +
+                                   "\": " + e.getMessage() + ". Se seguirá reintentando.");
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Reintenta los mensajes de la segunda fase que no llegaron. Un mensaje
+     * sale de la lista (y del archivo) solo después de llegar a su nodo. Los
+     * reintentos se hacen de a uno: el hilo de fondo y quien llame a este
+     * método no envían el mismo mensaje a la vez.
+     *
+     * @return Mensajes que siguen pendientes
+     */
+    public int reintentarPendientes() {
+        synchronized (bloqueoReintentos) {
+            boolean entregados = false;
+            for (MensajePendiente mensaje : pendientes) {
+                if (mensaje.enCurso) {
+                    continue; // Lo envía la transferencia, si termina abortada
+                }
+                if (intentarEntrega(mensaje)) {
+                    pendientes.remove(mensaje);
+                    entregados = true;
+                }
+            }
+            if (entregados) {
+                guardarPendientes();
+            }
+            return getMensajesPendientes();
+        }
+    }
+
+    /**
+     * Reemplaza el archivo de pendientes por la lista actual. Cada cambio de la
+     * lista termina con una llamada, así que la última escritura tiene el último estado.
+     */
+    private void guardarPendientes() {
+        synchronized (bloqueoArchivoPendientes) {
+            try {
+                escribirPendientes();
+            } catch (IOException e) {
+                System.err.println("Enrutador: no se pudieron guardar los mensajes pendientes: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Quita un mensaje de la lista y agrega otro en la misma escritura del
+     * archivo: ninguna escritura intermedia guarda la lista sin los dos. Si
+     * no se puede escribir, la lista queda como estaba.
+     *
+     * @param anterior Mensaje a quitar (null si no hay)
+     * @param nuevo Mensaje a agregar
+     * @throws IOException Si no se pudo escribir el archivo
+     */
+    private void cambiarPendientes(MensajePendiente anterior, MensajePendiente nuevo) throws IOException {
+        synchronized (bloqueoArchivoPendientes) {
+            if (anterior != null) {
+                pendientes.remove(anterior);
+            }
+            pendientes.add(nuevo);
+            try {
+                escribirPendientes();
+            } catch (IOException e) {
+                pendientes.remove(nuevo);
+                if (anterior != null) {
+                    pendientes.add(anterior);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Escribe la lista en un archivo temporal y lo mueve sobre el de
+     * pendientes. Se llama con bloqueoArchivoPendientes tomado.
+     */
+    private void escribirPendientes() throws IOException {
+        if (archivoPendientes == null) {
+            return;
+        }
+        File temporal = new File(archivoPendientes.getPath() + ".tmp");
+        try (BufferedWriter escritor = new BufferedWriter(
+                 new OutputStreamWriter(new FileOutputStream(temporal), StandardCharsets.UTF_8))) {
+            for (MensajePendiente mensaje : pendientes) {
+                escritor.write(mensaje.nodo + ProtocoloCluster.SEPARADOR + mensaje.linea);
+                escritor.newLine();
+            }
+        }
+        Files.move(temporal.toPath(), archivoPendientes.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Agrega a la lista los mensajes pendientes de una ejecución anterior.
+     */
+    private void cargarPendientes() throws IOException {
+        if (!archivoPendientes.exists()) {
+            return;
+        }
+        for (String linea : Files.readAllLines(archivoPendientes.toPath(), StandardCharsets.UTF_8)) {
+            if (linea.isBlank()) {
+                continue;
+            }
+            String[] campos = linea.split(ProtocoloCluster.SEPARADOR, 2);
+            try {
+                int nodo = Integer.parseInt(campos[0]);
+                if (nodo < 0 || nodo >= nodos.length || campos.length < 2) {
+                    throw new IOException("Mensaje pendiente inválido en " + archivoPendientes + ": " + linea);
+                }
+                pendientes.add(new MensajePendiente(nodo, campos[1]));
+            } catch (NumberFormatException e) {
+                throw new IOException("Mensaje pendiente inválido en " + archivoPendientes + ": " + linea, e);
+            }
+        }
+    }
+
+    private static void requerirCampos(String[] campos, int cantidad) throws OperacionInvalidaException {
+        if (campos.length < cantidad) {
+            throw new OperacionInvalidaException("Se esperaban " + cantidad + " campos en " + campos[0]);
+        }
+    }
+
+    // ==================== PROCESO INTERMEDIO ====================
+
+    /**
+     * Atiende clientes en un puerto local: cada línea recibida se ejecuta en
+     * el clúster y se responde con una línea, igual que un nodo.
+     *
+     * @param puerto Puerto local en el que escucha
+     * @throws IOException Si no se puede abrir el puerto
+     */
+    public synchronized void atender(int puerto) throws IOException {
+        if (servidor != null) {
+            throw new IllegalStateException("El enrutador ya está atendiendo en el puerto " + servidor.getLocalPort());
+        }
+        servidor = new ServerSocket(puerto, 128, InetAddress.getLoopbackAddress());
+        conexionesClientes = Executors.newCachedThreadPool(tarea -> {
+            Thread t = new Thread(tarea, "enrutador-conexion");
+            t.setDaemon(true);
+            return t;
+        });
+        ServerSocket aceptador = servidor;
+        Thread hilo = new Thread(() -> {
+            while (!aceptador.isClosed()) {
+                try {
+                    Socket socket = aceptador.accept();
+                    conexionesClientes.execute(() -> atenderCliente(socket));
+                } catch (IOException e) {
+                    // Servidor cerrado
+                }
+            }
+        }, "enrutador");
+        hilo.start();
+    }
+
+    private void atenderCliente(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader entrada = new BufferedReader(
+                 new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter salida = new BufferedWriter(
+                 new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+            clientes.add(s);
+            s.setTcpNoDelay(true);
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                String respuesta;
+                try {
+                    respuesta = ProtocoloCluster.respuestaOk((Object[]) ejecutar(linea));
+                } catch (Exception e) {
+                    respuesta = ProtocoloCluster.respuestaError(e);
+                }
+                salida.write(respuesta);
+                salida.newLine();
+                salida.flush();
+            }
+        } catch (SocketException e) {
+            // Conexión cerrada por el cliente o al cerrar el enrutador
+        } catch (IOException e) {
+            System.err.println("Enrutador: error en la conexión: " + e.getMessage());
+        } finally {
+            clientes.remove(socket);
+        }
+    }
+
+    private void vaciarPendientes() {
+        long limite = System.currentTimeMillis() + (archivoPendientes == null ? ESPERA_CIERRE_MILLIS : 0);
+        try {
+            while (reintentarPendientes() > 0 && System.currentTimeMillis() < limite) {
+                Thread.sleep(INTERVALO_REINTENTO_MILLIS / 10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (archivoPendientes == null && getMensajesPendientes() > 0) {
+            System.err.println("Enrutador: se cierra con " + getMensajesPendientes() + " mensajes sin entregar");
+        }
+    }
+
+    // ==================== MÉTRICAS ====================
+
+    public int getCantidadNodos() {
+        return nodos.length;
+    }
+
+    /**
+     * Mensajes de la segunda fase (confirmar o abortar) que aún no llegaron a su nodo.
+     */
+    public int getMensajesPendientes() {
+        int cantidad = 0;
+        for (MensajePendiente mensaje : pendientes) {
+            if (!mensaje.enCurso) {
+                cantidad++;
+            }
+        }
+        return cantidad;
+    }
+
+    public long getTransferenciasEntreNodos() {
+        return transferenciasEntreNodos.get();
+    }
+
+    public long getTransferenciasAbortadas() {
+        return transferenciasAbortadas.get();
+    }
+
+    /**
+     * Mensajes de la segunda fase que algún nodo rechazó (cada uno se cuenta
+     * una vez, aunque se siga reintentando). Debería ser 0: si no, hay una
+     * transferencia a medias que necesita revisión.
+     */
+    public long getRechazosSegundaFase() {
+        return rechazosSegundaFase.get();
+    }
+
+    /**
+     * Deja de atender clientes, intenta entregar los mensajes pendientes y
+     * cierra las conexiones con los nodos. Con archivo de pendientes se hace
+     * un último intento y lo que no llegue queda en el archivo; sin archivo se
+     * reintenta hasta ESPERA_CIERRE_MILLIS y se avisa si algo se pierde.
+     */
+    @Override
+    public synchronized void close() {
+        reintentos.shutdownNow();
+        try {
+            // Después de cerrar no sale ningún mensaje de un reintento de fondo
+            reintentos.awaitTermination(ESPERA_CIERRE_MILLIS + TIEMPO_RESPUESTA_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (servidor != null) {
+            try {
+                servidor.close();
+            } catch (IOException e) {
+                // Ya cerrado
+            }
+            for (Socket socket : clientes) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // Ya cerrado
+                }
+            }
+            conexionesClientes.shutdownNow();
+        }
+        vaciarPendientes();
+        guardarPendientes(); // Sin los mensajes entregados que aún estaban en el archivo
+        for (Nodo nodo : nodos) {
+            nodo.cerrar();
+        }
+    }
+}
\ No newline at end of file
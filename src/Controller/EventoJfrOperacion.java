@@ -0,0 +1,131 @@
+package Controller;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento de Java Flight Recorder para una operación bancaria (depósito,
+ * retiro, intereses o transferencia), con el tiempo repartido en sus fases.
+ *
+ * Con el evento desactivado (sin grabación, o deshabilitado en la
+ * configuración) los métodos no toman el tiempo ni registran nada: solo
+ * comprueban una marca, así que casi no cuesta nada dejarlos en el código.
+ *
+ * Uso en ControladorBancario:
+ *   iniciar() -> finValidacion() -> finCambio() -> finPersistencia() -> terminar(resultado)
+ *
+ * @author Andres
+ * @version 1.0
+ */
+@Name("banco.Operacion")
+@Label("Operación bancaria")
+@Category({ "Banco", "Operaciones" })
+@Description("Depósito, retiro, intereses o transferencia, con el tiempo de cada fase")
+@StackTrace(false)
+public class EventoJfrOperacion extends Event {
+
+    // Resultados posibles
+    public static final String OK = "OK";
+    public static final String REPETIDA = "REPETIDA";
+    public static final String SALDO_INSUFICIENTE = "SALDO_INSUFICIENTE";
+    public static final String INVALIDA = "INVALIDA";
+    public static final String BLOQUEADA = "BLOQUEADA";
+
+    @Label("Tipo")
+    private String tipo;
+
+    @Label("Cuenta")
+    private int numeroCuenta;
+
+    @Label("Cuenta destino")
+    @Description("Solo en transferencias")
+    private int cuentaDestino;
+
+    @Label("Monto")
+    private double monto;
+
+    @Label("Resultado")
+    private String resultado;
+
+    @Label("Validación")
+    @Description("Búsqueda de la cuenta, bloqueos, idempotencia e instantáneas")
+    @Timespan(Timespan.NANOSECONDS)
+    private long validacion;
+
+    @Label("Cambio de estado")
+    @Description("Reglas de la política y cambio del saldo")
+    @Timespan(Timespan.NANOSECONDS)
+    private long cambioEstado;
+
+    @Label("Persistencia")
+    @Description("Escritura en el archivo de transacciones y publicación del evento")
+    @Timespan(Timespan.NANOSECONDS)
+    private long persistencia;
+
+    // Marca de tiempo del fin de la fase anterior (0 si el evento está desactivado)
+    private transient long marca;
+
+    /**
+     * Empieza a medir la operación si el evento está activo.
+     */
+    void iniciar(String tipo, int numeroCuenta, int cuentaDestino, double monto) {
+        if (!isEnabled()) {
+            return;
+        }
+        begin();
+        this.tipo = tipo;
+        this.numeroCuenta = numeroCuenta;
+        this.cuentaDestino = cuentaDestino;
+        this.monto = monto;
+        this.marca = System.nanoTime();
+    }
+
+    /**
+     * Monto conocido después de iniciar (los intereses se calculan durante la operación).
+     */
+    void setMonto(double monto) {
+        this.monto = monto;
+    }
+
+    void finValidacion() {
+        if (marca != 0) {
+            long ahora = System.nanoTime();
+            validacion += ahora - marca;
+            marca = ahora;
+        }
+    }
+
+    void finCambio() {
+        if (marca != 0) {
+            long ahora = System.nanoTime();
+            cambioEstado += ahora - marca;
+            marca = ahora;
+        }
+    }
+
+    void finPersistencia() {
+        if (marca != 0) {
+            long ahora = System.nanoTime();
+            persistencia += ahora - marca;
+            marca = ahora;
+        }
+    }
+
+    /**
+     * Termina la medición y registra el evento (si supera el umbral configurado).
+     *
+     * @param resultado OK, REPETIDA, SALDO_INSUFICIENTE o INVALIDA
+     */
+    void terminar(String resultado) {
+        if (marca != 0) {
+            this.resultado = resultado;
+            marca = 0;
+            commit();
+        }
+    }
+}
\ No newline at end of file
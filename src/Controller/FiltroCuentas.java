@@ -0,0 +1,39 @@
+package Controller;
+
+import Model.*;
+
+/**
+ * Filtros disponibles para el listado paginado de cuentas.
+ * 
+ * @author Andres
+ * @version 1.0
+ */
+public enum FiltroCuentas {
+    TODAS,
+    AHORROS,
+    CORRIENTE,
+    EMPRESARIAL,
+    EN_SOBREGIRO;
+    
+    /**
+     * Indica si una cuenta cumple el filtro.
+     * 
+     * @param cuenta Cuenta a evaluar
+     * @return true si la cuenta debe aparecer en el listado
+     */
+    public boolean acepta(CuentaBancaria cuenta) {
+        switch (this) {
+            case AHORROS:
+                return cuenta instanceof CuentaAhorros;
+            case CORRIENTE:
+                return cuenta instanceof CuentaCorriente;
+            case EMPRESARIAL:
+                return cuenta instanceof CuentaEmpresarial;
+            case EN_SOBREGIRO:
+                // Solo las cuentas corrientes pueden quedar con saldo negativo
+                return cuenta.getSaldo() < 0;
+            default:
+                return true;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package Controller;
+
+import Model.CuentaBancaria;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Vista consistente de todas las cuentas en un momento dado, para reportes.
+ *
+ * No copia las cuentas al crearse: mientras la instantánea está abierta, la
+ * primera escritura sobre cada cuenta guarda antes una copia de su estado
+ * (copia en escritura). Al recorrerla, las cuentas modificadas se leen de esa
+ * copia y las demás directamente, con el bloqueo de la cuenta tomado para que
+ * ninguna escritura quede a medias.
+ *
+ * Las instantáneas se crean con ControladorBancario.crearInstantanea() y deben
+ * cerrarse al terminar el reporte, para que las escrituras dejen de copiar.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class InstantaneaCuentas implements AutoCloseable {
+
+    private final ControladorBancario controlador;
+    private final NavigableMap<Integer, CuentaBancaria> cuentas;
+    private final long posicionRegistro;
+    private final LocalDateTime fechaCreacion;
+
+    // Estado anterior de las cuentas modificadas después de crear la instantánea
+    private final Map<Integer, CuentaBancaria> copias = new ConcurrentHashMap<>();
+    // Cuentas registradas después de crear la instantánea (no forman parte de ella)
+    private final Set<Integer> registradasDespues = ConcurrentHashMap.newKeySet();
+    private volatile boolean cerrada;
+
+    InstantaneaCuentas(ControladorBancario controlador, NavigableMap<Integer, CuentaBancaria> cuentas,
+                       long posicionRegistro) {
+        this.controlador = controlador;
+        this.cuentas = cuentas;
+        this.posicionRegistro = posicionRegistro;
+        this.fechaCreacion = LocalDateTime.now();
+    }
+
+    /**
+     * Guarda el estado de una cuenta antes de su primera escritura.
+     * Se llama con el bloqueo de la cuenta tomado.
+     */
+    void capturar(CuentaBancaria cuenta) {
+        if (!copias.containsKey(cuenta.getNumeroCuenta())) {
+            copias.put(cuenta.getNumeroCuenta(), cuenta.copiar());
+        }
+    }
+
+    /**
+     * Marca una cuenta registrada después de crear la instantánea.
+     */
+    void excluir(int numeroCuenta) {
+        registradasDespues.add(numeroCuenta);
+    }
+
+    /**
+     * Recorre las cuentas de la instantánea en orden de número de cuenta.
+     * El consumidor no debe guardar la cuenta recibida ni modificarla: puede ser
+     * la cuenta en uso, y mientras se procesa sus escrituras esperan.
+     *
+     * @param consumidor Recibe cada cuenta con su estado al crear la instantánea
+     */
+    public void recorrer(Consumer<CuentaBancaria> consumidor) {
+        if (cerrada) {
+            throw new IllegalStateException("La instantánea está cerrada");
+        }
+        for (CuentaBancaria cuenta : cuentas.values()) {
+            int numeroCuenta = cuenta.getNumeroCuenta();
+            if (registradasDespues.contains(numeroCuenta)) {
+                continue;
+            }
+            synchronized (cuenta) {
+                CuentaBancaria copia = copias.get(numeroCuenta);
+                consumidor.accept(copia != null ? copia : cuenta);
+            }
+        }
+    }
+
+    /**
+     * Posición del archivo de transacciones al crear la instantánea: los
+     * registros anteriores a ella son exactamente los incluidos en la vista.
+     *
+     * @return Longitud del archivo en bytes al crear la instantánea
+     */
+    public long getPosicionRegistro() {
+        return posicionRegistro;
+    }
+
+    public LocalDateTime getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    /**
+     * Cantidad de cuentas copiadas por escrituras posteriores a la instantánea.
+     *
+     * @return Cuentas copiadas hasta ahora
+     */
+    public int getCuentasCopiadas() {
+        return copias.size();
+    }
+
+    /**
+     * Cierra la instantánea: las escrituras dejan de copiar cuentas para ella.
+     */
+    @Override
+    public void close() {
+        if (!cerrada) {
+            cerrada = true;
+            controlador.cerrarInstantanea(this);
+            copias.clear();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,547 @@
+package Controller;
+
+import Excepciones.OperacionInvalidaException;
+import Excepciones.SaldoInsuficienteException;
+import Model.CuentaBancaria;
+import Model.FabricaCuentas;
+import Model.PersistenciaBancaria;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Nodo del clúster: un proceso que atiende por socket las cuentas de una partición.
+ *
+ * Cada nodo tiene su propio ControladorBancario y su propio archivo de
+ * transacciones (ver PersistenciaBancaria.PROPIEDAD_ARCHIVO) y solo acepta
+ * cuentas cuya partición (EnrutadorBanco.particionDe()) sea la suya. Escucha
+ * únicamente en la interfaz local (loopback) y atiende cada conexión en su
+ * propio hilo, con una línea de petición y una de respuesta por comando (ver
+ * ProtocoloCluster).
+ *
+ * En las transferencias entre nodos participa en las dos fases:
+ * - Como destino, al prepararse solo comprueba que la cuenta exista y el monto
+ *   sea válido: un depósito así no puede fallar después, así que el voto se
+ *   cumple al confirmar (el depósito usa la clave tx y se aplica una sola vez).
+ * - Como origen, al prepararse aplica el retiro con la clave tx y anota lo
+ *   debitado. Si la transferencia se aborta, devuelve exactamente eso con un
+ *   depósito de clave -tx. Si el aborto llega antes que la preparación, la
+ *   transacción queda abortada y la preparación que llegue tarde se rechaza.
+ * El estado de cada transacción se guarda en RegistroDosFases (archivo de
+ * transacciones + ".dosfases"), que no descarta nada, así que los reintentos
+ * del enrutador se reconocen aunque pasen días o el nodo se reinicie.
+ *
+ * Las cuentas se guardan en CSV (archivo de transacciones + ".cuentas") cada
+ * vez que se registra una y al cerrar el nodo. Al iniciar, si ese archivo
+ * existe, el nodo se recupera con ControladorBancario.recuperar(): las cuentas
+ * del CSV con el saldo que dejó su archivo de transacciones. Así los
+ * CONFIRMAR_DEPOSITO y ABORTAR_RETIRO que llegan después de reiniciar
+ * encuentran la cuenta y su saldo.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class NodoBanco implements AutoCloseable {
+
+    // Bloqueos por transacción: preparar y abortar la misma tx no se cruzan
+    private static final int BLOQUEOS_TRANSACCION = 64;
+
+    private final int indice;
+    private final int cantidadNodos;
+    private final ControladorBancario controlador;
+    private final File archivoCuentas;
+    private final Object bloqueoArchivoCuentas = new Object();
+    private final RegistroDosFases dosFases;
+    private final ServerSocket servidor;
+    private final ExecutorService conexiones;
+    private final Set<Socket> abiertas = ConcurrentHashMap.newKeySet();
+    private final Object[] bloqueosTransaccion = new Object[BLOQUEOS_TRANSACCION];
+    private final AtomicLong comandosAtendidos = new AtomicLong();
+    private Thread hiloAceptador;
+
+    /**
+     * Constructor de NodoBanco. Recupera las cuentas guardadas por una ejecución
+     * anterior, si las hay, y abre el puerto, pero no atiende hasta iniciar().
+     *
+     * @param indice Partición de este nodo (0..cantidadNodos-1)
+     * @param cantidadNodos Total de nodos del clúster
+     * @param puerto Puerto local en el que escucha (0 = cualquiera libre)
+     * @throws IOException Si no se puede abrir el puerto o leer las cuentas guardadas,
+     *                     el archivo de transacciones o el registro de dos fases
+     */
+    public NodoBanco(int indice, int cantidadNodos, int puerto) throws IOException {
+        if (cantidadNodos <= 0 || indice < 0 || indice >= cantidadNodos) {
+            throw new IllegalArgumentException("Índice de nodo inválido: " + indice + " de " + cantidadNodos);
+        }
+        this.indice = indice;
+        this.cantidadNodos = cantidadNodos;
+        this.archivoCuentas = new File(PersistenciaBancaria.getRutaArchivo() + ".cuentas");
+        if (archivoCuentas.exists()) {
+            this.controlador = ControladorBancario.recuperar(
+                PersistenciaBancaria.leerCuentasCSV(archivoCuentas.getPath()),
+                Runtime.getRuntime().availableProcessors());
+            System.out.println("Nodo " + indice + ": cuentas recuperadas. " + controlador.getRecuperacion());
+        } else {
+            this.controlador = new ControladorBancario();
+        }
+        this.dosFases = new RegistroDosFases(new File(PersistenciaBancaria.getRutaArchivo() + ".dosfases"));
+        try {
+            this.servidor = new ServerSocket(puerto, 128, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            dosFases.close();
+            throw e;
+        }
+        this.conexiones = Executors.newCachedThreadPool(tarea -> {
+            Thread t = new Thread(tarea, "nodo-" + indice + "-conexion");
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 0; i < BLOQUEOS_TRANSACCION; i++) {
+            bloqueosTransaccion[i] = new Object();
+        }
+    }
+
+    /**
+     * Empieza a aceptar conexiones en un hilo propio.
+     */
+    public synchronized void iniciar() {
+        if (hiloAceptador != null) {
+            return;
+        }
+        hiloAceptador = new Thread(this::aceptar, "nodo-" + indice);
+        hiloAceptador.start();
+    }
+
+    private void aceptar() {
+        while (!servidor.isClosed()) {
+            try {
+                Socket socket = servidor.accept();
+                conexiones.execute(() -> atenderConexion(socket));
+            } catch (IOException e) {
+                // Servidor cerrado
+            }
+        }
+    }
+
+    /**
+     * Atiende los comandos de una conexión hasta que el otro extremo la cierre.
+     */
+    private void atenderConexion(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader entrada = new BufferedReader(
+                 new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter salida = new BufferedWriter(
+                 new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+            abiertas.add(s);
+            s.setTcpNoDelay(true);
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                salida.write(atender(linea));
+                salida.newLine();
+                salida.flush();
+            }
+        } catch (SocketException e) {
+            // Conexión cerrada por el otro extremo o al cerrar el nodo
+        } catch (IOException e) {
+            System.err.println("Nodo " + indice + ": error en la conexión: " + e.getMessage());
+        } finally {
+            abiertas.remove(socket);
+        }
+    }
+
+    /**
+     * Ejecuta un comando y devuelve la línea de respuesta.
+     *
+     * @param linea Comando con los campos separados por ';'
+     * @return "OK;..." o "ERROR;tipo;mensaje"
+     */
+    public String atender(String linea) {
+        comandosAtendidos.incrementAndGet();
+        String[] campos = linea.trim().split(ProtocoloCluster.SEPARADOR, -1);
+        try {
+            return ejecutar(campos);
+        } catch (Exception e) {
+            // NumberFormatException es una IllegalArgumentException: también es INVALIDA
+            return ProtocoloCluster.respuestaError(e);
+        }
+    }
+
+    private String ejecutar(String[] campos) throws Exception {
+        String comando = campos[0].toUpperCase(Locale.ROOT);
+        if (FabricaCuentas.esTipoCuenta(comando)) {
+            CuentaBancaria cuenta = FabricaCuentas.crear(campos);
+            verificarParticion(cuenta.getNumeroCuenta());
+            if (!controlador.registrarCuenta(cuenta)) {
+                throw new OperacionInvalidaException("Ya existe una cuenta con ese número: " + cuenta.getNumeroCuenta());
+            }
+            guardarCuentas();
+            return ProtocoloCluster.respuestaOk(cuenta.getSaldo());
+        }
+        switch (comando) {
+            case "DEPOSITO":
+                requerirCampos(campos, 3);
+                return ProtocoloCluster.respuestaOk(
+                    controlador.realizarDeposito(cuenta(campos[1]), decimal(campos[2]), clave(campos, 3)).getSaldoFinal());
+            case "RETIRO":
+                requerirCampos(campos, 3);
+                return ProtocoloCluster.respuestaOk(
+                    controlador.realizarRetiro(cuenta(campos[1]), decimal(campos[2]), clave(campos, 3)).getSaldoFinal());
+            case "TRANSFERENCIA": {
+                requerirCampos(campos, 4);
+                int origen = cuenta(campos[1]);
+                controlador.realizarTransferencia(origen, cuenta(campos[2]), decimal(campos[3]));
+                return ProtocoloCluster.respuestaOk(saldoDe(origen));
+            }
+            case "INTERESES":
+                requerirCampos(campos, 2);
+                return ProtocoloCluster.respuestaOk(controlador.calcularIntereses(cuenta(campos[1])).getSaldoFinal());
+            case "SALDO":
+                requerirCampos(campos, 2);
+                return ProtocoloCluster.respuestaOk(saldoDe(cuenta(campos[1])));
+            case ProtocoloCluster.PREPARAR_DEPOSITO:
+                requerirCampos(campos, 4);
+                return prepararDeposito(cuenta(campos[2]), decimal(campos[3]));
+            case ProtocoloCluster.PREPARAR_RETIRO:
+                requerirCampos(campos, 4);
+                return prepararRetiro(transaccion(campos[1]), cuenta(campos[2]), decimal(campos[3]));
+            case ProtocoloCluster.CONFIRMAR_DEPOSITO:
+                requerirCampos(campos, 4);
+                return confirmarDeposito(transaccion(campos[1]), cuenta(campos[2]), decimal(campos[3]));
+            case ProtocoloCluster.ABORTAR_RETIRO:
+                requerirCampos(campos, 4);
+                return abortarRetiro(transaccion(campos[1]), cuenta(campos[2]));
+            case ProtocoloCluster.RESUMEN:
+                return resumen();
+            case ProtocoloCluster.VERIFICAR:
+                return verificar();
+            default:
+                throw new OperacionInvalidaException("Comando desconocido: " + campos[0]);
+        }
+    }
+
+    /**
+     * Reemplaza el archivo de cuentas por las cuentas actuales. Si falla, la
+     * cuenta nueva queda registrada en memoria y se guarda con la siguiente
+     * escritura que funcione.
+     *
+     * @throws IOException Si no se pudo escribir el archivo
+     */
+    private void guardarCuentas() throws IOException {
+        synchronized (bloqueoArchivoCuentas) {
+            File temporal = new File(archivoCuentas.getPath() + ".tmp");
+            Files.write(temporal.toPath(), controlador.exportarCuentasCSV().getBytes(StandardCharsets.UTF_8));
+            Files.move(temporal.toPath(), archivoCuentas.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    // ==================== TRANSFERENCIAS EN DOS FASES ====================
+
+    /**
+     * Voto del destino: la cuenta existe y el depósito no puede fallar.
+     */
+    private String prepararDeposito(int numeroCuenta, double monto) throws OperacionInvalidaException {
+        if (monto <= 0) {
+            throw new OperacionInvalidaException("El monto a depositar debe ser mayor a cero");
+        }
+        return ProtocoloCluster.respuestaOk(saldoDe(numeroCuenta));
+    }
+
+    /**
+     * Voto del origen: aplica el retiro con la clave de la transacción y anota
+     * lo debitado (con la comisión) para poder devolverlo exacto. Una
+     * transacción ya abortada no se prepara: el aborto pudo llegar antes.
+     */
+    private String prepararRetiro(long tx, int numeroCuenta, double monto) throws Exception {
+        synchronized (bloqueoTransaccion(tx)) {
+            RegistroDosFases.Entrada entrada = estadoDe(tx);
+            if (entrada != null) {
+                verificarCuenta(tx, entrada, numeroCuenta);
+                switch (entrada.getEstado()) {
+                    case RETIRADO:
+                        return ProtocoloCluster.respuestaOk(saldoDe(numeroCuenta)); // Voto repetido
+                    case ABORTADO:
+                        throw new OperacionInvalidaException("La transacción " + tx + " ya fue abortada");
+                    default:
+                        throw new OperacionInvalidaException("La transacción " + tx +
+                                                             " es un depósito en este nodo");
+                }
+            }
+            CuentaBancaria cuenta = controlador.buscarCuentaPorNumero(numeroCuenta);
+            if (cuenta == null) {
+                throw new OperacionInvalidaException("Cuenta no encontrada: " + numeroCuenta);
+            }
+            dosFases.anotar(tx, RegistroDosFases.Estado.RETIRANDO, numeroCuenta,
+                            monto + cuenta.getPolitica().getComisionRetiro());
+            ResultadoOperacion resultado;
+            try {
+                resultado = controlador.realizarRetiro(numeroCuenta, monto, tx);
+            } catch (SaldoInsuficienteException | OperacionInvalidaException e) {
+                // Voto en contra: la transacción queda abortada sin nada que devolver
+                dosFases.anotar(tx, RegistroDosFases.Estado.ABORTADO, numeroCuenta, 0);
+                throw e;
+            }
+            dosFases.anotar(tx, RegistroDosFases.Estado.RETIRADO, numeroCuenta,
+                            resultado.getMonto() + resultado.getComision());
+            return ProtocoloCluster.respuestaOk(resultado.getSaldoFinal());
+        }
+    }
+
+    /**
+     * Aborta la transacción en el origen: devuelve exactamente lo debitado al
+     * preparar, si se llegó a preparar. Si todavía no se preparó, deja la
+     * transacción abortada para que el PREPARAR_RETIRO que llegue tarde se rechace.
+     */
+    private String abortarRetiro(long tx, int numeroCuenta) throws Exception {
+        synchronized (bloqueoTransaccion(tx)) {
+            RegistroDosFases.Entrada entrada = estadoDe(tx);
+            if (entrada == null) {
+                dosFases.anotar(tx, RegistroDosFases.Estado.ABORTADO, numeroCuenta, 0);
+                return ProtocoloCluster.respuestaOk(saldoDe(numeroCuenta));
+            }
+            verificarCuenta(tx, entrada, numeroCuenta);
+            switch (entrada.getEstado()) {
+                case ABORTADO:
+                    return ProtocoloCluster.respuestaOk(saldoDe(numeroCuenta)); // Aborto repetido
+                case RETIRADO: {
+                    double debitado = entrada.getMonto();
+                    dosFases.anotar(tx, RegistroDosFases.Estado.DEVOLVIENDO, numeroCuenta, debitado);
+                    double saldo = controlador.realizarDeposito(numeroCuenta, debitado, -tx).getSaldoFinal();
+                    dosFases.anotar(tx, RegistroDosFases.Estado.ABORTADO, numeroCuenta, debitado);
+                    return ProtocoloCluster.respuestaOk(saldo);
+                }
+                default:
+                    throw new OperacionInvalidaException("La transacción " + tx + " es un depósito en este nodo");
+            }
+        }
+    }
+
+    /**
+     * Aplica el depósito de una transacción confirmada, una sola vez.
+     */
+    private String confirmarDeposito(long tx, int numeroCuenta, double monto) throws Exception {
+        synchronized (bloqueoTransaccion(tx)) {
+            RegistroDosFases.Entrada entrada = estadoDe(tx);
+            if (entrada != null) {
+                verificarCuenta(tx, entrada, numeroCuenta);
+                if (entrada.getEstado() != RegistroDosFases.Estado.DEPOSITADO) {
+                    throw new OperacionInvalidaException("La transacción " + tx + " es un retiro en este nodo");
+                }
+                return ProtocoloCluster.respuestaOk(saldoDe(numeroCuenta)); // Confirmación repetida
+            }
+            saldoDe(numeroCuenta); // La cuenta existe: el depósito no puede fallar
+            dosFases.anotar(tx, RegistroDosFases.Estado.DEPOSITANDO, numeroCuenta, monto);
+            double saldo = controlador.realizarDeposito(numeroCuenta, monto, tx).getSaldoFinal();
+            dosFases.anotar(tx, RegistroDosFases.Estado.DEPOSITADO, numeroCuenta, monto);
+            return ProtocoloCluster.respuestaOk(saldo);
+        }
+    }
+
+    /**
+     * Estado de una transacción. Si quedó en una intención (el proceso se cayó
+     * a mitad de un paso), busca en el archivo de transacciones si el
+     * movimiento se aplicó y anota el resultado.
+     *
+     * @return Estado final de la transacción, o null si no pasó por este nodo
+     *         (o su depósito no llegó a aplicarse)
+     */
+    private RegistroDosFases.Entrada estadoDe(long tx) throws IOException {
+        RegistroDosFases.Entrada entrada = dosFases.consultar(tx);
+        if (entrada == null) {
+            return null;
+        }
+        int numeroCuenta = entrada.getNumeroCuenta();
+        double monto = entrada.getMonto();
+        switch (entrada.getEstado()) {
+            case RETIRANDO:
+                // Sin el retiro en el archivo el nodo nunca votó a favor
+                if (movimientoAplicado(tx, numeroCuenta)) {
+                    dosFases.anotar(tx, RegistroDosFases.Estado.RETIRADO, numeroCuenta, monto);
+                } else {
+                    dosFases.anotar(tx, RegistroDosFases.Estado.ABORTADO, numeroCuenta, 0);
+                }
+                return dosFases.consultar(tx);
+            case DEVOLVIENDO:
+                // Si la devolución no se aplicó, el retiro sigue debitado y el aborto la repite
+                dosFases.anotar(tx, movimientoAplicado(-tx, numeroCuenta) ? RegistroDosFases.Estado.ABORTADO
+                                                                           : RegistroDosFases.Estado.RETIRADO,
+                                numeroCuenta, monto);
+                return dosFases.consultar(tx);
+            case DEPOSITANDO:
+                if (movimientoAplicado(tx, numeroCuenta)) {
+                    dosFases.anotar(tx, RegistroDosFases.Estado.DEPOSITADO, numeroCuenta, monto);
+                    return dosFases.consultar(tx);
+                }
+                return null;
+            default:
+                return entrada;
+        }
+    }
+
+    /**
+     * Indica si el archivo de transacciones tiene un movimiento de la cuenta con la clave dada.
+     */
+    private boolean movimientoAplicado(long clave, int numeroCuenta) throws IOException {
+        boolean[] encontrado = new boolean[1];
+        PersistenciaBancaria.getEscaner().recorrer(numeroCuenta, PersistenciaBancaria.getLongitudArchivo(),
+            transaccion -> encontrado[0] |= transaccion.getClaveIdempotencia() == clave);
+        return encontrado[0];
+    }
+
+    private static void verificarCuenta(long tx, RegistroDosFases.Entrada entrada, int numeroCuenta)
+            throws OperacionInvalidaException {
+        if (entrada.getNumeroCuenta() != numeroCuenta) {
+            throw new OperacionInvalidaException("La transacción " + tx + " es de la cuenta " +
+                                                 entrada.getNumeroCuenta() + ", no de la " + numeroCuenta);
+        }
+    }
+
+    private Object bloqueoTransaccion(long tx) {
+        return bloqueosTransaccion[(int) Math.floorMod(tx, (long) BLOQUEOS_TRANSACCION)];
+    }
+
+    // ==================== CONSULTAS DEL CLÚSTER ====================
+
+    /**
+     * Cantidad de cuentas y suma de sus saldos, en una instantánea consistente.
+     */
+    private String resumen() {
+        long[] cuentas = new long[1];
+        double[] total = new double[1];
+        try (InstantaneaCuentas instantanea = controlador.crearInstantanea()) {
+            instantanea.recorrer(cuenta -> {
+                cuentas[0]++;
+                total[0] += cuenta.getSaldo();
+            });
+        }
+        return ProtocoloCluster.respuestaOk(cuentas[0], total[0]);
+    }
+
+    /**
+     * Concilia el archivo de este nodo con sus cuentas: registros y discrepancias.
+     */
+    private String verificar() throws IOException {
+        VerificadorConciliacion.Resultado resultado = new VerificadorConciliacion(controlador, 1)
+            .verificar(PersistenciaBancaria.getEscaner(), Long.MAX_VALUE);
+        return ProtocoloCluster.respuestaOk(resultado.getRegistros(), resultado.getTotalDiscrepancias());
+    }
+
+    // ==================== LECTURA DE CAMPOS ====================
+
+    /**
+     * Número de cuenta de un campo, verificando que pertenezca a este nodo.
+     */
+    private int cuenta(String campo) throws OperacionInvalidaException {
+        int numeroCuenta = Integer.parseInt(campo.trim());
+        verificarParticion(numeroCuenta);
+        return numeroCuenta;
+    }
+
+    private void verificarParticion(int numeroCuenta) throws OperacionInvalidaException {
+        int particion = EnrutadorBanco.particionDe(numeroCuenta, cantidadNodos);
+        if (particion != indice) {
+            throw new OperacionInvalidaException("La cuenta " + numeroCuenta + " pertenece al nodo " + particion +
+                                                 ", no al nodo " + indice);
+        }
+    }
+
+    private double saldoDe(int numeroCuenta) throws OperacionInvalidaException {
+        CuentaBancaria cuenta = controlador.buscarCuentaPorNumero(numeroCuenta);
+        if (cuenta == null) {
+            throw new OperacionInvalidaException("Cuenta no encontrada: " + numeroCuenta);
+        }
+        return cuenta.getSaldo();
+    }
+
+    private static void requerirCampos(String[] campos, int cantidad) throws OperacionInvalidaException {
+        if (campos.length < cantidad) {
+            throw new OperacionInvalidaException("Se esperaban " + cantidad + " campos en " + campos[0]);
+        }
+    }
+
+    private static double decimal(String campo) {
+        return Double.parseDouble(campo.trim());
+    }
+
+    private static long clave(String[] campos, int posicion) {
+        return campos.length > posicion && !campos[posicion].isBlank() ? Long.parseLong(campos[posicion].trim()) : 0L;
+    }
+
+    private static long transaccion(String campo) throws OperacionInvalidaException {
+        long tx = Long.parseLong(campo.trim());
+        if (tx <= 0) {
+            throw new OperacionInvalidaException("Número de transacción inválido: " + tx);
+        }
+        return tx;
+    }
+
+    // ==================== GETTERS ====================
+
+    public int getIndice() {
+        return indice;
+    }
+
+    public int getPuerto() {
+        return servidor.getLocalPort();
+    }
+
+    public ControladorBancario getControlador() {
+        return controlador;
+    }
+
+    public long getComandosAtendidos() {
+        return comandosAtendidos.get();
+    }
+
+    /**
+     * Deja de aceptar conexiones, cierra las abiertas, guarda las cuentas (con
+     * sus contadores de retiros) y cierra el registro de dos fases y el archivo
+     * de transacciones.
+     */
+    @Override
+    public void close() {
+        try {
+            servidor.close();
+        } catch (IOException e) {
+            // Ya cerrado
+        }
+        // Cerrar los sockets desbloquea a los hilos que esperan una línea
+        for (Socket socket : abiertas) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Ya cerrado
+            }
+        }
+        conexiones.shutdownNow();
+        try {
+            conexiones.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            guardarCuentas();
+        } catch (IOException e) {
+            System.err.println("Nodo " + indice + ": no se pudieron guardar las cuentas: " + e.getMessage());
+        }
+        dosFases.close();
+        PersistenciaBancaria.cerrarArchivo();
+    }
+}
\ No newline at end of file
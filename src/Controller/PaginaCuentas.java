@@ -0,0 +1,58 @@
+package Controller;
+
+import Model.CuentaBancaria;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Página de resultados de un listado de cuentas.
+ * Contiene las cuentas de la página y el número de cuenta (cursor) desde el que
+ * se debe pedir la siguiente página.
+ * 
+ * @author Andres
+ * @version 1.0
+ */
+public class PaginaCuentas implements Iterable<CuentaBancaria> {
+    private final List<CuentaBancaria> cuentas;
+    private final Integer siguienteClave; // null si no hay más páginas
+    
+    /**
+     * Constructor de PaginaCuentas.
+     * 
+     * @param cuentas Cuentas de la página
+     * @param siguienteClave Número de cuenta donde empieza la siguiente página (null si es la última)
+     */
+    public PaginaCuentas(List<CuentaBancaria> cuentas, Integer siguienteClave) {
+        this.cuentas = Collections.unmodifiableList(cuentas);
+        this.siguienteClave = siguienteClave;
+    }
+    
+    /**
+     * Indica si hay más cuentas después de esta página.
+     * 
+     * @return true si existe una página siguiente
+     */
+    public boolean hayMas() {
+        return siguienteClave != null;
+    }
+    
+    @Override
+    public Iterator<CuentaBancaria> iterator() {
+        return cuentas.iterator();
+    }
+    
+    // ==================== GETTERS ====================
+    
+    public List<CuentaBancaria> getCuentas() {
+        return cuentas;
+    }
+    
+    public Integer getSiguienteClave() {
+        return siguienteClave;
+    }
+    
+    public boolean estaVacia() {
+        return cuentas.isEmpty();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package Controller;
+
+/**
+ * Qué hacer cuando la cola de una suscripción está llena.
+ * 
+ * @author Andres
+ * @version 1.0
+ */
+public enum PoliticaDesborde {
+    /** Se descarta el evento nuevo; se conservan los que ya esperaban. */
+    DESCARTAR_NUEVOS,
+    /** Se descartan los eventos más antiguos de la cola para hacer lugar. */
+    DESCARTAR_ANTIGUOS,
+    /**
+     * La operación espera a que haya lugar en la cola. Es la única política que
+     * no pierde eventos (salvo al cancelar la suscripción), pero un suscriptor
+     * lento frena depósitos y retiros.
+     */
+    BLOQUEAR
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+package Controller;
+
+import Excepciones.OperacionInvalidaException;
+import Excepciones.SaldoInsuficienteException;
+import java.io.IOException;
+
+/**
+ * Formato de los mensajes entre el enrutador y los nodos del clúster.
+ *
+ * Cada petición es una línea con los campos separados por ';' (los mismos
+ * comandos del modo por lotes más los de la transferencia en dos fases) y
+ * cada respuesta es una línea:
+ *
+ *   OK;valor[;valor...]
+ *   ERROR;SALDO_INSUFICIENTE;mensaje
+ *   ERROR;INVALIDA;mensaje
+ *   ERROR;NO_DISPONIBLE;mensaje      (el enrutador no pudo hablar con el nodo)
+ *
+ * Comandos de la transferencia entre nodos (tx es el número de transacción):
+ *   PREPARAR_DEPOSITO;tx;cuenta;monto   El destino vota: la cuenta existe y el monto es válido
+ *   PREPARAR_RETIRO;tx;cuenta;monto     El origen vota aplicando el retiro con la clave tx
+ *   CONFIRMAR_DEPOSITO;tx;cuenta;monto  El destino aplica el depósito con la clave tx
+ *   ABORTAR_RETIRO;tx;cuenta;monto      El origen devuelve lo debitado por tx si llegó a aplicarse;
+ *                                       si no, tx queda abortada y ya no se puede preparar
+ *
+ * @author Andres
+ * @version 1.0
+ */
+final class ProtocoloCluster {
+    static final String SEPARADOR = ";";
+
+    static final String OK = "OK";
+    static final String ERROR = "ERROR";
+    static final String SALDO_INSUFICIENTE = "SALDO_INSUFICIENTE";
+    static final String INVALIDA = "INVALIDA";
+    static final String NO_DISPONIBLE = "NO_DISPONIBLE";
+
+    static final String PREPARAR_DEPOSITO = "PREPARAR_DEPOSITO";
+    static final String PREPARAR_RETIRO = "PREPARAR_RETIRO";
+    static final String CONFIRMAR_DEPOSITO = "CONFIRMAR_DEPOSITO";
+    static final String ABORTAR_RETIRO = "ABORTAR_RETIRO";
+    static final String RESUMEN = "RESUMEN";
+    static final String VERIFICAR = "VERIFICAR";
+
+    private ProtocoloCluster() {
+    }
+
+    /**
+     * Arma una línea con los campos separados por ';'.
+     */
+    static String linea(Object... campos) {
+        StringBuilder linea = new StringBuilder();
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) {
+                linea.append(SEPARADOR);
+            }
+            linea.append(campos[i]);
+        }
+        return linea.toString();
+    }
+
+    static String respuestaOk(Object... valores) {
+        return OK + SEPARADOR + linea(valores);
+    }
+
+    /**
+     * Respuesta de error para una excepción de la operación.
+     */
+    static String respuestaError(Exception e) {
+        String tipo = e instanceof SaldoInsuficienteException ? SALDO_INSUFICIENTE
+                    : e instanceof IOException ? NO_DISPONIBLE : INVALIDA;
+        String mensaje = String.valueOf(e.getMessage()).replace('\n', ' ').replace('\r', ' ');
+        return ERROR + SEPARADOR + tipo + SEPARADOR + mensaje;
+    }
+
+    /**
+     * Lee una respuesta y devuelve sus valores, o lanza la excepción que describe.
+     *
+     * @param respuesta Línea recibida (null si se cerró la conexión)
+     * @return Valores de una respuesta OK
+     * @throws SaldoInsuficienteException Si el nodo respondió SALDO_INSUFICIENTE
+     * @throws OperacionInvalidaException Si el nodo respondió INVALIDA
+     * @throws IOException Si la conexión se cerró o el enrutador no llegó al nodo
+     */
+    static String[] leerRespuesta(String respuesta)
+            throws SaldoInsuficienteException, OperacionInvalidaException, IOException {
+        if (respuesta == null) {
+            throw new IOException("El nodo cerró la conexión");
+        }
+        String[] campos = respuesta.split(SEPARADOR, -1);
+        if (campos[0].equals(OK)) {
+            String[] valores = new String[campos.length - 1];
+            System.arraycopy(campos, 1, valores, 0, valores.length);
+            return valores;
+        }
+        if (!campos[0].equals(ERROR) || campos.length < 3) {
+            throw new IOException("Respuesta inválida: " + respuesta);
+        }
+        String mensaje = respuesta.substring(campos[0].length() + campos[1].length() + 2);
+        switch (campos[1]) {
+            case SALDO_INSUFICIENTE: throw new SaldoInsuficienteException(mensaje);
+            case NO_DISPONIBLE: throw new IOException(mensaje);
+            default: throw new OperacionInvalidaException(mensaje);
+        }
+    }
+}
\ No newline at end of file
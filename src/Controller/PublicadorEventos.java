@@ -0,0 +1,309 @@
+package Controller;
+
+import Model.EventoTransaccion;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publica los eventos de transacción a los suscriptores registrados.
+ *
+ * Cada suscripción tiene su propia cola acotada y su propio hilo de entrega,
+ * que toma los eventos pendientes por lotes (esperando hasta 1 ms para
+ * completarlos) y se los pasa al suscriptor. Publicar solo agrega el evento a
+ * las colas, así que un suscriptor lento no frena las operaciones (salvo con
+ * la política BLOQUEAR): cuando su cola se llena se aplica su política de
+ * desborde y los descartes quedan en sus métricas.
+ *
+ * Publicar se hace con el bloqueo de la cuenta tomado, para que los eventos de
+ * una cuenta queden en orden. Por eso, con BLOQUEAR, las operaciones esperan
+ * lugar en las colas con esperarLugar() antes de tomar sus bloqueos: lo normal
+ * es que al publicar ya haya lugar y un suscriptor lento no retenga el bloqueo
+ * de la cuenta ni el de las instantáneas. Si otra operación ocupó ese lugar
+ * entretanto, publicar espera por intervalos cortos y deja de esperar en
+ * cuanto se cancela la suscripción.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PublicadorEventos {
+
+    // Tiempo máximo que se espera para completar un lote antes de entregarlo
+    private static final long ESPERA_LOTE_NANOS = 1_000_000;
+    
+    // Intervalo con el que BLOQUEAR vuelve a mirar si la cola tiene lugar o se canceló
+    private static final long ESPERA_LUGAR_NANOS = 1_000_000;
+
+    /**
+     * Una suscripción activa, con su cola, su hilo de entrega y sus métricas.
+     */
+    public static class Suscripcion implements AutoCloseable {
+        private final String nombre;
+        private final SuscriptorTransacciones suscriptor;
+        private final ArrayBlockingQueue<EventoTransaccion> cola;
+        private final int tamanoLote;
+        private final PoliticaDesborde politica;
+        private final PublicadorEventos publicador;
+        private final Thread entrega;
+        private volatile boolean activa = true;
+
+        // Métricas
+        private final LongAdder recibidos = new LongAdder();
+        private final LongAdder descartados = new LongAdder();
+        private final LongAdder errores = new LongAdder();
+        private volatile long entregados;
+        private volatile long lotes;
+        private volatile long ultimaSecuenciaEntregada;
+
+        Suscripcion(String nombre, SuscriptorTransacciones suscriptor, int capacidad, int tamanoLote,
+                    PoliticaDesborde politica, PublicadorEventos publicador) {
+            this.nombre = nombre;
+            this.suscriptor = suscriptor;
+            this.cola = new ArrayBlockingQueue<>(capacidad);
+            this.tamanoLote = tamanoLote;
+            this.politica = politica;
+            this.publicador = publicador;
+            this.entrega = new Thread(this::entregar, "eventos-" + nombre);
+            this.entrega.setDaemon(true);
+        }
+
+        /**
+         * Agrega un evento a la cola según la política de desborde.
+         */
+        void encolar(EventoTransaccion evento) {
+            if (!activa) {
+                return; // Cancelada mientras se publicaba
+            }
+            recibidos.increment();
+            switch (politica) {
+                case DESCARTAR_NUEVOS:
+                    if (!cola.offer(evento)) {
+                        descartados.increment();
+                    }
+                    break;
+                case DESCARTAR_ANTIGUOS:
+                    while (!cola.offer(evento)) {
+                        if (cola.poll() != null) {
+                            descartados.increment();
+                        }
+                    }
+                    break;
+                case BLOQUEAR:
+                    try {
+                        while (!cola.offer(evento, ESPERA_LUGAR_NANOS, TimeUnit.NANOSECONDS)) {
+                            if (!activa) {
+                                descartados.increment();
+                                break;
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        descartados.increment();
+                    }
+                    break;
+            }
+        }
+
+        /**
+         * Hilo de entrega: espera el primer evento y, si el lote no está completo,
+         * deja pasar un momento para juntar más antes de entregarlo. Mientras
+         * espera así no está bloqueado en la cola, de modo que publicar no tiene
+         * que despertarlo evento por evento.
+         */
+        private void entregar() {
+            List<EventoTransaccion> lote = new ArrayList<>(tamanoLote);
+            while (activa) {
+                try {
+                    lote.add(cola.take());
+                } catch (InterruptedException e) {
+                    break; // Suscripción cancelada
+                }
+                if (cola.size() < tamanoLote - 1) {
+                    LockSupport.parkNanos(ESPERA_LOTE_NANOS);
+                }
+                cola.drainTo(lote, tamanoLote - 1);
+                try {
+                    suscriptor.recibir(Collections.unmodifiableList(lote));
+                } catch (RuntimeException e) {
+                    // Un suscriptor con errores no debe detener la entrega
+                    errores.increment();
+                }
+                ultimaSecuenciaEntregada = lote.get(lote.size() - 1).getSecuencia();
+                entregados += lote.size();
+                lotes++;
+                lote.clear();
+            }
+        }
+
+        /**
+         * Espera, sin tomar ningún bloqueo, a que la cola tenga lugar o la
+         * suscripción se cancele. Solo espera con la política BLOQUEAR.
+         */
+        void esperarLugar() {
+            while (politica == PoliticaDesborde.BLOQUEAR && activa && cola.remainingCapacity() == 0) {
+                LockSupport.parkNanos(ESPERA_LUGAR_NANOS);
+                if (Thread.currentThread().isInterrupted()) {
+                    return; // Publicar decide qué hacer con la interrupción
+                }
+            }
+        }
+
+        /**
+         * Cancela la suscripción. Los eventos que quedaban en la cola no se
+         * entregan: se vacía la cola, así que las operaciones que esperaban
+         * lugar siguen de inmediato.
+         */
+        @Override
+        public void close() {
+            if (activa) {
+                activa = false;
+                publicador.suscripciones.remove(this);
+                entrega.interrupt();
+                cola.clear();
+            }
+        }
+
+        // ==================== MÉTRICAS ====================
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public PoliticaDesborde getPolitica() {
+            return politica;
+        }
+
+        public long getRecibidos() {
+            return recibidos.sum();
+        }
+
+        public long getEntregados() {
+            return entregados;
+        }
+
+        public long getDescartados() {
+            return descartados.sum();
+        }
+
+        public long getErrores() {
+            return errores.sum();
+        }
+
+        public long getLotes() {
+            return lotes;
+        }
+
+        /**
+         * Eventos esperando en la cola.
+         */
+        public int getPendientes() {
+            return cola.size();
+        }
+
+        /**
+         * Eventos publicados después del último entregado a esta suscripción
+         * (incluye los pendientes y los descartados desde entonces).
+         */
+        public long getRetrasoEventos() {
+            long ultima = ultimaSecuenciaEntregada;
+            return ultima == 0 ? getRecibidos() : publicador.getUltimaSecuencia() - ultima;
+        }
+
+        /**
+         * Antigüedad del evento pendiente más viejo.
+         *
+         * @return Milisegundos desde que se publicó (0 si la cola está vacía)
+         */
+        public long getRetrasoMillis() {
+            EventoTransaccion masAntiguo = cola.peek();
+            return masAntiguo == null ? 0 : Math.max(0, System.currentTimeMillis() - masAntiguo.getInstanteMillis());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%s) | Recibidos: %,d | Entregados: %,d en %,d lotes | Descartados: %,d | " +
+                                 "Errores: %,d | Pendientes: %,d | Retraso: %,d eventos, %,d ms",
+                                 nombre, politica, getRecibidos(), entregados, lotes, getDescartados(),
+                                 getErrores(), getPendientes(), getRetrasoEventos(), getRetrasoMillis());
+        }
+    }
+
+    private final List<Suscripcion> suscripciones = new CopyOnWriteArrayList<>();
+    private final AtomicLong secuencia = new AtomicLong();
+
+    /**
+     * Registra un suscriptor y arranca su hilo de entrega.
+     *
+     * @param nombre Nombre de la suscripción (para métricas y el hilo)
+     * @param suscriptor Receptor de los eventos
+     * @param capacidad Eventos que caben en la cola
+     * @param tamanoLote Máximo de eventos por entrega
+     * @param politica Qué hacer cuando la cola está llena
+     * @return Suscripción activa (cerrarla para cancelar)
+     */
+    public Suscripcion suscribir(String nombre, SuscriptorTransacciones suscriptor, int capacidad,
+                                 int tamanoLote, PoliticaDesborde politica) {
+        if (capacidad <= 0 || tamanoLote <= 0) {
+            throw new IllegalArgumentException("Capacidad y tamaño de lote deben ser mayores a cero");
+        }
+        Suscripcion suscripcion = new Suscripcion(nombre, suscriptor, capacidad, tamanoLote, politica, this);
+        suscripciones.add(suscripcion);
+        suscripcion.entrega.start();
+        return suscripcion;
+    }
+
+    /**
+     * Indica si hay suscriptores; si no hay, no vale la pena crear el evento.
+     */
+    public boolean tieneSuscriptores() {
+        return !suscripciones.isEmpty();
+    }
+
+    /**
+     * Espera a que las suscripciones con la política BLOQUEAR tengan lugar en
+     * su cola. Las operaciones la llaman antes de tomar el bloqueo de la
+     * cuenta, así la espera por un suscriptor lento no lo retiene.
+     */
+    public void esperarLugar() {
+        for (Suscripcion suscripcion : suscripciones) {
+            suscripcion.esperarLugar();
+        }
+    }
+
+    /**
+     * Publica una transacción a todas las suscripciones.
+     *
+     * @param numeroCuenta Número de cuenta
+     * @param tipo Tipo de transacción
+     * @param monto Monto
+     * @param saldoFinal Saldo después de la transacción
+     * @param claveIdempotencia Clave de idempotencia (0 si no tiene)
+     */
+    public void publicar(int numeroCuenta, String tipo, double monto, double saldoFinal, long claveIdempotencia) {
+        EventoTransaccion evento = new EventoTransaccion(secuencia.incrementAndGet(), System.currentTimeMillis(),
+                                                         numeroCuenta, tipo, monto, saldoFinal, claveIdempotencia);
+        for (Suscripcion suscripcion : suscripciones) {
+            suscripcion.encolar(evento);
+        }
+    }
+
+    /**
+     * Secuencia del último evento publicado.
+     */
+    public long getUltimaSecuencia() {
+        return secuencia.get();
+    }
+
+    /**
+     * Suscripciones activas, para consultar sus métricas.
+     */
+    public List<Suscripcion> getSuscripciones() {
+        return Collections.unmodifiableList(suscripciones);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,199 @@
+package Controller;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Estado de las transferencias en dos fases en las que participa un nodo,
+ * guardado en un archivo propio junto al archivo de transacciones.
+ *
+ * A diferencia de las claves de idempotencia (CacheIdempotencia, con capacidad
+ * y vigencia limitadas), aquí no se descarta nada: el estado de cada
+ * transacción queda mientras exista el archivo. Así confirmar y abortar se
+ * pueden repetir en cualquier momento sin efecto doble, y un PREPARAR_RETIRO
+ * que llega después del ABORTAR_RETIRO de su transacción se rechaza.
+ *
+ * Cada paso que mueve dinero se anota dos veces: la intención (RETIRANDO,
+ * DEPOSITANDO o DEVOLVIENDO) antes de aplicarlo y el resultado (RETIRADO,
+ * DEPOSITADO o ABORTADO) después. Si el proceso se cae entre las dos, el
+ * estado queda en la intención y NodoBanco busca en el archivo de
+ * transacciones si el movimiento llegó a aplicarse.
+ *
+ * Formato de cada línea: tx;ESTADO;cuenta;monto. Al abrir el archivo se
+ * reescribe con una sola línea por transacción (la última).
+ *
+ * @author Andres
+ * @version 1.0
+ */
+final class RegistroDosFases implements AutoCloseable {
+
+    /**
+     * Estado de una transacción en este nodo.
+     */
+    enum Estado {
+        /** Origen: se va a aplicar el retiro (monto = lo que se espera debitar). */
+        RETIRANDO,
+        /** Origen: voto a favor, retiro aplicado (monto = lo debitado, con comisión). */
+        RETIRADO,
+        /** Origen: se va a devolver lo debitado. */
+        DEVOLVIENDO,
+        /** Origen: transacción abortada (monto = lo devuelto; 0 si no se había debitado nada). */
+        ABORTADO,
+        /** Destino: se va a aplicar el depósito confirmado. */
+        DEPOSITANDO,
+        /** Destino: depósito confirmado y aplicado. */
+        DEPOSITADO
+    }
+
+    /**
+     * Último estado anotado de una transacción.
+     */
+    static final class Entrada {
+        private final Estado estado;
+        private final int numeroCuenta;
+        private final double monto;
+
+        Entrada(Estado estado, int numeroCuenta, double monto) {
+            this.estado = estado;
+            this.numeroCuenta = numeroCuenta;
+            this.monto = monto;
+        }
+
+        Estado getEstado() {
+            return estado;
+        }
+
+        int getNumeroCuenta() {
+            return numeroCuenta;
+        }
+
+        double getMonto() {
+            return monto;
+        }
+    }
+
+    private final File archivo;
+    private final Map<Long, Entrada> entradas = new HashMap<>();
+    private FileOutputStream salida;
+
+    /**
+     * Abre el registro y carga el estado guardado en el archivo, si existe.
+     *
+     * @param archivo Archivo del registro
+     * @throws IOException Si el archivo no se puede leer o tiene una línea inválida
+     */
+    RegistroDosFases(File archivo) throws IOException {
+        this.archivo = archivo;
+        if (archivo.exists()) {
+            cargar();
+            compactar();
+        }
+        salida = new FileOutputStream(archivo, true);
+    }
+
+    private void cargar() throws IOException {
+        try (BufferedReader lector = new BufferedReader(
+                 new InputStreamReader(new FileInputStream(archivo), StandardCharsets.UTF_8))) {
+            String linea;
+            int numeroLinea = 0;
+            while ((linea = lector.readLine()) != null) {
+                numeroLinea++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                String[] campos = linea.split(ProtocoloCluster.SEPARADOR);
+                try {
+                    entradas.put(Long.parseLong(campos[0]),
+                                 new Entrada(Estado.valueOf(campos[1]), Integer.parseInt(campos[2]),
+                                             Double.parseDouble(campos[3])));
+                } catch (RuntimeException e) {
+                    // Una línea cortada solo puede ser la última (el proceso se cayó al escribirla)
+                    if (lector.readLine() == null) {
+                        break;
+                    }
+                    throw new IOException("Línea " + numeroLinea + " inválida en " + archivo + ": " + linea, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reescribe el archivo con la última línea de cada transacción.
+     */
+    private void compactar() throws IOException {
+        File temporal = new File(archivo.getPath() + ".tmp");
+        try (BufferedWriter escritor = new BufferedWriter(
+                 new OutputStreamWriter(new FileOutputStream(temporal), StandardCharsets.UTF_8))) {
+            for (Map.Entry<Long, Entrada> entrada : entradas.entrySet()) {
+                escritor.write(linea(entrada.getKey(), entrada.getValue()));
+            }
+        }
+        Files.move(temporal.toPath(), archivo.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Último estado de una transacción.
+     *
+     * @param tx Número de transacción
+     * @return Entrada con el estado, o null si la transacción no pasó por este nodo
+     */
+    synchronized Entrada consultar(long tx) {
+        return entradas.get(tx);
+    }
+
+    /**
+     * Anota un nuevo estado de una transacción. Cuando termina, la línea ya
+     * está en el archivo.
+     *
+     * @param tx Número de transacción
+     * @param estado Nuevo estado
+     * @param numeroCuenta Cuenta de este nodo que participa
+     * @param monto Monto del estado (ver Estado)
+     * @throws IOException Si no se pudo escribir (el estado no cambia)
+     */
+    synchronized void anotar(long tx, Estado estado, int numeroCuenta, double monto) throws IOException {
+        if (salida == null) {
+            throw new IOException("El registro de dos fases está cerrado");
+        }
+        Entrada entrada = new Entrada(estado, numeroCuenta, monto);
+        salida.write(linea(tx, entrada).getBytes(StandardCharsets.UTF_8));
+        entradas.put(tx, entrada);
+    }
+
+    /**
+     * Transacciones anotadas (se conservan todas).
+     */
+    synchronized int getCantidad() {
+        return entradas.size();
+    }
+
+    private static String linea(long tx, Entrada entrada) {
+        return String.format(Locale.ROOT, "%d;%s;%d;%s%n", tx, entrada.estado, entrada.numeroCuenta,
+                             Double.toString(entrada.monto));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (salida != null) {
+            try {
+                salida.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar el registro de dos fases: " + e.getMessage());
+            }
+            salida = null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package Controller;
+
+import Model.CuentaBancaria;
+import Model.PerfilRetiros;
+
+/**
+ * Marca o bloquea un retiro cuyo monto está muy por encima de lo habitual
+ * para la cuenta: más de cierta cantidad de desviaciones sobre el promedio
+ * móvil de sus retiros.
+ * 
+ * Con pocos retiros el promedio todavía no dice mucho, así que la regla no se
+ * aplica hasta que la cuenta tenga un mínimo de retiros. La desviación tiene
+ * un piso (una fracción del promedio) para que una cuenta que siempre retira
+ * lo mismo no quede marcada por cualquier diferencia pequeña.
+ * 
+ * @author Andres
+ * @version 1.0
+ */
+public final class ReglaMontoInusual implements ReglaRetiro {
+    // Desviación mínima, como fracción del promedio
+    private static final double DESVIACION_MINIMA = 0.25;
+    
+    private final double desviaciones;
+    private final long minimoRetiros;
+    private final DecisionRegla decision;
+    
+    /**
+     * Constructor de ReglaMontoInusual.
+     * 
+     * @param desviaciones Desviaciones sobre el promedio a partir de las que el monto es inusual
+     * @param minimoRetiros Retiros previos necesarios para evaluar la cuenta
+     * @param decision MARCAR o BLOQUEAR cuando el monto es inusual
+     */
+    public ReglaMontoInusual(double desviaciones, long minimoRetiros, DecisionRegla decision) {
+        if (desviaciones <= 0) {
+            throw new IllegalArgumentException("Las desviaciones deben ser mayores a cero");
+        }
+        this.desviaciones = desviaciones;
+        this.minimoRetiros = minimoRetiros;
+        this.decision = decision;
+    }
+    
+    @Override
+    public DecisionRegla evaluar(CuentaBancaria cuenta, double monto, PerfilRetiros perfil, long ahoraMillis) {
+        if (perfil.getRetiros() < minimoRetiros) {
+            return DecisionRegla.PERMITIR;
+        }
+        double promedio = perfil.getPromedioMonto();
+        double desviacion = Math.max(perfil.getDesviacionMonto(), promedio * DESVIACION_MINIMA);
+        return monto > promedio + desviaciones * desviacion ? decision : DecisionRegla.PERMITIR;
+    }
+    
+    @Override
+    public String getNombre() {
+        return "Monto inusual (" + desviaciones + " desviaciones)";
+    }
+}
\ No newline at end of file
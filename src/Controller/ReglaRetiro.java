@@ -0,0 +1,35 @@
+package Controller;
+
+import Model.CuentaBancaria;
+import Model.PerfilRetiros;
+
+/**
+ * Regla que revisa un retiro antes de aplicarlo, para marcar o bloquear
+ * patrones sospechosos (muchos retiros seguidos, montos fuera de lo habitual).
+ * 
+ * Las reglas se evalúan dentro de realizarRetiro(), con el bloqueo de la
+ * cuenta tomado, así que deben ser rápidas y no crear objetos: solo leen el
+ * perfil de la cuenta (PerfilRetiros), que ya tiene los contadores y promedios.
+ * El perfil todavía no incluye el retiro que se está evaluando.
+ * 
+ * @author Andres
+ * @version 1.0
+ */
+public interface ReglaRetiro {
+    
+    /**
+     * Evalúa un retiro.
+     * 
+     * @param cuenta Cuenta origen (solo lectura)
+     * @param monto Monto a retirar
+     * @param perfil Retiros recientes de la cuenta
+     * @param ahoraMillis Instante del retiro
+     * @return Qué hacer con el retiro
+     */
+    DecisionRegla evaluar(CuentaBancaria cuenta, double monto, PerfilRetiros perfil, long ahoraMillis);
+    
+    /**
+     * Nombre con el que la regla aparece en alertas y mensajes de bloqueo.
+     */
+    String getNombre();
+}
\ No newline at end of file
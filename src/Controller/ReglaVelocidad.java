@@ -0,0 +1,47 @@
+package Controller;
+
+import Model.CuentaBancaria;
+import Model.PerfilRetiros;
+
+/**
+ * Marca o bloquea un retiro cuando la cuenta ya hizo demasiados retiros en el
+ * último minuto o en la última hora.
+ * 
+ * @author Andres
+ * @version 1.0
+ */
+public final class ReglaVelocidad implements ReglaRetiro {
+    private final int maximoPorMinuto;
+    private final int maximoPorHora;
+    private final DecisionRegla decision;
+    
+    /**
+     * Constructor de ReglaVelocidad.
+     * 
+     * @param maximoPorMinuto Retiros permitidos en 60 segundos
+     * @param maximoPorHora Retiros permitidos en 60 minutos
+     * @param decision MARCAR o BLOQUEAR cuando se supera alguno de los máximos
+     */
+    public ReglaVelocidad(int maximoPorMinuto, int maximoPorHora, DecisionRegla decision) {
+        if (maximoPorMinuto <= 0 || maximoPorHora <= 0) {
+            throw new IllegalArgumentException("Los máximos de retiros deben ser mayores a cero");
+        }
+        this.maximoPorMinuto = maximoPorMinuto;
+        this.maximoPorHora = maximoPorHora;
+        this.decision = decision;
+    }
+    
+    @Override
+    public DecisionRegla evaluar(CuentaBancaria cuenta, double monto, PerfilRetiros perfil, long ahoraMillis) {
+        if (perfil.getRetirosUltimoMinuto(ahoraMillis) >= maximoPorMinuto ||
+                perfil.getRetirosUltimaHora(ahoraMillis) >= maximoPorHora) {
+            return decision;
+        }
+        return DecisionRegla.PERMITIR;
+    }
+    
+    @Override
+    public String getNombre() {
+        return "Velocidad (" + maximoPorMinuto + "/min, " + maximoPorHora + "/h)";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,291 @@
+package Controller;
+
+import Model.Transaccion;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Réplica de solo lectura que sigue el archivo de transacciones.
+ *
+ * Lee periódicamente lo que se agregó al archivo desde la última lectura y
+ * mantiene el último saldo de cada cuenta y un índice con la posición de cada
+ * transacción en el archivo. Puede ejecutarse en otra JVM del mismo equipo
+ * para atender consultas sin competir con las escrituras del primario.
+ *
+ * Solo conoce las cuentas que tienen al menos una transacción en el archivo.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class ReplicaLectura implements AutoCloseable {
+
+    private static final int TAMANO_LECTURA = 64 * 1024;
+
+    /**
+     * Estado replicado de una cuenta: último saldo y posiciones de sus registros.
+     */
+    private static class IndiceCuenta {
+        private double saldo;
+        private long[] posiciones = new long[8];
+        private int cantidad;
+
+        void agregar(long posicion, double saldoFinal) {
+            if (cantidad == posiciones.length) {
+                posiciones = Arrays.copyOf(posiciones, cantidad * 2);
+            }
+            posiciones[cantidad++] = posicion;
+            saldo = saldoFinal;
+        }
+    }
+
+    private final File archivo;
+    private final Map<Integer, IndiceCuenta> cuentas = new HashMap<>();
+    private final Object bloqueoLectura = new Object();
+    private ScheduledExecutorService seguidor;
+
+    // Estado de lectura (solo lo modifica sincronizar())
+    private volatile long posicion;
+    private byte[] pendiente = new byte[0]; // Línea incompleta al final de la última lectura
+
+    // Métricas de replicación
+    private volatile long bytesArchivo;
+    private volatile long ultimaSincronizacionMillis;
+    private volatile LocalDateTime ultimaFechaAplicada;
+    private volatile long registrosAplicados;
+
+    /**
+     * Constructor de ReplicaLectura.
+     *
+     * @param rutaArchivo Ruta del archivo de transacciones del primario
+     */
+    public ReplicaLectura(String rutaArchivo) {
+        this.archivo = new File(rutaArchivo);
+    }
+
+    /**
+     * Empieza a seguir el archivo en un hilo propio.
+     *
+     * @param intervaloMillis Tiempo entre lecturas del archivo
+     */
+    public synchronized void iniciar(long intervaloMillis) {
+        if (seguidor != null) {
+            return;
+        }
+        seguidor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread t = new Thread(tarea, "replica-lectura");
+            t.setDaemon(true);
+            return t;
+        });
+        seguidor.scheduleWithFixedDelay(() -> {
+            try {
+                sincronizar();
+            } catch (IOException e) {
+                System.err.println("Error al leer transacciones: " + e.getMessage());
+            }
+        }, 0, intervaloMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Lee y aplica todo lo que se agregó al archivo desde la última lectura.
+     *
+     * @return Cantidad de registros aplicados
+     * @throws IOException Si no se puede leer el archivo
+     */
+    public int sincronizar() throws IOException {
+        if (!archivo.exists()) {
+            return 0;
+        }
+
+        int aplicados = 0;
+        synchronized (bloqueoLectura) {
+            try (RandomAccessFile raf = new RandomAccessFile(archivo, "r");
+                 FileChannel canal = raf.getChannel()) {
+
+                long longitud = canal.size();
+                bytesArchivo = longitud;
+
+                if (longitud < posicion) {
+                    // El archivo se reinició (limpiarTransacciones): empezar de nuevo
+                    reiniciar();
+                }
+
+                ByteBuffer buffer = ByteBuffer.allocate(TAMANO_LECTURA);
+                while (posicion < longitud) {
+                    buffer.clear();
+                    int leidos = canal.read(buffer, posicion);
+                    if (leidos <= 0) {
+                        break;
+                    }
+                    aplicados += aplicarBloque(buffer.array(), leidos);
+                }
+            }
+        }
+
+        ultimaSincronizacionMillis = System.currentTimeMillis();
+        return aplicados;
+    }
+
+    /**
+     * Aplica las líneas completas de un bloque leído del archivo.
+     * Lo que queda después del último salto de línea se guarda para la próxima lectura.
+     */
+    private int aplicarBloque(byte[] bloque, int leidos) {
+        // Unir con la línea incompleta anterior
+        byte[] datos = bloque;
+        int longitud = leidos;
+        long inicioDatos = posicion - pendiente.length;
+        if (pendiente.length > 0) {
+            datos = new byte[pendiente.length + leidos];
+            System.arraycopy(pendiente, 0, datos, 0, pendiente.length);
+            System.arraycopy(bloque, 0, datos, pendiente.length, leidos);
+            longitud = datos.length;
+        }
+
+        List<Transaccion> transacciones = new ArrayList<>();
+        List<Long> posiciones = new ArrayList<>();
+        int inicioLinea = 0;
+        for (int i = 0; i < longitud; i++) {
+            if (datos[i] == '\n') {
+                int fin = (i > inicioLinea && datos[i - 1] == '\r') ? i - 1 : i;
+                Transaccion t = Transaccion.parsear(
+                    new String(datos, inicioLinea, fin - inicioLinea, StandardCharsets.UTF_8));
+                if (t != null) {
+                    transacciones.add(t);
+                    posiciones.add(inicioDatos + inicioLinea);
+                }
+                inicioLinea = i + 1;
+            }
+        }
+
+        pendiente = Arrays.copyOfRange(datos, inicioLinea, longitud);
+        posicion += leidos;
+
+        synchronized (this) {
+            for (int i = 0; i < transacciones.size(); i++) {
+                Transaccion t = transacciones.get(i);
+                cuentas.computeIfAbsent(t.getNumeroCuenta(), n -> new IndiceCuenta())
+                       .agregar(posiciones.get(i), t.getSaldoFinal());
+                ultimaFechaAplicada = t.getFechaHora();
+            }
+            registrosAplicados += transacciones.size();
+        }
+        return transacciones.size();
+    }
+
+    private synchronized void reiniciar() {
+        cuentas.clear();
+        posicion = 0;
+        pendiente = new byte[0];
+        registrosAplicados = 0;
+        ultimaFechaAplicada = null;
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * Consulta el último saldo replicado de una cuenta.
+     *
+     * @param numeroCuenta Número de cuenta
+     * @return Saldo de la cuenta, o null si no tiene transacciones replicadas
+     */
+    public synchronized Double consultarSaldo(int numeroCuenta) {
+        IndiceCuenta indice = cuentas.get(numeroCuenta);
+        return indice == null ? null : indice.saldo;
+    }
+
+    /**
+     * Consulta el historial replicado de una cuenta usando el índice de posiciones,
+     * leyendo solo las líneas de esa cuenta.
+     *
+     * @param numeroCuenta Número de cuenta
+     * @return Transacciones de la cuenta en orden (vacía si no hay)
+     * @throws IOException Si no se puede leer el archivo
+     */
+    public List<Transaccion> consultarHistorial(int numeroCuenta) throws IOException {
+        long[] posicionesCuenta;
+        synchronized (this) {
+            IndiceCuenta indice = cuentas.get(numeroCuenta);
+            if (indice == null) {
+                return new ArrayList<>();
+            }
+            posicionesCuenta = Arrays.copyOf(indice.posiciones, indice.cantidad);
+        }
+
+        List<Transaccion> resultado = new ArrayList<>(posicionesCuenta.length);
+        try (RandomAccessFile raf = new RandomAccessFile(archivo, "r")) {
+            for (long p : posicionesCuenta) {
+                raf.seek(p);
+                Transaccion t = Transaccion.parsear(raf.readLine());
+                if (t != null) {
+                    resultado.add(t);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Números de cuenta conocidos por la réplica, ordenados.
+     *
+     * @return Conjunto ordenado de números de cuenta
+     */
+    public synchronized TreeSet<Integer> getCuentasConocidas() {
+        return new TreeSet<>(cuentas.keySet());
+    }
+
+    // ==================== MÉTRICAS ====================
+
+    /**
+     * Retraso de replicación en bytes: lo que el archivo tenía en la última
+     * lectura y todavía no se ha aplicado.
+     *
+     * @return Bytes pendientes de aplicar
+     */
+    public long getRetrasoBytes() {
+        return Math.max(0, bytesArchivo - posicion);
+    }
+
+    /**
+     * Tiempo transcurrido desde la última lectura completa del archivo.
+     * Mientras la réplica siga al día, es como máximo el intervalo de lectura.
+     *
+     * @return Milisegundos desde la última sincronización (-1 si nunca sincronizó)
+     */
+    public long getRetrasoMillis() {
+        long ultima = ultimaSincronizacionMillis;
+        return ultima == 0 ? -1 : System.currentTimeMillis() - ultima;
+    }
+
+    public LocalDateTime getUltimaFechaAplicada() {
+        return ultimaFechaAplicada;
+    }
+
+    public long getRegistrosAplicados() {
+        return registrosAplicados;
+    }
+
+    /**
+     * Detiene el hilo que sigue el archivo.
+     */
+    @Override
+    public synchronized void close() {
+        if (seguidor != null) {
+            seguidor.shutdownNow();
+            seguidor = null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package Controller;
+
+/**
+ * Resultado de una operación sobre una cuenta (depósito, retiro o intereses).
+ *
+ * El controlador no escribe nada en consola: devuelve este objeto y quien lo
+ * llama decide cómo mostrarlo (App lo presenta al usuario; el modo por lotes
+ * y las pruebas de carga solo leen el saldo).
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public final class ResultadoOperacion {
+    private final String tipo;
+    private final int numeroCuenta;
+    private final double monto;
+    private final double comision;
+    private final double saldoFinal;
+    private final boolean repetida;
+    private final String alerta;
+
+    ResultadoOperacion(String tipo, int numeroCuenta, double monto, double saldoFinal, boolean repetida) {
+        this(tipo, numeroCuenta, monto, saldoFinal, repetida, null);
+    }
+
+    ResultadoOperacion(String tipo, int numeroCuenta, double monto, double saldoFinal, boolean repetida,
+                       String alerta) {
+        this(tipo, numeroCuenta, monto, 0, saldoFinal, repetida, alerta);
+    }
+
+    ResultadoOperacion(String tipo, int numeroCuenta, double monto, double comision, double saldoFinal,
+                       boolean repetida, String alerta) {
+        this.tipo = tipo;
+        this.numeroCuenta = numeroCuenta;
+        this.monto = monto;
+        this.comision = comision;
+        this.saldoFinal = saldoFinal;
+        this.repetida = repetida;
+        this.alerta = alerta;
+    }
+
+    /**
+     * "DEPOSITO", "RETIRO" o "INTERESES".
+     */
+    public String getTipo() {
+        return tipo;
+    }
+
+    public int getNumeroCuenta() {
+        return numeroCuenta;
+    }
+
+    /**
+     * Monto de la operación (en intereses, los intereses generados; 0 si la
+     * cuenta no genera intereses).
+     */
+    public double getMonto() {
+        return monto;
+    }
+
+    /**
+     * Comisión cobrada además del monto (solo en retiros; 0 en una operación
+     * repetida, que no cobra nada).
+     */
+    public double getComision() {
+        return comision;
+    }
+
+    /**
+     * Saldo de la cuenta después de la operación (en una operación repetida,
+     * el que dejó la operación original).
+     */
+    public double getSaldoFinal() {
+        return saldoFinal;
+    }
+
+    /**
+     * Indica si la clave de idempotencia ya se había usado: la operación no
+     * se volvió a aplicar.
+     */
+    public boolean isRepetida() {
+        return repetida;
+    }
+
+    /**
+     * Reglas que marcaron el retiro como sospechoso (ver ReglaRetiro), o null
+     * si ninguna. El retiro se aplicó igual.
+     */
+    public String getAlerta() {
+        return alerta;
+    }
+
+    @Override
+    public String toString() {
+        return tipo + " | Cuenta #" + numeroCuenta + " | Monto: $" + String.format("%.2f", monto) +
+               " | Saldo: $" + String.format("%.2f", saldoFinal) + (repetida ? " | Repetida" : "") +
+               (alerta != null ? " | Alerta: " + alerta : "");
+    }
+}
\ No newline at end of file
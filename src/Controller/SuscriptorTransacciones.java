@@ -0,0 +1,26 @@
+package Controller;
+
+import Model.EventoTransaccion;
+import java.util.List;
+
+/**
+ * Sistema externo (notificaciones, fraude, contabilidad) que recibe los
+ * eventos de transacción publicados por el controlador.
+ * 
+ * Los eventos llegan por lotes desde un hilo propio de la suscripción: el tiempo
+ * que tarde el suscriptor no afecta a las operaciones. Los eventos de una misma
+ * cuenta llegan en el orden en que se registraron; los de cuentas distintas
+ * operadas al mismo tiempo pueden llegar con la secuencia intercalada.
+ * 
+ * @author Andres
+ * @version 1.0
+ */
+public interface SuscriptorTransacciones {
+    
+    /**
+     * Recibe un lote de eventos.
+     * 
+     * @param eventos Eventos del lote (nunca vacío)
+     */
+    void recibir(List<EventoTransaccion> eventos);
+}
\ No newline at end of file
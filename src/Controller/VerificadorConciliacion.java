@@ -0,0 +1,397 @@
+package Controller;
+
+import Model.CuentaBancaria;
+import Model.EscanerParalelo;
+import Model.Transaccion;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifica la consistencia del archivo de transacciones.
+ *
+ * Recorre el archivo una vez y reparte los registros por cuenta entre varios
+ * hilos (particiones). Cada partición comprueba la cadena de saldos de sus
+ * cuentas: el saldo final de un registro debe ser el del registro anterior más
+ * el efecto del movimiento (en retiros de cuenta corriente se admite la comisión).
+ * Al terminar compara el último saldo de cada cuenta con el de las cuentas
+ * indicadas (controlador en vivo o copia).
+ *
+ * Con un controlador en vivo, las operaciones que lleguen durante la verificación
+ * aparecen como diferencias de saldo final: conviene verificar sin escrituras.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class VerificadorConciliacion {
+
+    private static final double TOLERANCIA = 0.005;
+    private static final int MAXIMO_DISCREPANCIAS = 1000; // Se guardan las primeras; el resto solo se cuenta
+    private static final int TAMANO_LOTE = 4096;
+    private static final int LOTES_POR_PARTICION = 8;
+
+    /**
+     * Tipos de discrepancia que detecta el verificador.
+     */
+    public enum TipoDiscrepancia {
+        CADENA_SALDO,       // El saldo de un registro no sigue del registro anterior
+        SALDO_FINAL,        // El último saldo del archivo no coincide con el de la cuenta
+        CUENTA_DESCONOCIDA  // El archivo tiene registros de una cuenta que no existe
+    }
+
+    /**
+     * Una discrepancia encontrada, con la posición del registro en el archivo.
+     */
+    public static class Discrepancia {
+        private final TipoDiscrepancia tipo;
+        private final int numeroCuenta;
+        private final long posicion;
+        private final double esperado;
+        private final double encontrado;
+
+        Discrepancia(TipoDiscrepancia tipo, int numeroCuenta, long posicion, double esperado, double encontrado) {
+            this.tipo = tipo;
+            this.numeroCuenta = numeroCuenta;
+            this.posicion = posicion;
+            this.esperado = esperado;
+            this.encontrado = encontrado;
+        }
+
+        public TipoDiscrepancia getTipo() {
+            return tipo;
+        }
+
+        public int getNumeroCuenta() {
+            return numeroCuenta;
+        }
+
+        public long getPosicion() {
+            return posicion;
+        }
+
+        public double getEsperado() {
+            return esperado;
+        }
+
+        public double getEncontrado() {
+            return encontrado;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s | Cuenta: %d | Posición: %d | Esperado: $%.2f | Encontrado: $%.2f",
+                                 tipo, numeroCuenta, posicion, esperado, encontrado);
+        }
+    }
+
+    /**
+     * Resultado de una verificación.
+     */
+    public static class Resultado {
+        private final long registros;
+        private final int cuentas;
+        private final long bytes;
+        private final long nanos;
+        private final long totalDiscrepancias;
+        private final List<Discrepancia> discrepancias;
+
+        Resultado(long registros, int cuentas, long bytes, long nanos, long totalDiscrepancias,
+                  List<Discrepancia> discrepancias) {
+            this.registros = registros;
+            this.cuentas = cuentas;
+            this.bytes = bytes;
+            this.nanos = nanos;
+            this.totalDiscrepancias = totalDiscrepancias;
+            this.discrepancias = Collections.unmodifiableList(discrepancias);
+        }
+
+        public boolean esConsistente() {
+            return totalDiscrepancias == 0;
+        }
+
+        public long getRegistros() {
+            return registros;
+        }
+
+        public int getCuentas() {
+            return cuentas;
+        }
+
+        public long getTotalDiscrepancias() {
+            return totalDiscrepancias;
+        }
+
+        /**
+         * Primeras discrepancias encontradas (como máximo 1000), ordenadas por posición.
+         */
+        public List<Discrepancia> getDiscrepancias() {
+            return discrepancias;
+        }
+
+        public double getRegistrosPorSegundo() {
+            return nanos == 0 ? 0 : registros / (nanos / 1e9);
+        }
+
+        public double getMegabytesPorSegundo() {
+            return nanos == 0 ? 0 : bytes / 1e6 / (nanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                "Registros: %,d | Cuentas: %,d | Discrepancias: %,d | %.1f ms (%,.0f registros/s, %.1f MB/s)",
+                registros, cuentas, totalDiscrepancias, nanos / 1e6, getRegistrosPorSegundo(),
+                getMegabytesPorSegundo());
+        }
+    }
+
+    /**
+     * Último estado conocido de la cadena de saldos de una cuenta.
+     */
+    private static class EstadoCadena {
+        private double saldo;
+        private long posicion;
+    }
+
+    /**
+     * Grupo de registros enviado a una partición.
+     */
+    private static class Lote {
+        private final Transaccion[] transacciones = new Transaccion[TAMANO_LOTE];
+        private final long[] posiciones = new long[TAMANO_LOTE];
+        private int cantidad;
+    }
+
+    private static final Lote FIN = new Lote();
+
+    /**
+     * Hilo que verifica las cadenas de saldo de las cuentas que le corresponden.
+     */
+    private class Particion extends Thread {
+        private final ArrayBlockingQueue<Lote> cola = new ArrayBlockingQueue<>(LOTES_POR_PARTICION);
+        private final Map<Integer, EstadoCadena> estados = new HashMap<>();
+        private final List<Discrepancia> discrepancias = new ArrayList<>();
+        private long totalDiscrepancias;
+        private long registros;
+        private volatile Throwable error;
+
+        Particion(int indice) {
+            super("verificador-" + indice);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                Lote lote;
+                while ((lote = cola.take()) != FIN) {
+                    for (int i = 0; i < lote.cantidad; i++) {
+                        verificarRegistro(lote.transacciones[i], lote.posiciones[i]);
+                    }
+                    registros += lote.cantidad;
+                }
+                verificarSaldosFinales();
+            } catch (Throwable e) {
+                error = e;
+            }
+        }
+
+        private void verificarRegistro(Transaccion transaccion, long posicion) {
+            int numeroCuenta = transaccion.getNumeroCuenta();
+            EstadoCadena estado = estados.get(numeroCuenta);
+            if (estado == null) {
+                // Primer registro: el saldo anterior no está en el archivo
+                estado = new EstadoCadena();
+                estados.put(numeroCuenta, estado);
+            } else {
+                double esperado = estado.saldo + efecto(transaccion);
+                double diferencia = esperado - transaccion.getSaldoFinal();
+                boolean esComision = transaccion.getTipo().equals("RETIRO") &&
+                                     Math.abs(diferencia - comision(numeroCuenta)) <= TOLERANCIA;
+                if (Math.abs(diferencia) > TOLERANCIA && !esComision) {
+                    reportar(new Discrepancia(TipoDiscrepancia.CADENA_SALDO, numeroCuenta, posicion,
+                                              esperado, transaccion.getSaldoFinal()));
+                }
+            }
+            estado.saldo = transaccion.getSaldoFinal();
+            estado.posicion = posicion;
+        }
+
+        private void verificarSaldosFinales() {
+            if (cuentas == null) {
+                return;
+            }
+            for (Map.Entry<Integer, EstadoCadena> entrada : estados.entrySet()) {
+                EstadoCadena estado = entrada.getValue();
+                CuentaBancaria cuenta = cuentas.get(entrada.getKey());
+                if (cuenta == null) {
+                    reportar(new Discrepancia(TipoDiscrepancia.CUENTA_DESCONOCIDA, entrada.getKey(),
+                                              estado.posicion, 0, estado.saldo));
+                } else if (Math.abs(cuenta.getSaldo() - estado.saldo) > TOLERANCIA) {
+                    reportar(new Discrepancia(TipoDiscrepancia.SALDO_FINAL, entrada.getKey(),
+                                              estado.posicion, cuenta.getSaldo(), estado.saldo));
+                }
+            }
+        }
+
+        private void reportar(Discrepancia discrepancia) {
+            totalDiscrepancias++;
+            if (discrepancias.size() < MAXIMO_DISCREPANCIAS) {
+                discrepancias.add(discrepancia);
+            }
+        }
+    }
+
+    private final Map<Integer, CuentaBancaria> cuentas; // null: solo se verifica la cadena de saldos
+    private final int cantidadParticiones;
+
+    /**
+     * Constructor que compara contra las cuentas de un controlador.
+     *
+     * @param controlador Controlador con las cuentas en memoria
+     * @param particiones Cantidad de hilos de verificación
+     */
+    public VerificadorConciliacion(ControladorBancario controlador, int particiones) {
+        this(todasLasCuentas(controlador), particiones);
+    }
+
+    /**
+     * Constructor que compara contra una colección de cuentas (por ejemplo, una copia).
+     *
+     * @param cuentas Cuentas contra las que se comparan los saldos finales (null = no comparar)
+     * @param particiones Cantidad de hilos de verificación
+     */
+    public VerificadorConciliacion(Collection<? extends CuentaBancaria> cuentas, int particiones) {
+        if (particiones <= 0) {
+            throw new IllegalArgumentException("La cantidad de particiones debe ser mayor a cero");
+        }
+        this.cantidadParticiones = particiones;
+        if (cuentas == null) {
+            this.cuentas = null;
+        } else {
+            this.cuentas = new HashMap<>();
+            for (CuentaBancaria cuenta : cuentas) {
+                this.cuentas.put(cuenta.getNumeroCuenta(), cuenta);
+            }
+        }
+    }
+
+    /**
+     * Verifica el archivo de transacciones.
+     *
+     * @param escaner Escáner del archivo de transacciones
+     * @param limite Solo se verifican los primeros "limite" bytes del archivo
+     * @return Resultado con las discrepancias y la velocidad de verificación
+     * @throws IOException Si no se puede leer el archivo
+     */
+    public Resultado verificar(EscanerParalelo escaner, long limite) throws IOException {
+        long inicio = System.nanoTime();
+        Particion[] particiones = new Particion[cantidadParticiones];
+        Lote[] lotes = new Lote[cantidadParticiones];
+        for (int i = 0; i < cantidadParticiones; i++) {
+            particiones[i] = new Particion(i);
+            particiones[i].start();
+            lotes[i] = new Lote();
+        }
+
+        try {
+            escaner.recorrerConPosiciones(EscanerParalelo.TODAS_LAS_CUENTAS, limite, (transaccion, posicion) -> {
+                int i = particionDe(transaccion.getNumeroCuenta());
+                Lote lote = lotes[i];
+                lote.transacciones[lote.cantidad] = transaccion;
+                lote.posiciones[lote.cantidad] = posicion;
+                if (++lote.cantidad == TAMANO_LOTE) {
+                    enviar(particiones[i], lote);
+                    lotes[i] = new Lote();
+                }
+            });
+            for (int i = 0; i < cantidadParticiones; i++) {
+                enviar(particiones[i], lotes[i]);
+                enviar(particiones[i], FIN);
+            }
+            for (Particion particion : particiones) {
+                particion.join();
+                if (particion.error != null) {
+                    throw new IOException("Error en " + particion.getName(), particion.error);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Verificación interrumpida", e);
+        } finally {
+            for (Particion particion : particiones) {
+                particion.interrupt(); // Sin efecto si ya terminó
+            }
+        }
+
+        // Unir los resultados de las particiones
+        long registros = 0;
+        int cantidadCuentas = 0;
+        long totalDiscrepancias = 0;
+        List<Discrepancia> discrepancias = new ArrayList<>();
+        for (Particion particion : particiones) {
+            registros += particion.registros;
+            cantidadCuentas += particion.estados.size();
+            totalDiscrepancias += particion.totalDiscrepancias;
+            discrepancias.addAll(particion.discrepancias);
+        }
+        discrepancias.sort((a, b) -> Long.compare(a.posicion, b.posicion));
+        if (discrepancias.size() > MAXIMO_DISCREPANCIAS) {
+            discrepancias = new ArrayList<>(discrepancias.subList(0, MAXIMO_DISCREPANCIAS));
+        }
+
+        return new Resultado(registros, cantidadCuentas, escaner.getBytesUltimoRecorrido(),
+                             System.nanoTime() - inicio, totalDiscrepancias, discrepancias);
+    }
+
+    // ==================== MÉTODOS INTERNOS ====================
+
+    /**
+     * Envía un lote a una partición; si la partición terminó por un error, no espera.
+     */
+    private static void enviar(Particion particion, Lote lote) {
+        try {
+            while (!particion.cola.offer(lote, 100, TimeUnit.MILLISECONDS)) {
+                if (!particion.isAlive()) {
+                    throw new IllegalStateException("La partición " + particion.getName() + " terminó",
+                                                    particion.error);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verificación interrumpida", e);
+        }
+    }
+
+    private int particionDe(int numeroCuenta) {
+        int h = numeroCuenta * 0x9E3779B9;
+        return ((h ^ (h >>> 16)) & 0x7FFFFFFF) % cantidadParticiones;
+    }
+
+    private double comision(int numeroCuenta) {
+        CuentaBancaria cuenta = cuentas == null ? null : cuentas.get(numeroCuenta);
+        return cuenta == null ? 0 : cuenta.getPolitica().getComisionRetiro();
+    }
+
+    private static double efecto(Transaccion transaccion) {
+        return transaccion.getTipo().equals("RETIRO") ? -transaccion.getMonto() : transaccion.getMonto();
+    }
+
+    private static List<CuentaBancaria> todasLasCuentas(ControladorBancario controlador) {
+        List<CuentaBancaria> todas = new ArrayList<>(controlador.getCantidadCuentas());
+        Integer cursor = null;
+        do {
+            PaginaCuentas pagina = controlador.listarCuentas(cursor, 1024, FiltroCuentas.TODAS);
+            todas.addAll(pagina.getCuentas());
+            cursor = pagina.getSiguienteClave();
+        } while (cursor != null);
+        return todas;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package Excepciones;
+
+/**
+ * Excepción lanzada cuando una transferencia falló después de debitar la cuenta
+ * origen y tampoco se pudo devolver lo debitado. El dinero queda fuera de las
+ * dos cuentas hasta que alguien lo devuelva a mano, así que no debe tratarse
+ * como un rechazo común.
+ *
+ * La causa es el error de la devolución; el error original de la transferencia
+ * queda como excepción suprimida.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class CompensacionFallidaException extends OperacionInvalidaException {
+
+    private final int numeroCuenta;
+    private final double montoPendiente;
+
+    /**
+     * Constructor de CompensacionFallidaException.
+     *
+     * @param mensaje Descripción del error
+     * @param numeroCuenta Cuenta a la que no se pudo devolver el dinero
+     * @param montoPendiente Monto debitado que falta devolver (con la comisión)
+     * @param causa Error de la devolución
+     */
+    public CompensacionFallidaException(String mensaje, int numeroCuenta, double montoPendiente, Throwable causa) {
+        super(mensaje, causa);
+        this.numeroCuenta = numeroCuenta;
+        this.montoPendiente = montoPendiente;
+    }
+
+    public int getNumeroCuenta() {
+        return numeroCuenta;
+    }
+
+    public double getMontoPendiente() {
+        return montoPendiente;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,357 @@
+package Model;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Formato de archivo comprimido para segmentos antiguos del registro de transacciones.
+ *
+ * Los registros se agrupan en bloques de hasta 4096 y cada bloque se guarda por columnas:
+ * - Fechas: diferencia en segundos con el registro anterior (varint)
+ * - Cuentas: índice en el diccionario de cuentas del bloque (varint)
+ * - Tipos: índice en el diccionario de tipos del bloque (1 byte)
+ * - Montos: centavos (varint)
+ * - Saldos: diferencia en centavos con el saldo anterior de la misma cuenta (varint zigzag)
+ *
+ * El encabezado de cada bloque trae el diccionario de cuentas ordenado, así las
+ * consultas por cuenta saltan sin decodificar los bloques que no la contienen.
+ * Las claves de idempotencia no se archivan (solo sirven durante 24 horas).
+ *
+ * Estructura: "BANCOARC" version (bloque)*
+ * Bloque: cantidad, bytesCuerpo, fechaInicial, diccionario de cuentas, cuerpo
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class ArchivoComprimido {
+
+    private static final byte[] FIRMA = "BANCOARC".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final int REGISTROS_POR_BLOQUE = 4096;
+
+    /**
+     * Resultado de una compactación.
+     */
+    public static class EstadisticasCompresion {
+        private final long registros;
+        private final long bytesTexto;
+        private final long bytesComprimidos;
+
+        EstadisticasCompresion(long registros, long bytesTexto, long bytesComprimidos) {
+            this.registros = registros;
+            this.bytesTexto = bytesTexto;
+            this.bytesComprimidos = bytesComprimidos;
+        }
+
+        public long getRegistros() {
+            return registros;
+        }
+
+        public long getBytesTexto() {
+            return bytesTexto;
+        }
+
+        public long getBytesComprimidos() {
+            return bytesComprimidos;
+        }
+
+        /**
+         * Relación de compresión (bytes de texto / bytes comprimidos).
+         */
+        public double getRelacion() {
+            return bytesComprimidos == 0 ? 0 : (double) bytesTexto / bytesComprimidos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(java.util.Locale.ROOT,
+                "Registros: %,d | Texto: %,d bytes (%.1f B/registro) | Comprimido: %,d bytes (%.1f B/registro) | Relación: %.1fx",
+                registros, bytesTexto, registros == 0 ? 0.0 : (double) bytesTexto / registros,
+                bytesComprimidos, registros == 0 ? 0.0 : (double) bytesComprimidos / registros, getRelacion());
+        }
+    }
+
+    /**
+     * Compacta los registros del archivo de texto anteriores a una fecha.
+     * El archivo de texto no se modifica.
+     *
+     * @param texto Archivo de transacciones en texto
+     * @param destino Archivo comprimido a crear
+     * @param hasta Se archivan los registros anteriores a esta fecha (null = todos)
+     * @return Estadísticas de la compactación
+     * @throws IOException Si no se puede leer o escribir
+     */
+    public static EstadisticasCompresion compactar(File texto, File destino, LocalDateTime hasta) throws IOException {
+        long registros = 0;
+        long bytesTexto = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                 new FileInputStream(texto), StandardCharsets.UTF_8));
+             DataOutputStream salida = new DataOutputStream(new BufferedOutputStream(
+                 new FileOutputStream(destino)))) {
+
+            salida.write(FIRMA);
+            salida.writeInt(VERSION);
+
+            List<Transaccion> bloque = new ArrayList<>(REGISTROS_POR_BLOQUE);
+            String linea;
+            while ((linea = reader.readLine()) != null) {
+                Transaccion t = Transaccion.parsear(linea);
+                if (t == null) {
+                    continue;
+                }
+                if (hasta != null && !t.getFechaHora().isBefore(hasta)) {
+                    break; // El archivo está en orden cronológico
+                }
+                bloque.add(t);
+                registros++;
+                bytesTexto += linea.length() + System.lineSeparator().length();
+                if (bloque.size() == REGISTROS_POR_BLOQUE) {
+                    escribirBloque(salida, bloque);
+                    bloque.clear();
+                }
+            }
+            if (!bloque.isEmpty()) {
+                escribirBloque(salida, bloque);
+            }
+        }
+
+        return new EstadisticasCompresion(registros, bytesTexto, destino.length());
+    }
+
+    /**
+     * Recorre todos los registros del archivo comprimido en orden.
+     *
+     * @param archivo Archivo comprimido
+     * @param consumidor Recibe cada transacción
+     * @throws IOException Si no se puede leer o el formato es inválido
+     */
+    public static void escanear(File archivo, Consumer<Transaccion> consumidor) throws IOException {
+        leer(archivo, -1, consumidor);
+    }
+
+    /**
+     * Obtiene el historial de una cuenta directamente del archivo comprimido,
+     * saltando los bloques donde la cuenta no aparece.
+     *
+     * @param archivo Archivo comprimido
+     * @param numeroCuenta Número de cuenta
+     * @return Transacciones de la cuenta en orden
+     * @throws IOException Si no se puede leer o el formato es inválido
+     */
+    public static List<Transaccion> consultarCuenta(File archivo, int numeroCuenta) throws IOException {
+        List<Transaccion> resultado = new ArrayList<>();
+        leer(archivo, numeroCuenta, resultado::add);
+        return resultado;
+    }
+
+    // ==================== ESCRITURA ====================
+
+    private static void escribirBloque(DataOutputStream salida, List<Transaccion> bloque) throws IOException {
+        // Diccionarios del bloque
+        int[] cuentas = bloque.stream().mapToInt(Transaccion::getNumeroCuenta).distinct().sorted().toArray();
+        Map<String, Integer> tipos = new LinkedHashMap<>();
+        for (Transaccion t : bloque) {
+            tipos.putIfAbsent(t.getTipo(), tipos.size());
+        }
+
+        ByteArrayOutputStream fechas = new ByteArrayOutputStream();
+        ByteArrayOutputStream columnaCuentas = new ByteArrayOutputStream();
+        ByteArrayOutputStream columnaTipos = new ByteArrayOutputStream();
+        ByteArrayOutputStream montos = new ByteArrayOutputStream();
+        ByteArrayOutputStream saldos = new ByteArrayOutputStream();
+
+        long fechaInicial = segundos(bloque.get(0).getFechaHora());
+        long fechaAnterior = fechaInicial;
+        long[] saldoAnterior = new long[cuentas.length];
+
+        for (Transaccion t : bloque) {
+            long fecha = segundos(t.getFechaHora());
+            escribirVarint(fechas, zigzag(fecha - fechaAnterior));
+            fechaAnterior = fecha;
+
+            int indiceCuenta = Arrays.binarySearch(cuentas, t.getNumeroCuenta());
+            escribirVarint(columnaCuentas, indiceCuenta);
+            columnaTipos.write(tipos.get(t.getTipo()));
+            escribirVarint(montos, zigzag(centavos(t.getMonto())));
+
+            long saldo = centavos(t.getSaldoFinal());
+            escribirVarint(saldos, zigzag(saldo - saldoAnterior[indiceCuenta]));
+            saldoAnterior[indiceCuenta] = saldo;
+        }
+
+        ByteArrayOutputStream cuerpo = new ByteArrayOutputStream();
+        DataOutputStream datos = new DataOutputStream(cuerpo);
+        datos.writeShort(tipos.size());
+        for (String tipo : tipos.keySet()) {
+            datos.writeUTF(tipo);
+        }
+        for (ByteArrayOutputStream columna : new ByteArrayOutputStream[] {fechas, columnaCuentas, columnaTipos, montos, saldos}) {
+            datos.writeInt(columna.size());
+            columna.writeTo(datos);
+        }
+
+        salida.writeInt(bloque.size());
+        salida.writeLong(fechaInicial);
+        ByteArrayOutputStream diccionario = new ByteArrayOutputStream();
+        escribirVarint(diccionario, cuentas.length);
+        long cuentaAnterior = 0;
+        for (int cuenta : cuentas) {
+            escribirVarint(diccionario, zigzag(cuenta - cuentaAnterior));
+            cuentaAnterior = cuenta;
+        }
+        salida.writeInt(diccionario.size());
+        diccionario.writeTo(salida);
+        salida.writeInt(cuerpo.size());
+        cuerpo.writeTo(salida);
+    }
+
+    // ==================== LECTURA ====================
+
+    private static void leer(File archivo, int cuentaBuscada, Consumer<Transaccion> consumidor) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(
+                 new FileInputStream(archivo), 64 * 1024))) {
+
+            byte[] firma = new byte[FIRMA.length];
+            entrada.readFully(firma);
+            if (!Arrays.equals(firma, FIRMA) || entrada.readInt() != VERSION) {
+                throw new IOException("Formato de archivo comprimido inválido: " + archivo);
+            }
+
+            while (true) {
+                int cantidad;
+                try {
+                    cantidad = entrada.readInt();
+                } catch (EOFException e) {
+                    return; // Fin del archivo
+                }
+                long fechaInicial = entrada.readLong();
+
+                byte[] diccionario = new byte[entrada.readInt()];
+                entrada.readFully(diccionario);
+                int[] cuentas = leerCuentas(diccionario);
+
+                int bytesCuerpo = entrada.readInt();
+                int indiceBuscado = -1;
+                if (cuentaBuscada >= 0) {
+                    indiceBuscado = Arrays.binarySearch(cuentas, cuentaBuscada);
+                    if (indiceBuscado < 0) {
+                        entrada.skipNBytes(bytesCuerpo); // La cuenta no está en este bloque
+                        continue;
+                    }
+                }
+
+                byte[] cuerpo = new byte[bytesCuerpo];
+                entrada.readFully(cuerpo);
+                decodificarBloque(cuerpo, cantidad, fechaInicial, cuentas, indiceBuscado, consumidor);
+            }
+        }
+    }
+
+    private static int[] leerCuentas(byte[] diccionario) {
+        int[] posicion = {0};
+        int[] cuentas = new int[(int) leerVarint(diccionario, posicion)];
+        long cuenta = 0;
+        for (int i = 0; i < cuentas.length; i++) {
+            cuenta += deszigzag(leerVarint(diccionario, posicion));
+            cuentas[i] = (int) cuenta;
+        }
+        return cuentas;
+    }
+
+    private static void decodificarBloque(byte[] cuerpo, int cantidad, long fechaInicial, int[] cuentas,
+                                          int indiceBuscado, Consumer<Transaccion> consumidor) throws IOException {
+        DataInputStream datos = new DataInputStream(new ByteArrayInputStream(cuerpo));
+        String[] tipos = new String[datos.readUnsignedShort()];
+        for (int i = 0; i < tipos.length; i++) {
+            tipos[i] = datos.readUTF();
+        }
+
+        // Posición de inicio de cada columna dentro del cuerpo
+        int[] columnas = new int[5];
+        int posicion = cuerpo.length - datos.available();
+        for (int c = 0; c < columnas.length; c++) {
+            int longitud = leerEntero(cuerpo, posicion);
+            columnas[c] = posicion + 4;
+            posicion += 4 + longitud;
+        }
+
+        int[] pFechas = {columnas[0]};
+        int[] pCuentas = {columnas[1]};
+        int pTipos = columnas[2];
+        int[] pMontos = {columnas[3]};
+        int[] pSaldos = {columnas[4]};
+
+        long fecha = fechaInicial;
+        long[] saldoAnterior = new long[cuentas.length];
+        Map<Long, LocalDateTime> fechasDecodificadas = new HashMap<>();
+
+        for (int i = 0; i < cantidad; i++) {
+            fecha += deszigzag(leerVarint(cuerpo, pFechas));
+            int indiceCuenta = (int) leerVarint(cuerpo, pCuentas);
+            int tipo = cuerpo[pTipos + i] & 0xFF;
+            long monto = deszigzag(leerVarint(cuerpo, pMontos));
+            long saldo = saldoAnterior[indiceCuenta] + deszigzag(leerVarint(cuerpo, pSaldos));
+            saldoAnterior[indiceCuenta] = saldo;
+
+            if (indiceBuscado < 0 || indiceCuenta == indiceBuscado) {
+                LocalDateTime fechaHora = fechasDecodificadas.computeIfAbsent(
+                    fecha, s -> LocalDateTime.ofEpochSecond(s, 0, ZoneOffset.UTC));
+                consumidor.accept(new Transaccion(fechaHora, cuentas[indiceCuenta], tipos[tipo],
+                                                  monto / 100.0, saldo / 100.0));
+            }
+        }
+    }
+
+    // ==================== UTILIDADES ====================
+
+    private static long segundos(LocalDateTime fechaHora) {
+        return fechaHora.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long centavos(double valor) {
+        return Math.round(valor * 100);
+    }
+
+    private static long zigzag(long valor) {
+        return (valor << 1) ^ (valor >> 63);
+    }
+
+    private static long deszigzag(long valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    private static void escribirVarint(ByteArrayOutputStream salida, long valor) {
+        while ((valor & ~0x7FL) != 0) {
+            salida.write((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        salida.write((int) valor);
+    }
+
+    private static long leerVarint(byte[] datos, int[] posicion) {
+        long valor = 0;
+        int desplazamiento = 0;
+        byte b;
+        do {
+            b = datos[posicion[0]++];
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            desplazamiento += 7;
+        } while ((b & 0x80) != 0);
+        return valor;
+    }
+
+    private static int leerEntero(byte[] datos, int posicion) {
+        return ((datos[posicion] & 0xFF) << 24) | ((datos[posicion + 1] & 0xFF) << 16) |
+               ((datos[posicion + 2] & 0xFF) << 8) | (datos[posicion + 3] & 0xFF);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,199 @@
+package Model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache LRU en memoria de historiales de transacciones por cuenta.
+ *
+ * Cada historial cargado se mantiene al día: cuando se guarda una transacción
+ * de una cuenta que está en la cache, el registro se agrega al historial en vez
+ * de invalidarlo. El tamaño se limita por una estimación de memoria en bytes;
+ * al superarla se expulsan los historiales usados hace más tiempo.
+ *
+ * Para no perder registros guardados mientras se lee el archivo, la carga se
+ * hace en dos pasos: iniciarCarga() (antes de leer) y completarCarga() (después).
+ * Lo que se guarde entre ambos pasos se agrega al resultado de la lectura.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class CacheHistorial {
+
+    // Estimación de memoria de una Transaccion con su LocalDateTime y la referencia en la lista
+    private static final long BYTES_POR_REGISTRO = 136;
+    // Estimación del costo fijo de cada historial (entrada del mapa, lista, Integer)
+    private static final long BYTES_POR_HISTORIAL = 96;
+
+    private final long capacidadBytes;
+    private final LinkedHashMap<Integer, List<Transaccion>> historiales; // Orden LRU
+    private final Map<Integer, List<Transaccion>> indice = new HashMap<>(); // Búsqueda sin alterar el orden
+    private final Map<Integer, List<Transaccion>> cargasPendientes = new HashMap<>();
+    private long bytesUsados;
+
+    // Métricas
+    private long aciertos;
+    private long fallos;
+    private long expulsiones;
+
+    /**
+     * Constructor de CacheHistorial.
+     *
+     * @param capacidadBytes Memoria máxima estimada para los historiales
+     */
+    public CacheHistorial(long capacidadBytes) {
+        this.capacidadBytes = capacidadBytes;
+        this.historiales = new LinkedHashMap<>(16, 0.75f, true); // Orden por acceso (LRU)
+    }
+
+    /**
+     * Obtiene el historial de una cuenta si está en la cache.
+     *
+     * @param numeroCuenta Número de cuenta
+     * @return Copia del historial, o null si no está en la cache
+     */
+    public synchronized List<Transaccion> obtener(int numeroCuenta) {
+        List<Transaccion> historial = historiales.get(numeroCuenta);
+        if (historial == null) {
+            fallos++;
+            return null;
+        }
+        aciertos++;
+        return Collections.unmodifiableList(new ArrayList<>(historial));
+    }
+
+    /**
+     * Marca que se va a leer el historial de una cuenta desde el archivo.
+     * Debe llamarse antes de empezar la lectura, con las escrituras detenidas.
+     *
+     * @param numeroCuenta Número de cuenta
+     */
+    public synchronized void iniciarCarga(int numeroCuenta) {
+        cargasPendientes.putIfAbsent(numeroCuenta, new ArrayList<>());
+    }
+
+    /**
+     * Guarda en la cache el historial leído del archivo, junto con lo que se
+     * agregó mientras se leía.
+     *
+     * @param numeroCuenta Número de cuenta
+     * @param leidas Transacciones leídas del archivo
+     * @return Historial completo de la cuenta
+     */
+    public synchronized List<Transaccion> completarCarga(int numeroCuenta, List<Transaccion> leidas) {
+        List<Transaccion> agregadas = cargasPendientes.remove(numeroCuenta);
+        if (agregadas == null) {
+            // Otra carga de la misma cuenta ya terminó: usar su resultado si sigue en la cache
+            List<Transaccion> existente = indice.get(numeroCuenta);
+            return Collections.unmodifiableList(new ArrayList<>(existente != null ? existente : leidas));
+        }
+
+        List<Transaccion> historial = new ArrayList<>(leidas.size() + agregadas.size());
+        historial.addAll(leidas);
+        historial.addAll(agregadas);
+
+        long tamano = estimarBytes(historial.size());
+        if (tamano <= capacidadBytes) {
+            List<Transaccion> anterior = historiales.put(numeroCuenta, historial);
+            if (anterior != null) {
+                bytesUsados -= estimarBytes(anterior.size());
+            }
+            indice.put(numeroCuenta, historial);
+            bytesUsados += tamano;
+            expulsarSiHaceFalta(numeroCuenta);
+        }
+        return Collections.unmodifiableList(new ArrayList<>(historial));
+    }
+
+    /**
+     * Indica si la cuenta tiene un historial en la cache o en carga, es decir,
+     * si hace falta agregarle las transacciones nuevas.
+     *
+     * @param numeroCuenta Número de cuenta
+     * @return true si la cuenta está en la cache o cargándose
+     */
+    public synchronized boolean contiene(int numeroCuenta) {
+        return indice.containsKey(numeroCuenta) || cargasPendientes.containsKey(numeroCuenta);
+    }
+
+    /**
+     * Agrega una transacción nueva al historial de su cuenta, si está en la cache.
+     *
+     * @param transaccion Transacción recién guardada
+     */
+    public synchronized void agregar(Transaccion transaccion) {
+        int numeroCuenta = transaccion.getNumeroCuenta();
+
+        List<Transaccion> pendiente = cargasPendientes.get(numeroCuenta);
+        if (pendiente != null) {
+            pendiente.add(transaccion);
+        }
+
+        // Agregar un registro no cuenta como uso: no se altera el orden LRU
+        List<Transaccion> historial = indice.get(numeroCuenta);
+        if (historial != null) {
+            historial.add(transaccion);
+            bytesUsados += BYTES_POR_REGISTRO;
+            expulsarSiHaceFalta(-1);
+        }
+    }
+
+    /**
+     * Vacía la cache (por ejemplo, al reiniciar el archivo de transacciones).
+     */
+    public synchronized void limpiar() {
+        historiales.clear();
+        indice.clear();
+        cargasPendientes.clear();
+        bytesUsados = 0;
+    }
+
+    private void expulsarSiHaceFalta(int protegida) {
+        Iterator<Map.Entry<Integer, List<Transaccion>>> it = historiales.entrySet().iterator();
+        while (bytesUsados > capacidadBytes && it.hasNext()) {
+            Map.Entry<Integer, List<Transaccion>> masAntigua = it.next();
+            if (masAntigua.getKey() == protegida) {
+                continue;
+            }
+            bytesUsados -= estimarBytes(masAntigua.getValue().size());
+            indice.remove(masAntigua.getKey());
+            it.remove();
+            expulsiones++;
+        }
+    }
+
+    private static long estimarBytes(int registros) {
+        return BYTES_POR_HISTORIAL + registros * BYTES_POR_REGISTRO;
+    }
+
+    // ==================== MÉTRICAS ====================
+
+    public synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    public synchronized long getFallos() {
+        return fallos;
+    }
+
+    public synchronized long getExpulsiones() {
+        return expulsiones;
+    }
+
+    public synchronized long getBytesUsados() {
+        return bytesUsados;
+    }
+
+    public synchronized int getCantidadHistoriales() {
+        return historiales.size();
+    }
+
+    public long getCapacidadBytes() {
+        return capacidadBytes;
+    }
+}
\ No newline at end of file
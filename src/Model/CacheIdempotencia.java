@@ -0,0 +1,209 @@
+package Model;
+
+import java.util.Arrays;
+
+/**
+ * Cache acotada de claves de idempotencia para depósitos y retiros.
+ *
+ * Guarda, para cada clave ya procesada, la cuenta y el saldo resultante de la
+ * operación original, de modo que un reintento con la misma clave devuelva el
+ * mismo resultado sin aplicarse de nuevo.
+ *
+ * Implementación: tabla hash de direccionamiento abierto (sondeo lineal) sobre
+ * arreglos primitivos, sin objetos por entrada. Las entradas vencen después del
+ * tiempo de vida configurado; si la tabla se llena se reconstruye descartando
+ * las vencidas y, si hace falta, las más antiguas.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class CacheIdempotencia {
+
+    private static final long VACIA = 0L; // La clave 0 significa "sin clave"
+
+    private final long tiempoVidaMillis;
+    private final int maximoEntradas;
+    private final int mascara;
+
+    private long[] claves;
+    private long[] instantes;
+    private int[] cuentas;
+    private double[] saldos;
+    private int ocupadas;
+
+    // Arreglos de reserva para reconstruir la tabla sin crear objetos nuevos
+    private long[] clavesReserva;
+    private long[] instantesReserva;
+    private int[] cuentasReserva;
+    private double[] saldosReserva;
+
+    /**
+     * Constructor de CacheIdempotencia.
+     *
+     * @param maximoEntradas Máximo de claves recordadas al mismo tiempo
+     * @param tiempoVidaMillis Tiempo durante el cual se recuerda una clave
+     */
+    public CacheIdempotencia(int maximoEntradas, long tiempoVidaMillis) {
+        if (maximoEntradas <= 0 || tiempoVidaMillis <= 0) {
+            throw new IllegalArgumentException("Capacidad y tiempo de vida deben ser mayores a cero");
+        }
+        // Tabla de tamaño potencia de 2, con ocupación máxima del 50%
+        int capacidad = Integer.highestOneBit(Math.max(2, maximoEntradas) * 2 - 1) << 1;
+        this.maximoEntradas = maximoEntradas;
+        this.tiempoVidaMillis = tiempoVidaMillis;
+        this.mascara = capacidad - 1;
+
+        this.claves = new long[capacidad];
+        this.instantes = new long[capacidad];
+        this.cuentas = new int[capacidad];
+        this.saldos = new double[capacidad];
+        this.clavesReserva = new long[capacidad];
+        this.instantesReserva = new long[capacidad];
+        this.cuentasReserva = new int[capacidad];
+        this.saldosReserva = new double[capacidad];
+    }
+
+    /**
+     * Consulta el resultado guardado para una clave vigente.
+     *
+     * @param clave Clave de idempotencia (distinta de 0)
+     * @param numeroCuenta Cuenta de la operación que se reintenta
+     * @param ahoraMillis Instante actual
+     * @return Saldo resultante de la operación original, o NaN si la clave no está o ya venció
+     * @throws IllegalArgumentException Si la clave se usó con otra cuenta
+     */
+    public synchronized double consultarSaldo(long clave, int numeroCuenta, long ahoraMillis) {
+        int i = posicionInicial(clave);
+        while (claves[i] != VACIA) {
+            if (claves[i] == clave) {
+                if (!vigente(i, ahoraMillis)) {
+                    return Double.NaN;
+                }
+                if (cuentas[i] != numeroCuenta) {
+                    throw new IllegalArgumentException("La clave de idempotencia " + clave + 
+                                                       " ya se usó con la cuenta " + cuentas[i]);
+                }
+                return saldos[i];
+            }
+            i = (i + 1) & mascara;
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Registra el resultado de una operación con clave de idempotencia.
+     *
+     * @param clave Clave de idempotencia (distinta de 0)
+     * @param numeroCuenta Cuenta de la operación
+     * @param saldoResultante Saldo después de la operación
+     * @param instanteMillis Momento en que se realizó la operación
+     */
+    public synchronized void registrar(long clave, int numeroCuenta, double saldoResultante,
+                                       long instanteMillis) {
+        if (clave == VACIA) {
+            throw new IllegalArgumentException("La clave de idempotencia no puede ser 0");
+        }
+
+        int i = posicionInicial(clave);
+        int libre = -1; // Primera entrada vencida reutilizable dentro de la cadena
+        while (claves[i] != VACIA) {
+            if (claves[i] == clave) {
+                escribir(i, clave, numeroCuenta, saldoResultante, instanteMillis);
+                return;
+            }
+            if (libre < 0 && !vigente(i, instanteMillis)) {
+                libre = i;
+            }
+            i = (i + 1) & mascara;
+        }
+
+        if (libre >= 0) {
+            escribir(libre, clave, numeroCuenta, saldoResultante, instanteMillis);
+            return;
+        }
+
+        if (ocupadas >= maximoEntradas) {
+            reconstruir(instanteMillis);
+            registrar(clave, numeroCuenta, saldoResultante, instanteMillis);
+            return;
+        }
+
+        escribir(i, clave, numeroCuenta, saldoResultante, instanteMillis);
+        ocupadas++;
+    }
+
+    /**
+     * Cantidad de entradas ocupadas (incluye vencidas aún no descartadas).
+     */
+    public synchronized int getOcupadas() {
+        return ocupadas;
+    }
+
+    // ==================== MÉTODOS INTERNOS ====================
+
+    private boolean vigente(int i, long ahoraMillis) {
+        return ahoraMillis - instantes[i] < tiempoVidaMillis;
+    }
+
+    private void escribir(int i, long clave, int numeroCuenta, double saldo, long instante) {
+        claves[i] = clave;
+        cuentas[i] = numeroCuenta;
+        saldos[i] = saldo;
+        instantes[i] = instante;
+    }
+
+    private int posicionInicial(long clave) {
+        long h = clave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+
+    /**
+     * Reconstruye la tabla sin las entradas vencidas. Si sigue llena, descarta
+     * también las más antiguas hasta dejar libre al menos la mitad.
+     */
+    private void reconstruir(long ahoraMillis) {
+        long corte = ahoraMillis - tiempoVidaMillis;
+        while (contarDesde(corte) > maximoEntradas / 2) {
+            long masAntigua = Long.MAX_VALUE;
+            for (int i = 0; i <= mascara; i++) {
+                if (claves[i] != VACIA && instantes[i] > corte && instantes[i] < masAntigua) {
+                    masAntigua = instantes[i];
+                }
+            }
+            // Descartar la mitad más antigua del intervalo restante (al menos la más antigua)
+            corte = masAntigua + Math.max(0, (ahoraMillis - masAntigua) / 2);
+        }
+
+        Arrays.fill(clavesReserva, VACIA);
+        int nuevas = 0;
+        for (int i = 0; i <= mascara; i++) {
+            if (claves[i] != VACIA && instantes[i] > corte) {
+                int j = posicionInicial(claves[i]);
+                while (clavesReserva[j] != VACIA) {
+                    j = (j + 1) & mascara;
+                }
+                clavesReserva[j] = claves[i];
+                instantesReserva[j] = instantes[i];
+                cuentasReserva[j] = cuentas[i];
+                saldosReserva[j] = saldos[i];
+                nuevas++;
+            }
+        }
+
+        long[] tmpClaves = claves; claves = clavesReserva; clavesReserva = tmpClaves;
+        long[] tmpInstantes = instantes; instantes = instantesReserva; instantesReserva = tmpInstantes;
+        int[] tmpCuentas = cuentas; cuentas = cuentasReserva; cuentasReserva = tmpCuentas;
+        double[] tmpSaldos = saldos; saldos = saldosReserva; saldosReserva = tmpSaldos;
+        ocupadas = nuevas;
+    }
+
+    private int contarDesde(long corte) {
+        int cantidad = 0;
+        for (int i = 0; i <= mascara; i++) {
+            if (claves[i] != VACIA && instantes[i] > corte) {
+                cantidad++;
+            }
+        }
+        return cantidad;
+    }
+}
\ No newline at end of file
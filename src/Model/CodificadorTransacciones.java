@@ -0,0 +1,287 @@
+package Model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+
+/**
+ * Codifica registros de transacciones directamente en un buffer de bytes reutilizable.
+ * Produce exactamente el mismo formato de línea que se guarda en Transacciones.txt:
+ *
+ * yyyy-MM-dd HH:mm:ss | Cuenta: n | TIPO | Monto: $0.00 | Saldo Final: $0.00
+ *
+ * Si la operación trae clave de idempotencia se agrega al final " | Clave: k".
+ *
+ * No crea objetos por registro: la fecha se cachea por segundo y los números se
+ * escriben a mano (salvo los montos que caen justo en medio centavo, ver
+ * escribirDecimal()). Solo se consulta la zona horaria una vez por minuto para
+ * detectar cambios de horario.
+ *
+ * NO es seguro para hilos: cada instancia debe usarse desde un solo hilo
+ * (o protegida por un bloqueo externo).
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class CodificadorTransacciones {
+
+    private static final byte[] SEP_CUENTA = ascii(" | Cuenta: ");
+    private static final byte[] SEP_TIPO = ascii(" | ");
+    private static final byte[] SEP_MONTO = ascii(" | Monto: $");
+    private static final byte[] SEP_SALDO = ascii(" | Saldo Final: $");
+    private static final byte[] SEP_CLAVE = ascii(" | Clave: ");
+    private static final byte[] FIN_LINEA = ascii(System.lineSeparator());
+
+    // Por encima de este valor los centavos ya no caben con precisión en un long
+    private static final double MAXIMO_RAPIDO = 1e15;
+
+    private final ZoneRules reglasZona;
+    private byte[] buffer = new byte[128];
+    private int longitud;
+
+    // Cache de la fecha-hora del último segundo codificado ("yyyy-MM-dd HH:mm:ss")
+    private final byte[] prefijoFecha = new byte[19];
+    private long segundoCacheado = Long.MIN_VALUE;
+
+    // Cache del desfase horario, se recalcula una vez por minuto
+    private int desfaseSegundos;
+    private long minutoDesfase = Long.MIN_VALUE;
+
+    /**
+     * Constructor que usa la zona horaria del sistema.
+     */
+    public CodificadorTransacciones() {
+        this(ZoneId.systemDefault());
+    }
+
+    /**
+     * Constructor con una zona horaria específica.
+     *
+     * @param zona Zona horaria en la que se escriben las fechas
+     */
+    public CodificadorTransacciones(ZoneId zona) {
+        this.reglasZona = zona.getRules();
+    }
+
+    /**
+     * Codifica una transacción en el buffer interno, reemplazando el contenido anterior.
+     *
+     * @param epochMillis Instante de la transacción (milisegundos desde 1970)
+     * @param numeroCuenta Número de cuenta
+     * @param tipoTransaccion "DEPOSITO", "RETIRO", "INTERESES" (solo caracteres ASCII)
+     * @param monto Monto de la transacción
+     * @param saldoResultante Saldo después de la transacción
+     * @return Cantidad de bytes escritos en el buffer
+     */
+    public int codificar(long epochMillis, int numeroCuenta, String tipoTransaccion,
+                         double monto, double saldoResultante) {
+        return codificar(epochMillis, numeroCuenta, tipoTransaccion, monto, saldoResultante, 0L);
+    }
+
+    /**
+     * Codifica una transacción con clave de idempotencia.
+     *
+     * @param epochMillis Instante de la transacción (milisegundos desde 1970)
+     * @param numeroCuenta Número de cuenta
+     * @param tipoTransaccion "DEPOSITO", "RETIRO", "INTERESES" (solo caracteres ASCII)
+     * @param monto Monto de la transacción
+     * @param saldoResultante Saldo después de la transacción
+     * @param claveIdempotencia Clave de la operación (0 si no tiene)
+     * @return Cantidad de bytes escritos en el buffer
+     */
+    public int codificar(long epochMillis, int numeroCuenta, String tipoTransaccion,
+                         double monto, double saldoResultante, long claveIdempotencia) {
+        longitud = 0;
+        asegurarCapacidad(128 + tipoTransaccion.length());
+
+        escribirFecha(Math.floorDiv(epochMillis, 1000L));
+        escribir(SEP_CUENTA);
+        escribirEntero(numeroCuenta);
+        escribir(SEP_TIPO);
+        for (int i = 0; i < tipoTransaccion.length(); i++) {
+            buffer[longitud++] = (byte) tipoTransaccion.charAt(i);
+        }
+        escribir(SEP_MONTO);
+        escribirDecimal(monto);
+        escribir(SEP_SALDO);
+        escribirDecimal(saldoResultante);
+        if (claveIdempotencia != 0L) {
+            escribir(SEP_CLAVE);
+            escribirEntero(claveIdempotencia);
+        }
+        escribir(FIN_LINEA);
+
+        return longitud;
+    }
+
+    /**
+     * Devuelve el buffer interno. Solo los primeros getLongitud() bytes son válidos
+     * y se sobrescriben en la siguiente llamada a codificar().
+     *
+     * @return Buffer con el último registro codificado
+     */
+    public byte[] getBuffer() {
+        return buffer;
+    }
+
+    public int getLongitud() {
+        return longitud;
+    }
+
+    /**
+     * Fecha del último registro codificado como segundos locales (la fecha-hora
+     * escrita, contada como si fuera UTC). Sirve para comparar el orden de las
+     * fechas tal como quedan en el archivo.
+     *
+     * @return Segundos locales del último registro
+     */
+    public long getSegundoLocal() {
+        return segundoCacheado + desfaseSegundos;
+    }
+
+    // ==================== ESCRITURA DE CAMPOS ====================
+
+    private void escribirFecha(long epochSegundo) {
+        if (epochSegundo != segundoCacheado) {
+            actualizarPrefijoFecha(epochSegundo);
+        }
+        System.arraycopy(prefijoFecha, 0, buffer, longitud, prefijoFecha.length);
+        longitud += prefijoFecha.length;
+    }
+
+    /**
+     * Recalcula "yyyy-MM-dd HH:mm:ss" para un nuevo segundo sin crear objetos
+     * de fecha (salvo la consulta del desfase horario, una vez por minuto).
+     */
+    private void actualizarPrefijoFecha(long epochSegundo) {
+        long minuto = Math.floorDiv(epochSegundo, 60L);
+        if (minuto != minutoDesfase) {
+            ZoneOffset desfase = reglasZona.getOffset(Instant.ofEpochSecond(epochSegundo));
+            desfaseSegundos = desfase.getTotalSeconds();
+            minutoDesfase = minuto;
+        }
+
+        long local = epochSegundo + desfaseSegundos;
+        long dias = Math.floorDiv(local, 86400L);
+        int segundoDelDia = (int) Math.floorMod(local, 86400L);
+
+        // Conversión de días desde 1970 a fecha civil (algoritmo de H. Hinnant)
+        long z = dias + 719468;
+        long era = Math.floorDiv(z, 146097L);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int dia = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int mes = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int anio = (int) (yoe + era * 400 + (mes <= 2 ? 1 : 0));
+
+        byte[] p = prefijoFecha;
+        p[0] = digito(anio / 1000 % 10);
+        p[1] = digito(anio / 100 % 10);
+        p[2] = digito(anio / 10 % 10);
+        p[3] = digito(anio % 10);
+        p[4] = '-';
+        dosDigitos(p, 5, mes);
+        p[7] = '-';
+        dosDigitos(p, 8, dia);
+        p[10] = ' ';
+        dosDigitos(p, 11, segundoDelDia / 3600);
+        p[13] = ':';
+        dosDigitos(p, 14, segundoDelDia / 60 % 60);
+        p[16] = ':';
+        dosDigitos(p, 17, segundoDelDia % 60);
+
+        segundoCacheado = epochSegundo;
+    }
+
+    private void escribirEntero(long valor) {
+        if (valor == Long.MIN_VALUE) {
+            escribirTexto(Long.toString(valor)); // -valor no cabe en un long
+            return;
+        }
+        if (valor < 0) {
+            buffer[longitud++] = '-';
+            valor = -valor;
+        }
+        // Contar dígitos y escribir de derecha a izquierda
+        int digitos = 1;
+        for (long v = valor; v >= 10; v /= 10) {
+            digitos++;
+        }
+        int pos = longitud + digitos;
+        do {
+            buffer[--pos] = digito((int) (valor % 10));
+            valor /= 10;
+        } while (valor > 0);
+        longitud += digitos;
+    }
+
+    /**
+     * Escribe un valor con dos decimales, equivalente a String.format("%.2f")
+     * pero siempre con punto decimal (independiente del Locale).
+     *
+     * String.format redondea hacia arriba el decimal más corto que representa
+     * al valor (el de Double.toString), no el valor binario: 1.005 se escribe
+     * "1.01" aunque el double guardado sea 1.00499999... Multiplicar por 100
+     * da el mismo resultado salvo cuando el producto queda a pocos ulp de
+     * medio centavo; en ese caso se redondea desde el decimal con BigDecimal.
+     */
+    private void escribirDecimal(double valor) {
+        double absoluto = Math.abs(valor);
+        if (!(absoluto < MAXIMO_RAPIDO)) {
+            // Caso excepcional (montos enormes, NaN o infinito): formato estándar
+            escribirTexto(String.format(java.util.Locale.ROOT, "%.2f", valor));
+            return;
+        }
+        if (Double.doubleToRawLongBits(valor) < 0) {
+            buffer[longitud++] = '-';
+        }
+        double centesimas = absoluto * 100;
+        long centavos = Math.round(centesimas);
+        if (Math.abs(centesimas - Math.floor(centesimas) - 0.5) <= 4 * Math.ulp(centesimas)) {
+            // Medio centavo ambiguo (1.005, 0.285...): poco frecuente, se acepta crear objetos
+            centavos = BigDecimal.valueOf(absoluto).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+        }
+        escribirEntero(centavos / 100);
+        buffer[longitud++] = '.';
+        dosDigitos(buffer, longitud, (int) (centavos % 100));
+        longitud += 2;
+    }
+
+    private void escribirTexto(String texto) {
+        asegurarCapacidad(longitud + texto.length() + 64);
+        for (int i = 0; i < texto.length(); i++) {
+            buffer[longitud++] = (byte) texto.charAt(i);
+        }
+    }
+
+    private void escribir(byte[] bytes) {
+        System.arraycopy(bytes, 0, buffer, longitud, bytes.length);
+        longitud += bytes.length;
+    }
+
+    private void asegurarCapacidad(int capacidad) {
+        if (buffer.length < capacidad) {
+            byte[] nuevo = new byte[Math.max(capacidad, buffer.length * 2)];
+            System.arraycopy(buffer, 0, nuevo, 0, longitud);
+            buffer = nuevo;
+        }
+    }
+
+    private static void dosDigitos(byte[] destino, int pos, int valor) {
+        destino[pos] = digito(valor / 10);
+        destino[pos + 1] = digito(valor % 10);
+    }
+
+    private static byte digito(int valor) {
+        return (byte) ('0' + valor);
+    }
+
+    private static byte[] ascii(String texto) {
+        return texto.getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+    }
+}
\ No newline at end of file
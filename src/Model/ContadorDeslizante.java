@@ -0,0 +1,69 @@
+package Model;
+
+import java.util.Arrays;
+
+/**
+ * Cantidad de eventos en una ventana móvil, con intervalos en un arreglo
+ * circular de tamaño fijo (como VentanaRetiros, pero contando en lugar de sumar).
+ *
+ * Registrar y consultar no crean objetos y cuestan lo mismo sin importar
+ * cuántos eventos haya. No es seguro entre hilos: se usa con el bloqueo de
+ * la cuenta tomado.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+final class ContadorDeslizante {
+    private final int[] conteoPorIntervalo;
+    private final long duracionIntervalo;
+    private long ultimoIntervalo; // Número absoluto del intervalo más reciente
+    private int total; // Suma de los intervalos de la ventana
+
+    /**
+     * @param intervalos Cantidad de intervalos de la ventana
+     * @param duracionIntervalo Milisegundos de cada intervalo
+     */
+    ContadorDeslizante(int intervalos, long duracionIntervalo) {
+        this.conteoPorIntervalo = new int[intervalos];
+        this.duracionIntervalo = duracionIntervalo;
+    }
+
+    /**
+     * Eventos registrados en la ventana que termina en el instante dado.
+     */
+    int contar(long ahoraMillis) {
+        avanzar(Math.floorDiv(ahoraMillis, duracionIntervalo));
+        return total;
+    }
+
+    /**
+     * Cuenta un evento en el intervalo del instante dado.
+     */
+    void registrar(long ahoraMillis) {
+        avanzar(Math.floorDiv(ahoraMillis, duracionIntervalo));
+        conteoPorIntervalo[(int) Math.floorMod(ultimoIntervalo, (long) conteoPorIntervalo.length)]++;
+        total++;
+    }
+
+    /**
+     * Descarta los intervalos que salieron de la ventana. Como mucho recorre
+     * todos los intervalos, sin importar el tiempo transcurrido.
+     */
+    private void avanzar(long intervalo) {
+        if (intervalo <= ultimoIntervalo) {
+            return; // Mismo intervalo (o el reloj retrocedió): se cuenta en el último
+        }
+        int intervalos = conteoPorIntervalo.length;
+        if (intervalo - ultimoIntervalo >= intervalos) {
+            Arrays.fill(conteoPorIntervalo, 0);
+            total = 0;
+        } else {
+            for (long i = ultimoIntervalo + 1; i <= intervalo; i++) {
+                int posicion = (int) Math.floorMod(i, (long) intervalos);
+                total -= conteoPorIntervalo[posicion];
+                conteoPorIntervalo[posicion] = 0;
+            }
+        }
+        ultimoIntervalo = intervalo;
+    }
+}
\ No newline at end of file
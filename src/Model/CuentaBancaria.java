@@ -5,16 +5,29 @@ import Excepciones.SaldoInsuficienteException;
 
 /**
  * Clase abstracta que encapsula los tipos de cuentas bancarias.
- * Define el comportamiento común de todas las cuentas y obliga a las subclases
- * a implementar métodos específicos según su tipo.
+ * Define el comportamiento común de todas las cuentas.
+ * 
+ * Las reglas de cada tipo de cuenta (comisión, sobregiro, límites de retiro,
+ * intereses) no están en métodos sobrescritos sino en su PoliticaCuenta, que
+ * MotorPoliticas aplica igual para todas. Las subclases solo agregan sus
+ * datos propios (chequera, registro tributario) y su formato CSV.
+ * 
+ * Para ocupar poca memoria por cuenta, el titular se guarda normalizado en el
+ * DiccionarioTextos y la política es la instancia compartida por todas las
+ * cuentas con las mismas reglas.
  * 
  * @author Andres
  * @version 1.0
  */
-public abstract class CuentaBancaria {
-    private String titular;
+public abstract class CuentaBancaria implements Cloneable {
+    private String titular; // Instancia del DiccionarioTextos
     private double saldo;
     private int numeroCuenta;
+    private PoliticaCuenta politica;
+    private int retirosRealizados; // Retiros del período actual
+    private VentanaRetiros ventanaRetiros; // Solo si la política tiene límite diario
+    private SaldoDistribuido saldoDistribuido; // Solo en cuentas con saldo repartido en celdas
+    private PerfilRetiros perfilRetiros; // Solo si el controlador evalúa reglas sobre los retiros
     
     /**
      * Constructor de la clase CuentaBancaria.
@@ -22,47 +35,48 @@ public abstract class CuentaBancaria {
      * @param titular Nombre completo del titular de la cuenta
      * @param saldo Saldo inicial de la cuenta (debe ser >= 0)
      * @param numeroCuenta Número único que identifica la cuenta
+     * @param politica Reglas del producto
      */
-    public CuentaBancaria(String titular, double saldo, int numeroCuenta) {
-        this.titular = titular;
+    public CuentaBancaria(String titular, double saldo, int numeroCuenta, PoliticaCuenta politica) {
+        this.titular = DiccionarioTextos.normalizar(titular);
         this.saldo = saldo;
         this.numeroCuenta = numeroCuenta;
+        setPolitica(politica);
     }
     
     /**
-     * Método abstracto para depositar dinero en la cuenta.
-     * Cada tipo de cuenta puede tener validaciones o comportamientos específicos.
+     * Deposita dinero en la cuenta.
      * 
      * @param monto Cantidad a depositar
      * @return Monto depositado
-     * @throws OperacionInvalidaException Si el monto es <= 0 o la operación no es válida
+     * @throws OperacionInvalidaException Si el monto es <= 0
      */
-    public abstract double depositar(double monto) throws OperacionInvalidaException;
+    public final double depositar(double monto) throws OperacionInvalidaException {
+        return MotorPoliticas.depositar(this, monto);
+    }
     
     /**
-     * Método abstracto para retirar dinero de la cuenta.
-     * Cada tipo de cuenta tiene sus propias restricciones:
-     * - CuentaAhorros: límite de retiros
-     * - CuentaCorriente: cobra comisión y permite sobregiro
-     * - CuentaEmpresarial: límite diario
+     * Retira dinero de la cuenta según las restricciones de su política:
+     * retiros por período, límite diario, comisión y sobregiro.
      * 
-     * @param monto Cantidad a retirar
-     * @return Monto retirado
+     * @param monto Cantidad a retirar (sin incluir comisión)
+     * @return Monto retirado (sin comisión)
      * @throws SaldoInsuficienteException Si no hay suficiente saldo
      * @throws OperacionInvalidaException Si el monto es <= 0 o excede límites
      */
-    public abstract double retirar(double monto) throws SaldoInsuficienteException, 
-                                                         OperacionInvalidaException;
+    public final double retirar(double monto) throws SaldoInsuficienteException, 
+                                                     OperacionInvalidaException {
+        return MotorPoliticas.retirar(this, monto);
+    }
+    
     /**
-     * Método abstracto para calcular intereses.
-     * Cada tipo de cuenta tiene su propia forma de calcular intereses:
-     * - CuentaAhorros: genera intereses mensuales
-     * - CuentaCorriente: no genera intereses (retorna 0)
-     * - CuentaEmpresarial: genera intereses preferenciales
+     * Calcula y aplica los intereses del período según la tasa de la política.
      * 
-     * @return El monto de intereses generados
+     * @return El monto de intereses generados (0 si la cuenta no genera intereses)
      */
-    public abstract double calcularIntereses();
+    public final double calcularIntereses() {
+        return MotorPoliticas.calcularIntereses(this);
+    }
     
     /**
      * Convierte los datos de la cuenta a formato CSV para persistencia.
@@ -71,7 +85,32 @@ public abstract class CuentaBancaria {
      * @return String en formato CSV: titular,saldo,numeroCuenta
      */
     public String toCSV() {
-        return titular + "," + saldo + "," + numeroCuenta;
+        return titular + "," + getSaldo() + "," + numeroCuenta;
+    }
+    
+    /**
+     * Crea una copia independiente del estado actual de la cuenta.
+     * Se usa para conservar el estado anterior a una escritura (instantáneas).
+     * Las subclases con campos mutables que no sean primitivos deben copiarlos.
+     * 
+     * @return Copia de la cuenta
+     */
+    public CuentaBancaria copiar() {
+        try {
+            CuentaBancaria copia = (CuentaBancaria) super.clone();
+            if (saldoDistribuido != null) {
+                // La copia es una foto: guarda el saldo ya sumado
+                copia.saldo = saldoDistribuido.getSaldo();
+                copia.saldoDistribuido = null;
+            }
+            if (ventanaRetiros != null) {
+                copia.ventanaRetiros = ventanaRetiros.copiar();
+            }
+            copia.perfilRetiros = null; // Solo sirve para evaluar retiros nuevos
+            return copia;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("CuentaBancaria implementa Cloneable", e);
+        }
     }
     
     // ==================== GETTERS Y SETTERS ====================
@@ -81,11 +120,12 @@ public abstract class CuentaBancaria {
     }
     
     public void setTitular(String titular) {
-        this.titular = titular;
+        this.titular = DiccionarioTextos.normalizar(titular);
     }
     
     public double getSaldo() {
-        return saldo;
+        SaldoDistribuido distribuido = saldoDistribuido;
+        return distribuido == null ? saldo : distribuido.getSaldo();
     }
     
     /**
@@ -93,7 +133,53 @@ public abstract class CuentaBancaria {
      * El saldo normalmente se modifica a través de depositar() y retirar().
      */
     protected void setSaldo(double saldo) {
-        this.saldo = saldo;
+        if (saldoDistribuido != null) {
+            saldoDistribuido.fijar(saldo);
+        } else {
+            this.saldo = saldo;
+        }
+    }
+    
+    /**
+     * Suma un movimiento al saldo (negativo para retiros). Con el saldo repartido
+     * en celdas, los depósitos pueden sumarse sin el bloqueo de la cuenta.
+     */
+    void sumarSaldo(double monto) {
+        if (saldoDistribuido != null) {
+            saldoDistribuido.sumar(monto);
+        } else {
+            this.saldo += monto;
+        }
+    }
+    
+    /**
+     * Reparte el saldo en celdas para que muchos depósitos concurrentes no
+     * compitan por la misma variable. Los retiros y los intereses se siguen
+     * haciendo uno a la vez con el bloqueo de la cuenta. No debe haber
+     * operaciones en curso sobre la cuenta al activarlo o desactivarlo
+     * (ver ControladorBancario.setSaldoDistribuido()).
+     */
+    public void activarSaldoDistribuido() {
+        if (saldoDistribuido == null) {
+            saldoDistribuido = new SaldoDistribuido(saldo);
+        }
+    }
+    
+    /**
+     * Vuelve a guardar el saldo en una sola variable.
+     */
+    public void desactivarSaldoDistribuido() {
+        if (saldoDistribuido != null) {
+            saldo = saldoDistribuido.getSaldo();
+            saldoDistribuido = null;
+        }
+    }
+    
+    /**
+     * Saldo repartido en celdas, o null si la cuenta usa una sola variable.
+     */
+    public SaldoDistribuido getSaldoDistribuido() {
+        return saldoDistribuido;
     }
     
     public int getNumeroCuenta() {
@@ -104,9 +190,54 @@ public abstract class CuentaBancaria {
         this.numeroCuenta = numeroCuenta;
     }
     
+    public PoliticaCuenta getPolitica() {
+        return politica;
+    }
+    
+    /**
+     * Cambia las reglas de la cuenta. Los retiros ya contados en el período
+     * y en las últimas 24 horas se conservan.
+     * 
+     * @param politica Nueva política
+     */
+    public void setPolitica(PoliticaCuenta politica) {
+        this.politica = politica.compartida();
+        if (politica.tieneLimiteDiario() && ventanaRetiros == null) {
+            ventanaRetiros = new VentanaRetiros();
+        }
+    }
+    
+    public int getRetirosRealizados() {
+        return retirosRealizados;
+    }
+    
+    void setRetirosRealizados(int retirosRealizados) {
+        this.retirosRealizados = retirosRealizados;
+    }
+    
+    /**
+     * Ventana de 24 horas de la cuenta, o null si su política no tiene límite diario.
+     */
+    VentanaRetiros getVentanaRetiros() {
+        return ventanaRetiros;
+    }
+    
+    /**
+     * Perfil de los retiros recientes de la cuenta. Se crea con el primer uso:
+     * las cuentas que no se evalúan no lo ocupan. Se usa con el bloqueo de la cuenta tomado.
+     * 
+     * @return Perfil de la cuenta
+     */
+    public PerfilRetiros obtenerPerfilRetiros() {
+        if (perfilRetiros == null) {
+            perfilRetiros = new PerfilRetiros();
+        }
+        return perfilRetiros;
+    }
+    
     @Override
     public String toString() {
         return "Cuenta #" + numeroCuenta + " | Titular: " + titular + " | Saldo: $" + 
-               String.format("%.2f", saldo);
+               String.format("%.2f", getSaldo());
     }
 }
\ No newline at end of file
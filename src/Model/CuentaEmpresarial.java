@@ -1,20 +1,20 @@
 package Model;
 
-import Excepciones.OperacionInvalidaException;
-import Excepciones.SaldoInsuficienteException;
+import java.time.Clock;
 
 /**
  * Cuenta Empresarial con límite de retiro diario.
  * Diseñada para empresas con restricciones de seguridad.
  * 
+ * El límite se aplica sobre una ventana móvil de 24 horas (ver VentanaRetiros)
+ * y la cuenta genera un interés preferencial del 0.5% mensual.
+ * 
  * @author Andres
  * @version 1.0
  */
 public class CuentaEmpresarial extends CuentaBancaria {
-    private String tipoEmpresa; // "S.A.", "S.A.S.", "Ltda.", etc.
+    private String tipoEmpresa; // "S.A.", "S.A.S.", "Ltda.", etc. (del DiccionarioTextos)
     private int registroTributario; // NIT o RUT
-    private double limiteDiario; // Máximo que se puede retirar por día
-    private double retiradoHoy; // Acumulado de retiros del día actual
     
     /**
      * Constructor de CuentaEmpresarial.
@@ -29,118 +29,34 @@ public class CuentaEmpresarial extends CuentaBancaria {
     public CuentaEmpresarial(String titular, double saldo, int numeroCuenta, 
                              String tipoEmpresa, int registroTributario, 
                              double limiteDiario) {
-        super(titular, saldo, numeroCuenta);
-        this.tipoEmpresa = tipoEmpresa;
+        super(titular, saldo, numeroCuenta, PoliticaCuenta.empresarial(limiteDiario));
+        this.tipoEmpresa = DiccionarioTextos.normalizar(tipoEmpresa);
         this.registroTributario = registroTributario;
-        this.limiteDiario = limiteDiario;
-        this.retiradoHoy = 0;
     }
     
     /**
-     * Deposita dinero en la cuenta empresarial.
-     * 
-     * @param monto Cantidad a depositar
-     * @return Monto depositado
-     * @throws OperacionInvalidaException Si el monto es <= 0
-     */
-    @Override
-    public double depositar(double monto) throws OperacionInvalidaException {
-        if (monto <= 0) {
-            throw new OperacionInvalidaException(
-                "El monto a depositar debe ser mayor a cero. Monto recibido: " + monto
-            );
-        }
-        setSaldo(getSaldo() + monto);
-        return monto;
-    }
-    
-    /**
-     * Retira dinero de la cuenta empresarial.
-     * Valida que no se exceda el LÍMITE DIARIO de retiros.
-     * 
-     * EXCEPCIONES ENCADENADAS:
-     * Si se excede el límite diario, lanza OperacionInvalidaException
-     * que tiene como causa una SaldoInsuficienteException.
-     * 
-     * @param monto Cantidad a retirar
-     * @return Monto retirado
-     * @throws SaldoInsuficienteException Si no hay saldo suficiente
-     * @throws OperacionInvalidaException Si el monto es <= 0 o excede el límite diario
-     */
-    @Override
-    public double retirar(double monto) throws SaldoInsuficienteException, 
-                                                OperacionInvalidaException {
-        // Validación 1: Monto debe ser positivo
-        if (monto <= 0) {
-            throw new OperacionInvalidaException(
-                "El monto a retirar debe ser mayor a cero. Monto: " + monto
-            );
-        }
-        
-        // Validación 2: Verificar límite diario
-        if (retiradoHoy + monto > limiteDiario) {
-            // EXCEPCIÓN ENCADENADA
-            throw new OperacionInvalidaException(
-                "Límite diario excedido. Límite: $" + limiteDiario + 
-                ", Ya retirado hoy: $" + retiradoHoy + 
-                ", Intenta retirar: $" + monto,
-                new SaldoInsuficienteException(
-                    "Disponible hoy: $" + (limiteDiario - retiradoHoy)
-                )
-            );
-        }
-        
-        // Validación 3: Verificar saldo suficiente
-        if (getSaldo() < monto) {
-            throw new SaldoInsuficienteException(
-                "Saldo insuficiente. Disponible: $" + getSaldo() + 
-                ", Solicitado: $" + monto
-            );
-        }
-        
-        // Si pasa todas las validaciones, realizar el retiro
-        setSaldo(getSaldo() - monto);
-        retiradoHoy += monto;
-        
-        return monto;
-    }
-    
-    /**
-     * Las cuentas empresariales generan un interés preferencial del 0.5%.
-     * 
-     * 
-     * @return Monto de intereses generados
-     */
-    @Override
-    public double calcularIntereses() {
-        // Tasa preferencial para empresas: 0.5% mensual
-        double tasaPreferencial = 0.005;
-        double intereses = getSaldo() * tasaPreferencial;
-        setSaldo(getSaldo() + intereses);
-        return intereses;
-    }
-    
-    /**
-     * Reinicia el contador de retiros diarios.
-     * Este método debería llamarse al inicio de cada día.
+     * Reinicia el contador de retiros diarios (vacía la ventana de 24 horas).
+     * Con la ventana móvil ya no es necesario llamarlo cada día.
      */
     public void reiniciarLimiteDiario() {
-        this.retiradoHoy = 0;
+        if (getVentanaRetiros() != null) {
+            getVentanaRetiros().reiniciar();
+        }
     }
     
     /**
-     * Calcula cuánto puede retirar aún hoy.
+     * Calcula cuánto puede retirar aún hoy (en las últimas 24 horas).
      * 
      * @return Monto disponible para retirar en el día
      */
     public double getDisponibleHoy() {
-        return limiteDiario - retiradoHoy;
+        return getLimiteDiario() - getRetiradoHoy();
     }
     
     @Override
     public String toCSV() {
         return "EMPRESARIAL," + super.toCSV() + "," + tipoEmpresa + "," + 
-               registroTributario + "," + limiteDiario + "," + retiradoHoy;
+               registroTributario + "," + getLimiteDiario() + "," + getRetiradoHoy();
     }
     
     // ==================== GETTERS Y SETTERS ====================
@@ -150,7 +66,7 @@ public class CuentaEmpresarial extends CuentaBancaria {
     }
     
     public void setTipoEmpresa(String tipoEmpresa) {
-        this.tipoEmpresa = tipoEmpresa;
+        this.tipoEmpresa = DiccionarioTextos.normalizar(tipoEmpresa);
     }
     
     public int getRegistroTributario() {
@@ -162,21 +78,37 @@ public class CuentaEmpresarial extends CuentaBancaria {
     }
     
     public double getLimiteDiario() {
-        return limiteDiario;
+        return getPolitica().getLimiteDiario();
     }
     
     public void setLimiteDiario(double limiteDiario) {
-        this.limiteDiario = limiteDiario;
+        setPolitica(getPolitica().conLimiteDiario(limiteDiario));
     }
     
+    /**
+     * Total retirado en las últimas 24 horas.
+     * 
+     * @return Monto retirado dentro de la ventana
+     */
     public double getRetiradoHoy() {
-        return retiradoHoy;
+        return getVentanaRetiros() == null ? 0 : getVentanaRetiros().getRetirado();
+    }
+    
+    /**
+     * Cambia el reloj con el que se mide la ventana de 24 horas (útil para pruebas).
+     * 
+     * @param reloj Reloj a usar
+     */
+    public void setReloj(Clock reloj) {
+        if (getVentanaRetiros() != null) {
+            getVentanaRetiros().setReloj(reloj);
+        }
     }
     
     @Override
     public String toString() {
         return super.toString() + " | Tipo: EMPRESARIAL (" + tipoEmpresa + ")" +
                " | NIT: " + registroTributario + 
-               " | Disponible hoy: $" + getDisponibleHoy() + "/" + limiteDiario;
+               " | Disponible hoy: $" + getDisponibleHoy() + "/" + getLimiteDiario();
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package Model;
+
+/**
+ * Diccionario de textos repetidos entre cuentas (titulares, tipos de empresa).
+ *
+ * Los textos que llegan de la consola o de un archivo son objetos nuevos
+ * aunque digan lo mismo: mil cuentas "S.A.S." o los tres productos de un
+ * mismo cliente guardarían cada uno su propia copia. normalizar() devuelve
+ * siempre la misma instancia para el mismo texto, así que cada texto distinto
+ * ocupa memoria una sola vez y las cuentas solo guardan la referencia.
+ *
+ * El diccionario no retiene los textos: cuando ninguna cuenta usa ya un
+ * texto (cuentas eliminadas, titulares cambiados), el recolector lo libera y
+ * deja de ocupar lugar (ver InternadorDebil).
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public final class DiccionarioTextos {
+    private static final InternadorDebil<String> TEXTOS = new InternadorDebil<>();
+
+    private DiccionarioTextos() {
+    }
+
+    /**
+     * Devuelve la instancia compartida de un texto.
+     *
+     * @param texto Texto a normalizar (puede ser null)
+     * @return Instancia igual al texto, la misma para todos los textos iguales
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        return TEXTOS.compartida(texto);
+    }
+
+    /**
+     * Cantidad de textos distintos que siguen en uso.
+     */
+    public static int getTamano() {
+        return TEXTOS.getTamano();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,420 @@
+package Model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Recorre el archivo de transacciones en paralelo.
+ *
+ * El archivo se divide en fragmentos de unos 8 MB cortados en saltos de línea.
+ * Cada fragmento se mapea en memoria y se interpreta en un hilo del grupo; las
+ * líneas de encabezado se descartan y, cuando se busca una cuenta, el número de
+ * cuenta se compara sobre los bytes antes de crear ningún objeto.
+ *
+ * Los resultados se entregan en el orden del archivo. Como máximo hay dos
+ * fragmentos por hilo en proceso, así que la memoria usada no depende del
+ * tamaño del archivo.
+ *
+ * Las líneas que parecen registros (empiezan con un dígito) pero no se pueden
+ * interpretar no se entregan: se cuentan en getLineasRechazadasUltimoRecorrido()
+ * y se avisa por la salida de errores.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class EscanerParalelo {
+
+    /**
+     * Valor de numeroCuenta para recorrer todas las cuentas. Los números de
+     * cuenta negativos son cuentas válidas y se buscan como cualquier otra.
+     */
+    public static final int TODAS_LAS_CUENTAS = Integer.MIN_VALUE;
+
+    private static final long TAMANO_FRAGMENTO = 8L * 1024 * 1024;
+    private static final int TAMANO_BUSQUEDA_CORTE = 4 * 1024;
+
+    // Los registros son "yyyy-MM-dd HH:mm:ss | Cuenta: n | ..."
+    private static final int POSICION_CUENTA = 19;
+    private static final byte[] PREFIJO_CUENTA = " | Cuenta: ".getBytes(StandardCharsets.US_ASCII);
+
+    // Resultados de leerCuenta() que no son un número de cuenta
+    private static final long NO_ES_REGISTRO = Long.MIN_VALUE;
+    private static final long CUENTA_ILEGIBLE = Long.MAX_VALUE;
+
+    private final File archivo;
+    private final int hilos;
+    private final ExecutorService ejecutor;
+
+    /**
+     * Recibe cada registro junto con su posición (en bytes) dentro del archivo.
+     */
+    public interface ConsumidorRegistros {
+        void aceptar(Transaccion transaccion, long posicion);
+    }
+
+    /**
+     * Registros interpretados de un fragmento, con sus posiciones en el archivo.
+     */
+    private static class Fragmento {
+        private final List<Transaccion> transacciones = new ArrayList<>();
+        private long[] posiciones = new long[64];
+        private long rechazadas;
+
+        void agregar(Transaccion transaccion, long posicion) {
+            if (transacciones.size() == posiciones.length) {
+                posiciones = Arrays.copyOf(posiciones, posiciones.length * 2);
+            }
+            posiciones[transacciones.size()] = posicion;
+            transacciones.add(transaccion);
+        }
+
+        /**
+         * @return Líneas rechazadas del fragmento
+         */
+        long entregar(ConsumidorRegistros consumidor) {
+            for (int i = 0; i < transacciones.size(); i++) {
+                consumidor.aceptar(transacciones.get(i), posiciones[i]);
+            }
+            return rechazadas;
+        }
+    }
+
+    // Métricas del último recorrido
+    private volatile long bytesUltimoRecorrido;
+    private volatile long nanosUltimoRecorrido;
+    private volatile long lineasRechazadasUltimoRecorrido;
+
+    /**
+     * Constructor de EscanerParalelo.
+     *
+     * @param archivo Archivo de transacciones
+     * @param hilos Cantidad de hilos para interpretar fragmentos
+     */
+    public EscanerParalelo(File archivo, int hilos) {
+        if (hilos <= 0) {
+            throw new IllegalArgumentException("La cantidad de hilos debe ser mayor a cero");
+        }
+        this.archivo = archivo;
+        this.hilos = hilos;
+        this.ejecutor = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread t = new Thread(tarea, "escaner-paralelo");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Obtiene las transacciones del archivo, en orden.
+     *
+     * @param numeroCuenta Número de cuenta (TODAS_LAS_CUENTAS incluye todas)
+     * @param limite Solo se leen los primeros "limite" bytes del archivo
+     * @return Transacciones encontradas en el orden del archivo
+     * @throws IOException Si no se puede leer el archivo
+     */
+    public List<Transaccion> escanear(int numeroCuenta, long limite) throws IOException {
+        List<Transaccion> resultado = new ArrayList<>();
+        recorrer(numeroCuenta, limite, resultado::add);
+        return resultado;
+    }
+
+    /**
+     * Entrega las transacciones del archivo a un consumidor, en orden.
+     * El consumidor se llama siempre desde el hilo que invoca este método.
+     *
+     * @param numeroCuenta Número de cuenta (TODAS_LAS_CUENTAS incluye todas)
+     * @param limite Solo se leen los primeros "limite" bytes del archivo
+     * @param consumidor Recibe cada transacción
+     * @throws IOException Si no se puede leer el archivo
+     */
+    public void recorrer(int numeroCuenta, long limite, Consumer<Transaccion> consumidor) throws IOException {
+        recorrerConPosiciones(numeroCuenta, limite, (transaccion, posicion) -> consumidor.accept(transaccion));
+    }
+
+    /**
+     * Entrega las transacciones del archivo y sus posiciones a un consumidor, en orden.
+     * El consumidor se llama siempre desde el hilo que invoca este método.
+     *
+     * @param numeroCuenta Número de cuenta (TODAS_LAS_CUENTAS incluye todas)
+     * @param limite Solo se leen los primeros "limite" bytes del archivo
+     * @param consumidor Recibe cada transacción con su posición
+     * @throws IOException Si no se puede leer el archivo
+     */
+    public void recorrerConPosiciones(int numeroCuenta, long limite, ConsumidorRegistros consumidor) throws IOException {
+        long inicio = System.nanoTime();
+        long rechazadas = 0;
+
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long longitud = Math.min(limite, canal.size());
+            long[] cortes = calcularCortes(canal, longitud);
+            int fragmentos = cortes.length - 1;
+
+            if (fragmentos == 1) {
+                // Archivo chico: no vale la pena pasar por el grupo de hilos
+                rechazadas = interpretar(canal, cortes[0], cortes[1], numeroCuenta).entregar(consumidor);
+            } else {
+                ArrayDeque<Future<Fragmento>> enProceso = new ArrayDeque<>();
+                int siguiente = 0;
+                try {
+                    while (siguiente < fragmentos || !enProceso.isEmpty()) {
+                        while (siguiente < fragmentos && enProceso.size() < hilos * 2) {
+                            long desde = cortes[siguiente];
+                            long hasta = cortes[siguiente + 1];
+                            enProceso.add(ejecutor.submit(() -> interpretar(canal, desde, hasta, numeroCuenta)));
+                            siguiente++;
+                        }
+                        rechazadas += esperar(enProceso.poll()).entregar(consumidor);
+                    }
+                } finally {
+                    for (Future<Fragmento> pendiente : enProceso) {
+                        pendiente.cancel(true);
+                    }
+                }
+            }
+
+            bytesUltimoRecorrido = longitud;
+        }
+
+        nanosUltimoRecorrido = System.nanoTime() - inicio;
+        registrarRechazadas(rechazadas);
+    }
+
+    /**
+     * Entrega, en orden y sin usar el grupo de hilos, las transacciones de las
+     * líneas que empiezan en [desde, hasta). Sirve para leer una parte chica
+     * del archivo ya ubicada (por ejemplo, a partir de un punto de control).
+     *
+     * @param numeroCuenta Número de cuenta (TODAS_LAS_CUENTAS incluye todas)
+     * @param desde Inicio de una línea del archivo
+     * @param hasta Se incluyen las líneas que empiezan antes de esta posición
+     * @param consumidor Recibe cada transacción con su posición
+     * @throws IOException Si no se puede leer el archivo
+     */
+    public void recorrerRango(int numeroCuenta, long desde, long hasta, ConsumidorRegistros consumidor)
+            throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long longitud = canal.size();
+            if (desde >= Math.min(hasta, longitud)) {
+                return;
+            }
+            // Completar la línea que queda cortada en "hasta"
+            long fin = siguienteLinea(canal, hasta - 1, longitud, ByteBuffer.allocate(TAMANO_BUSQUEDA_CORTE));
+            registrarRechazadas(interpretar(canal, desde, fin, numeroCuenta).entregar(consumidor));
+        }
+    }
+
+    private void registrarRechazadas(long rechazadas) {
+        lineasRechazadasUltimoRecorrido = rechazadas;
+        if (rechazadas > 0) {
+            System.err.println("Advertencia: " + rechazadas + " líneas de " + archivo +
+                               " no se pudieron interpretar y se omitieron");
+        }
+    }
+
+    /**
+     * Calcula los límites de los fragmentos: cada uno empieza al inicio de una línea.
+     */
+    private static long[] calcularCortes(FileChannel canal, long longitud) throws IOException {
+        List<Long> cortes = new ArrayList<>();
+        cortes.add(0L);
+
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BUSQUEDA_CORTE);
+        long posicion = TAMANO_FRAGMENTO;
+        while (posicion < longitud) {
+            posicion = siguienteLinea(canal, posicion, longitud, buffer);
+            if (posicion >= longitud) {
+                break;
+            }
+            cortes.add(posicion);
+            posicion += TAMANO_FRAGMENTO;
+        }
+
+        cortes.add(longitud);
+        return cortes.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Avanza hasta después del siguiente salto de línea a partir de "posicion".
+     *
+     * @return Inicio de la línea siguiente, o "longitud" si no hay más saltos de línea
+     */
+    private static long siguienteLinea(FileChannel canal, long posicion, long longitud, ByteBuffer buffer)
+            throws IOException {
+        while (posicion < longitud) {
+            buffer.clear();
+            int leidos = canal.read(buffer, posicion);
+            if (leidos <= 0) {
+                break;
+            }
+            int i = 0;
+            while (i < leidos && buffer.get(i) != '\n') {
+                i++;
+            }
+            posicion += i;
+            if (i < leidos) {
+                return posicion + 1; // Saltar el '\n'
+            }
+        }
+        return longitud;
+    }
+
+    /**
+     * Interpreta las líneas de un fragmento [desde, hasta) del archivo.
+     */
+    private static Fragmento interpretar(FileChannel canal, long desde, long hasta, int numeroCuenta) {
+        Fragmento resultado = new Fragmento();
+        MappedByteBuffer mapa;
+        try {
+            mapa = canal.map(FileChannel.MapMode.READ_ONLY, desde, hasta - desde);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        byte[] linea = new byte[256];
+        int longitud = mapa.limit();
+        int inicioLinea = 0;
+        while (inicioLinea < longitud) {
+            int finLinea = inicioLinea;
+            while (finLinea < longitud && mapa.get(finLinea) != '\n') {
+                finLinea++;
+            }
+            int fin = (finLinea > inicioLinea && mapa.get(finLinea - 1) == '\r') ? finLinea - 1 : finLinea;
+
+            long cuenta = leerCuenta(mapa, inicioLinea, fin);
+            boolean buscada = cuenta == CUENTA_ILEGIBLE || numeroCuenta == TODAS_LAS_CUENTAS ||
+                              cuenta == numeroCuenta;
+            if (cuenta != NO_ES_REGISTRO && buscada) {
+                int tamano = fin - inicioLinea;
+                if (tamano > linea.length) {
+                    linea = new byte[tamano];
+                }
+                mapa.get(inicioLinea, linea, 0, tamano);
+                Transaccion transaccion = Transaccion.parsear(
+                    new String(linea, 0, tamano, StandardCharsets.UTF_8));
+                if (transaccion == null) {
+                    resultado.rechazadas++;
+                } else if (numeroCuenta == TODAS_LAS_CUENTAS || transaccion.getNumeroCuenta() == numeroCuenta) {
+                    resultado.agregar(transaccion, desde + inicioLinea);
+                }
+            }
+            inicioLinea = finLinea + 1;
+        }
+        return resultado;
+    }
+
+    /**
+     * Lee el número de cuenta (con signo) de una línea sin crear objetos.
+     *
+     * @return Número de cuenta; NO_ES_REGISTRO si la línea es un encabezado o
+     *         una línea decorativa; CUENTA_ILEGIBLE si parece un registro pero
+     *         el número no se puede leer aquí (lo decide Transaccion.parsear)
+     */
+    private static long leerCuenta(ByteBuffer datos, int inicio, int fin) {
+        if (fin <= inicio) {
+            return NO_ES_REGISTRO;
+        }
+        byte primero = datos.get(inicio);
+        if (primero < '0' || primero > '9') {
+            return NO_ES_REGISTRO; // Encabezado o línea decorativa
+        }
+        int posicion = inicio + POSICION_CUENTA;
+        if (fin - inicio <= POSICION_CUENTA + PREFIJO_CUENTA.length) {
+            return CUENTA_ILEGIBLE;
+        }
+        for (byte b : PREFIJO_CUENTA) {
+            if (datos.get(posicion++) != b) {
+                return CUENTA_ILEGIBLE;
+            }
+        }
+
+        boolean negativa = posicion < fin && datos.get(posicion) == '-';
+        if (negativa) {
+            posicion++;
+        }
+        long cuenta = 0;
+        int digitos = 0;
+        while (posicion < fin) {
+            byte b = datos.get(posicion++);
+            if (b < '0' || b > '9') {
+                break;
+            }
+            if (++digitos > 10) {
+                return CUENTA_ILEGIBLE;
+            }
+            cuenta = cuenta * 10 + (b - '0');
+        }
+        if (negativa) {
+            cuenta = -cuenta;
+        }
+        if (digitos == 0 || cuenta < Integer.MIN_VALUE || cuenta > Integer.MAX_VALUE) {
+            return CUENTA_ILEGIBLE; // No cabe en un int
+        }
+        return cuenta;
+    }
+
+    private static Fragmento esperar(Future<Fragmento> fragmento) throws IOException {
+        try {
+            return fragmento.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Recorrido del archivo interrumpido");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) causa).getCause();
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new IOException("Error al recorrer el archivo", causa);
+        }
+    }
+
+    // ==================== MÉTRICAS ====================
+
+    public long getBytesUltimoRecorrido() {
+        return bytesUltimoRecorrido;
+    }
+
+    public long getNanosUltimoRecorrido() {
+        return nanosUltimoRecorrido;
+    }
+
+    /**
+     * Líneas que parecían registros pero no se pudieron interpretar en el
+     * último recorrido. Al buscar una cuenta solo se cuentan las de esa cuenta
+     * (y las que no dejan leer el número de cuenta).
+     */
+    public long getLineasRechazadasUltimoRecorrido() {
+        return lineasRechazadasUltimoRecorrido;
+    }
+
+    /**
+     * Velocidad del último recorrido.
+     *
+     * @return Gigabytes leídos por segundo (0 si no hubo recorridos)
+     */
+    public double getGigabytesPorSegundo() {
+        long nanos = nanosUltimoRecorrido;
+        return nanos == 0 ? 0 : bytesUltimoRecorrido / (double) nanos;
+    }
+
+    public int getHilos() {
+        return hilos;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package Model;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder para cada registro agregado al archivo de
+ * transacciones. Su duración es la de codificar y escribir el registro (sin
+ * la espera por el bloqueo del archivo, que JFR mide aparte).
+ *
+ * Con el evento desactivado solo se comprueba isEnabled(): no se toma el
+ * tiempo ni se registra nada.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+@Name("banco.EscrituraRegistro")
+@Label("Escritura en el archivo de transacciones")
+@Category({ "Banco", "Persistencia" })
+@Description("Un registro agregado al archivo de transacciones")
+@StackTrace(false)
+class EventoJfrEscritura extends Event {
+
+    @Label("Cuenta")
+    int numeroCuenta;
+
+    @Label("Tipo")
+    String tipo;
+
+    @Label("Monto")
+    double monto;
+
+    @Label("Tamaño")
+    @DataAmount(DataAmount.BYTES)
+    long bytes;
+
+    @Label("Escrito")
+    @Description("false si hubo un error de E/S")
+    boolean exito;
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package Model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Evento publicado por el controlador cada vez que se registra una transacción.
+ * Es inmutable y lleva los mismos datos que el registro del archivo, más un
+ * número de secuencia global (en orden de publicación).
+ * 
+ * @author Andres
+ * @version 1.0
+ */
+public class EventoTransaccion {
+    
+    private final long secuencia;
+    private final long instanteMillis;
+    private final int numeroCuenta;
+    private final String tipo;
+    private final double monto;
+    private final double saldoFinal;
+    private final long claveIdempotencia;
+    
+    /**
+     * Constructor de EventoTransaccion.
+     * 
+     * @param secuencia Número de secuencia del evento
+     * @param instanteMillis Momento de la transacción (milisegundos desde la época)
+     * @param numeroCuenta Número de cuenta
+     * @param tipo "DEPOSITO", "RETIRO" o "INTERESES"
+     * @param monto Monto de la transacción
+     * @param saldoFinal Saldo después de la transacción
+     * @param claveIdempotencia Clave de idempotencia (0 si no tiene)
+     */
+    public EventoTransaccion(long secuencia, long instanteMillis, int numeroCuenta, String tipo,
+                             double monto, double saldoFinal, long claveIdempotencia) {
+        this.secuencia = secuencia;
+        this.instanteMillis = instanteMillis;
+        this.numeroCuenta = numeroCuenta;
+        this.tipo = tipo;
+        this.monto = monto;
+        this.saldoFinal = saldoFinal;
+        this.claveIdempotencia = claveIdempotencia;
+    }
+    
+    /**
+     * Convierte el evento en una Transaccion (fecha-hora en la zona del sistema).
+     * 
+     * @return Transacción equivalente
+     */
+    public Transaccion aTransaccion() {
+        LocalDateTime fechaHora = LocalDateTime.ofInstant(Instant.ofEpochMilli(instanteMillis), ZoneId.systemDefault());
+        return new Transaccion(fechaHora, numeroCuenta, tipo, monto, saldoFinal, claveIdempotencia);
+    }
+    
+    // ==================== GETTERS ====================
+    
+    public long getSecuencia() {
+        return secuencia;
+    }
+    
+    public long getInstanteMillis() {
+        return instanteMillis;
+    }
+    
+    public int getNumeroCuenta() {
+        return numeroCuenta;
+    }
+    
+    public String getTipo() {
+        return tipo;
+    }
+    
+    public double getMonto() {
+        return monto;
+    }
+    
+    public double getSaldoFinal() {
+        return saldoFinal;
+    }
+    
+    public long getClaveIdempotencia() {
+        return claveIdempotencia;
+    }
+    
+    @Override
+    public String toString() {
+        return "#" + secuencia + " " + aTransaccion();
+    }
+}
\ No newline at end of file
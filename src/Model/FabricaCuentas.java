@@ -0,0 +1,99 @@
+package Model;
+
+import Excepciones.OperacionInvalidaException;
+import java.util.Locale;
+
+/**
+ * Crea cuentas a partir de los campos de un comando de texto, con el mismo
+ * formato en el modo por lotes y en los nodos del clúster:
+ *
+ *   AHORROS;titular;saldo;numero;tasa;periodicidad;retirosPermitidos
+ *   CORRIENTE;titular;saldo;numero;comision;limiteSobregiro;chequera
+ *   EMPRESARIAL;titular;saldo;numero;tipoEmpresa;registroTributario;limiteDiario
+ *
+ * También lee las líneas de CuentaBancaria.toCSV(), que tienen esos mismos
+ * campos separados por ',' más los contadores de retiros (ver desdeCSV()).
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public final class FabricaCuentas {
+
+    private FabricaCuentas() {
+    }
+
+    /**
+     * Indica si el comando crea una cuenta.
+     *
+     * @param comando Primer campo del comando
+     */
+    public static boolean esTipoCuenta(String comando) {
+        String tipo = comando.trim().toUpperCase(Locale.ROOT);
+        return tipo.equals("AHORROS") || tipo.equals("CORRIENTE") || tipo.equals("EMPRESARIAL");
+    }
+
+    /**
+     * Crea la cuenta descrita por los campos de un comando.
+     *
+     * @param campos Campos del comando (el primero es el tipo de cuenta)
+     * @return Cuenta nueva, sin registrar
+     * @throws OperacionInvalidaException Si el tipo no existe o faltan campos
+     * @throws IllegalArgumentException Si un campo numérico no es válido
+     */
+    public static CuentaBancaria crear(String[] campos) throws OperacionInvalidaException {
+        if (campos.length < 7) {
+            throw new OperacionInvalidaException("Se esperaban 7 campos en " + campos[0]);
+        }
+        String titular = campos[1].trim();
+        double saldo = decimal(campos[2]);
+        int numero = entero(campos[3]);
+        switch (campos[0].trim().toUpperCase(Locale.ROOT)) {
+            case "AHORROS":
+                return new CuentaAhorros(titular, saldo, numero, decimal(campos[4]), campos[5].trim(),
+                                         entero(campos[6]));
+            case "CORRIENTE":
+                return new CuentaCorriente(titular, saldo, numero, decimal(campos[4]), decimal(campos[5]),
+                                           entero(campos[6]));
+            case "EMPRESARIAL":
+                return new CuentaEmpresarial(titular, saldo, numero, campos[4].trim(), entero(campos[5]),
+                                             decimal(campos[6]));
+            default:
+                throw new OperacionInvalidaException("Tipo de cuenta desconocido: " + campos[0]);
+        }
+    }
+
+    /**
+     * Crea una cuenta a partir de una línea de toCSV() (la exportación de
+     * ControladorBancario.exportarCuentasCSV()), con sus retiros del período
+     * (ahorros) o de las últimas 24 horas (empresarial).
+     *
+     * @param linea Línea CSV de la cuenta (sin el encabezado)
+     * @return Cuenta nueva, sin registrar
+     * @throws OperacionInvalidaException Si el tipo no existe o faltan campos
+     * @throws IllegalArgumentException Si un campo numérico no es válido
+     */
+    public static CuentaBancaria desdeCSV(String linea) throws OperacionInvalidaException {
+        String[] campos = linea.split(",", -1);
+        CuentaBancaria cuenta = crear(campos);
+        if (campos.length > 7 && !campos[7].isBlank()) {
+            if (cuenta instanceof CuentaAhorros) {
+                cuenta.setRetirosRealizados(entero(campos[7]));
+            } else if (cuenta instanceof CuentaEmpresarial && cuenta.getVentanaRetiros() != null) {
+                double retiradoHoy = decimal(campos[7]);
+                if (retiradoHoy > 0) {
+                    cuenta.getVentanaRetiros().getRetirado(); // Deja la ventana en el intervalo actual
+                    cuenta.getVentanaRetiros().registrar(retiradoHoy);
+                }
+            }
+        }
+        return cuenta;
+    }
+
+    private static int entero(String campo) {
+        return Integer.parseInt(campo.trim());
+    }
+
+    private static double decimal(String campo) {
+        return Double.parseDouble(campo.trim());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,297 @@
+package Model;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Genera los extractos mensuales de todas las cuentas en una sola pasada por
+ * el archivo de transacciones.
+ *
+ * Por cada cuenta se escribe un archivo extracto_[cuenta].txt con una sección
+ * por mes: saldo inicial, movimientos, totales por tipo y saldo final.
+ *
+ * Memoria acotada: de cada cuenta solo se guardan los totales del mes en curso;
+ * los movimientos se acumulan en un buffer por cuenta y, cuando el total de los
+ * buffers supera el límite, se agregan a los archivos y se vacían. Así la memoria
+ * no depende del tamaño del archivo de transacciones.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class GeneradorExtractos {
+
+    private static final long LIMITE_BUFFERS = 32L * 1024 * 1024; // Caracteres pendientes de escribir
+    private static final String SEPARADOR = "====================================================================";
+
+    /**
+     * Estado del mes en curso de una cuenta.
+     */
+    private static class EstadoCuenta {
+        private YearMonth mes;
+        private double saldoInicial;
+        private double saldoFinal;
+        private double depositos;
+        private double retiros;
+        private double intereses;
+        private int movimientos;
+        private boolean archivoIniciado;
+        private final StringBuilder pendiente = new StringBuilder();
+    }
+
+    /**
+     * Resultado de una generación de extractos.
+     */
+    public static class Resumen {
+        private final long registros;
+        private final int cuentas;
+        private final long extractos;
+        private final long nanos;
+
+        Resumen(long registros, int cuentas, long extractos, long nanos) {
+            this.registros = registros;
+            this.cuentas = cuentas;
+            this.extractos = extractos;
+            this.nanos = nanos;
+        }
+
+        public long getRegistros() {
+            return registros;
+        }
+
+        public int getCuentas() {
+            return cuentas;
+        }
+
+        public long getExtractos() {
+            return extractos;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "Registros: %,d | Cuentas: %,d | Extractos: %,d | Tiempo: %.1f ms",
+                                 registros, cuentas, extractos, nanos / 1e6);
+        }
+    }
+
+    private final File directorio;
+    private final YearMonth desde;
+    private final YearMonth hasta;
+    private final Map<Integer, EstadoCuenta> estados = new HashMap<>();
+    private long caracteresPendientes;
+    private long registros;
+    private long extractos;
+
+    /**
+     * Constructor de GeneradorExtractos.
+     *
+     * @param directorio Directorio donde se escriben los extractos
+     * @param desde Primer mes a incluir (null = desde el inicio)
+     * @param hasta Último mes a incluir (null = hasta el final)
+     */
+    public GeneradorExtractos(File directorio, YearMonth desde, YearMonth hasta) {
+        this.directorio = directorio;
+        this.desde = desde;
+        this.hasta = hasta;
+    }
+
+    /**
+     * Genera los extractos recorriendo el archivo de transacciones una vez.
+     * Los extractos existentes de las cuentas procesadas se reemplazan.
+     *
+     * @param escaner Escáner del archivo de transacciones
+     * @return Resumen de la generación
+     * @throws IOException Si no se puede leer el archivo o escribir los extractos
+     */
+    public Resumen generar(EscanerParalelo escaner) throws IOException {
+        long inicio = System.nanoTime();
+        if (!directorio.isDirectory() && !directorio.mkdirs()) {
+            throw new IOException("No se pudo crear el directorio " + directorio);
+        }
+
+        try {
+            escaner.recorrer(EscanerParalelo.TODAS_LAS_CUENTAS, Long.MAX_VALUE, this::procesar);
+            for (EstadoCuenta estado : estados.values()) {
+                cerrarMes(estado);
+            }
+            vaciarBuffers();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return new Resumen(registros, estados.size(), extractos, System.nanoTime() - inicio);
+    }
+
+    private void procesar(Transaccion transaccion) {
+        registros++;
+        int numeroCuenta = transaccion.getNumeroCuenta();
+        YearMonth mes = YearMonth.from(transaccion.getFechaHora());
+        EstadoCuenta estado = estados.get(numeroCuenta);
+
+        if (hasta != null && mes.isAfter(hasta)) {
+            if (estado != null) {
+                cerrarMes(estado);
+            }
+            return;
+        }
+        if (estado == null) {
+            estado = new EstadoCuenta();
+            // Primer registro conocido: deducir el saldo anterior a partir del movimiento
+            estado.saldoFinal = transaccion.getSaldoFinal() - efecto(transaccion);
+            estados.put(numeroCuenta, estado);
+        }
+
+        if (!mes.equals(estado.mes)) {
+            cerrarMes(estado);
+            estado.mes = mes;
+            estado.saldoInicial = estado.saldoFinal;
+            estado.depositos = 0;
+            estado.retiros = 0;
+            estado.intereses = 0;
+            estado.movimientos = 0;
+            if (incluido(mes)) {
+                escribir(estado, SEPARADOR + "\n" +
+                         "EXTRACTO CUENTA #" + numeroCuenta + " - " + mes + "\n" + SEPARADOR + "\n" +
+                         String.format(Locale.ROOT, "Saldo inicial: $%.2f%n%n", estado.saldoInicial));
+            }
+        }
+
+        estado.saldoFinal = transaccion.getSaldoFinal();
+        estado.movimientos++;
+        switch (transaccion.getTipo()) {
+            case "DEPOSITO": estado.depositos += transaccion.getMonto(); break;
+            case "RETIRO": estado.retiros += transaccion.getMonto(); break;
+            case "INTERESES": estado.intereses += transaccion.getMonto(); break;
+            default: break;
+        }
+        if (incluido(mes)) {
+            escribirMovimiento(estado, transaccion);
+        }
+    }
+
+    /**
+     * Escribe los totales del mes en curso de una cuenta (si tiene uno abierto).
+     */
+    private void cerrarMes(EstadoCuenta estado) {
+        if (estado.mes == null || !incluido(estado.mes)) {
+            return;
+        }
+        // Lo que no explican los movimientos registrados (comisiones de cuenta corriente)
+        double otrosCargos = estado.saldoInicial + estado.depositos + estado.intereses
+                             - estado.retiros - estado.saldoFinal;
+        escribir(estado, String.format(Locale.ROOT,
+            "%nMovimientos: %d%n" +
+            "Depósitos:   $%.2f%n" +
+            "Retiros:     $%.2f%n" +
+            "Intereses:   $%.2f%n" +
+            "Comisiones:  $%.2f%n" +
+            "Saldo final: $%.2f%n%n",
+            estado.movimientos, estado.depositos, estado.retiros, estado.intereses,
+            Math.abs(otrosCargos) < 0.005 ? 0.0 : otrosCargos, estado.saldoFinal));
+        estado.mes = null;
+        extractos++;
+    }
+
+    private boolean incluido(YearMonth mes) {
+        return (desde == null || !mes.isBefore(desde)) && (hasta == null || !mes.isAfter(hasta));
+    }
+
+    private static double efecto(Transaccion transaccion) {
+        return transaccion.getTipo().equals("RETIRO") ? -transaccion.getMonto() : transaccion.getMonto();
+    }
+
+    // ==================== ESCRITURA ====================
+
+    private void escribir(EstadoCuenta estado, String texto) {
+        estado.pendiente.append(texto);
+        caracteresPendientes += texto.length();
+        if (caracteresPendientes > LIMITE_BUFFERS) {
+            vaciarBuffers();
+        }
+    }
+
+    /**
+     * Agrega una línea de movimiento sin String.format (es la parte más costosa
+     * de la generación): fecha-hora | tipo | monto | saldo
+     */
+    private void escribirMovimiento(EstadoCuenta estado, Transaccion transaccion) {
+        StringBuilder linea = estado.pendiente;
+        int longitudAnterior = linea.length();
+        LocalDateTime fecha = transaccion.getFechaHora();
+        linea.append(fecha.getYear()).append('-');
+        agregarDosDigitos(linea, fecha.getMonthValue()).append('-');
+        agregarDosDigitos(linea, fecha.getDayOfMonth()).append(' ');
+        agregarDosDigitos(linea, fecha.getHour()).append(':');
+        agregarDosDigitos(linea, fecha.getMinute()).append(':');
+        agregarDosDigitos(linea, fecha.getSecond());
+        linea.append(" | ").append(transaccion.getTipo()).append(" | Monto: $");
+        agregarImporte(linea, transaccion.getMonto());
+        linea.append(" | Saldo: $");
+        agregarImporte(linea, transaccion.getSaldoFinal());
+        linea.append('\n');
+
+        caracteresPendientes += linea.length() - longitudAnterior;
+        if (caracteresPendientes > LIMITE_BUFFERS) {
+            vaciarBuffers();
+        }
+    }
+
+    private static StringBuilder agregarDosDigitos(StringBuilder linea, int valor) {
+        if (valor < 10) {
+            linea.append('0');
+        }
+        return linea.append(valor);
+    }
+
+    private static void agregarImporte(StringBuilder linea, double importe) {
+        if (Double.isNaN(importe) || Math.abs(importe) >= 1e15) {
+            linea.append(String.format(Locale.ROOT, "%.2f", importe));
+            return;
+        }
+        long centavos = Math.round(importe * 100);
+        if (centavos < 0) {
+            linea.append('-');
+            centavos = -centavos;
+        }
+        linea.append(centavos / 100).append('.');
+        agregarDosDigitos(linea, (int) (centavos % 100));
+    }
+
+    /**
+     * Agrega lo pendiente de cada cuenta a su archivo y libera los buffers.
+     */
+    private void vaciarBuffers() {
+        for (Map.Entry<Integer, EstadoCuenta> entrada : estados.entrySet()) {
+            EstadoCuenta estado = entrada.getValue();
+            if (estado.pendiente.length() == 0) {
+                continue;
+            }
+            File archivo = new File(directorio, "extracto_" + entrada.getKey() + ".txt");
+            // La primera escritura de la ejecución reemplaza el extracto anterior
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                     new FileOutputStream(archivo, estado.archivoIniciado), StandardCharsets.UTF_8))) {
+                writer.append(estado.pendiente);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            estado.archivoIniciado = true;
+            estado.pendiente.setLength(0);
+            estado.pendiente.trimToSize();
+        }
+        caracteresPendientes = 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package Model;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * Conjunto de instancias compartidas que no impide recolectarlas.
+ *
+ * compartida() devuelve siempre la misma instancia para valores iguales
+ * (según equals/hashCode) mientras alguien la siga usando. Tanto la clave
+ * como el valor del mapa son referencias débiles: cuando ninguna cuenta
+ * guarda ya un valor, el recolector lo libera y su entrada desaparece, así
+ * que el conjunto no crece con los valores que dejaron de usarse.
+ *
+ * Es seguro para hilos (un solo bloqueo; se usa al crear cuentas o cambiar
+ * sus atributos, no en cada operación).
+ *
+ * @param <T> Tipo inmutable de los valores compartidos
+ * @author Andres
+ * @version 1.0
+ */
+final class InternadorDebil<T> {
+    private final WeakHashMap<T, WeakReference<T>> instancias = new WeakHashMap<>();
+
+    /**
+     * Devuelve la instancia compartida de un valor: la primera igual que
+     * se registró y sigue en uso, o el mismo valor si no hay ninguna.
+     *
+     * @param valor Valor a compartir (no null)
+     * @return Instancia igual al valor, la misma para todos los valores iguales
+     */
+    synchronized T compartida(T valor) {
+        WeakReference<T> referencia = instancias.get(valor);
+        T existente = referencia == null ? null : referencia.get();
+        if (existente != null) {
+            return existente;
+        }
+        instancias.put(valor, new WeakReference<>(valor));
+        return valor;
+    }
+
+    /**
+     * Cantidad de instancias que siguen en uso (las liberadas por el
+     * recolector se descuentan al consultar).
+     */
+    synchronized int getTamano() {
+        return instancias.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,146 @@
+package Model;
+
+import Excepciones.OperacionInvalidaException;
+import Excepciones.SaldoInsuficienteException;
+
+/**
+ * Aplica las reglas de una PoliticaCuenta a las operaciones de una cuenta.
+ *
+ * Es el único código que deposita, retira y calcula intereses: todas las
+ * cuentas pasan por los mismos métodos, que leen los límites de la política
+ * en lugar de depender de métodos sobrescritos en cada subclase. Así el
+ * camino de cada operación es uno solo (monomórfico) y las validaciones no
+ * se duplican entre tipos de cuenta.
+ *
+ * Los métodos no son seguros entre hilos por sí mismos: se llaman con el
+ * bloqueo de la cuenta tomado, como el resto de sus escrituras. La excepción
+ * son los depósitos en cuentas con saldo distribuido (SaldoDistribuido), que
+ * solo suman en las celdas y pueden hacerse sin el bloqueo.
+ *
+ * El saldo se modifica siempre sumando el movimiento (nunca reemplazándolo),
+ * así un retiro no pisa los depósitos que lleguen mientras se valida.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public final class MotorPoliticas {
+
+    private MotorPoliticas() {
+    }
+
+    /**
+     * Deposita dinero en la cuenta.
+     *
+     * @param cuenta Cuenta destino
+     * @param monto Cantidad a depositar
+     * @return Monto depositado
+     * @throws OperacionInvalidaException Si el monto es <= 0
+     */
+    public static double depositar(CuentaBancaria cuenta, double monto) throws OperacionInvalidaException {
+        if (monto <= 0) {
+            throw new OperacionInvalidaException(
+                "El monto a depositar debe ser mayor a cero. Monto recibido: " + monto
+            );
+        }
+        cuenta.sumarSaldo(monto);
+        return monto;
+    }
+
+    /**
+     * Retira dinero de la cuenta validando, en orden, el monto, los retiros
+     * del período, el límite de 24 horas y el saldo (con comisión y sobregiro).
+     *
+     * EXCEPCIONES ENCADENADAS:
+     * Si se excede un límite, lanza OperacionInvalidaException
+     * que tiene como causa una SaldoInsuficienteException.
+     *
+     * @param cuenta Cuenta origen
+     * @param monto Cantidad a retirar (sin incluir comisión)
+     * @return Monto retirado (sin comisión)
+     * @throws SaldoInsuficienteException Si no hay saldo suficiente y la cuenta no admite sobregiro
+     * @throws OperacionInvalidaException Si el monto es <= 0 o se excede algún límite
+     */
+    public static double retirar(CuentaBancaria cuenta, double monto) throws SaldoInsuficienteException,
+                                                                             OperacionInvalidaException {
+        PoliticaCuenta politica = cuenta.getPolitica();
+
+        // Validación 1: Monto debe ser positivo
+        if (monto <= 0) {
+            throw new OperacionInvalidaException(
+                "El monto a retirar debe ser mayor a cero. Monto recibido: " + monto
+            );
+        }
+
+        // Validación 2: Retiros permitidos en el período
+        int retirosRealizados = cuenta.getRetirosRealizados();
+        if (retirosRealizados >= politica.getRetirosPorPeriodo()) {
+            throw new OperacionInvalidaException(
+                "Límite de retiros excedido. Permitidos: " + politica.getRetirosPorPeriodo() +
+                ", Realizados: " + retirosRealizados,
+                new SaldoInsuficienteException("No hay retiros disponibles en este período")
+            );
+        }
+
+        // Validación 3: Límite de 24 horas
+        VentanaRetiros ventana = cuenta.getVentanaRetiros();
+        if (ventana != null) {
+            double retiradoHoy = ventana.getRetirado();
+            if (retiradoHoy + monto > politica.getLimiteDiario()) {
+                throw new OperacionInvalidaException(
+                    "Límite diario excedido. Límite: $" + politica.getLimiteDiario() +
+                    ", Ya retirado hoy: $" + retiradoHoy +
+                    ", Intenta retirar: $" + monto,
+                    new SaldoInsuficienteException(
+                        "Disponible hoy: $" + (politica.getLimiteDiario() - retiradoHoy)
+                    )
+                );
+            }
+        }
+
+        // Validación 4: Saldo, incluyendo la comisión y el sobregiro permitido
+        double montoTotal = monto + politica.getComisionRetiro();
+        double nuevoSaldo = cuenta.getSaldo() - montoTotal;
+        if (nuevoSaldo < -politica.getLimiteSobregiro()) {
+            if (politica.admiteSobregiro()) {
+                throw new OperacionInvalidaException(
+                    "Operación rechazada. Excede el límite de sobregiro de $" + politica.getLimiteSobregiro(),
+                    new SaldoInsuficienteException(
+                        "Saldo actual: $" + cuenta.getSaldo() +
+                        ", Monto + comisión: $" + montoTotal +
+                        ", Nuevo saldo sería: $" + nuevoSaldo
+                    )
+                );
+            }
+            throw new SaldoInsuficienteException(
+                "Saldo insuficiente. Disponible: $" + cuenta.getSaldo() +
+                ", Solicitado: $" + montoTotal
+            );
+        }
+
+        // Si pasa todas las validaciones, realizar el retiro
+        cuenta.sumarSaldo(-montoTotal);
+        if (politica.getRetirosPorPeriodo() != PoliticaCuenta.SIN_LIMITE_RETIROS) {
+            cuenta.setRetirosRealizados(retirosRealizados + 1);
+        }
+        if (ventana != null) {
+            ventana.registrar(monto);
+        }
+        return monto;
+    }
+
+    /**
+     * Calcula y aplica los intereses del período sobre el saldo actual.
+     *
+     * @param cuenta Cuenta a la que se abonan los intereses
+     * @return Monto de intereses generados (0 si la política no genera intereses)
+     */
+    public static double calcularIntereses(CuentaBancaria cuenta) {
+        double tasa = cuenta.getPolitica().getTasaInteres();
+        if (tasa == 0) {
+            return 0;
+        }
+        double intereses = cuenta.getSaldo() * tasa;
+        cuenta.sumarSaldo(intereses);
+        return intereses;
+    }
+}
\ No newline at end of file
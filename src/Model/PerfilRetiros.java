@@ -0,0 +1,97 @@
+package Model;
+
+/**
+ * Comportamiento reciente de los retiros de una cuenta, para detectar
+ * patrones sospechosos antes de aplicar un retiro (ver ReglaRetiro en el
+ * controlador).
+ *
+ * Guarda contadores de retiros en ventanas móviles (último minuto y última
+ * hora) y el promedio móvil exponencial (EWMA) del monto y de su varianza,
+ * así un monto muy por encima de lo habitual para la cuenta se reconoce sin
+ * leer su historial. Todo tiene tamaño fijo: registrar un retiro o consultar
+ * el perfil no crea objetos.
+ *
+ * No es seguro entre hilos: se lee y actualiza con el bloqueo de la cuenta
+ * tomado, como el resto de sus escrituras.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public final class PerfilRetiros {
+    // Peso de cada retiro nuevo en los promedios (unos 20 retiros de memoria)
+    public static final double PESO_PROMEDIO = 0.1;
+
+    private final ContadorDeslizante ultimoMinuto = new ContadorDeslizante(60, 1000L);
+    private final ContadorDeslizante ultimaHora = new ContadorDeslizante(60, 60L * 1000);
+    private double promedioMonto;
+    private double varianzaMonto;
+    private long retiros;
+    private long ultimoRetiroMillis;
+
+    PerfilRetiros() {
+    }
+
+    /**
+     * Actualiza el perfil con un retiro aplicado.
+     *
+     * @param monto Monto retirado
+     * @param ahoraMillis Instante del retiro
+     */
+    public void registrar(double monto, long ahoraMillis) {
+        ultimoMinuto.registrar(ahoraMillis);
+        ultimaHora.registrar(ahoraMillis);
+        if (retiros == 0) {
+            promedioMonto = monto;
+            varianzaMonto = 0;
+        } else {
+            double diferencia = monto - promedioMonto;
+            double incremento = PESO_PROMEDIO * diferencia;
+            promedioMonto += incremento;
+            varianzaMonto = (1 - PESO_PROMEDIO) * (varianzaMonto + diferencia * incremento);
+        }
+        retiros++;
+        ultimoRetiroMillis = ahoraMillis;
+    }
+
+    /**
+     * Retiros en los últimos 60 segundos (en intervalos de un segundo).
+     */
+    public int getRetirosUltimoMinuto(long ahoraMillis) {
+        return ultimoMinuto.contar(ahoraMillis);
+    }
+
+    /**
+     * Retiros en los últimos 60 minutos (en intervalos de un minuto).
+     */
+    public int getRetirosUltimaHora(long ahoraMillis) {
+        return ultimaHora.contar(ahoraMillis);
+    }
+
+    /**
+     * Promedio móvil exponencial de los montos retirados.
+     */
+    public double getPromedioMonto() {
+        return promedioMonto;
+    }
+
+    /**
+     * Desviación estándar móvil exponencial de los montos retirados.
+     */
+    public double getDesviacionMonto() {
+        return Math.sqrt(varianzaMonto);
+    }
+
+    /**
+     * Retiros registrados desde que se creó el perfil.
+     */
+    public long getRetiros() {
+        return retiros;
+    }
+
+    /**
+     * Instante del último retiro registrado (0 si no hay).
+     */
+    public long getUltimoRetiroMillis() {
+        return ultimoRetiroMillis;
+    }
+}
\ No newline at end of file
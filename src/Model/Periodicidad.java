@@ -0,0 +1,76 @@
+package Model;
+
+import java.util.Locale;
+
+/**
+ * Frecuencia con la que una cuenta calcula sus intereses.
+ *
+ * Antes cada cuenta guardaba su propio texto ("Mensual", "Trimestral"); como
+ * enum todas comparten las mismas constantes y el texto solo se usa para
+ * mostrarla y guardarla en CSV.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public enum Periodicidad {
+    MENSUAL("Mensual"),
+    TRIMESTRAL("Trimestral"),
+    SEMESTRAL("Semestral"),
+    ANUAL("Anual");
+
+    private final String texto;
+
+    Periodicidad(String texto) {
+        this.texto = texto;
+    }
+
+    /**
+     * Convierte un texto ("Mensual", "TRIMESTRAL", " anual ") en la periodicidad.
+     *
+     * @param texto Nombre de la periodicidad, sin importar mayúsculas
+     * @return La periodicidad correspondiente
+     * @throws IllegalArgumentException Si el texto no es una periodicidad conocida
+     */
+    public static Periodicidad desde(String texto) {
+        if (texto != null) {
+            String normalizado = texto.trim().toUpperCase(Locale.ROOT);
+            for (Periodicidad periodicidad : values()) {
+                if (periodicidad.name().equals(normalizado)) {
+                    return periodicidad;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Periodicidad desconocida: " + texto +
+                                           " (use Mensual, Trimestral, Semestral o Anual)");
+    }
+
+    /**
+     * Como desde(), pero acepta cualquier texto, como las cuentas de ahorros
+     * antes de este enum (que guardaban el texto tal cual y no lo usaban para
+     * calcular intereses). Un texto desconocido o null se toma como MENSUAL,
+     * con una advertencia, en lugar de rechazar la cuenta.
+     *
+     * @param texto Nombre de la periodicidad, sin importar mayúsculas
+     * @return La periodicidad correspondiente, o MENSUAL si no es conocida
+     */
+    public static Periodicidad desdeTextoLibre(String texto) {
+        try {
+            return desde(texto);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Advertencia: periodicidad desconocida \"" + texto + "\", se usa Mensual.");
+            return MENSUAL;
+        }
+    }
+
+    /**
+     * Texto para mostrar y guardar ("Mensual", "Trimestral", ...).
+     */
+    public String getTexto() {
+        return texto;
+    }
+
+    @Override
+    public String toString() {
+        return texto;
+    }
+}
\ No newline at end of file
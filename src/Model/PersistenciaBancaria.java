@@ -1,8 +1,15 @@
 package Model;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Clase que maneja la persistencia de transacciones en archivo CSV.
@@ -13,14 +20,47 @@ import java.time.format.DateTimeFormatter;
  */
 public class PersistenciaBancaria {
     
-    // Ruta del archivo (en la raíz del proyecto, al mismo nivel que src)
-    private static final String ARCHIVO_TRANSACCIONES = "Transacciones.txt";
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // Propiedad del sistema para cambiar la ruta (cada proceso de un clúster usa su propio archivo)
+    public static final String PROPIEDAD_ARCHIVO = "banco.archivoTransacciones";
+    
+    // Ruta del archivo (por defecto en la raíz del proyecto, al mismo nivel que src)
+    private static final String ARCHIVO_TRANSACCIONES = System.getProperty(PROPIEDAD_ARCHIVO, "Transacciones.txt");
+    
+    // Por debajo de este tamaño la búsqueda binaria termina y se recorre secuencialmente
+    private static final long BLOQUE_BUSQUEDA = 8 * 1024;
+    
+    // Bytes que se leen de una vez en cada paso de la búsqueda binaria
+    private static final int LECTURA_BUSQUEDA = 4 * 1024;
+    
+    // Si existe este archivo, el registro tiene fechas fuera de orden (ver consultarPorRango)
+    private static final File MARCA_DESORDEN = new File(ARCHIVO_TRANSACCIONES + ".desordenado");
+    
+    // Las consultas por rango solo usan búsqueda binaria si las fechas del archivo no retroceden
+    private static volatile boolean ordenCronologico = !MARCA_DESORDEN.exists();
+    private static long ultimoSegundoLocal = Long.MIN_VALUE; // Fecha del último registro (segundos locales)
+    
+    // Codificador reutilizable y archivo abierto en modo "append" (protegidos por el bloqueo de la clase)
+    private static final CodificadorTransacciones codificador = new CodificadorTransacciones();
+    private static FileOutputStream salida;
+    private static long posicionEscritura; // Longitud del archivo mientras "salida" está abierto
+    
+    // Cache de historiales por cuenta (se mantiene al día con cada transacción guardada)
+    private static final long CAPACIDAD_CACHE_HISTORIAL = 16L * 1024 * 1024;
+    private static volatile CacheHistorial cacheHistorial = new CacheHistorial(CAPACIDAD_CACHE_HISTORIAL);
+    
+    // Recorrido en paralelo del archivo (se crea al primer uso)
+    private static EscanerParalelo escaner;
+    
+    // Puntos de control del saldo por cuenta (se cargan con la primera consulta de saldo histórico)
+    private static PuntosControlSaldo puntosControl;
     
     /**
      * Guarda una transacción en el archivo CSV.
      * Formato legible: fecha-hora | cuenta | tipo | monto | saldo
      * 
+     * La línea se codifica en un buffer reutilizable y se escribe directamente en el
+     * archivo, que permanece abierto entre llamadas.
+     * 
      * @param numeroCuenta Número de cuenta que realizó la transacción
      * @param tipoTransaccion "DEPOSITO", "RETIRO", "INTERESES"
      * @param monto Monto de la transacción
@@ -29,34 +69,103 @@ public class PersistenciaBancaria {
      */
     public static boolean guardarTransaccion(int numeroCuenta, String tipoTransaccion, 
                                              double monto, double saldoResultante) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(ARCHIVO_TRANSACCIONES, true))) {
-            
-            // Obtener fecha y hora actual
-            String fechaHora = LocalDateTime.now().format(formatter);
+        return guardarTransaccion(numeroCuenta, tipoTransaccion, monto, saldoResultante, 0L);
+    }
+    
+    /**
+     * Guarda una transacción junto con su clave de idempotencia, para poder
+     * reconocer los reintentos aunque el sistema se reinicie.
+     * 
+     * @param numeroCuenta Número de cuenta que realizó la transacción
+     * @param tipoTransaccion "DEPOSITO", "RETIRO", "INTERESES"
+     * @param monto Monto de la transacción
+     * @param saldoResultante Saldo después de la transacción
+     * @param claveIdempotencia Clave de la operación (0 si no tiene)
+     * @return true si se guardó exitosamente, false en caso contrario
+     */
+    public static synchronized boolean guardarTransaccion(int numeroCuenta, String tipoTransaccion, 
+                                                          double monto, double saldoResultante,
+                                                          long claveIdempotencia) {
+        EventoJfrEscritura jfr = new EventoJfrEscritura();
+        boolean medir = jfr.isEnabled();
+        if (medir) {
+            jfr.begin();
+            jfr.numeroCuenta = numeroCuenta;
+            jfr.tipo = tipoTransaccion;
+            jfr.monto = monto;
+        }
+        try {
+            if (salida == null) {
+                salida = new FileOutputStream(ARCHIVO_TRANSACCIONES, true);
+                posicionEscritura = salida.getChannel().size();
+                ultimoSegundoLocal = leerUltimoSegundoLocal(posicionEscritura);
+            }
             
-            // Crear línea con formato legible
-            String linea = String.format("%s | Cuenta: %d | %s | Monto: $%.2f | Saldo Final: $%.2f%n", 
-                                        fechaHora, 
-                                        numeroCuenta, 
-                                        tipoTransaccion, 
-                                        monto, 
-                                        saldoResultante);
+            long ahora = System.currentTimeMillis();
+            int longitud = codificador.codificar(ahora, numeroCuenta, 
+                                                 tipoTransaccion, monto, saldoResultante, 
+                                                 claveIdempotencia);
+            vigilarOrden(codificador.getSegundoLocal());
+            salida.write(codificador.getBuffer(), 0, longitud);
+            if (puntosControl != null) {
+                puntosControl.agregar(numeroCuenta, Math.floorDiv(ahora, 1000L), posicionEscritura, saldoResultante);
+            }
+            posicionEscritura += longitud;
+            if (medir) {
+                jfr.bytes = longitud;
+                jfr.exito = true;
+            }
             
-            // Escribir en el archivo
-            writer.write(linea);
+            // Solo se crea el registro si la cuenta tiene su historial en la cache
+            if (cacheHistorial.contiene(numeroCuenta)) {
+                LocalDateTime fechaHora = LocalDateTime.ofInstant(
+                    Instant.ofEpochSecond(Math.floorDiv(ahora, 1000L)), ZoneId.systemDefault());
+                cacheHistorial.agregar(new Transaccion(fechaHora, numeroCuenta, tipoTransaccion, 
+                                                       monto, saldoResultante, claveIdempotencia));
+            }
             
             return true;
             
         } catch (IOException e) {
             System.err.println("Error al guardar transacción: " + e.getMessage());
+            cerrarArchivo();
             return false;
+        } finally {
+            if (medir) {
+                jfr.commit();
+            }
+        }
+    }
+    
+    /**
+     * Cierra el archivo de transacciones si está abierto.
+     * La siguiente llamada a guardarTransaccion() lo vuelve a abrir.
+     */
+    public static synchronized void cerrarArchivo() {
+        if (salida != null) {
+            try {
+                salida.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar archivo: " + e.getMessage());
+            }
+            salida = null;
         }
     }
     
+    /**
+     * Ruta del archivo de transacciones que usa el sistema. Se puede cambiar al
+     * iniciar la JVM con -Dbanco.archivoTransacciones=ruta.
+     * 
+     * @return Ruta del archivo (relativa al directorio de trabajo)
+     */
+    public static String getRutaArchivo() {
+        return ARCHIVO_TRANSACCIONES;
+    }
+    
     /**
      * Crea el archivo de transacciones con encabezados si no existe.
      */
-    public static void inicializarArchivo() {
+    public static synchronized void inicializarArchivo() {
         File archivo = new File(ARCHIVO_TRANSACCIONES);
         
         // Si el archivo no existe, crearlo con encabezados
@@ -75,54 +184,384 @@ public class PersistenciaBancaria {
     }
     
     /**
-     * Lee y muestra todas las transacciones de una cuenta específica.
+     * Obtiene todas las transacciones de una cuenta específica.
+     * Si el historial está en la cache no se lee el archivo; si no, se lee una
+     * vez en paralelo y queda en la cache (se mantiene al día con las transacciones nuevas).
      * 
      * @param numeroCuenta Número de cuenta a consultar
+     * @return Transacciones de la cuenta en orden (vacía si no hay)
      */
-    public static void consultarTransacciones(int numeroCuenta) {
+    public static List<Transaccion> obtenerTransacciones(int numeroCuenta) {
+        List<Transaccion> cacheadas = cacheHistorial.obtener(numeroCuenta);
+        if (cacheadas != null) {
+            return cacheadas;
+        }
+        
         File archivo = new File(ARCHIVO_TRANSACCIONES);
+        long limite;
+        CacheHistorial cache;
+        synchronized (PersistenciaBancaria.class) {
+            // Con las escrituras detenidas: lo anterior a "limite" se lee del archivo
+            // y lo posterior llega a la cache a través de guardarTransaccion()
+            limite = archivo.length();
+            cache = cacheHistorial;
+            cache.iniciarCarga(numeroCuenta);
+        }
         
-        if (!archivo.exists()) {
-            System.out.println("No hay transacciones registradas.");
-            return;
+        List<Transaccion> leidas = new ArrayList<>();
+        if (archivo.exists()) {
+            try {
+                leidas = getEscaner().escanear(numeroCuenta, limite);
+            } catch (IOException e) {
+                System.err.println("Error al leer transacciones: " + e.getMessage());
+            }
         }
         
-        try (BufferedReader reader = new BufferedReader(new FileReader(archivo))) {
-            String linea;
-            boolean encontrado = false;
-            
-            System.out.println("\n╔════════════════════════════════════════════════════════════════════╗");
-            System.out.println("║        HISTORIAL DE TRANSACCIONES - CUENTA #" + numeroCuenta + "              ║");
-            System.out.println("╚════════════════════════════════════════════════════════════════════╝");
+        return cache.completarCarga(numeroCuenta, leidas);
+    }
+    
+    /**
+     * Longitud actual del archivo de transacciones, es decir, la posición donde
+     * se escribirá el próximo registro.
+     * 
+     * @return Longitud del archivo en bytes (0 si no existe)
+     */
+    public static synchronized long getLongitudArchivo() {
+        return new File(ARCHIVO_TRANSACCIONES).length();
+    }
+    
+    /**
+     * Configura la memoria máxima de la cache de historiales (la vacía).
+     * 
+     * @param capacidadBytes Memoria máxima estimada en bytes
+     */
+    public static synchronized void configurarCacheHistorial(long capacidadBytes) {
+        cacheHistorial = new CacheHistorial(capacidadBytes);
+    }
+    
+    /**
+     * Cache de historiales, para consultar sus métricas (aciertos, fallos, expulsiones).
+     * 
+     * @return Cache de historiales en uso
+     */
+    public static CacheHistorial getCacheHistorial() {
+        return cacheHistorial;
+    }
+    
+    /**
+     * Obtiene las transacciones registradas en un rango de tiempo [desde, hasta).
+     * 
+     * Como el archivo se escribe en orden cronológico, se ubica el inicio del rango
+     * con búsqueda binaria sobre el archivo y solo se lee la parte del rango.
+     * 
+     * La búsqueda binaria supone que las fechas del archivo nunca retroceden. No
+     * es así si se atrasa el reloj del sistema o al terminar el horario de verano
+     * (las fechas son locales y una hora se repite). guardarTransaccion() detecta
+     * el retroceso y deja la marca "Transacciones.txt.desordenado": desde entonces
+     * el rango se busca recorriendo el archivo completo. Un archivo desordenado
+     * por otros medios (editado a mano, unido desde otro equipo) necesita la
+     * marca; si se reordena el archivo, se puede borrar.
+     * 
+     * @param desde Inicio del rango (inclusive)
+     * @param hasta Fin del rango (exclusive)
+     * @return Transacciones del rango en el orden del archivo
+     */
+    public static List<Transaccion> consultarPorRango(LocalDateTime desde, LocalDateTime hasta) {
+        return consultarPorRango(EscanerParalelo.TODAS_LAS_CUENTAS, desde, hasta);
+    }
+    
+    /**
+     * Obtiene las transacciones de una cuenta en un rango de tiempo [desde, hasta).
+     * 
+     * @param numeroCuenta Número de cuenta (EscanerParalelo.TODAS_LAS_CUENTAS incluye todas)
+     * @param desde Inicio del rango (inclusive)
+     * @param hasta Fin del rango (exclusive)
+     * @return Transacciones de la cuenta en el rango, en el orden del archivo
+     */
+    public static List<Transaccion> consultarPorRango(int numeroCuenta, LocalDateTime desde, 
+                                                      LocalDateTime hasta) {
+        List<Transaccion> resultado = new ArrayList<>();
+        File archivo = new File(ARCHIVO_TRANSACCIONES);
+        
+        if (!archivo.exists() || !desde.isBefore(hasta)) {
+            return resultado;
+        }
+        
+        try {
+            if (ordenCronologico) {
+                leerRangoOrdenado(archivo, numeroCuenta, desde, hasta, resultado);
+            } else {
+                getEscaner().recorrer(numeroCuenta, Long.MAX_VALUE, transaccion -> {
+                    if (!transaccion.getFechaHora().isBefore(desde) && transaccion.getFechaHora().isBefore(hasta)) {
+                        resultado.add(transaccion);
+                    }
+                });
+            }
+        } catch (IOException e) {
+            System.err.println("Error al leer transacciones: " + e.getMessage());
+        }
+        
+        return resultado;
+    }
+    
+    /**
+     * Lee el rango ubicando su inicio con búsqueda binaria, suponiendo que las
+     * fechas del archivo no retroceden.
+     */
+    private static void leerRangoOrdenado(File archivo, int numeroCuenta, LocalDateTime desde,
+                                             LocalDateTime hasta, List<Transaccion> resultado) throws IOException {
+        try (FileInputStream entrada = new FileInputStream(archivo)) {
+            FileChannel canal = entrada.getChannel();
+            canal.position(buscarInicioRango(canal, desde));
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(entrada, StandardCharsets.UTF_8));
             
-            // Leer línea por línea
+            String linea;
             while ((linea = reader.readLine()) != null) {
-                // Saltar líneas de encabezado o decorativas
-                if (linea.startsWith("=") || linea.contains("REGISTRO DE") || 
-                    linea.contains("Formato:") || linea.trim().isEmpty()) {
+                Transaccion transaccion = Transaccion.parsear(linea);
+                if (transaccion == null || transaccion.getFechaHora().isBefore(desde)) {
                     continue;
                 }
-                
-                // Verificar si la línea contiene el número de cuenta
-                if (linea.contains("Cuenta: " + numeroCuenta)) {
-                    encontrado = true;
-                    System.out.println(linea);
+                if (!transaccion.getFechaHora().isBefore(hasta)) {
+                    break; // El resto del archivo es posterior al rango
+                }
+                if (numeroCuenta == EscanerParalelo.TODAS_LAS_CUENTAS ||
+                    transaccion.getNumeroCuenta() == numeroCuenta) {
+                    resultado.add(transaccion);
                 }
             }
-            
-            if (!encontrado) {
-                System.out.println("No se encontraron transacciones para esta cuenta.");
+        }
+    }
+    
+    /**
+     * Saldo que tenía una cuenta justo antes de un instante, es decir, el saldo
+     * final de su último registro anterior a ese instante.
+     * 
+     * Se busca el punto de control anterior de la cuenta (ver PuntosControlSaldo)
+     * y se leen solo los registros siguientes hasta el instante, así que el costo
+     * no depende de la antigüedad de la cuenta. La primera consulta carga los
+     * puntos de control leyendo el archivo completo una vez, en paralelo.
+     * 
+     * @param numeroCuenta Número de cuenta
+     * @param instante Instante de la consulta (exclusive)
+     * @return Saldo de la cuenta, o NaN si no tiene registros anteriores al instante
+     * @throws IOException Si no se puede leer el archivo
+     */
+    public static double consultarSaldoAl(int numeroCuenta, LocalDateTime instante) throws IOException {
+        // Los registros tienen segundos enteros: "antes de 10:00:00.5" incluye los de 10:00:00
+        long segundo = instante.atZone(ZoneId.systemDefault()).toEpochSecond() + (instante.getNano() > 0 ? 1 : 0);
+        PuntosControlSaldo.Ubicacion ubicacion = getPuntosControl().ubicar(numeroCuenta, segundo);
+        if (ubicacion == null) {
+            return Double.NaN;
+        }
+        if (!ubicacion.requiereLectura()) {
+            return ubicacion.getSaldo();
+        }
+        
+        // Registros de la cuenta entre el punto de control y el instante (están en orden)
+        double[] saldo = {ubicacion.getSaldo()};
+        getEscaner().recorrerRango(numeroCuenta, ubicacion.getDesde(), ubicacion.getHasta(), 
+            (transaccion, posicion) -> {
+                if (transaccion.getFechaHora().isBefore(instante)) {
+                    saldo[0] = transaccion.getSaldoFinal();
+                }
+            });
+        return saldo[0];
+    }
+    
+    /**
+     * Puntos de control del saldo por cuenta. La primera llamada los carga
+     * leyendo el archivo en paralelo; lo que se guarde mientras tanto se
+     * agrega al terminar, y las consultas concurrentes esperan la carga.
+     * 
+     * @return Puntos de control, al día con el archivo
+     * @throws IOException Si no se puede leer el archivo
+     */
+    public static PuntosControlSaldo getPuntosControl() throws IOException {
+        PuntosControlSaldo puntos;
+        long limite;
+        synchronized (PersistenciaBancaria.class) {
+            if (puntosControl != null) {
+                return puntosControl;
             }
+            // Con las escrituras detenidas: lo anterior a "limite" se lee del
+            // archivo y lo posterior llega a través de guardarTransaccion()
+            puntos = new PuntosControlSaldo();
+            puntos.iniciarCarga();
+            limite = new File(ARCHIVO_TRANSACCIONES).length();
+            puntosControl = puntos;
+        }
+        
+        boolean completa = false;
+        try {
+            if (limite > 0) {
+                getEscaner().recorrerConPosiciones(EscanerParalelo.TODAS_LAS_CUENTAS, limite, (transaccion, posicion) -> 
+                    puntos.cargar(transaccion.getNumeroCuenta(), 
+                                  transaccion.getFechaHora().atZone(ZoneId.systemDefault()).toEpochSecond(),
+                                  posicion, transaccion.getSaldoFinal()));
+            }
+            completa = true;
+        } finally {
+            if (!completa) {
+                synchronized (PersistenciaBancaria.class) {
+                    if (puntosControl == puntos) {
+                        puntosControl = null; // La próxima consulta vuelve a intentar
+                    }
+                }
+            }
+            puntos.completarCarga(completa);
+        }
+        return puntos;
+    }
+    
+    /**
+     * Búsqueda binaria sobre las posiciones del archivo.
+     * Devuelve el inicio de una línea tal que todos los registros anteriores
+     * son previos a la fecha buscada. Cada paso lee un bloque del canal en
+     * lugar de la línea byte a byte.
+     */
+    private static long buscarInicioRango(FileChannel canal, LocalDateTime desde) throws IOException {
+        LectorLineas lector = new LectorLineas(canal);
+        long bajo = 0;
+        long alto = canal.size();
+        
+        while (alto - bajo > BLOQUE_BUSQUEDA) {
+            long medio = (bajo + alto) >>> 1;
+            long posicion = lector.leer(medio); // Descartar la línea parcial
             
-            System.out.println("════════════════════════════════════════════════════════════════════\n");
+            // Buscar el siguiente registro válido (saltando encabezados)
+            LocalDateTime fecha = null;
+            while (posicion >= 0 && posicion < alto) {
+                posicion = lector.leer(posicion);
+                fecha = Transaccion.leerFechaHora(lector.getLinea());
+                if (fecha != null) {
+                    break;
+                }
+            }
             
-        } catch (IOException e) {
-            System.err.println("Error al leer transacciones: " + e.getMessage());
+            if (fecha != null && fecha.isBefore(desde)) {
+                bajo = posicion; // Inicio de la línea siguiente
+            } else {
+                alto = medio;
+            }
         }
+        return bajo;
     }
     
     /**
-     * Muestra todas las transacciones del sistema.
+     * Lee líneas del canal a partir de cualquier posición, por bloques de
+     * LECTURA_BUSQUEDA bytes, sin mover la posición del canal.
+     */
+    private static final class LectorLineas {
+        private final FileChannel canal;
+        private ByteBuffer bloque = ByteBuffer.allocate(LECTURA_BUSQUEDA);
+        private long inicioBloque = -1;
+        private String linea;
+        
+        LectorLineas(FileChannel canal) {
+            this.canal = canal;
+        }
+        
+        /**
+         * Lee la línea que empieza en "posicion" (sin el fin de línea).
+         * 
+         * @return Posición de la línea siguiente, o -1 si no había nada que leer
+         */
+        long leer(long posicion) throws IOException {
+            while (true) {
+                boolean enBloque = inicioBloque >= 0 && posicion >= inicioBloque
+                                   && posicion < inicioBloque + bloque.limit();
+                if (enBloque) {
+                    int desde = (int) (posicion - inicioBloque);
+                    for (int i = desde; i < bloque.limit(); i++) {
+                        if (bloque.get(i) == '\n') {
+                            linea = decodificar(desde, i);
+                            return inicioBloque + i + 1;
+                        }
+                    }
+                }
+                // La línea no está completa en el bloque: leer desde su inicio
+                if (enBloque && posicion == inicioBloque) {
+                    if (bloque.limit() < bloque.capacity()) {
+                        linea = decodificar(0, bloque.limit()); // Última línea, sin fin de línea
+                        return inicioBloque + bloque.limit();
+                    }
+                    bloque = ByteBuffer.allocate(bloque.capacity() * 2); // Línea más larga que el bloque
+                }
+                if (!cargar(posicion)) {
+                    linea = null;
+                    return -1;
+                }
+            }
+        }
+        
+        String getLinea() {
+            return linea;
+        }
+        
+        private boolean cargar(long posicion) throws IOException {
+            bloque.clear();
+            while (bloque.hasRemaining() && canal.read(bloque, posicion + bloque.position()) >= 0) {
+                // Seguir hasta llenar el bloque o llegar al final del archivo
+            }
+            bloque.flip();
+            inicioBloque = posicion;
+            return bloque.hasRemaining();
+        }
+        
+        private String decodificar(int desde, int hasta) {
+            if (hasta > desde && bloque.get(hasta - 1) == '\r') {
+                hasta--;
+            }
+            return new String(bloque.array(), desde, hasta - desde, StandardCharsets.UTF_8);
+        }
+    }
+    
+    /**
+     * Registra la fecha (en segundos locales) del registro que se acaba de
+     * codificar. Si es anterior a la del registro previo, deja la marca de
+     * desorden y las consultas por rango dejan de usar la búsqueda binaria.
+     */
+    private static void vigilarOrden(long segundoLocal) {
+        if (segundoLocal < ultimoSegundoLocal && ordenCronologico) {
+            ordenCronologico = false;
+            try {
+                MARCA_DESORDEN.createNewFile();
+            } catch (IOException e) {
+                System.err.println("Error al marcar el archivo como desordenado: " + e.getMessage());
+            }
+            System.err.println("Advertencia: la fecha del sistema retrocedió; las consultas por rango " +
+                               "recorrerán el archivo completo.");
+        }
+        ultimoSegundoLocal = segundoLocal;
+    }
+    
+    /**
+     * Fecha, en segundos locales, del último registro del archivo (para
+     * detectar un retroceso entre una ejecución y la siguiente).
+     */
+    private static long leerUltimoSegundoLocal(long longitud) throws IOException {
+        long inicio = Math.max(0, longitud - LECTURA_BUSQUEDA);
+        ByteBuffer cola = ByteBuffer.allocate((int) (longitud - inicio));
+        try (FileInputStream entrada = new FileInputStream(ARCHIVO_TRANSACCIONES)) {
+            FileChannel canal = entrada.getChannel();
+            while (cola.hasRemaining() && canal.read(cola, inicio + cola.position()) >= 0) {
+                // Leer el final del archivo
+            }
+        }
+        String[] lineas = new String(cola.array(), 0, cola.position(), StandardCharsets.UTF_8).split("\n");
+        for (int i = lineas.length - 1; i >= 0; i--) {
+            LocalDateTime fecha = Transaccion.leerFechaHora(lineas[i]);
+            if (fecha != null) {
+                return fecha.toEpochSecond(ZoneOffset.UTC);
+            }
+        }
+        return Long.MIN_VALUE;
+    }
+    
+    /**
+     * Muestra todas las transacciones del sistema (sin las líneas de encabezado
+     * del archivo), leídas en paralelo.
      */
     public static void mostrarTodasTransacciones() {
         File archivo = new File(ARCHIVO_TRANSACCIONES);
@@ -132,31 +571,77 @@ public class PersistenciaBancaria {
             return;
         }
         
-        try (BufferedReader reader = new BufferedReader(new FileReader(archivo))) {
-            String linea;
-            
-            System.out.println("\n╔════════════════════════════════════════════════════════════════════╗");
-            System.out.println("║           TODAS LAS TRANSACCIONES DEL SISTEMA                     ║");
-            System.out.println("╚════════════════════════════════════════════════════════════════════╝\n");
-            
-            while ((linea = reader.readLine()) != null) {
-                System.out.println(linea);
-            }
+        System.out.println("\n╔════════════════════════════════════════════════════════════════════╗");
+        System.out.println("║           TODAS LAS TRANSACCIONES DEL SISTEMA                     ║");
+        System.out.println("╚════════════════════════════════════════════════════════════════════╝\n");
+        
+        try {
+            long[] registros = new long[1];
+            getEscaner().recorrer(EscanerParalelo.TODAS_LAS_CUENTAS, Long.MAX_VALUE, transaccion -> {
+                System.out.println(transaccion);
+                registros[0]++;
+            });
             
-            System.out.println("\n════════════════════════════════════════════════════════════════════\n");
+            System.out.println("\n════════════════════════════════════════════════════════════════════");
+            System.out.printf("Total: %,d transacciones%n%n", registros[0]);
             
         } catch (IOException e) {
             System.err.println("Error al leer transacciones: " + e.getMessage());
         }
     }
     
+    /**
+     * Escáner paralelo del archivo de transacciones, con un hilo por procesador.
+     * 
+     * @return Escáner compartido
+     */
+    public static synchronized EscanerParalelo getEscaner() {
+        if (escaner == null) {
+            escaner = new EscanerParalelo(new File(ARCHIVO_TRANSACCIONES), 
+                                          Runtime.getRuntime().availableProcessors());
+        }
+        return escaner;
+    }
+    
+    /**
+     * Lee las cuentas de un archivo con el formato de exportarCuentasCSV()
+     * (el encabezado y las líneas vacías se saltan).
+     * 
+     * @param ruta Ruta del archivo CSV
+     * @return Cuentas en el orden del archivo, sin registrar
+     * @throws IOException Si no se puede leer el archivo o una línea no es válida
+     */
+    public static List<CuentaBancaria> leerCuentasCSV(String ruta) throws IOException {
+        List<CuentaBancaria> cuentas = new ArrayList<>();
+        try (BufferedReader lector = new BufferedReader(
+                new InputStreamReader(new FileInputStream(ruta), StandardCharsets.UTF_8))) {
+            String linea;
+            int numeroLinea = 0;
+            while ((linea = lector.readLine()) != null) {
+                numeroLinea++;
+                if (linea.isBlank() || linea.startsWith("TipoCuenta,")) {
+                    continue;
+                }
+                try {
+                    cuentas.add(FabricaCuentas.desdeCSV(linea));
+                } catch (Exception e) {
+                    throw new IOException("Línea " + numeroLinea + " de " + ruta + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return cuentas;
+    }
+    
     /**
      * Elimina todas las transacciones del archivo (reinicia el sistema).
      * PRECAUCIÓN: Esta operación no se puede deshacer.
      * 
      * @return true si se eliminó exitosamente
      */
-    public static boolean limpiarTransacciones() {
+    public static synchronized boolean limpiarTransacciones() {
+        cerrarArchivo();
+        cacheHistorial.limpiar();
+        puntosControl = null;
         File archivo = new File(ARCHIVO_TRANSACCIONES);
         
         if (archivo.exists()) {
@@ -0,0 +1,238 @@
+package Model;
+
+/**
+ * Descripción de las reglas de un producto de cuenta.
+ *
+ * Reúne en un solo objeto inmutable todo lo que antes variaba entre las
+ * subclases de CuentaBancaria: comisión por retiro, sobregiro permitido,
+ * máximo de retiros por período, límite diario y tasa de interés. El motor
+ * (MotorPoliticas) aplica cualquier política con el mismo código, así que un
+ * producto nuevo que solo cambia estos valores no necesita otra subclase.
+ *
+ * Los valores "sin límite" son Integer.MAX_VALUE para los retiros por período
+ * y Double.POSITIVE_INFINITY para el límite diario.
+ *
+ * Como es inmutable, las cuentas con las mismas reglas comparten la misma
+ * instancia (ver compartida()): miles de cuentas de ahorros con la misma tasa
+ * guardan una sola política.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public final class PoliticaCuenta {
+    public static final int SIN_LIMITE_RETIROS = Integer.MAX_VALUE;
+    public static final double SIN_LIMITE_DIARIO = Double.POSITIVE_INFINITY;
+
+    // Tasa preferencial de las cuentas empresariales: 0.5% mensual
+    public static final double TASA_EMPRESARIAL = 0.005;
+
+    // Políticas distintas en uso, para que las cuentas iguales compartan instancia
+    private static final InternadorDebil<PoliticaCuenta> COMPARTIDAS = new InternadorDebil<>();
+
+    private final String nombre;
+    private final double comisionRetiro;
+    private final double limiteSobregiro;
+    private final boolean admiteSobregiro;
+    private final int retirosPorPeriodo;
+    private final double limiteDiario;
+    private final double tasaInteres;
+    private final Periodicidad periodicidadInteres;
+
+    /**
+     * Constructor de PoliticaCuenta. El producto admite sobregiro si el
+     * límite de sobregiro es mayor a cero.
+     *
+     * @param nombre Nombre del producto ("AHORROS", "CORRIENTE", ...)
+     * @param comisionRetiro Comisión fija que se cobra por cada retiro
+     * @param limiteSobregiro Cuánto puede quedar el saldo en negativo
+     * @param retirosPorPeriodo Máximo de retiros por período (SIN_LIMITE_RETIROS si no hay)
+     * @param limiteDiario Máximo a retirar en 24 horas (SIN_LIMITE_DIARIO si no hay)
+     * @param tasaInteres Tasa de interés por período (0.02 = 2%)
+     * @param periodicidadInteres Frecuencia de cálculo de los intereses
+     */
+    public PoliticaCuenta(String nombre, double comisionRetiro, double limiteSobregiro,
+                          int retirosPorPeriodo, double limiteDiario, double tasaInteres,
+                          Periodicidad periodicidadInteres) {
+        this(nombre, comisionRetiro, limiteSobregiro, limiteSobregiro > 0, retirosPorPeriodo,
+             limiteDiario, tasaInteres, periodicidadInteres);
+    }
+
+    /**
+     * Constructor de PoliticaCuenta.
+     *
+     * @param nombre Nombre del producto ("AHORROS", "CORRIENTE", ...)
+     * @param comisionRetiro Comisión fija que se cobra por cada retiro
+     * @param limiteSobregiro Cuánto puede quedar el saldo en negativo
+     * @param admiteSobregiro Si el producto admite sobregiro, aunque el límite
+     *        actual sea 0 (decide qué excepción lanza un retiro sin saldo)
+     * @param retirosPorPeriodo Máximo de retiros por período (SIN_LIMITE_RETIROS si no hay)
+     * @param limiteDiario Máximo a retirar en 24 horas (SIN_LIMITE_DIARIO si no hay)
+     * @param tasaInteres Tasa de interés por período (0.02 = 2%)
+     * @param periodicidadInteres Frecuencia de cálculo de los intereses
+     */
+    public PoliticaCuenta(String nombre, double comisionRetiro, double limiteSobregiro,
+                          boolean admiteSobregiro, int retirosPorPeriodo, double limiteDiario,
+                          double tasaInteres, Periodicidad periodicidadInteres) {
+        this.nombre = nombre;
+        this.comisionRetiro = comisionRetiro;
+        this.limiteSobregiro = limiteSobregiro;
+        this.admiteSobregiro = admiteSobregiro;
+        this.retirosPorPeriodo = retirosPorPeriodo;
+        this.limiteDiario = limiteDiario;
+        this.tasaInteres = tasaInteres;
+        this.periodicidadInteres = periodicidadInteres;
+    }
+
+    // ==================== PRODUCTOS ====================
+
+    /**
+     * Cuenta de ahorros: genera intereses y limita los retiros por período.
+     */
+    public static PoliticaCuenta ahorros(double tasaInteres, Periodicidad periodicidadInteres, int retirosPermitidos) {
+        return new PoliticaCuenta("AHORROS", 0, 0, retirosPermitidos, SIN_LIMITE_DIARIO,
+                                  tasaInteres, periodicidadInteres);
+    }
+
+    /**
+     * Cuenta corriente: cobra comisión por retiro, permite sobregiro y no genera
+     * intereses. Admite sobregiro aunque el límite sea 0.
+     */
+    public static PoliticaCuenta corriente(double comisionFija, double limiteSobregiro) {
+        return new PoliticaCuenta("CORRIENTE", comisionFija, limiteSobregiro, true, SIN_LIMITE_RETIROS,
+                                  SIN_LIMITE_DIARIO, 0, Periodicidad.MENSUAL);
+    }
+
+    /**
+     * Cuenta empresarial: límite de retiro en 24 horas e interés preferencial.
+     */
+    public static PoliticaCuenta empresarial(double limiteDiario) {
+        return new PoliticaCuenta("EMPRESARIAL", 0, 0, SIN_LIMITE_RETIROS, limiteDiario,
+                                  TASA_EMPRESARIAL, Periodicidad.MENSUAL);
+    }
+
+    // ==================== VARIANTES ====================
+
+    public PoliticaCuenta conComisionRetiro(double comisionRetiro) {
+        return new PoliticaCuenta(nombre, comisionRetiro, limiteSobregiro, admiteSobregiro,
+                                  retirosPorPeriodo, limiteDiario, tasaInteres, periodicidadInteres);
+    }
+
+    public PoliticaCuenta conLimiteSobregiro(double limiteSobregiro) {
+        return new PoliticaCuenta(nombre, comisionRetiro, limiteSobregiro, admiteSobregiro,
+                                  retirosPorPeriodo, limiteDiario, tasaInteres, periodicidadInteres);
+    }
+
+    public PoliticaCuenta conLimiteDiario(double limiteDiario) {
+        return new PoliticaCuenta(nombre, comisionRetiro, limiteSobregiro, admiteSobregiro,
+                                  retirosPorPeriodo, limiteDiario, tasaInteres, periodicidadInteres);
+    }
+
+    public PoliticaCuenta conTasaInteres(double tasaInteres) {
+        return new PoliticaCuenta(nombre, comisionRetiro, limiteSobregiro, admiteSobregiro,
+                                  retirosPorPeriodo, limiteDiario, tasaInteres, periodicidadInteres);
+    }
+
+    public PoliticaCuenta conPeriodicidadInteres(Periodicidad periodicidadInteres) {
+        return new PoliticaCuenta(nombre, comisionRetiro, limiteSobregiro, admiteSobregiro,
+                                  retirosPorPeriodo, limiteDiario, tasaInteres, periodicidadInteres);
+    }
+
+    // ==================== GETTERS ====================
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public double getComisionRetiro() {
+        return comisionRetiro;
+    }
+
+    public double getLimiteSobregiro() {
+        return limiteSobregiro;
+    }
+
+    /**
+     * Indica si el producto admite sobregiro (la cuenta corriente, aunque su
+     * límite sea 0). Un retiro sin saldo en estos productos lanza
+     * OperacionInvalidaException encadenada en vez de SaldoInsuficienteException.
+     */
+    public boolean admiteSobregiro() {
+        return admiteSobregiro;
+    }
+
+    public int getRetirosPorPeriodo() {
+        return retirosPorPeriodo;
+    }
+
+    public double getLimiteDiario() {
+        return limiteDiario;
+    }
+
+    /**
+     * Indica si la política limita lo retirado en 24 horas.
+     */
+    public boolean tieneLimiteDiario() {
+        return limiteDiario != SIN_LIMITE_DIARIO;
+    }
+
+    public double getTasaInteres() {
+        return tasaInteres;
+    }
+
+    public Periodicidad getPeriodicidadInteres() {
+        return periodicidadInteres;
+    }
+
+    // ==================== INSTANCIAS COMPARTIDAS ====================
+
+    /**
+     * Devuelve la instancia compartida de esta política: la primera política
+     * igual que se registró y sigue en uso. CuentaBancaria guarda siempre la
+     * compartida; las políticas que ya no usa ninguna cuenta (por ejemplo,
+     * tasas que se cambiaron) las libera el recolector.
+     *
+     * @return Política igual a esta, la misma para todas las políticas iguales
+     */
+    public PoliticaCuenta compartida() {
+        return COMPARTIDAS.compartida(this);
+    }
+
+    @Override
+    public boolean equals(Object otro) {
+        if (this == otro) {
+            return true;
+        }
+        if (!(otro instanceof PoliticaCuenta)) {
+            return false;
+        }
+        PoliticaCuenta p = (PoliticaCuenta) otro;
+        return nombre.equals(p.nombre) &&
+               Double.compare(comisionRetiro, p.comisionRetiro) == 0 &&
+               Double.compare(limiteSobregiro, p.limiteSobregiro) == 0 &&
+               admiteSobregiro == p.admiteSobregiro &&
+               retirosPorPeriodo == p.retirosPorPeriodo &&
+               Double.compare(limiteDiario, p.limiteDiario) == 0 &&
+               Double.compare(tasaInteres, p.tasaInteres) == 0 &&
+               periodicidadInteres == p.periodicidadInteres;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = nombre.hashCode();
+        hash = 31 * hash + Double.hashCode(comisionRetiro);
+        hash = 31 * hash + Double.hashCode(limiteSobregiro);
+        hash = 31 * hash + Boolean.hashCode(admiteSobregiro);
+        hash = 31 * hash + retirosPorPeriodo;
+        hash = 31 * hash + Double.hashCode(limiteDiario);
+        hash = 31 * hash + Double.hashCode(tasaInteres);
+        return 31 * hash + periodicidadInteres.ordinal();
+    }
+
+    @Override
+    public String toString() {
+        return nombre + " | Comisión: $" + comisionRetiro + " | Sobregiro: $" + limiteSobregiro +
+               " | Retiros por período: " + (retirosPorPeriodo == SIN_LIMITE_RETIROS ? "sin límite" : retirosPorPeriodo) +
+               " | Límite diario: " + (tieneLimiteDiario() ? "$" + limiteDiario : "sin límite") +
+               " | Interés: " + (tasaInteres * 100) + "% " + periodicidadInteres;
+    }
+}
\ No newline at end of file
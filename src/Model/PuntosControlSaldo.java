@@ -0,0 +1,267 @@
+package Model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Puntos de control del saldo de cada cuenta en el archivo de transacciones,
+ * para saber el saldo que tenía una cuenta en una fecha sin leer todo su historial.
+ *
+ * Cada punto guarda la posición, el instante y el saldo de un registro de la
+ * cuenta. Se crea uno con el primer registro de la cuenta y después cada
+ * REGISTROS_POR_PUNTO registros, o antes si el archivo avanzó más de
+ * BYTES_POR_PUNTO desde el último punto de la cuenta. Así entre un punto y el
+ * siguiente hay pocos registros de la cuenta y todos están cerca del punto:
+ * una consulta lee como mucho BYTES_POR_PUNTO bytes, sin importar la
+ * antigüedad de la cuenta. Además se recuerda el último registro de cada
+ * cuenta, que responde sin leer nada las consultas posteriores a él.
+ *
+ * Igual que CacheHistorial, la carga inicial desde el archivo se hace en dos
+ * pasos: iniciarCarga() (antes de leer) y completarCarga() (después). Lo que se
+ * guarde entre ambos pasos se aplica al terminar la lectura.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PuntosControlSaldo {
+
+    public static final int REGISTROS_POR_PUNTO = 64;
+    public static final long BYTES_POR_PUNTO = 256 * 1024;
+
+    /**
+     * Puntos de una cuenta, en orden del archivo (y por lo tanto de tiempo).
+     */
+    private static class Puntos {
+        private long[] segundos = new long[1];
+        private long[] posiciones = new long[1];
+        private double[] saldos = new double[1];
+        private int cantidad;
+        private int registrosDesdeUltimo;
+
+        private long segundosUltimo;
+        private long posicionUltimo;
+        private double saldoUltimo;
+
+        void agregar(long segundo, long posicion, double saldo) {
+            if (cantidad == segundos.length) {
+                int capacidad = cantidad * 2;
+                segundos = Arrays.copyOf(segundos, capacidad);
+                posiciones = Arrays.copyOf(posiciones, capacidad);
+                saldos = Arrays.copyOf(saldos, capacidad);
+            }
+            segundos[cantidad] = segundo;
+            posiciones[cantidad] = posicion;
+            saldos[cantidad] = saldo;
+            cantidad++;
+            registrosDesdeUltimo = 0;
+        }
+
+        /**
+         * Último punto anterior al instante dado, o -1 si no hay.
+         */
+        int buscarAnterior(long segundo) {
+            int bajo = 0;
+            int alto = cantidad - 1;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (segundos[medio] < segundo) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio - 1;
+                }
+            }
+            return alto;
+        }
+    }
+
+    /**
+     * Dónde está el saldo de una cuenta en un instante: el saldo del punto de
+     * control anterior y la parte del archivo que falta leer para llegar al
+     * instante (vacía si el saldo ya es el definitivo).
+     */
+    public static class Ubicacion {
+        private final double saldo;
+        private final long desde;
+        private final long hasta;
+
+        Ubicacion(double saldo, long desde, long hasta) {
+            this.saldo = saldo;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        public double getSaldo() {
+            return saldo;
+        }
+
+        /**
+         * Posición del registro del punto de control.
+         */
+        public long getDesde() {
+            return desde;
+        }
+
+        /**
+         * Los registros de la cuenta que pueden cambiar el saldo empiezan antes de esta posición.
+         */
+        public long getHasta() {
+            return hasta;
+        }
+
+        public boolean requiereLectura() {
+            return desde < hasta;
+        }
+    }
+
+    /**
+     * Registro guardado mientras se leía el archivo.
+     */
+    private static class Pendiente {
+        private final int numeroCuenta;
+        private final long segundo;
+        private final long posicion;
+        private final double saldo;
+
+        Pendiente(int numeroCuenta, long segundo, long posicion, double saldo) {
+            this.numeroCuenta = numeroCuenta;
+            this.segundo = segundo;
+            this.posicion = posicion;
+            this.saldo = saldo;
+        }
+    }
+
+    private final Map<Integer, Puntos> cuentas = new HashMap<>();
+    private List<Pendiente> pendientes;
+    private boolean cargando;
+    private boolean cargaFallida;
+    private long totalPuntos;
+    private long registros;
+
+    /**
+     * Marca que se va a leer el archivo. Debe llamarse antes de empezar la
+     * lectura, con las escrituras detenidas.
+     */
+    public synchronized void iniciarCarga() {
+        cargando = true;
+        pendientes = new ArrayList<>();
+    }
+
+    /**
+     * Aplica un registro leído del archivo durante la carga.
+     *
+     * @param numeroCuenta Número de cuenta del registro
+     * @param segundo Instante del registro (segundos desde 1970)
+     * @param posicion Posición del registro en el archivo
+     * @param saldo Saldo después del registro
+     */
+    public synchronized void cargar(int numeroCuenta, long segundo, long posicion, double saldo) {
+        aplicar(numeroCuenta, segundo, posicion, saldo);
+    }
+
+    /**
+     * Termina la carga: aplica lo que se guardó mientras se leía el archivo y
+     * despierta a las consultas que la esperaban.
+     *
+     * @param completa false si la lectura falló (las consultas lo informarán)
+     */
+    public synchronized void completarCarga(boolean completa) {
+        for (Pendiente pendiente : pendientes) {
+            aplicar(pendiente.numeroCuenta, pendiente.segundo, pendiente.posicion, pendiente.saldo);
+        }
+        pendientes = null;
+        cargando = false;
+        cargaFallida = !completa;
+        notifyAll();
+    }
+
+    /**
+     * Agrega un registro recién guardado en el archivo.
+     *
+     * @param numeroCuenta Número de cuenta del registro
+     * @param segundo Instante del registro (segundos desde 1970)
+     * @param posicion Posición del registro en el archivo
+     * @param saldo Saldo después del registro
+     */
+    public synchronized void agregar(int numeroCuenta, long segundo, long posicion, double saldo) {
+        if (cargando) {
+            pendientes.add(new Pendiente(numeroCuenta, segundo, posicion, saldo));
+        } else {
+            aplicar(numeroCuenta, segundo, posicion, saldo);
+        }
+    }
+
+    private void aplicar(int numeroCuenta, long segundo, long posicion, double saldo) {
+        Puntos puntos = cuentas.get(numeroCuenta);
+        if (puntos == null) {
+            puntos = new Puntos();
+            cuentas.put(numeroCuenta, puntos);
+        }
+        puntos.registrosDesdeUltimo++;
+        if (puntos.cantidad == 0 || puntos.registrosDesdeUltimo >= REGISTROS_POR_PUNTO ||
+                posicion - puntos.posiciones[puntos.cantidad - 1] > BYTES_POR_PUNTO) {
+            puntos.agregar(segundo, posicion, saldo);
+            totalPuntos++;
+        }
+        puntos.segundosUltimo = segundo;
+        puntos.posicionUltimo = posicion;
+        puntos.saldoUltimo = saldo;
+        registros++;
+    }
+
+    /**
+     * Ubica el saldo que tenía una cuenta justo antes de un instante
+     * (después de sus registros anteriores a ese segundo). Si la carga
+     * inicial está en curso, espera a que termine.
+     *
+     * @param numeroCuenta Número de cuenta
+     * @param segundo Instante de la consulta (segundos desde 1970)
+     * @return Saldo y parte del archivo a leer, o null si la cuenta no tiene registros anteriores
+     * @throws IOException Si la carga inicial del archivo falló
+     */
+    public synchronized Ubicacion ubicar(int numeroCuenta, long segundo) throws IOException {
+        while (cargando) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Consulta interrumpida mientras se cargaban los puntos de control", e);
+            }
+        }
+        if (cargaFallida) {
+            throw new IOException("No se pudieron cargar los puntos de control del archivo");
+        }
+
+        Puntos puntos = cuentas.get(numeroCuenta);
+        if (puntos == null) {
+            return null;
+        }
+        if (puntos.segundosUltimo < segundo) {
+            return new Ubicacion(puntos.saldoUltimo, puntos.posicionUltimo, puntos.posicionUltimo);
+        }
+        int i = puntos.buscarAnterior(segundo);
+        if (i < 0) {
+            return null;
+        }
+        // Los registros de la cuenta entre este punto y el siguiente están a menos
+        // de BYTES_POR_PUNTO del punto; el siguiente punto ya es posterior al instante
+        long desde = puntos.posiciones[i];
+        long siguiente = i + 1 < puntos.cantidad ? puntos.posiciones[i + 1] : puntos.posicionUltimo;
+        return new Ubicacion(puntos.saldos[i], desde, Math.min(siguiente, desde + BYTES_POR_PUNTO + 1));
+    }
+
+    public synchronized int getCantidadCuentas() {
+        return cuentas.size();
+    }
+
+    public synchronized long getCantidadPuntos() {
+        return totalPuntos;
+    }
+
+    public synchronized long getRegistros() {
+        return registros;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,260 @@
+package Model;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Reconstruye los saldos de las cuentas reproduciendo el archivo de transacciones.
+ *
+ * El archivo se recorre con EscanerParalelo (fragmentos interpretados en
+ * paralelo y entregados en orden) y los registros se reparten por número de
+ * cuenta entre varios hilos aplicadores. Cada cuenta pertenece a un solo
+ * aplicador, que recibe sus registros en el orden del archivo: el saldo que
+ * queda es el del último registro de la cuenta. Los aplicadores no comparten
+ * nada, así que no necesitan bloqueos.
+ *
+ * Las cuentas no deben estar en uso mientras se reproducen (se hace al iniciar,
+ * antes de aceptar operaciones).
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class ReproductorRegistro {
+
+    private static final int TAMANO_LOTE = 4096;
+    private static final int LOTES_POR_APLICADOR = 8;
+
+    /**
+     * Resultado de una reproducción.
+     */
+    public static class Resultado {
+        private final long registros;
+        private final int cuentasRestauradas;
+        private final long registrosDesconocidos;
+        private final int cuentasDesconocidas;
+        private final long bytes;
+        private final long nanos;
+
+        Resultado(long registros, int cuentasRestauradas, long registrosDesconocidos, int cuentasDesconocidas,
+                  long bytes, long nanos) {
+            this.registros = registros;
+            this.cuentasRestauradas = cuentasRestauradas;
+            this.registrosDesconocidos = registrosDesconocidos;
+            this.cuentasDesconocidas = cuentasDesconocidas;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        public long getRegistros() {
+            return registros;
+        }
+
+        /**
+         * Cuentas cuyo saldo se tomó del archivo (las demás conservan el que tenían).
+         */
+        public int getCuentasRestauradas() {
+            return cuentasRestauradas;
+        }
+
+        /**
+         * Registros de cuentas que no estaban entre las cuentas a restaurar (se ignoran).
+         */
+        public long getRegistrosDesconocidos() {
+            return registrosDesconocidos;
+        }
+
+        public int getCuentasDesconocidas() {
+            return cuentasDesconocidas;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public double getRegistrosPorSegundo() {
+            return nanos == 0 ? 0 : registros / (nanos / 1e9);
+        }
+
+        public double getMegabytesPorSegundo() {
+            return nanos == 0 ? 0 : bytes / 1e6 / (nanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                "Registros: %,d | Cuentas restauradas: %,d | Cuentas desconocidas: %,d (%,d registros) | " +
+                "%.1f ms (%,.0f registros/s, %.1f MB/s)",
+                registros, cuentasRestauradas, cuentasDesconocidas, registrosDesconocidos, nanos / 1e6,
+                getRegistrosPorSegundo(), getMegabytesPorSegundo());
+        }
+    }
+
+    /**
+     * Grupo de registros enviado a un aplicador.
+     */
+    private static class Lote {
+        private final Transaccion[] transacciones = new Transaccion[TAMANO_LOTE];
+        private int cantidad;
+    }
+
+    private static final Lote FIN = new Lote();
+
+    /**
+     * Hilo que aplica, en orden, los registros de las cuentas que le corresponden.
+     */
+    private static class Aplicador extends Thread {
+        private final ArrayBlockingQueue<Lote> cola = new ArrayBlockingQueue<>(LOTES_POR_APLICADOR);
+        private final Map<Integer, ? extends CuentaBancaria> cuentas;
+        private final Consumer<Transaccion> alAplicar;
+        private final Set<Integer> restauradas = new HashSet<>();
+        private final Set<Integer> desconocidas = new HashSet<>();
+        private long registros;
+        private long registrosDesconocidos;
+        private volatile Throwable error;
+
+        Aplicador(int indice, Map<Integer, ? extends CuentaBancaria> cuentas, Consumer<Transaccion> alAplicar) {
+            super("reproductor-" + indice);
+            setDaemon(true);
+            this.cuentas = cuentas;
+            this.alAplicar = alAplicar;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Lote lote;
+                while ((lote = cola.take()) != FIN) {
+                    for (int i = 0; i < lote.cantidad; i++) {
+                        aplicar(lote.transacciones[i]);
+                    }
+                    registros += lote.cantidad;
+                }
+            } catch (Throwable e) {
+                error = e;
+            }
+        }
+
+        private void aplicar(Transaccion transaccion) {
+            int numeroCuenta = transaccion.getNumeroCuenta();
+            CuentaBancaria cuenta = cuentas.get(numeroCuenta);
+            if (cuenta == null) {
+                registrosDesconocidos++;
+                desconocidas.add(numeroCuenta);
+                return;
+            }
+            cuenta.setSaldo(transaccion.getSaldoFinal());
+            restauradas.add(numeroCuenta);
+            if (alAplicar != null) {
+                alAplicar.accept(transaccion);
+            }
+        }
+    }
+
+    private final int cantidadAplicadores;
+
+    /**
+     * Constructor de ReproductorRegistro.
+     *
+     * @param aplicadores Cantidad de hilos que aplican registros
+     */
+    public ReproductorRegistro(int aplicadores) {
+        if (aplicadores <= 0) {
+            throw new IllegalArgumentException("La cantidad de aplicadores debe ser mayor a cero");
+        }
+        this.cantidadAplicadores = aplicadores;
+    }
+
+    /**
+     * Reproduce el archivo sobre las cuentas dadas.
+     *
+     * @param escaner Escáner del archivo de transacciones
+     * @param cuentas Cuentas a restaurar, por número (solo se leen; no deben estar en uso)
+     * @param limite Solo se reproducen los primeros "limite" bytes del archivo
+     * @param alAplicar Recibe cada registro aplicado, desde el hilo de su aplicador
+     *                  (null si no hace falta); debe admitir llamadas concurrentes
+     * @return Registros aplicados, cuentas restauradas y velocidad
+     * @throws IOException Si no se puede leer el archivo
+     */
+    public Resultado reproducir(EscanerParalelo escaner, Map<Integer, ? extends CuentaBancaria> cuentas,
+                                long limite, Consumer<Transaccion> alAplicar) throws IOException {
+        long inicio = System.nanoTime();
+        Aplicador[] aplicadores = new Aplicador[cantidadAplicadores];
+        Lote[] lotes = new Lote[cantidadAplicadores];
+        for (int i = 0; i < cantidadAplicadores; i++) {
+            aplicadores[i] = new Aplicador(i, cuentas, alAplicar);
+            aplicadores[i].start();
+            lotes[i] = new Lote();
+        }
+
+        try {
+            escaner.recorrer(EscanerParalelo.TODAS_LAS_CUENTAS, limite, transaccion -> {
+                int i = aplicadorDe(transaccion.getNumeroCuenta());
+                Lote lote = lotes[i];
+                lote.transacciones[lote.cantidad] = transaccion;
+                if (++lote.cantidad == TAMANO_LOTE) {
+                    enviar(aplicadores[i], lote);
+                    lotes[i] = new Lote();
+                }
+            });
+            for (int i = 0; i < cantidadAplicadores; i++) {
+                enviar(aplicadores[i], lotes[i]);
+                enviar(aplicadores[i], FIN);
+            }
+            for (Aplicador aplicador : aplicadores) {
+                aplicador.join();
+                if (aplicador.error != null) {
+                    throw new IOException("Error en " + aplicador.getName(), aplicador.error);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Reproducción interrumpida", e);
+        } finally {
+            for (Aplicador aplicador : aplicadores) {
+                aplicador.interrupt(); // Sin efecto si ya terminó
+            }
+        }
+
+        // Unir los resultados de los aplicadores
+        long registros = 0;
+        long registrosDesconocidos = 0;
+        int restauradas = 0;
+        int desconocidas = 0;
+        for (Aplicador aplicador : aplicadores) {
+            registros += aplicador.registros;
+            registrosDesconocidos += aplicador.registrosDesconocidos;
+            restauradas += aplicador.restauradas.size();
+            desconocidas += aplicador.desconocidas.size();
+        }
+        return new Resultado(registros, restauradas, registrosDesconocidos, desconocidas,
+                             escaner.getBytesUltimoRecorrido(), System.nanoTime() - inicio);
+    }
+
+    /**
+     * Envía un lote a un aplicador; si el aplicador terminó por un error, no espera.
+     */
+    private static void enviar(Aplicador aplicador, Lote lote) {
+        try {
+            while (!aplicador.cola.offer(lote, 100, TimeUnit.MILLISECONDS)) {
+                if (!aplicador.isAlive()) {
+                    throw new IllegalStateException("El aplicador " + aplicador.getName() + " terminó",
+                                                    aplicador.error);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reproducción interrumpida", e);
+        }
+    }
+
+    private int aplicadorDe(int numeroCuenta) {
+        int h = numeroCuenta * 0x9E3779B9;
+        return ((h ^ (h >>> 16)) & 0x7FFFFFFF) % cantidadAplicadores;
+    }
+}
\ No newline at end of file
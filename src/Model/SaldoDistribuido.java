@@ -0,0 +1,73 @@
+package Model;
+
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Saldo repartido en varias celdas, para cuentas que reciben muchísimos
+ * depósitos al mismo tiempo (por ejemplo, cuentas recaudadoras).
+ *
+ * Con un saldo de una sola celda todos los depósitos compiten por la misma
+ * variable (y por el bloqueo de la cuenta). Aquí cada hilo suma en su propia
+ * celda (DoubleAdder) y el saldo se obtiene sumando las celdas al leerlo.
+ *
+ * Como los depósitos solo pueden aumentar el saldo, basta con que los retiros
+ * (y los intereses) se hagan uno a la vez, con el bloqueo de la cuenta tomado:
+ * un depósito concurrente nunca puede hacer que un retiro ya validado deje el
+ * saldo por debajo de lo permitido.
+ *
+ * Para que el archivo de transacciones tenga una cadena de saldos exacta,
+ * además se lleva el saldo registrado: el que resulta de los movimientos en el
+ * orden en que se escriben en el archivo (ver registrarMovimiento()).
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public final class SaldoDistribuido {
+    private final DoubleAdder celdas = new DoubleAdder();
+    private double saldoRegistrado; // Solo con el bloqueo de este objeto tomado
+
+    SaldoDistribuido(double saldoInicial) {
+        celdas.add(saldoInicial);
+        saldoRegistrado = saldoInicial;
+    }
+
+    /**
+     * Suma un movimiento a las celdas. Los depósitos pueden llamarlo desde
+     * cualquier hilo; los montos negativos solo con el bloqueo de la cuenta.
+     */
+    void sumar(double monto) {
+        celdas.add(monto);
+    }
+
+    /**
+     * Saldo actual: suma de todas las celdas.
+     */
+    double getSaldo() {
+        return celdas.sum();
+    }
+
+    /**
+     * Reemplaza el saldo. Solo es correcto si no hay depósitos en curso.
+     */
+    void fijar(double saldo) {
+        synchronized (this) {
+            celdas.reset();
+            celdas.add(saldo);
+            saldoRegistrado = saldo;
+        }
+    }
+
+    /**
+     * Aplica un movimiento al saldo registrado y lo devuelve. Debe llamarse con
+     * el bloqueo de este objeto tomado y escribir la transacción en el archivo
+     * antes de soltarlo, para que el orden del archivo y la cadena de saldos
+     * coincidan. Cuando no hay operaciones en curso coincide con getSaldo().
+     *
+     * @param efecto Cambio de saldo del movimiento (negativo en retiros, con comisión)
+     * @return Saldo después del movimiento, en el orden del archivo
+     */
+    public double registrarMovimiento(double efecto) {
+        saldoRegistrado += efecto;
+        return saldoRegistrado;
+    }
+}
\ No newline at end of file
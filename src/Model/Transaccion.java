@@ -0,0 +1,152 @@
+package Model;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Representa un registro del archivo de transacciones ya interpretado.
+ * Cada línea del archivo tiene el formato:
+ * fecha-hora | Cuenta: n | TIPO | Monto: $0.00 | Saldo Final: $0.00 [| Clave: k]
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class Transaccion {
+
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int LONGITUD_FECHA = 19;
+
+    private final LocalDateTime fechaHora;
+    private final int numeroCuenta;
+    private final String tipo; // "DEPOSITO", "RETIRO", "INTERESES"
+    private final double monto;
+    private final double saldoFinal;
+    private final long claveIdempotencia; // 0 si la operación no trae clave
+
+    /**
+     * Constructor de Transaccion.
+     *
+     * @param fechaHora Fecha y hora de la transacción
+     * @param numeroCuenta Número de cuenta
+     * @param tipo Tipo de transacción
+     * @param monto Monto de la transacción
+     * @param saldoFinal Saldo después de la transacción
+     */
+    public Transaccion(LocalDateTime fechaHora, int numeroCuenta, String tipo,
+                       double monto, double saldoFinal) {
+        this(fechaHora, numeroCuenta, tipo, monto, saldoFinal, 0L);
+    }
+
+    /**
+     * Constructor de Transaccion con clave de idempotencia.
+     *
+     * @param fechaHora Fecha y hora de la transacción
+     * @param numeroCuenta Número de cuenta
+     * @param tipo Tipo de transacción
+     * @param monto Monto de la transacción
+     * @param saldoFinal Saldo después de la transacción
+     * @param claveIdempotencia Clave de la operación (0 si no tiene)
+     */
+    public Transaccion(LocalDateTime fechaHora, int numeroCuenta, String tipo,
+                       double monto, double saldoFinal, long claveIdempotencia) {
+        this.claveIdempotencia = claveIdempotencia;
+        this.fechaHora = fechaHora;
+        this.numeroCuenta = numeroCuenta;
+        this.tipo = tipo;
+        this.monto = monto;
+        this.saldoFinal = saldoFinal;
+    }
+
+    /**
+     * Interpreta una línea del archivo de transacciones.
+     *
+     * @param linea Línea leída del archivo
+     * @return La transacción, o null si la línea es de encabezado, decorativa o inválida
+     */
+    public static Transaccion parsear(String linea) {
+        // Las líneas de registro empiezan con la fecha (un dígito del año)
+        if (linea == null || linea.length() <= LONGITUD_FECHA || !Character.isDigit(linea.charAt(0))) {
+            return null;
+        }
+
+        String[] partes = linea.split(" \\| ");
+        if (partes.length < 5 || !partes[1].startsWith("Cuenta: ")) {
+            return null;
+        }
+
+        try {
+            LocalDateTime fechaHora = LocalDateTime.parse(partes[0], FORMATO_FECHA);
+            int numeroCuenta = Integer.parseInt(partes[1].substring("Cuenta: ".length()));
+            double monto = leerImporte(partes[3], "Monto: $");
+            double saldoFinal = leerImporte(partes[4], "Saldo Final: $");
+            long clave = 0L;
+            if (partes.length > 5 && partes[5].startsWith("Clave: ")) {
+                clave = Long.parseLong(partes[5].substring("Clave: ".length()).trim());
+            }
+            return new Transaccion(fechaHora, numeroCuenta, partes[2], monto, saldoFinal, clave);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lee solo la fecha-hora de una línea, sin interpretar el resto.
+     *
+     * @param linea Línea leída del archivo
+     * @return Fecha-hora del registro, o null si la línea no es un registro
+     */
+    public static LocalDateTime leerFechaHora(String linea) {
+        if (linea == null || linea.length() <= LONGITUD_FECHA || !Character.isDigit(linea.charAt(0))) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(linea.substring(0, LONGITUD_FECHA), FORMATO_FECHA);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static double leerImporte(String campo, String prefijo) {
+        if (!campo.startsWith(prefijo)) {
+            throw new IllegalArgumentException("Campo inválido: " + campo);
+        }
+        // Registros antiguos pueden tener coma decimal (String.format con Locale local)
+        return Double.parseDouble(campo.substring(prefijo.length()).trim().replace(',', '.'));
+    }
+
+    // ==================== GETTERS ====================
+
+    public LocalDateTime getFechaHora() {
+        return fechaHora;
+    }
+
+    public int getNumeroCuenta() {
+        return numeroCuenta;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public double getMonto() {
+        return monto;
+    }
+
+    public double getSaldoFinal() {
+        return saldoFinal;
+    }
+
+    public long getClaveIdempotencia() {
+        return claveIdempotencia;
+    }
+
+    @Override
+    public String toString() {
+        return fechaHora.format(FORMATO_FECHA) + " | Cuenta: " + numeroCuenta + " | " + tipo +
+               " | Monto: $" + String.format(Locale.ROOT, "%.2f", monto) +
+               " | Saldo Final: $" + String.format(Locale.ROOT, "%.2f", saldoFinal) +
+               (claveIdempotencia != 0L ? " | Clave: " + claveIdempotencia : "");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package Model;
+
+import java.time.Clock;
+
+/**
+ * Total retirado en una ventana móvil de 24 horas.
+ *
+ * Los retiros se acumulan en intervalos de 15 minutos (un arreglo circular de
+ * tamaño fijo). Un intervalo deja de contar cuando su final tiene más de 24
+ * horas, así que cada retiro cuenta al menos 24 horas y como mucho 24 horas y
+ * 15 minutos: el límite nunca se supera dentro de 24 horas exactas, pero un
+ * retiro puede seguir contando hasta 15 minutos de más. Por eso hacen falta
+ * 97 intervalos (el actual y los 96 anteriores). Verificar y actualizar el
+ * total cuesta lo mismo sin importar cuántos retiros se hagan al día.
+ *
+ * El arreglo de intervalos (casi 800 bytes) se crea con el primer retiro y se
+ * libera al reiniciar la ventana: las cuentas que no retiran no lo ocupan.
+ *
+ * @author Andres
+ * @version 1.0
+ */
+final class VentanaRetiros implements Cloneable {
+    // Ventana móvil de 24 horas en intervalos de 15 minutos: el actual y los 96 anteriores
+    private static final long DURACION_INTERVALO = 15L * 60 * 1000;
+    private static final int INTERVALOS_VENTANA = (int) (24L * 60 * 60 * 1000 / DURACION_INTERVALO) + 1;
+
+    // Solo se usan los milisegundos: todas las ventanas comparten el mismo reloj
+    private static final Clock RELOJ_SISTEMA = Clock.systemUTC();
+
+    private double[] retiradoPorIntervalo; // null mientras no haya retiros en la ventana
+    private long ultimoIntervalo; // Número absoluto del intervalo más reciente
+    private double retiradoVentana; // Suma de los intervalos de la ventana
+    private Clock reloj = RELOJ_SISTEMA;
+
+    VentanaRetiros() {
+        this.ultimoIntervalo = intervaloActual();
+    }
+
+    /**
+     * Total retirado en las últimas 24 horas (más lo que queda del intervalo
+     * más antiguo, ver la descripción de la clase).
+     */
+    double getRetirado() {
+        avanzar(intervaloActual());
+        return retiradoVentana;
+    }
+
+    /**
+     * Suma un retiro al intervalo actual. Se llama justo después de getRetirado(),
+     * que ya dejó la ventana en el intervalo actual.
+     */
+    void registrar(double monto) {
+        if (retiradoPorIntervalo == null) {
+            retiradoPorIntervalo = new double[INTERVALOS_VENTANA];
+        }
+        retiradoPorIntervalo[(int) Math.floorMod(ultimoIntervalo, (long) INTERVALOS_VENTANA)] += monto;
+        retiradoVentana += monto;
+    }
+
+    /**
+     * Vacía la ventana.
+     */
+    void reiniciar() {
+        this.retiradoPorIntervalo = null;
+        this.retiradoVentana = 0;
+        this.ultimoIntervalo = intervaloActual();
+    }
+
+    void setReloj(Clock reloj) {
+        this.reloj = reloj;
+        reiniciar();
+    }
+
+    /**
+     * Descarta de la ventana los intervalos que terminaron hace más de 24 horas.
+     * Como mucho recorre los 97 intervalos, sin importar el tiempo transcurrido.
+     */
+    private void avanzar(long intervalo) {
+        if (intervalo <= ultimoIntervalo) {
+            return;
+        }
+        if (retiradoPorIntervalo == null) {
+            ultimoIntervalo = intervalo;
+            return;
+        }
+        if (intervalo - ultimoIntervalo >= INTERVALOS_VENTANA) {
+            // Todo lo retirado ya salió de la ventana
+            ultimoIntervalo = intervalo;
+            retiradoPorIntervalo = null;
+            retiradoVentana = 0;
+            return;
+        }
+        for (long i = ultimoIntervalo + 1; i <= intervalo; i++) {
+            retiradoPorIntervalo[(int) Math.floorMod(i, (long) INTERVALOS_VENTANA)] = 0;
+        }
+        ultimoIntervalo = intervalo;
+
+        // Recalcular la suma (una vez por intervalo) para no acumular errores de redondeo
+        double suma = 0;
+        for (double retirado : retiradoPorIntervalo) {
+            suma += retirado;
+        }
+        retiradoVentana = suma;
+    }
+
+    private long intervaloActual() {
+        return Math.floorDiv(reloj.millis(), DURACION_INTERVALO);
+    }
+
+    /**
+     * Copia independiente de la ventana (para las instantáneas de cuentas).
+     */
+    VentanaRetiros copiar() {
+        try {
+            VentanaRetiros copia = (VentanaRetiros) super.clone();
+            if (retiradoPorIntervalo != null) {
+                copia.retiradoPorIntervalo = retiradoPorIntervalo.clone();
+            }
+            return copia;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError("VentanaRetiros implementa Cloneable", e);
+        }
+    }
+}
\ No newline at end of file
@@ -1,8 +1,24 @@
 package View;
 
 import Controller.ControladorBancario;
+import Controller.DecisionRegla;
+import Controller.FiltroCuentas;
+import Controller.PaginaCuentas;
+import Controller.ReglaMontoInusual;
+import Controller.ReglaVelocidad;
+import Controller.ResultadoOperacion;
+import Controller.VerificadorConciliacion;
 import Model.*;
 import Excepciones.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Scanner;
 
 /**
@@ -14,13 +30,48 @@ import java.util.Scanner;
  */
 public class App {
     
-    private static ControladorBancario controlador = new ControladorBancario();
+    private static ControladorBancario controlador;
     private static Scanner scanner = new Scanner(System.in);
+    private static final int CUENTAS_POR_PAGINA = 10;
+    private static final String ARCHIVO_CUENTAS = "Cuentas.csv";
+    
+    // Reglas de retiro del menú interactivo (ver ReglaVelocidad y ReglaMontoInusual)
+    private static final int RETIROS_POR_MINUTO = 10;
+    private static final int RETIROS_POR_HORA = 60;
+    private static final double DESVIACIONES_MONTO_INUSUAL = 4;
+    private static final long RETIROS_MINIMOS_MONTO_INUSUAL = 5;
     
     /**
      * Método principal que inicia la aplicación.
+     * Con "--recuperar cuentas.csv" registra las cuentas exportadas y les devuelve
+     * el saldo del archivo de transacciones antes de empezar.
+     * Con "--lote archivo" (o "--lote -") ejecuta los comandos del archivo sin menú
+     * y sin reglas de retiro: el resultado del lote no depende del ritmo de los
+     * comandos ni de los montos anteriores. Las reglas solo se usan en el menú.
      */
     public static void main(String[] args) {
+        int siguiente = 0;
+        if (args.length > 1 && args[0].equals("--recuperar")) {
+            controlador = recuperar(args[1]);
+            if (controlador == null) {
+                return;
+            }
+            siguiente = 2;
+        } else {
+            controlador = new ControladorBancario();
+        }
+        
+        // El lote aplica los comandos tal cual, sin reglas de retiro
+        if (args.length > siguiente && args[siguiente].equals("--lote")) {
+            ProcesadorLote.ejecutar(controlador, args.length > siguiente + 1 ? args[siguiente + 1] : "-");
+            return;
+        }
+        
+        // En el menú, los retiros sospechosos se aplican, pero se muestran con una alerta
+        controlador.agregarReglaRetiro(new ReglaVelocidad(RETIROS_POR_MINUTO, RETIROS_POR_HORA, DecisionRegla.MARCAR));
+        controlador.agregarReglaRetiro(new ReglaMontoInusual(DESVIACIONES_MONTO_INUSUAL, RETIROS_MINIMOS_MONTO_INUSUAL,
+                                                             DecisionRegla.MARCAR));
+        
         System.out.println("╔════════════════════════════════════════╗");
         System.out.println("║   	 	SISTEMA BANCARIO             ║");
         System.out.println("║  									     ║");
@@ -58,11 +109,23 @@ public class App {
                     consultarHistorial();
                     break;
                 case 9:
-                    controlador.listarTodasCuentas();
+                    listarCuentasPaginadas();
                     break;
                 case 10:
                     PersistenciaBancaria.mostrarTodasTransacciones();
                     break;
+                case 11:
+                    generarExtractos();
+                    break;
+                case 12:
+                    verificarConciliacion();
+                    break;
+                case 13:
+                    exportarCuentas();
+                    break;
+                case 14:
+                    consultarSaldoAlCierre();
+                    break;
                 case 0:
                     continuar = false;
                     System.out.println("\n✓ Gracias por usar el Sistema Bancario. ¡Hasta pronto!");
@@ -92,6 +155,10 @@ public class App {
         System.out.println("│ 8. Ver Historial de Transacciones      │");
         System.out.println("│ 9. Listar Todas las Cuentas            │");
         System.out.println("│ 10. Ver Todas las Transacciones        │");
+        System.out.println("│ 11. Generar Extractos Mensuales        │");
+        System.out.println("│ 12. Verificar Conciliación             │");
+        System.out.println("│ 13. Exportar Cuentas (CSV)             │");
+        System.out.println("│ 14. Saldo al Cierre de una Fecha       │");
         System.out.println("│ 0. Salir                               │");
         System.out.println("└────────────────────────────────────────┘");
         System.out.print("Seleccione una opción: ");
@@ -127,7 +194,7 @@ public class App {
             System.out.print("Tasa de interés (ej: 0.02 para 2%): ");
             double tasaInteres = Double.parseDouble(scanner.nextLine());
             
-            System.out.print("Periodicidad (Mensual/Trimestral): ");
+            System.out.print("Periodicidad (Mensual/Trimestral/Semestral/Anual): ");
             String periodicidad = scanner.nextLine();
             
             System.out.print("Retiros permitidos por período: ");
@@ -136,10 +203,12 @@ public class App {
             CuentaAhorros cuenta = new CuentaAhorros(titular, saldo, numeroCuenta, 
                                                      tasaInteres, periodicidad, retirosPermitidos);
             
-            controlador.registrarCuenta(cuenta);
+            mostrarRegistro(controlador.registrarCuenta(cuenta));
             
         } catch (NumberFormatException e) {
             System.out.println("❌ Error: Ingrese valores numéricos válidos.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("❌ Error: " + e.getMessage());
         }
         System.out.println();
     }
@@ -172,7 +241,7 @@ public class App {
             CuentaCorriente cuenta = new CuentaCorriente(titular, saldo, numeroCuenta, 
                                                          comision, limiteSobregiro, numeroChequera);
             
-            controlador.registrarCuenta(cuenta);
+            mostrarRegistro(controlador.registrarCuenta(cuenta));
             
         } catch (NumberFormatException e) {
             System.out.println("❌ Error: Ingrese valores numéricos válidos.");
@@ -208,7 +277,7 @@ public class App {
             CuentaEmpresarial cuenta = new CuentaEmpresarial(titular, saldo, numeroCuenta, 
                                                              tipoEmpresa, registroTributario, limiteDiario);
             
-            controlador.registrarCuenta(cuenta);
+            mostrarRegistro(controlador.registrarCuenta(cuenta));
             
         } catch (NumberFormatException e) {
             System.out.println("❌ Error: Ingrese valores numéricos válidos.");
@@ -216,6 +285,17 @@ public class App {
         System.out.println();
     }
     
+    /**
+     * Muestra el resultado de registrar una cuenta.
+     */
+    private static void mostrarRegistro(boolean registrada) {
+        if (registrada) {
+            System.out.println("✓ Cuenta registrada exitosamente.");
+        } else {
+            System.out.println("❌ Error: Ya existe una cuenta con ese número.");
+        }
+    }
+    
     /**
      * Realiza un depósito en una cuenta.
      */
@@ -229,7 +309,8 @@ public class App {
             System.out.print("Monto a depositar: $");
             double monto = Double.parseDouble(scanner.nextLine());
             
-            controlador.realizarDeposito(numeroCuenta, monto);
+            ResultadoOperacion resultado = controlador.realizarDeposito(numeroCuenta, monto);
+            System.out.println("✓ Depósito realizado. Nuevo saldo: $" + String.format("%.2f", resultado.getSaldoFinal()));
             
         } catch (NumberFormatException e) {
             System.out.println("❌ Error: Ingrese valores numéricos válidos.");
@@ -252,7 +333,11 @@ public class App {
             System.out.print("Monto a retirar: $");
             double monto = Double.parseDouble(scanner.nextLine());
             
-            controlador.realizarRetiro(numeroCuenta, monto);
+            ResultadoOperacion resultado = controlador.realizarRetiro(numeroCuenta, monto);
+            System.out.println("✓ Retiro realizado. Nuevo saldo: $" + String.format("%.2f", resultado.getSaldoFinal()));
+            if (resultado.getAlerta() != null) {
+                System.out.println("⚠ Retiro marcado como sospechoso: " + resultado.getAlerta());
+            }
             
         } catch (NumberFormatException e) {
             System.out.println("❌ Error: Ingrese valores numéricos válidos.");
@@ -282,7 +367,13 @@ public class App {
             System.out.print("Número de cuenta: ");
             int numeroCuenta = Integer.parseInt(scanner.nextLine());
             
-            controlador.calcularIntereses(numeroCuenta);
+            ResultadoOperacion resultado = controlador.calcularIntereses(numeroCuenta);
+            if (resultado.getMonto() > 0) {
+                System.out.println("✓ Intereses calculados: $" + String.format("%.2f", resultado.getMonto()));
+                System.out.println("✓ Nuevo saldo: $" + String.format("%.2f", resultado.getSaldoFinal()));
+            } else {
+                System.out.println("ℹ Esta cuenta no genera intereses.");
+            }
             
         } catch (NumberFormatException e) {
             System.out.println("❌ Error: Ingrese un número de cuenta válido.");
@@ -302,7 +393,15 @@ public class App {
             System.out.print("Número de cuenta: ");
             int numeroCuenta = Integer.parseInt(scanner.nextLine());
             
-            controlador.consultarCuenta(numeroCuenta);
+            CuentaBancaria cuenta = controlador.buscarCuentaPorNumero(numeroCuenta);
+            if (cuenta == null) {
+                System.out.println("❌ Cuenta no encontrada.");
+                return;
+            }
+            
+            System.out.println("\n========== INFORMACIÓN DE LA CUENTA ==========");
+            System.out.println(cuenta.toString());
+            System.out.println("=============================================\n");
             
         } catch (NumberFormatException e) {
             System.out.println("❌ Error: Ingrese un número de cuenta válido.");
@@ -319,10 +418,188 @@ public class App {
             System.out.print("Número de cuenta: ");
             int numeroCuenta = Integer.parseInt(scanner.nextLine());
             
-            controlador.consultarHistorial(numeroCuenta);
+            List<Transaccion> transacciones = controlador.consultarHistorial(numeroCuenta);
+            
+            System.out.println("\n╔════════════════════════════════════════════════════════════════════╗");
+            System.out.println("║        HISTORIAL DE TRANSACCIONES - CUENTA #" + numeroCuenta + "              ║");
+            System.out.println("╚════════════════════════════════════════════════════════════════════╝");
+            for (Transaccion transaccion : transacciones) {
+                System.out.println(transaccion);
+            }
+            if (transacciones.isEmpty()) {
+                System.out.println("No se encontraron transacciones para esta cuenta.");
+            }
+            System.out.println("════════════════════════════════════════════════════════════════════\n");
             
         } catch (NumberFormatException e) {
             System.out.println("❌ Error: Ingrese un número de cuenta válido.");
+        } catch (OperacionInvalidaException e) {
+            System.out.println("❌ " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Lista las cuentas registradas por páginas, con filtro opcional.
+     */
+    private static void listarCuentasPaginadas() {
+        System.out.println("\n=== LISTADO DE CUENTAS ===");
+        System.out.print("Filtro (Enter=Todas, 1=Ahorros, 2=Corriente, 3=Empresarial, 4=En sobregiro): ");
+        
+        FiltroCuentas filtro;
+        switch (scanner.nextLine().trim()) {
+            case "1": filtro = FiltroCuentas.AHORROS; break;
+            case "2": filtro = FiltroCuentas.CORRIENTE; break;
+            case "3": filtro = FiltroCuentas.EMPRESARIAL; break;
+            case "4": filtro = FiltroCuentas.EN_SOBREGIRO; break;
+            default: filtro = FiltroCuentas.TODAS;
+        }
+        
+        Integer cursor = null;
+        int numeroPagina = 1;
+        while (true) {
+            PaginaCuentas pagina = controlador.listarCuentas(cursor, CUENTAS_POR_PAGINA, filtro);
+            
+            if (pagina.estaVacia() && numeroPagina == 1) {
+                System.out.println("No hay cuentas que mostrar.\n");
+                return;
+            }
+            
+            System.out.println("\n========== PÁGINA " + numeroPagina + " ==========");
+            for (CuentaBancaria cuenta : pagina) {
+                System.out.println(cuenta);
+            }
+            System.out.println("==================================");
+            
+            if (!pagina.hayMas()) {
+                System.out.println();
+                return;
+            }
+            
+            System.out.print("Enter para la siguiente página, 0 para volver: ");
+            if (scanner.nextLine().trim().equals("0")) {
+                System.out.println();
+                return;
+            }
+            cursor = pagina.getSiguienteClave();
+            numeroPagina++;
+        }
+    }
+    
+    /**
+     * Genera los extractos mensuales de todas las cuentas.
+     */
+    private static void generarExtractos() {
+        System.out.println("\n=== EXTRACTOS MENSUALES ===");
+        
+        try {
+            System.out.print("Directorio de salida (Enter=extractos): ");
+            String directorio = scanner.nextLine().trim();
+            System.out.print("Desde el mes yyyy-MM (Enter=inicio): ");
+            String desde = scanner.nextLine().trim();
+            System.out.print("Hasta el mes yyyy-MM (Enter=último): ");
+            String hasta = scanner.nextLine().trim();
+            
+            GeneradorExtractos generador = new GeneradorExtractos(
+                new File(directorio.isEmpty() ? "extractos" : directorio),
+                desde.isEmpty() ? null : YearMonth.parse(desde),
+                hasta.isEmpty() ? null : YearMonth.parse(hasta));
+            GeneradorExtractos.Resumen resumen = generador.generar(PersistenciaBancaria.getEscaner());
+            
+            System.out.println("✓ Extractos generados. " + resumen + "\n");
+            
+        } catch (DateTimeParseException e) {
+            System.out.println("❌ Error: Ingrese el mes con el formato yyyy-MM.");
+        } catch (IOException e) {
+            System.out.println("❌ Error al generar extractos: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Muestra el saldo que tenía una cuenta al terminar un día.
+     */
+    private static void consultarSaldoAlCierre() {
+        System.out.println("\n=== SALDO AL CIERRE DE UNA FECHA ===");
+        
+        try {
+            System.out.print("Número de cuenta: ");
+            int numeroCuenta = Integer.parseInt(scanner.nextLine().trim());
+            System.out.print("Fecha yyyy-MM-dd: ");
+            LocalDate fecha = LocalDate.parse(scanner.nextLine().trim());
+            
+            long inicio = System.nanoTime();
+            double saldo = controlador.consultarSaldoAl(numeroCuenta, fecha.plusDays(1).atStartOfDay());
+            double milisegundos = (System.nanoTime() - inicio) / 1e6;
+            
+            if (Double.isNaN(saldo)) {
+                System.out.println("La cuenta no tenía movimientos registrados al " + fecha + ".\n");
+            } else {
+                System.out.printf("✓ Saldo al cierre del %s: $%.2f (%.2f ms)%n%n", fecha, saldo, milisegundos);
+            }
+            
+        } catch (NumberFormatException e) {
+            System.out.println("❌ Error: Ingrese un número de cuenta válido.");
+        } catch (DateTimeParseException e) {
+            System.out.println("❌ Error: Ingrese la fecha con el formato yyyy-MM-dd.");
+        } catch (OperacionInvalidaException e) {
+            System.out.println("❌ Error: " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("❌ Error al leer transacciones: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Verifica que el archivo de transacciones sea consistente con las cuentas en memoria.
+     */
+    private static void verificarConciliacion() {
+        System.out.println("\n=== VERIFICACIÓN DE CONCILIACIÓN ===");
+        
+        try {
+            VerificadorConciliacion verificador = new VerificadorConciliacion(
+                controlador, Runtime.getRuntime().availableProcessors());
+            VerificadorConciliacion.Resultado resultado = 
+                verificador.verificar(PersistenciaBancaria.getEscaner(), Long.MAX_VALUE);
+            
+            for (VerificadorConciliacion.Discrepancia discrepancia : resultado.getDiscrepancias()) {
+                System.out.println("  " + discrepancia);
+            }
+            System.out.println((resultado.esConsistente() ? "✓ Registro consistente. " : "❌ Se encontraron discrepancias. ") + 
+                               resultado + "\n");
+            
+        } catch (IOException e) {
+            System.out.println("❌ Error al verificar: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Guarda todas las cuentas en Cuentas.csv, para recuperarlas al reiniciar con --recuperar.
+     */
+    private static void exportarCuentas() {
+        try {
+            Files.write(Paths.get(ARCHIVO_CUENTAS), 
+                        controlador.exportarCuentasCSV().getBytes(StandardCharsets.UTF_8));
+            System.out.println("✓ " + controlador.getCantidadCuentas() + " cuentas exportadas a " + 
+                               ARCHIVO_CUENTAS + "\n");
+        } catch (IOException e) {
+            System.out.println("❌ Error al exportar: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Crea el controlador con las cuentas del CSV y el saldo que dejó el
+     * archivo de transacciones, reproducido en paralelo.
+     * 
+     * @return Controlador recuperado, o null si no se pudo leer alguno de los archivos
+     */
+    private static ControladorBancario recuperar(String archivoCuentas) {
+        try {
+            List<CuentaBancaria> cuentas = PersistenciaBancaria.leerCuentasCSV(archivoCuentas);
+            ControladorBancario recuperado = ControladorBancario.recuperar(
+                cuentas, Runtime.getRuntime().availableProcessors());
+            System.out.println("✓ Cuentas recuperadas. " + recuperado.getRecuperacion() + "\n");
+            return recuperado;
+        } catch (IOException e) {
+            System.out.println("❌ Error al recuperar: " + e.getMessage());
+            return null;
         }
     }
 }
\ No newline at end of file
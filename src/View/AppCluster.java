@@ -0,0 +1,265 @@
+package View;
+
+import Controller.EnrutadorBanco;
+import Controller.NodoBanco;
+import Excepciones.OperacionInvalidaException;
+import Excepciones.SaldoInsuficienteException;
+import Model.PersistenciaBancaria;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Clúster de varios procesos en un solo equipo: nodos con una partición de
+ * las cuentas cada uno y un enrutador delante, comunicados por sockets locales.
+ *
+ * Modos:
+ *   nodo --indice I --nodos N --puerto P
+ *       Proceso dueño de la partición I de N. Escribe en su propio archivo
+ *       (Transacciones-nodo-I.txt, o el de -Dbanco.archivoTransacciones) y
+ *       guarda sus cuentas al lado (mismo nombre + ".cuentas"); al volver a
+ *       iniciarse en la misma carpeta recupera las cuentas y sus saldos.
+ *   enrutador --puerto P --nodos P0,P1,...
+ *       Proceso intermedio: recibe comandos en el puerto P (una línea por
+ *       comando, como el modo por lotes pero separados por ';') y los envía a
+ *       los nodos de los puertos dados, en orden de partición. Las
+ *       transferencias en curso y los mensajes de la segunda fase que no
+ *       llegan quedan en Enrutador-pendientes.txt; al volver a iniciarse, el
+ *       enrutador aborta las que no llegó a decidir y reenvía el resto.
+ *   prueba [--nodos N] [--puerto-base P] [--cuentas C] [--transferencias T] [--hilos H]
+ *       Inicia N procesos nodo en una carpeta temporal, crea C cuentas, hace T
+ *       transferencias al azar desde H hilos y comprueba que el dinero total
+ *       no cambió y que el archivo de cada nodo concilia con sus cuentas.
+ *
+ * Ejemplo a mano (tres terminales más un cliente):
+ *   java -cp bin View.AppCluster nodo --indice 0 --nodos 2 --puerto 7001
+ *   java -cp bin View.AppCluster nodo --indice 1 --nodos 2 --puerto 7002
+ *   java -cp bin View.AppCluster enrutador --puerto 7000 --nodos 7001,7002
+ *   nc 127.0.0.1 7000   y escribir: AHORROS;Ana;100;1;0.02;Mensual;3
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class AppCluster {
+
+    private static final double SALDO_INICIAL = 1000;
+    private static final long ESPERA_NODOS_MILLIS = 15_000;
+    private static final String ARCHIVO_PENDIENTES = "Enrutador-pendientes.txt";
+
+    /**
+     * Método principal del clúster.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println("Uso: java View.AppCluster nodo|enrutador|prueba [opciones]");
+            return;
+        }
+        switch (args[0]) {
+            case "nodo": iniciarNodo(args); break;
+            case "enrutador": iniciarEnrutador(args); break;
+            case "prueba": probar(args); break;
+            default: System.out.println("❌ Modo desconocido: " + args[0]);
+        }
+    }
+
+    /**
+     * Valor de una opción "--nombre valor", o el valor por defecto.
+     */
+    private static String opcion(String[] args, String nombre, String porDefecto) {
+        for (int i = 1; i + 1 < args.length; i++) {
+            if (args[i].equals(nombre)) {
+                return args[i + 1];
+            }
+        }
+        return porDefecto;
+    }
+
+    // ==================== NODO ====================
+
+    private static void iniciarNodo(String[] args) throws IOException {
+        int indice = Integer.parseInt(opcion(args, "--indice", "0"));
+        int cantidadNodos = Integer.parseInt(opcion(args, "--nodos", "1"));
+        int puerto = Integer.parseInt(opcion(args, "--puerto", "0"));
+
+        // Antes de usar la persistencia: cada nodo escribe en su propio archivo
+        if (System.getProperty(PersistenciaBancaria.PROPIEDAD_ARCHIVO) == null) {
+            System.setProperty(PersistenciaBancaria.PROPIEDAD_ARCHIVO, "Transacciones-nodo-" + indice + ".txt");
+        }
+        NodoBanco nodo = new NodoBanco(indice, cantidadNodos, puerto);
+        Runtime.getRuntime().addShutdownHook(new Thread(nodo::close, "cierre-nodo"));
+        nodo.iniciar();
+        System.out.println("✓ Nodo " + indice + " de " + cantidadNodos + " escuchando en 127.0.0.1:" + nodo.getPuerto() +
+                           " | Archivo: " + PersistenciaBancaria.getRutaArchivo());
+    }
+
+    // ==================== ENRUTADOR ====================
+
+    private static void iniciarEnrutador(String[] args) throws IOException {
+        int puerto = Integer.parseInt(opcion(args, "--puerto", "7000"));
+        String[] textoPuertos = opcion(args, "--nodos", "").split(",");
+        int[] puertos = new int[textoPuertos.length];
+        for (int i = 0; i < puertos.length; i++) {
+            puertos[i] = Integer.parseInt(textoPuertos[i].trim());
+        }
+        EnrutadorBanco enrutador = new EnrutadorBanco(EnrutadorBanco.direccionesLocales(puertos),
+                                                      new File(ARCHIVO_PENDIENTES));
+        Runtime.getRuntime().addShutdownHook(new Thread(enrutador::close, "cierre-enrutador"));
+        enrutador.atender(puerto);
+        System.out.println("✓ Enrutador escuchando en 127.0.0.1:" + puerto + " | Nodos: " + puertos.length);
+    }
+
+    // ==================== PRUEBA ====================
+
+    private static void probar(String[] args) throws Exception {
+        int cantidadNodos = Integer.parseInt(opcion(args, "--nodos", "3"));
+        int puertoBase = Integer.parseInt(opcion(args, "--puerto-base", "7101"));
+        int cantidadCuentas = Integer.parseInt(opcion(args, "--cuentas", "300"));
+        int transferencias = Integer.parseInt(opcion(args, "--transferencias", "20000"));
+        int hilos = Integer.parseInt(opcion(args, "--hilos", "4"));
+
+        Path carpeta = Files.createTempDirectory("banco-cluster");
+        System.out.println("\n============ PRUEBA DEL CLÚSTER ============");
+        System.out.println("Nodos: " + cantidadNodos + " | Cuentas: " + cantidadCuentas +
+                           " | Transferencias: " + transferencias + " | Hilos: " + hilos);
+        System.out.println("Carpeta de los nodos: " + carpeta);
+
+        List<Process> procesos = new ArrayList<>();
+        int[] puertos = new int[cantidadNodos];
+        try {
+            for (int i = 0; i < cantidadNodos; i++) {
+                puertos[i] = puertoBase + i;
+                procesos.add(lanzarNodo(carpeta.toFile(), i, cantidadNodos, puertos[i]));
+            }
+            try (EnrutadorBanco enrutador = new EnrutadorBanco(EnrutadorBanco.direccionesLocales(puertos),
+                                                               new File(carpeta.toFile(), ARCHIVO_PENDIENTES))) {
+                esperarNodos(enrutador);
+                boolean correcto = ejecutarPrueba(enrutador, cantidadCuentas, transferencias, hilos);
+                System.out.println(correcto ? "✓ Dinero conservado y archivos conciliados en todos los nodos."
+                                            : "❌ La prueba encontró diferencias.");
+            }
+        } finally {
+            for (Process proceso : procesos) {
+                proceso.destroy();
+            }
+            for (Process proceso : procesos) {
+                proceso.waitFor(10, TimeUnit.SECONDS);
+            }
+        }
+        System.out.println("============================================\n");
+    }
+
+    /**
+     * Inicia un proceso nodo con la misma JVM y classpath que este proceso.
+     */
+    private static Process lanzarNodo(File carpeta, int indice, int cantidadNodos, int puerto) throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        // El nodo corre en otra carpeta: el classpath tiene que ser absoluto
+        StringBuilder classpath = new StringBuilder();
+        for (String entrada : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (classpath.length() > 0) {
+                classpath.append(File.pathSeparator);
+            }
+            classpath.append(new File(entrada).getAbsolutePath());
+        }
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", classpath.toString(),
+            "View.AppCluster", "nodo", "--indice", String.valueOf(indice),
+            "--nodos", String.valueOf(cantidadNodos), "--puerto", String.valueOf(puerto));
+        builder.directory(carpeta);
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(new File(carpeta, "nodo-" + indice + ".log"));
+        return builder.start();
+    }
+
+    /**
+     * Espera a que todos los nodos respondan.
+     */
+    private static void esperarNodos(EnrutadorBanco enrutador) throws Exception {
+        long limite = System.currentTimeMillis() + ESPERA_NODOS_MILLIS;
+        while (true) {
+            try {
+                enrutador.resumen();
+                return;
+            } catch (IOException e) {
+                if (System.currentTimeMillis() > limite) {
+                    throw e;
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private static boolean ejecutarPrueba(EnrutadorBanco enrutador, int cantidadCuentas, int transferencias,
+                                          int hilos) throws Exception {
+        // Cuentas de ahorro sin intereses ni comisión y sin límite práctico de retiros
+        for (int numero = 1; numero <= cantidadCuentas; numero++) {
+            enrutador.registrarCuenta("AHORROS;Cliente " + numero + ";" + SALDO_INICIAL + ";" + numero +
+                                      ";0;Mensual;" + Integer.MAX_VALUE);
+        }
+        double totalInicial = enrutador.resumen()[1];
+
+        LongAdder correctas = new LongAdder();
+        LongAdder sinSaldo = new LongAdder();
+        LongAdder fallidas = new LongAdder();
+        Thread[] trabajadores = new Thread[hilos];
+        long inicio = System.nanoTime();
+        for (int h = 0; h < hilos; h++) {
+            int cuota = transferencias / hilos + (h < transferencias % hilos ? 1 : 0);
+            trabajadores[h] = new Thread(() -> {
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                for (int i = 0; i < cuota; i++) {
+                    int origen = 1 + azar.nextInt(cantidadCuentas);
+                    int destino = 1 + azar.nextInt(cantidadCuentas - 1);
+                    if (destino >= origen) {
+                        destino++;
+                    }
+                    try {
+                        enrutador.realizarTransferencia(origen, destino, 1 + azar.nextInt(300));
+                        correctas.increment();
+                    } catch (SaldoInsuficienteException e) {
+                        sinSaldo.increment();
+                    } catch (OperacionInvalidaException | IOException e) {
+                        fallidas.increment();
+                    }
+                }
+            }, "cliente-" + h);
+            trabajadores[h].start();
+        }
+        for (Thread trabajador : trabajadores) {
+            trabajador.join();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        // Los mensajes de la segunda fase que no llegaron se reintentan
+        long limite = System.currentTimeMillis() + ESPERA_NODOS_MILLIS;
+        while (enrutador.reintentarPendientes() > 0 && System.currentTimeMillis() < limite) {
+            Thread.sleep(100);
+        }
+
+        double[] resumen = enrutador.resumen();
+        long[] discrepancias = enrutador.verificarNodos();
+        long totalDiscrepancias = 0;
+        for (long d : discrepancias) {
+            totalDiscrepancias += d;
+        }
+
+        System.out.printf("Correctas: %,d | Sin saldo: %,d | Fallidas: %,d | Entre nodos: %,d | Abortadas: %,d%n",
+                          correctas.sum(), sinSaldo.sum(), fallidas.sum(),
+                          enrutador.getTransferenciasEntreNodos(), enrutador.getTransferenciasAbortadas());
+        System.out.printf("Tiempo: %.2f s | %,.0f transferencias/s%n", segundos, transferencias / segundos);
+        System.out.printf("Cuentas: %,.0f | Total inicial: $%,.2f | Total final: $%,.2f | Pendientes: %d" +
+                          " | Rechazados: %d%n", resumen[0], totalInicial, resumen[1],
+                          enrutador.getMensajesPendientes(), enrutador.getRechazosSegundaFase());
+        System.out.println("Discrepancias por nodo: " + Arrays.toString(discrepancias));
+
+        return resumen[0] == cantidadCuentas && Math.abs(resumen[1] - totalInicial) < 0.005 &&
+               enrutador.getMensajesPendientes() == 0 && enrutador.getRechazosSegundaFase() == 0 &&
+               totalDiscrepancias == 0 && fallidas.sum() == 0;
+    }
+}
\ No newline at end of file
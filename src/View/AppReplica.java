@@ -0,0 +1,126 @@
+package View;
+
+import Controller.ReplicaLectura;
+import Model.PersistenciaBancaria;
+import Model.Transaccion;
+import java.io.IOException;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Interfaz de consulta para una réplica de solo lectura.
+ * Se ejecuta en otra JVM junto al sistema principal y sigue su archivo de
+ * transacciones, de modo que las consultas no afectan al primario.
+ * 
+ * Uso: java View.AppReplica [rutaArchivo] [intervaloMillis]
+ * 
+ * @author Andres
+ * @version 1.0
+ */
+public class AppReplica {
+    
+    private static Scanner scanner = new Scanner(System.in);
+    
+    /**
+     * Método principal que inicia la réplica.
+     */
+    public static void main(String[] args) {
+        String ruta = args.length > 0 ? args[0] : PersistenciaBancaria.getRutaArchivo();
+        long intervalo = args.length > 1 ? Long.parseLong(args[1]) : 500;
+        
+        try (ReplicaLectura replica = new ReplicaLectura(ruta)) {
+            replica.iniciar(intervalo);
+            System.out.println("✓ Réplica de lectura siguiendo: " + ruta + "\n");
+            
+            boolean continuar = true;
+            while (continuar) {
+                mostrarMenu();
+                switch (scanner.nextLine().trim()) {
+                    case "1":
+                        consultarSaldo(replica);
+                        break;
+                    case "2":
+                        consultarHistorial(replica);
+                        break;
+                    case "3":
+                        mostrarEstado(replica);
+                        break;
+                    case "0":
+                        continuar = false;
+                        break;
+                    default:
+                        System.out.println("❌ Opción inválida. Intente nuevamente.\n");
+                }
+            }
+        }
+        scanner.close();
+    }
+    
+    /**
+     * Muestra el menú de la réplica.
+     */
+    private static void mostrarMenu() {
+        System.out.println("┌────────────────────────────────────────┐");
+        System.out.println("│         RÉPLICA DE LECTURA             │");
+        System.out.println("├────────────────────────────────────────┤");
+        System.out.println("│ 1. Consultar Saldo                     │");
+        System.out.println("│ 2. Ver Historial de Transacciones      │");
+        System.out.println("│ 3. Estado de la Réplica                │");
+        System.out.println("│ 0. Salir                               │");
+        System.out.println("└────────────────────────────────────────┘");
+        System.out.print("Seleccione una opción: ");
+    }
+    
+    /**
+     * Consulta el saldo replicado de una cuenta.
+     */
+    private static void consultarSaldo(ReplicaLectura replica) {
+        try {
+            System.out.print("Número de cuenta: ");
+            int numeroCuenta = Integer.parseInt(scanner.nextLine());
+            
+            Double saldo = replica.consultarSaldo(numeroCuenta);
+            if (saldo == null) {
+                System.out.println("❌ La cuenta no tiene transacciones replicadas.\n");
+            } else {
+                System.out.println("Cuenta #" + numeroCuenta + " | Saldo: $" + String.format("%.2f", saldo) + "\n");
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("❌ Error: Ingrese un número de cuenta válido.\n");
+        }
+    }
+    
+    /**
+     * Muestra el historial replicado de una cuenta.
+     */
+    private static void consultarHistorial(ReplicaLectura replica) {
+        try {
+            System.out.print("Número de cuenta: ");
+            int numeroCuenta = Integer.parseInt(scanner.nextLine());
+            
+            List<Transaccion> historial = replica.consultarHistorial(numeroCuenta);
+            if (historial.isEmpty()) {
+                System.out.println("No se encontraron transacciones para esta cuenta.");
+            }
+            for (Transaccion t : historial) {
+                System.out.println(t);
+            }
+            System.out.println();
+        } catch (NumberFormatException e) {
+            System.out.println("❌ Error: Ingrese un número de cuenta válido.\n");
+        } catch (IOException e) {
+            System.err.println("Error al leer transacciones: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Muestra las métricas de replicación.
+     */
+    private static void mostrarEstado(ReplicaLectura replica) {
+        System.out.println("Registros aplicados: " + replica.getRegistrosAplicados());
+        System.out.println("Cuentas conocidas: " + replica.getCuentasConocidas().size());
+        System.out.println("Último registro: " + replica.getUltimaFechaAplicada());
+        System.out.println("Retraso: " + replica.getRetrasoBytes() + " bytes, " + 
+                           replica.getRetrasoMillis() + " ms desde la última lectura\n");
+    }
+}
\ No newline at end of file
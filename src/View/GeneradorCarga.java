@@ -0,0 +1,340 @@
+package View;
+
+import Controller.ControladorParticionado;
+import Excepciones.OperacionInvalidaException;
+import Excepciones.SaldoInsuficienteException;
+import Model.*;
+import java.io.File;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga sintética para pruebas de rendimiento y de larga duración.
+ *
+ * Crea N cuentas (mezcla de AHORROS, CORRIENTE y EMPRESARIAL) a través del
+ * controlador particionado y genera operaciones desde varios hilos:
+ * - Popularidad de cuentas sesgada (distribución de Zipf)
+ * - Mezcla configurable de depósitos, retiros y cálculo de intereses
+ * - Carga en lazo cerrado (cada hilo espera su operación) o en lazo abierto
+ *   (operaciones a una tasa fija, midiendo desde el instante programado)
+ *
+ * Cada intervalo muestra rendimiento, percentiles de latencia, tasa de rechazos
+ * y errores y el crecimiento del archivo de transacciones.
+ *
+ * Uso: java View.GeneradorCarga [opciones]
+ *   --cuentas N        Cuentas a crear (10000)
+ *   --hilos N          Hilos generadores (4)
+ *   --particiones N    Particiones del controlador (núcleos disponibles)
+ *   --duracion S       Duración en segundos (60)
+ *   --intervalo S      Segundos entre reportes (5)
+ *   --modo M           "cerrado" o "abierto" (cerrado)
+ *   --tasa N           Operaciones por segundo en lazo abierto (10000)
+ *   --zipf S           Exponente de Zipf, 0 = uniforme (1.0)
+ *   --depositos P      Porcentaje de depósitos (50)
+ *   --retiros P        Porcentaje de retiros (40); el resto son intereses
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class GeneradorCarga {
+
+    // Resultado de cada operación
+    private static final int EXITO = 0;
+    private static final int RECHAZO = 1; // Regla de negocio (saldo, límites)
+    private static final int ERROR = 2;   // Falla inesperada
+
+    private int cantidadCuentas = 10000;
+    private int hilos = 4;
+    private int particiones = Runtime.getRuntime().availableProcessors();
+    private int duracionSegundos = 60;
+    private int intervaloSegundos = 5;
+    private boolean lazoAbierto = false;
+    private double tasaObjetivo = 10000;
+    private double exponenteZipf = 1.0;
+    private int porcentajeDepositos = 50;
+    private int porcentajeRetiros = 40;
+
+    private final HistogramaLatencia latencias = new HistogramaLatencia();
+    private final LongAdder exitos = new LongAdder();
+    private final LongAdder rechazos = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+
+    private double[] distribucion; // Función de distribución acumulada de Zipf
+    private volatile boolean detener;
+
+    /**
+     * Método principal del generador de carga.
+     */
+    public static void main(String[] args) throws Exception {
+        GeneradorCarga generador = new GeneradorCarga();
+        generador.leerOpciones(args);
+        generador.ejecutar();
+    }
+
+    private void leerOpciones(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String valor = args[i + 1];
+            switch (args[i]) {
+                case "--cuentas": cantidadCuentas = Integer.parseInt(valor); break;
+                case "--hilos": hilos = Integer.parseInt(valor); break;
+                case "--particiones": particiones = Integer.parseInt(valor); break;
+                case "--duracion": duracionSegundos = Integer.parseInt(valor); break;
+                case "--intervalo": intervaloSegundos = Integer.parseInt(valor); break;
+                case "--modo": lazoAbierto = valor.equalsIgnoreCase("abierto"); break;
+                case "--tasa": tasaObjetivo = Double.parseDouble(valor); break;
+                case "--zipf": exponenteZipf = Double.parseDouble(valor); break;
+                case "--depositos": porcentajeDepositos = Integer.parseInt(valor); break;
+                case "--retiros": porcentajeRetiros = Integer.parseInt(valor); break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+    }
+
+    /**
+     * Crea las cuentas, genera la carga durante el tiempo configurado y muestra los reportes.
+     */
+    private void ejecutar() throws Exception {
+        distribucion = calcularDistribucionZipf(cantidadCuentas, exponenteZipf);
+        File archivo = new File(PersistenciaBancaria.getRutaArchivo());
+
+        try (ControladorParticionado controlador = new ControladorParticionado(particiones, 1024)) {
+            System.out.println("Creando " + cantidadCuentas + " cuentas en " + particiones + " particiones...");
+            CompletableFuture<?>[] registros = new CompletableFuture<?>[cantidadCuentas];
+            for (int i = 0; i < cantidadCuentas; i++) {
+                registros[i] = controlador.registrarCuenta(crearCuenta(i + 1));
+            }
+            CompletableFuture.allOf(registros).join();
+
+            System.out.println("Modo: " + (lazoAbierto ? "abierto a " + (long) tasaObjetivo + " op/s" : "cerrado") +
+                               " | Hilos: " + hilos + " | Zipf: " + exponenteZipf + "\n");
+
+            Thread[] generadores = new Thread[hilos];
+            for (int h = 0; h < hilos; h++) {
+                generadores[h] = new Thread(() -> generar(controlador), "generador-" + h);
+                generadores[h].start();
+            }
+
+            long inicio = System.nanoTime();
+            long bytesIniciales = archivo.length();
+            long bytesAnteriores = bytesIniciales;
+            long operacionesAnteriores = 0;
+
+            for (int segundos = intervaloSegundos; segundos <= duracionSegundos; segundos += intervaloSegundos) {
+                Thread.sleep(intervaloSegundos * 1000L);
+
+                long operaciones = exitos.sum() + rechazos.sum() + errores.sum();
+                long bytes = archivo.length();
+                System.out.println(String.format(Locale.ROOT,
+                    "[%4ds] %,10.0f op/s | p50 %s p99 %s p99.9 %s máx %s | rechazos %.2f%% errores %.2f%% | log +%,d KB/s",
+                    segundos,
+                    (operaciones - operacionesAnteriores) / (double) intervaloSegundos,
+                    formatear(latencias.percentil(0.50)), formatear(latencias.percentil(0.99)),
+                    formatear(latencias.percentil(0.999)), formatear(latencias.maximo()),
+                    porcentaje(rechazos.sum(), operaciones), porcentaje(errores.sum(), operaciones),
+                    (bytes - bytesAnteriores) / 1024 / intervaloSegundos));
+                operacionesAnteriores = operaciones;
+                bytesAnteriores = bytes;
+            }
+
+            detener = true;
+            for (Thread generador : generadores) {
+                generador.join();
+            }
+
+            double segundosTotales = (System.nanoTime() - inicio) / 1e9;
+            long total = exitos.sum() + rechazos.sum() + errores.sum();
+            System.out.println("\n========== RESUMEN ==========");
+            System.out.println(String.format(Locale.ROOT, "Operaciones: %,d (%,.0f op/s)", total, total / segundosTotales));
+            System.out.println(String.format(Locale.ROOT, "Exitosas: %,d | Rechazadas: %,d | Errores: %,d",
+                                             exitos.sum(), rechazos.sum(), errores.sum()));
+            System.out.println("Latencia p50 " + formatear(latencias.percentil(0.50)) +
+                               " | p90 " + formatear(latencias.percentil(0.90)) +
+                               " | p99 " + formatear(latencias.percentil(0.99)) +
+                               " | p99.9 " + formatear(latencias.percentil(0.999)) +
+                               " | máx " + formatear(latencias.maximo()));
+            System.out.println(String.format(Locale.ROOT, "Crecimiento del log: %,d KB",
+                                             (archivo.length() - bytesIniciales) / 1024));
+            System.out.println("=============================");
+        }
+    }
+
+    /**
+     * Crea una cuenta sintética. Mezcla: 50% ahorros, 35% corriente, 15% empresarial.
+     */
+    private static CuentaBancaria crearCuenta(int numeroCuenta) {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        double saldo = 100 + azar.nextInt(10000);
+        int tipo = azar.nextInt(100);
+        if (tipo < 50) {
+            return new CuentaAhorros("Cliente " + numeroCuenta, saldo, numeroCuenta,
+                                     0.01, "Mensual", 1000);
+        } else if (tipo < 85) {
+            return new CuentaCorriente("Cliente " + numeroCuenta, saldo, numeroCuenta,
+                                       2.5, 500, numeroCuenta);
+        } else {
+            return new CuentaEmpresarial("Empresa " + numeroCuenta, saldo * 10, numeroCuenta,
+                                         "S.A.S.", numeroCuenta, 50000);
+        }
+    }
+
+    /**
+     * Ciclo de un hilo generador.
+     */
+    private void generar(ControladorParticionado controlador) {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        long periodoNanos = (long) (1e9 * hilos / tasaObjetivo);
+        long siguiente = System.nanoTime();
+
+        while (!detener) {
+            long programado;
+            if (lazoAbierto) {
+                // Esperar al instante programado; la latencia se mide desde ahí aunque
+                // la operación salga tarde (evita la "omisión coordinada")
+                programado = siguiente;
+                siguiente += periodoNanos;
+                long espera = programado - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+            } else {
+                programado = System.nanoTime();
+            }
+
+            int numeroCuenta = elegirCuenta(azar);
+            int tipo = azar.nextInt(100);
+            double monto = 10 + azar.nextInt(500);
+
+            CompletableFuture<Void> operacion;
+            if (tipo < porcentajeDepositos) {
+                operacion = controlador.realizarDeposito(numeroCuenta, monto);
+            } else if (tipo < porcentajeDepositos + porcentajeRetiros) {
+                operacion = controlador.realizarRetiro(numeroCuenta, monto);
+            } else {
+                operacion = controlador.calcularIntereses(numeroCuenta);
+            }
+
+            final long inicio = programado;
+            if (lazoAbierto) {
+                operacion.whenComplete((r, error) -> registrar(inicio, error));
+            } else {
+                Throwable error = null;
+                try {
+                    operacion.join();
+                } catch (CompletionException e) {
+                    error = e;
+                }
+                registrar(inicio, error);
+            }
+        }
+    }
+
+    private void registrar(long inicioNanos, Throwable error) {
+        latencias.registrar(System.nanoTime() - inicioNanos);
+        switch (clasificar(error)) {
+            case EXITO: exitos.increment(); break;
+            case RECHAZO: rechazos.increment(); break;
+            default: errores.increment();
+        }
+    }
+
+    private static int clasificar(Throwable error) {
+        if (error == null) {
+            return EXITO;
+        }
+        Throwable causa = (error instanceof CompletionException && error.getCause() != null)
+            ? error.getCause() : error;
+        if (causa instanceof SaldoInsuficienteException || causa instanceof OperacionInvalidaException) {
+            return RECHAZO;
+        }
+        return ERROR;
+    }
+
+    /**
+     * Elige una cuenta según la distribución de Zipf (búsqueda binaria en la acumulada).
+     */
+    private int elegirCuenta(ThreadLocalRandom azar) {
+        double u = azar.nextDouble();
+        int bajo = 0;
+        int alto = distribucion.length - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (distribucion[medio] < u) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo + 1; // Las cuentas van de 1 a N
+    }
+
+    private static double[] calcularDistribucionZipf(int n, double exponente) {
+        double[] acumulada = new double[n];
+        double suma = 0;
+        for (int i = 0; i < n; i++) {
+            suma += 1.0 / Math.pow(i + 1, exponente);
+            acumulada[i] = suma;
+        }
+        for (int i = 0; i < n; i++) {
+            acumulada[i] /= suma;
+        }
+        return acumulada;
+    }
+
+    private static double porcentaje(long parte, long total) {
+        return total == 0 ? 0 : 100.0 * parte / total;
+    }
+
+    private static String formatear(long nanos) {
+        if (nanos < 1_000_000) {
+            return String.format(Locale.ROOT, "%.1fµs", nanos / 1e3);
+        }
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1e6);
+    }
+
+    /**
+     * Histograma de latencias con buckets logarítmicos (16 sub-buckets por potencia
+     * de 2, error relativo menor al 7%). Seguro para varios hilos y sin objetos por registro.
+     */
+    private static class HistogramaLatencia {
+        private static final int SUB_BUCKETS = 16;
+        private final AtomicLongArray conteos = new AtomicLongArray(64 * SUB_BUCKETS);
+        private final LongAdder total = new LongAdder();
+        private volatile long maximo;
+
+        void registrar(long nanos) {
+            long valor = Math.max(1, nanos);
+            int exponente = 63 - Long.numberOfLeadingZeros(valor);
+            int sub = exponente < 4 ? (int) valor & (SUB_BUCKETS - 1)
+                                    : (int) (valor >>> (exponente - 4)) & (SUB_BUCKETS - 1);
+            conteos.incrementAndGet(exponente * SUB_BUCKETS + sub);
+            total.increment();
+            if (valor > maximo) {
+                maximo = valor; // Aproximado ante carreras, suficiente para el reporte
+            }
+        }
+
+        long percentil(double p) {
+            long objetivo = (long) Math.ceil(total.sum() * p);
+            long acumulado = 0;
+            for (int i = 0; i < conteos.length(); i++) {
+                acumulado += conteos.get(i);
+                if (acumulado >= objetivo && acumulado > 0) {
+                    int exponente = i / SUB_BUCKETS;
+                    int sub = i % SUB_BUCKETS;
+                    return exponente < 4 ? sub : ((long) (SUB_BUCKETS + sub)) << (exponente - 4);
+                }
+            }
+            return 0;
+        }
+
+        long maximo() {
+            return maximo;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package View;
+
+import Model.ArchivoComprimido;
+import Model.PersistenciaBancaria;
+import Model.Transaccion;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Herramienta de línea de comandos para archivar segmentos antiguos del registro
+ * de transacciones en formato comprimido y comparar la velocidad de recorrido
+ * contra el archivo de texto.
+ * 
+ * Uso: java View.HerramientaArchivo destino [origen] [hasta yyyy-MM-ddTHH:mm:ss] [cuenta]
+ * 
+ * @author Andres
+ * @version 1.0
+ */
+public class HerramientaArchivo {
+    
+    /**
+     * Método principal de la herramienta.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Uso: java View.HerramientaArchivo destino [origen] [hasta] [cuenta]");
+            return;
+        }
+        File destino = new File(args[0]);
+        File origen = new File(args.length > 1 ? args[1] : PersistenciaBancaria.getRutaArchivo());
+        LocalDateTime hasta = args.length > 2 && !args[2].equals("-") ? LocalDateTime.parse(args[2]) : null;
+        
+        try {
+            long inicio = System.nanoTime();
+            ArchivoComprimido.EstadisticasCompresion estadisticas = 
+                ArchivoComprimido.compactar(origen, destino, hasta);
+            long nanosCompactar = System.nanoTime() - inicio;
+            
+            System.out.println("\n========== ARCHIVO COMPRIMIDO ==========");
+            System.out.println(estadisticas);
+            System.out.printf("Compactación: %.1f ms%n", nanosCompactar / 1e6);
+            
+            // Recorrido completo: texto vs comprimido
+            long[] contador = new long[1];
+            inicio = System.nanoTime();
+            recorrerTexto(origen, estadisticas.getRegistros(), t -> contador[0]++);
+            long nanosTexto = System.nanoTime() - inicio;
+            
+            long[] contadorComprimido = new long[1];
+            inicio = System.nanoTime();
+            ArchivoComprimido.escanear(destino, t -> contadorComprimido[0]++);
+            long nanosComprimido = System.nanoTime() - inicio;
+            
+            System.out.println("\n--- Recorrido completo ---");
+            mostrarVelocidad("Texto", contador[0], nanosTexto);
+            mostrarVelocidad("Comprimido", contadorComprimido[0], nanosComprimido);
+            
+            // Historial de una cuenta
+            if (args.length > 3) {
+                int cuenta = Integer.parseInt(args[3]);
+                long[] encontradas = new long[1];
+                inicio = System.nanoTime();
+                recorrerTexto(origen, estadisticas.getRegistros(), t -> {
+                    if (t.getNumeroCuenta() == cuenta) {
+                        encontradas[0]++;
+                    }
+                });
+                nanosTexto = System.nanoTime() - inicio;
+                
+                inicio = System.nanoTime();
+                List<Transaccion> historial = ArchivoComprimido.consultarCuenta(destino, cuenta);
+                nanosComprimido = System.nanoTime() - inicio;
+                
+                System.out.println("\n--- Historial de la cuenta " + cuenta + " ---");
+                System.out.printf("Texto:      %,d registros en %.1f ms%n", encontradas[0], nanosTexto / 1e6);
+                System.out.printf("Comprimido: %,d registros en %.1f ms%n", historial.size(), nanosComprimido / 1e6);
+            }
+            System.out.println("========================================\n");
+        } catch (IOException e) {
+            System.out.println("❌ Error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Recorre los primeros registros del archivo de texto (los mismos que se archivaron).
+     */
+    private static void recorrerTexto(File origen, long registros, 
+                                      Consumer<Transaccion> consumidor) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                 new FileInputStream(origen), StandardCharsets.UTF_8))) {
+            long leidos = 0;
+            String linea;
+            while (leidos < registros && (linea = reader.readLine()) != null) {
+                Transaccion t = Transaccion.parsear(linea);
+                if (t != null) {
+                    consumidor.accept(t);
+                    leidos++;
+                }
+            }
+        }
+    }
+    
+    private static void mostrarVelocidad(String nombre, long registros, long nanos) {
+        System.out.printf("%-11s %,d registros en %.1f ms (%,.0f registros/s)%n", 
+                          nombre + ":", registros, nanos / 1e6, registros / (nanos / 1e9));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,211 @@
+package View;
+
+import Controller.ControladorBancario;
+import Model.*;
+import Excepciones.*;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Modo por lotes (sin menú) del sistema bancario.
+ * Lee un comando por línea, con los campos separados por ';', y escribe una
+ * línea de resultado por comando: número de línea, OK o ERROR, y el saldo o
+ * el mensaje de error. Al final escribe un resumen (líneas que empiezan con '#').
+ *
+ * Comandos:
+ *   AHORROS;titular;saldo;numero;tasa;periodicidad;retirosPermitidos
+ *   CORRIENTE;titular;saldo;numero;comision;limiteSobregiro;chequera
+ *   EMPRESARIAL;titular;saldo;numero;tipoEmpresa;registroTributario;limiteDiario
+ *   DEPOSITO;cuenta;monto[;clave]
+ *   RETIRO;cuenta;monto[;clave]
+ *   TRANSFERENCIA;origen;destino;monto
+ *   INTERESES;cuenta
+ *   SALDO;cuenta
+ *
+ * Las líneas vacías y las que empiezan con '#' se ignoran.
+ *
+ * Uso: java View.App --lote archivo   (o "-" para leer de la entrada estándar)
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class ProcesadorLote {
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final ControladorBancario controlador;
+    private final PrintWriter salida;
+
+    // Resumen
+    private long comandos;
+    private long correctos;
+    private long saldoInsuficiente;
+    private long invalidos;
+
+    /**
+     * Constructor de ProcesadorLote.
+     *
+     * @param controlador Controlador sobre el que se ejecutan los comandos
+     * @param salida Destino de los resultados
+     */
+    public ProcesadorLote(ControladorBancario controlador, PrintWriter salida) {
+        this.controlador = controlador;
+        this.salida = salida;
+    }
+
+    /**
+     * Ejecuta un archivo de comandos escribiendo los resultados en la salida estándar.
+     *
+     * @param controlador Controlador sobre el que se ejecutan los comandos
+     * @param ruta Archivo de comandos, o "-" para la entrada estándar
+     */
+    public static void ejecutar(ControladorBancario controlador, String ruta) {
+        PrintWriter salida = new PrintWriter(new BufferedWriter(
+            new OutputStreamWriter(System.out, StandardCharsets.UTF_8), TAMANO_BUFFER), false);
+
+        try (InputStream entrada = ruta.equals("-") ? System.in : new FileInputStream(ruta)) {
+            new ProcesadorLote(controlador, salida).procesar(entrada);
+        } catch (IOException e) {
+            salida.println("# Error al leer comandos: " + e.getMessage());
+        } finally {
+            salida.flush();
+            PersistenciaBancaria.cerrarArchivo();
+        }
+    }
+
+    /**
+     * Procesa todos los comandos de un flujo de entrada y escribe el resumen.
+     *
+     * @param entrada Flujo con un comando por línea
+     * @throws IOException Si no se puede leer la entrada
+     */
+    public void procesar(InputStream entrada) throws IOException {
+        long inicio = System.nanoTime();
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(entrada, StandardCharsets.UTF_8), TAMANO_BUFFER);
+
+        String linea;
+        long numeroLinea = 0;
+        while ((linea = reader.readLine()) != null) {
+            numeroLinea++;
+            linea = linea.trim();
+            if (linea.isEmpty() || linea.startsWith("#")) {
+                continue;
+            }
+            comandos++;
+            salida.print(numeroLinea);
+            try {
+                double saldo = ejecutarComando(linea.split(";", -1));
+                correctos++;
+                salida.print(" OK ");
+                salida.println(formatearImporte(saldo));
+            } catch (SaldoInsuficienteException e) {
+                saldoInsuficiente++;
+                salida.print(" ERROR ");
+                salida.println(e.getMessage());
+            } catch (OperacionInvalidaException | IllegalArgumentException e) {
+                // NumberFormatException es una IllegalArgumentException
+                invalidos++;
+                salida.print(" ERROR ");
+                salida.println(e.getMessage());
+            }
+        }
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        salida.printf(Locale.ROOT, "# Comandos: %d | Correctos: %d | Saldo insuficiente: %d | Inválidos: %d%n",
+                      comandos, correctos, saldoInsuficiente, invalidos);
+        salida.printf(Locale.ROOT, "# Tiempo: %.1f ms | %.0f comandos/s%n",
+                      segundos * 1000, segundos == 0 ? 0 : comandos / segundos);
+    }
+
+    /**
+     * Ejecuta un comando.
+     *
+     * @return Saldo de la cuenta afectada (la cuenta origen en transferencias)
+     */
+    private double ejecutarComando(String[] campos)
+            throws SaldoInsuficienteException, OperacionInvalidaException {
+        String comando = campos[0].trim().toUpperCase(Locale.ROOT);
+        switch (comando) {
+            case "AHORROS":
+            case "CORRIENTE":
+            case "EMPRESARIAL":
+                return registrar(FabricaCuentas.crear(campos));
+            case "DEPOSITO":
+                requerirCampos(campos, 3);
+                return controlador.realizarDeposito(entero(campos[1]), decimal(campos[2]), clave(campos)).getSaldoFinal();
+            case "RETIRO":
+                requerirCampos(campos, 3);
+                return controlador.realizarRetiro(entero(campos[1]), decimal(campos[2]), clave(campos)).getSaldoFinal();
+            case "TRANSFERENCIA":
+                requerirCampos(campos, 4);
+                controlador.realizarTransferencia(entero(campos[1]), entero(campos[2]), decimal(campos[3]));
+                return saldoDe(entero(campos[1]));
+            case "INTERESES":
+                requerirCampos(campos, 2);
+                return controlador.calcularIntereses(entero(campos[1])).getSaldoFinal();
+            case "SALDO":
+                requerirCampos(campos, 2);
+                return saldoDe(entero(campos[1]));
+            default:
+                throw new OperacionInvalidaException("Comando desconocido: " + campos[0]);
+        }
+    }
+
+    private double registrar(CuentaBancaria cuenta) throws OperacionInvalidaException {
+        if (!controlador.registrarCuenta(cuenta)) {
+            throw new OperacionInvalidaException("Ya existe una cuenta con ese número: " + cuenta.getNumeroCuenta());
+        }
+        return cuenta.getSaldo();
+    }
+
+    private double saldoDe(int numeroCuenta) throws OperacionInvalidaException {
+        CuentaBancaria cuenta = controlador.buscarCuentaPorNumero(numeroCuenta);
+        if (cuenta == null) {
+            throw new OperacionInvalidaException("Cuenta no encontrada: " + numeroCuenta);
+        }
+        return cuenta.getSaldo();
+    }
+
+    // ==================== LECTURA DE CAMPOS ====================
+
+    private static void requerirCampos(String[] campos, int cantidad) throws OperacionInvalidaException {
+        if (campos.length < cantidad) {
+            throw new OperacionInvalidaException("Se esperaban " + cantidad + " campos en " + campos[0]);
+        }
+    }
+
+    private static int entero(String campo) {
+        return Integer.parseInt(campo.trim());
+    }
+
+    private static double decimal(String campo) {
+        return Double.parseDouble(campo.trim());
+    }
+
+    private static long clave(String[] campos) {
+        return campos.length > 3 && !campos[3].isBlank() ? Long.parseLong(campos[3].trim()) : 0L;
+    }
+
+    /**
+     * Importe con dos decimales y punto, sin pasar por String.format.
+     */
+    private static String formatearImporte(double importe) {
+        if (Double.isNaN(importe) || Math.abs(importe) >= 1e15) {
+            return String.format(Locale.ROOT, "%.2f", importe);
+        }
+        long centavos = Math.round(importe * 100);
+        String signo = centavos < 0 ? "-" : "";
+        centavos = Math.abs(centavos);
+        long resto = centavos % 100;
+        return signo + (centavos / 100) + (resto < 10 ? ".0" : ".") + resto;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package View;
+
+import Model.CuentaAhorros;
+import Model.CuentaBancaria;
+import Model.CuentaCorriente;
+import Model.CuentaEmpresarial;
+import Model.DiccionarioTextos;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Reporte de memoria ocupada por cuenta, para cada tipo de cuenta.
+ *
+ * Crea muchas cuentas de un mismo tipo como si vinieran de un archivo: cada
+ * cuenta recibe sus propias copias del titular, la periodicidad y el tipo de
+ * empresa (los titulares se repiten entre cuentas, como pasa con clientes que
+ * tienen varios productos). Mide el heap ocupado antes y después de crearlas
+ * (tras varias recolecciones de basura) y lo divide entre las cuentas, así que
+ * incluye todo lo que cuelga de la cuenta: textos, política y ventana de retiros.
+ *
+ * Las cifras dependen de la JVM (punteros comprimidos, alineación); sirven
+ * para comparar versiones en la misma máquina.
+ *
+ * Uso: java View.ReporteMemoria [opciones]
+ *   --cuentas N     Cuentas por tipo (200000)
+ *   --titulares N   Titulares distintos entre esas cuentas (20000)
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class ReporteMemoria {
+
+    private static final String[] TIPOS_EMPRESA = { "S.A.", "S.A.S.", "Ltda." };
+
+    private int cuentas = 200_000;
+    private int titulares = 20_000;
+
+    /**
+     * Método principal del reporte.
+     */
+    public static void main(String[] args) {
+        ReporteMemoria reporte = new ReporteMemoria();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--cuentas": reporte.cuentas = Integer.parseInt(args[i + 1]); break;
+                case "--titulares": reporte.titulares = Integer.parseInt(args[i + 1]); break;
+                default:
+                    System.out.println("❌ Opción desconocida: " + args[i]);
+                    return;
+            }
+        }
+        reporte.ejecutar();
+    }
+
+    private void ejecutar() {
+        System.out.println("\n============= MEMORIA POR CUENTA =============");
+        System.out.println("Cuentas por tipo: " + cuentas + " | Titulares distintos: " + titulares);
+        System.out.printf("%-12s %16s %18s%n", "Tipo", "Bytes/cuenta", "Heap total (MB)");
+        long total = 0;
+        for (String tipo : new String[] { "AHORROS", "CORRIENTE", "EMPRESARIAL" }) {
+            long bytes = medir(tipo);
+            total += bytes;
+            System.out.printf("%-12s %,16.1f %,18.1f%n", tipo, (double) bytes / cuentas, bytes / 1048576.0);
+        }
+        System.out.printf("%-12s %,16.1f %,18.1f%n", "PROMEDIO", (double) total / (3L * cuentas), total / 1048576.0);
+        System.out.println("Textos distintos en el diccionario: " + DiccionarioTextos.getTamano());
+        System.out.println("==============================================\n");
+    }
+
+    /**
+     * Crea las cuentas de un tipo y devuelve los bytes de heap que ocupan.
+     */
+    private long medir(String tipo) {
+        CuentaBancaria[] creadas = new CuentaBancaria[cuentas];
+        long antes = heapOcupado();
+        for (int i = 0; i < cuentas; i++) {
+            creadas[i] = crear(tipo, i);
+        }
+        long despues = heapOcupado();
+        // Mantener las cuentas vivas hasta después de medir
+        if (creadas[cuentas - 1].getNumeroCuenta() != cuentas - 1) {
+            throw new IllegalStateException("Cuenta inesperada");
+        }
+        return despues - antes;
+    }
+
+    /**
+     * Crea una cuenta con textos nuevos, como los que produce leer un archivo.
+     */
+    private CuentaBancaria crear(String tipo, int numero) {
+        String titular = new String("Cliente número " + (numero % titulares));
+        switch (tipo) {
+            case "AHORROS":
+                return new CuentaAhorros(titular, 1000, numero, 0.02,
+                                         new String(numero % 4 == 0 ? "Trimestral" : "Mensual"), 3);
+            case "CORRIENTE":
+                return new CuentaCorriente(titular, 1000, numero, 2.5, 500, numero);
+            default:
+                return new CuentaEmpresarial(titular, 10000, numero,
+                                             new String(TIPOS_EMPRESA[numero % TIPOS_EMPRESA.length]),
+                                             900000000 + numero, 50000);
+        }
+    }
+
+    /**
+     * Heap ocupado después de forzar varias recolecciones de basura.
+     */
+    private static long heapOcupado() {
+        MemoryMXBean memoria = ManagementFactory.getMemoryMXBean();
+        long ocupado = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            ocupado = Math.min(ocupado, memoria.getHeapMemoryUsage().getUsed());
+        }
+        return ocupado;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,84 @@
+package Pruebas;
+
+import Model.CodificadorTransacciones;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Prueba que CodificadorTransacciones escriba los montos y saldos igual que
+ * String.format("%.2f"), que es como se escribían antes del codificador:
+ * - Todos los valores de medio centavo (x.xx5) hasta VALORES_MEDIO_CENTAVO / 200,
+ *   positivos y negativos, donde multiplicar por 100 queda a un lado u otro del .5.
+ * - Valores al azar de distintas magnitudes.
+ * - Casos especiales: cero negativo, valores enormes, NaN e infinito.
+ *
+ * Uso: java -cp bin Pruebas.PruebaCodificador
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PruebaCodificador {
+
+    private static final int VALORES_MEDIO_CENTAVO = 1_000_000;
+    private static final int VALORES_AL_AZAR = 1_000_000;
+
+    private final CodificadorTransacciones codificador = new CodificadorTransacciones(ZoneOffset.UTC);
+    private long comparados;
+
+    /**
+     * Método principal de la prueba.
+     */
+    public static void main(String[] args) {
+        PruebaCodificador prueba = new PruebaCodificador();
+        prueba.probarMedioCentavo();
+        prueba.probarAlAzar();
+        prueba.probarCasosEspeciales();
+        System.out.printf("✓ PruebaCodificador: %,d valores iguales a String.format.%n", prueba.comparados);
+    }
+
+    private void probarMedioCentavo() {
+        for (int i = 0; i < VALORES_MEDIO_CENTAVO; i++) {
+            double valor = (2 * i + 1) / 200.0; // 0.005, 0.015, 0.025, ...
+            comparar(valor, -valor);
+        }
+        comparar(1.005, 0.285);
+        comparar(-1.005, -0.285);
+    }
+
+    private void probarAlAzar() {
+        SplittableRandom azar = new SplittableRandom(27);
+        for (int i = 0; i < VALORES_AL_AZAR; i++) {
+            double escala = Math.pow(10, azar.nextInt(13)); // Hasta billones
+            double monto = azar.nextDouble() * escala;
+            // Saldos con centavos, como los que dejan las operaciones
+            double saldo = Math.round(azar.nextDouble() * escala * 100) / 100.0 - escala / 2;
+            comparar(monto, saldo);
+        }
+    }
+
+    private void probarCasosEspeciales() {
+        double[] valores = { 0.0, -0.0, 0.001, -0.001, 0.004999999999999999, 0.995, 9.995, 99.995,
+                             1e13 + 0.005, 99_999_999_999.995, 1e15, -1e15, 1e20, Double.MAX_VALUE,
+                             Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY };
+        for (double valor : valores) {
+            comparar(valor, valor);
+        }
+    }
+
+    /**
+     * Codifica un registro con el monto y el saldo dados y compara los dos textos.
+     */
+    private void comparar(double monto, double saldo) {
+        int longitud = codificador.codificar(0L, 1, "DEPOSITO", monto, saldo);
+        String linea = new String(codificador.getBuffer(), 0, longitud, StandardCharsets.US_ASCII).trim();
+        int inicioMonto = linea.indexOf("Monto: $") + "Monto: $".length();
+        String textoMonto = linea.substring(inicioMonto, linea.indexOf(" |", inicioMonto));
+        String textoSaldo = linea.substring(linea.indexOf("Saldo Final: $") + "Saldo Final: $".length());
+
+        Verificar.igual(String.format(Locale.ROOT, "%.2f", monto), textoMonto, "Monto " + monto);
+        Verificar.igual(String.format(Locale.ROOT, "%.2f", saldo), textoSaldo, "Saldo " + saldo);
+        comparados += 2;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,151 @@
+package Pruebas;
+
+import Model.CodificadorTransacciones;
+import Model.PersistenciaBancaria;
+import Model.Transaccion;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Prueba PersistenciaBancaria.consultarPorRango:
+ * - Con el archivo en orden, la búsqueda binaria devuelve lo mismo que
+ *   filtrar todos los registros, aunque haya encabezados, fines de línea
+ *   "\r\n" y líneas más largas que un bloque de lectura.
+ * - Si un registro nuevo tiene fecha anterior al último del archivo (reloj
+ *   atrasado), queda la marca de desorden y el rango se busca recorriendo el
+ *   archivo completo, así que el registro nuevo aparece.
+ *
+ * Uso: java -cp bin Pruebas.PruebaConsultaRango
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PruebaConsultaRango {
+
+    private static final int REGISTROS = 20_000;
+    private static final int[] CUENTAS = { 7, 8, 9 };
+    // Registros de hace años y, al final, del año 2100 (posteriores al reloj)
+    private static final long FECHA_INICIAL = 1_500_000_000_000L;
+    private static final long FECHA_FUTURA = 4_102_444_800_000L;
+
+    private static File archivo;
+    private static final List<Transaccion> escritas = new ArrayList<>();
+
+    /**
+     * Método principal de la prueba.
+     */
+    public static void main(String[] args) throws Exception {
+        // Antes de usar la persistencia: el archivo de la prueba va en una carpeta temporal
+        File carpeta = Files.createTempDirectory("banco-rango").toFile();
+        archivo = new File(carpeta, "Transacciones.txt");
+        System.setProperty(PersistenciaBancaria.PROPIEDAD_ARCHIVO, archivo.getPath());
+        File marca = new File(archivo.getPath() + ".desordenado");
+        try {
+            generarArchivo();
+            probarRangosOrdenados();
+            probarRetrocesoDelReloj(marca);
+        } finally {
+            PersistenciaBancaria.cerrarArchivo();
+            archivo.delete();
+            marca.delete();
+            carpeta.delete();
+        }
+        System.out.println("✓ PruebaConsultaRango: todos los casos pasaron.");
+    }
+
+    /**
+     * Un registro cada 10 segundos, con encabezados en medio, algunas líneas
+     * "\r\n" y una línea de 10 KB; al final, registros del año 2100.
+     */
+    private static void generarArchivo() throws IOException {
+        CodificadorTransacciones codificador = new CodificadorTransacciones(ZoneOffset.UTC);
+        try (OutputStream salida = new BufferedOutputStream(new FileOutputStream(archivo))) {
+            salida.write("=== REGISTRO DE TRANSACCIONES ===\n\n".getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < REGISTROS; i++) {
+                long fecha = (i < REGISTROS - 10 ? FECHA_INICIAL : FECHA_FUTURA) + i * 10_000L;
+                escribir(salida, codificador, fecha, CUENTAS[i % CUENTAS.length], i, i % 7 == 0);
+                if (i == REGISTROS / 3) {
+                    salida.write(("# " + "x".repeat(10 * 1024) + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+                if (i % 5000 == 0) {
+                    salida.write("=== Número de sesión ===\n".getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    private static void escribir(OutputStream salida, CodificadorTransacciones codificador, long fecha,
+                                 int cuenta, double saldo, boolean retornoDeCarro) throws IOException {
+        int longitud = codificador.codificar(fecha, cuenta, "DEPOSITO", 1, saldo);
+        byte[] buffer = codificador.getBuffer();
+        if (retornoDeCarro) {
+            salida.write(buffer, 0, longitud - 1);
+            salida.write('\r');
+            salida.write('\n');
+        } else {
+            salida.write(buffer, 0, longitud);
+        }
+        escritas.add(new Transaccion(LocalDateTime.ofEpochSecond(fecha / 1000, 0, ZoneOffset.UTC),
+                                     cuenta, "DEPOSITO", 1, saldo, 0L));
+    }
+
+    private static void probarRangosOrdenados() {
+        LocalDateTime inicio = LocalDateTime.ofEpochSecond(FECHA_INICIAL / 1000, 0, ZoneOffset.UTC);
+        long[][] rangos = {
+            { 0, 10 }, { -100, 35 }, { 1000, 1001 }, { 1001, 1002 }, { 66_660, 66_700 },
+            { 12_345, 150_000 }, { 199_900, 10_000_000 }, { 0, 5_000_000_000L },
+        };
+        for (long[] rango : rangos) {
+            LocalDateTime desde = inicio.plusSeconds(rango[0]);
+            LocalDateTime hasta = inicio.plusSeconds(rango[1]);
+            String caso = "Rango de " + rango[0] + " a " + rango[1] + " s";
+            comparar(filtrar(-1, desde, hasta), PersistenciaBancaria.consultarPorRango(desde, hasta), caso);
+            comparar(filtrar(8, desde, hasta), PersistenciaBancaria.consultarPorRango(8, desde, hasta),
+                     caso + " de la cuenta 8");
+        }
+    }
+
+    private static void probarRetrocesoDelReloj(File marca) {
+        Verificar.verdadero(!marca.exists(), "Sin retroceso no hay marca de desorden");
+
+        // El reloj del sistema es anterior al último registro del archivo
+        PersistenciaBancaria.guardarTransaccion(8, "DEPOSITO", 5, 123);
+        Verificar.verdadero(marca.exists(), "El retroceso deja la marca de desorden");
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Transaccion> encontradas =
+            PersistenciaBancaria.consultarPorRango(8, ahora.minusDays(1), ahora.plusDays(1));
+        Verificar.igual(1, encontradas.size(), "El registro con fecha atrasada aparece en el rango");
+        Verificar.igual(123.0, encontradas.get(0).getSaldoFinal(), "Saldo del registro atrasado");
+    }
+
+    private static List<Transaccion> filtrar(int cuenta, LocalDateTime desde, LocalDateTime hasta) {
+        List<Transaccion> resultado = new ArrayList<>();
+        for (Transaccion transaccion : escritas) {
+            if ((cuenta < 0 || transaccion.getNumeroCuenta() == cuenta)
+                && !transaccion.getFechaHora().isBefore(desde) && transaccion.getFechaHora().isBefore(hasta)) {
+                resultado.add(transaccion);
+            }
+        }
+        return resultado;
+    }
+
+    private static void comparar(List<Transaccion> esperadas, List<Transaccion> obtenidas, String caso) {
+        Verificar.igual(esperadas.size(), obtenidas.size(), caso + ": cantidad de registros");
+        for (int i = 0; i < esperadas.size(); i++) {
+            Verificar.igual(esperadas.get(i).getFechaHora(), obtenidas.get(i).getFechaHora(), caso + ": fecha " + i);
+            Verificar.igual(esperadas.get(i).getNumeroCuenta(), obtenidas.get(i).getNumeroCuenta(),
+                            caso + ": cuenta " + i);
+            Verificar.igual(esperadas.get(i).getSaldoFinal(), obtenidas.get(i).getSaldoFinal(), caso + ": saldo " + i);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,179 @@
+package Pruebas;
+
+import Controller.NodoBanco;
+import Model.CuentaBancaria;
+import Model.PersistenciaBancaria;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Prueba la transferencia en dos fases del lado de un nodo (NodoBanco),
+ * enviándole los comandos del enrutador directamente con atender():
+ * - Un ABORTAR_RETIRO que llega antes que su PREPARAR_RETIRO deja la
+ *   transacción abortada y la preparación tardía se rechaza sin tocar la cuenta.
+ * - Abortar devuelve exactamente lo debitado al preparar, aunque la comisión
+ *   de la cuenta haya cambiado entremedio, y una sola vez.
+ * - Confirmar deposita una sola vez, también después de reiniciar el nodo.
+ * - Un paso que quedó a medias (el proceso se cayó) se resuelve mirando el
+ *   archivo de transacciones.
+ * - El nodo reiniciado recupera sus cuentas y saldos sin volver a
+ *   registrarlas, así que los abortos y confirmaciones pendientes se aplican.
+ *
+ * Cada caso usa su propia cuenta; la 1 es la de los pasos a medias.
+ *
+ * Uso: java -cp bin Pruebas.PruebaDosFases
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PruebaDosFases {
+
+    private static final double SALDO_INICIAL = 1000;
+
+    private static File archivoDosFases;
+
+    /**
+     * Método principal de la prueba.
+     */
+    public static void main(String[] args) throws Exception {
+        // Antes de usar la persistencia: los archivos del nodo van en una carpeta temporal
+        File carpeta = Files.createTempDirectory("banco-dos-fases").toFile();
+        File archivo = new File(carpeta, "Transacciones.txt");
+        System.setProperty(PersistenciaBancaria.PROPIEDAD_ARCHIVO, archivo.getPath());
+        archivoDosFases = new File(archivo.getPath() + ".dosfases");
+
+        // Pasos a medias de una ejecución anterior que se cayó: ninguno llegó al archivo de transacciones
+        Files.write(archivoDosFases.toPath(), ("900;RETIRANDO;1;102.0\n" + "901;DEPOSITANDO;1;30.0\n")
+            .getBytes(StandardCharsets.UTF_8));
+
+        try {
+            probarAbortoAntesDePreparar();
+            probarDevolucionExacta();
+            probarConfirmacionUnica();
+            probarPasosAMedias();
+            probarReinicio();
+        } finally {
+            for (File f : carpeta.listFiles()) {
+                f.delete();
+            }
+            carpeta.delete();
+        }
+        System.out.println("✓ PruebaDosFases: todos los casos pasaron.");
+    }
+
+    private static void probarAbortoAntesDePreparar() throws IOException {
+        try (NodoBanco nodo = nodoConCuenta(2)) {
+            ok(nodo.atender("ABORTAR_RETIRO;10;2;100"), "Abortar una transacción desconocida");
+            String respuesta = nodo.atender("PREPARAR_RETIRO;10;2;100");
+            Verificar.verdadero(respuesta.startsWith("ERROR;INVALIDA;"),
+                                "La preparación después del aborto debe rechazarse: " + respuesta);
+            Verificar.igual(SALDO_INICIAL, saldo(nodo, 2), "El saldo no cambia con la preparación rechazada");
+            ok(nodo.atender("ABORTAR_RETIRO;10;2;100"), "Repetir el aborto");
+            Verificar.igual(SALDO_INICIAL, saldo(nodo, 2), "El aborto repetido no devuelve nada");
+
+            // Preparada y sin decidir: el aborto llega después de reiniciar (ver probarReinicio)
+            ok(nodo.atender("PREPARAR_RETIRO;14;2;100"), "Preparar un retiro que se abortará al reiniciar");
+            Verificar.igual(SALDO_INICIAL - 102, saldo(nodo, 2), "Retiro preparado con la comisión de 2");
+        }
+    }
+
+    private static void probarDevolucionExacta() throws IOException {
+        try (NodoBanco nodo = nodoConCuenta(3)) {
+            ok(nodo.atender("PREPARAR_RETIRO;11;3;100"), "Preparar el retiro");
+            Verificar.igual(SALDO_INICIAL - 102, saldo(nodo, 3), "El retiro cobra la comisión de 2");
+
+            // La comisión cambia antes del aborto: se devuelve lo que se cobró, no la comisión nueva
+            CuentaBancaria cuenta = nodo.getControlador().buscarCuentaPorNumero(3);
+            cuenta.setPolitica(cuenta.getPolitica().conComisionRetiro(10));
+            ok(nodo.atender("ABORTAR_RETIRO;11;3;100"), "Abortar el retiro");
+            Verificar.igual(SALDO_INICIAL, saldo(nodo, 3), "El aborto devuelve el monto y la comisión cobrada");
+            ok(nodo.atender("ABORTAR_RETIRO;11;3;100"), "Repetir el aborto");
+            Verificar.igual(SALDO_INICIAL, saldo(nodo, 3), "El aborto repetido no devuelve otra vez");
+
+            ok(nodo.atender("PREPARAR_RETIRO;12;3;50"), "Preparar otro retiro");
+            ok(nodo.atender("PREPARAR_RETIRO;12;3;50"), "Repetir la preparación");
+            Verificar.igual(SALDO_INICIAL - 60, saldo(nodo, 3), "La preparación repetida no retira otra vez");
+
+            String respuesta = nodo.atender("PREPARAR_RETIRO;13;3;1000000");
+            Verificar.verdadero(respuesta.startsWith("ERROR;"), "Un retiro sin saldo vota en contra: " + respuesta);
+            ok(nodo.atender("ABORTAR_RETIRO;13;3;1000000"), "Abortar el voto en contra");
+            Verificar.igual(SALDO_INICIAL - 60, saldo(nodo, 3), "Abortar un voto en contra no devuelve nada");
+        }
+    }
+
+    private static void probarConfirmacionUnica() throws IOException {
+        try (NodoBanco nodo = nodoConCuenta(4)) {
+            ok(nodo.atender("PREPARAR_DEPOSITO;20;4;40"), "Preparar el depósito");
+            Verificar.igual(SALDO_INICIAL, saldo(nodo, 4), "Preparar el depósito no cambia el saldo");
+            ok(nodo.atender("CONFIRMAR_DEPOSITO;20;4;40"), "Confirmar el depósito");
+            ok(nodo.atender("CONFIRMAR_DEPOSITO;20;4;40"), "Repetir la confirmación");
+            Verificar.igual(SALDO_INICIAL + 40, saldo(nodo, 4), "El depósito se aplica una sola vez");
+            String respuesta = nodo.atender("ABORTAR_RETIRO;20;4;40");
+            Verificar.verdadero(respuesta.startsWith("ERROR;INVALIDA;"),
+                                "Un depósito confirmado no se aborta como retiro: " + respuesta);
+            ok(nodo.atender("PREPARAR_DEPOSITO;21;4;25"), "Preparar un depósito que se confirmará al reiniciar");
+        }
+    }
+
+    private static void probarPasosAMedias() throws IOException {
+        try (NodoBanco nodo = nodoConCuenta(1)) {
+            // 900 quedó en RETIRANDO sin retiro en el archivo: el nodo nunca votó a favor
+            ok(nodo.atender("ABORTAR_RETIRO;900;1;100"), "Abortar la preparación a medias");
+            Verificar.igual(SALDO_INICIAL, saldo(nodo, 1), "Sin retiro aplicado no hay nada que devolver");
+            Verificar.verdadero(nodo.atender("PREPARAR_RETIRO;900;1;100").startsWith("ERROR;INVALIDA;"),
+                                "La transacción a medias queda abortada");
+
+            // 901 quedó en DEPOSITANDO sin depósito en el archivo: la confirmación lo aplica
+            ok(nodo.atender("CONFIRMAR_DEPOSITO;901;1;30"), "Confirmar el depósito a medias");
+            ok(nodo.atender("CONFIRMAR_DEPOSITO;901;1;30"), "Repetir la confirmación");
+            Verificar.igual(SALDO_INICIAL + 30, saldo(nodo, 1), "El depósito a medias se aplica una vez");
+        }
+    }
+
+    private static void probarReinicio() throws IOException {
+        // Un nodo nuevo recupera las cuentas y el registro de los anteriores, sin registrar nada
+        try (NodoBanco nodo = new NodoBanco(0, 1, 0)) {
+            Verificar.igual(4, nodo.getControlador().getCantidadCuentas(), "Cuentas recuperadas");
+            Verificar.igual(SALDO_INICIAL + 30, saldo(nodo, 1), "Saldo de la cuenta 1 antes de reiniciar");
+            Verificar.igual(SALDO_INICIAL - 102, saldo(nodo, 2), "Saldo de la cuenta 2 antes de reiniciar");
+            Verificar.igual(SALDO_INICIAL - 60, saldo(nodo, 3), "Saldo de la cuenta 3 antes de reiniciar");
+            Verificar.igual(SALDO_INICIAL + 40, saldo(nodo, 4), "Saldo de la cuenta 4 antes de reiniciar");
+
+            ok(nodo.atender("CONFIRMAR_DEPOSITO;20;4;40"), "Confirmación repetida después de reiniciar");
+            ok(nodo.atender("ABORTAR_RETIRO;11;3;100"), "Aborto repetido después de reiniciar");
+            Verificar.igual(SALDO_INICIAL + 40, saldo(nodo, 4), "La confirmación no se repite después de reiniciar");
+            Verificar.igual(SALDO_INICIAL - 60, saldo(nodo, 3), "El aborto no se repite después de reiniciar");
+            Verificar.verdadero(nodo.atender("PREPARAR_RETIRO;10;2;100").startsWith("ERROR;INVALIDA;"),
+                                "La transacción abortada sigue abortada después de reiniciar");
+
+            // Decisiones que llegan después de reiniciar
+            ok(nodo.atender("ABORTAR_RETIRO;14;2;100"), "Abortar después de reiniciar el retiro preparado antes");
+            Verificar.igual(SALDO_INICIAL, saldo(nodo, 2), "El aborto devuelve lo debitado antes de reiniciar");
+            ok(nodo.atender("CONFIRMAR_DEPOSITO;21;4;25"), "Confirmar después de reiniciar el depósito preparado antes");
+            Verificar.igual(SALDO_INICIAL + 65, saldo(nodo, 4), "La confirmación se aplica sobre el saldo recuperado");
+        }
+        String registro = new String(Files.readAllBytes(archivoDosFases.toPath()), StandardCharsets.UTF_8);
+        Verificar.verdadero(registro.contains("11;ABORTADO;3;102.0"),
+                            "El registro guarda lo devuelto en el aborto: " + registro);
+    }
+
+    /**
+     * Nodo único del clúster (con las cuentas de los casos anteriores) al que
+     * se le registra una cuenta corriente nueva (comisión 2, sin sobregiro).
+     */
+    private static NodoBanco nodoConCuenta(int numeroCuenta) throws IOException {
+        NodoBanco nodo = new NodoBanco(0, 1, 0);
+        ok(nodo.atender("CORRIENTE;Cliente;" + SALDO_INICIAL + ";" + numeroCuenta + ";2;0;1"), "Crear la cuenta");
+        return nodo;
+    }
+
+    private static double saldo(NodoBanco nodo, int numeroCuenta) {
+        return nodo.getControlador().buscarCuentaPorNumero(numeroCuenta).getSaldo();
+    }
+
+    private static void ok(String respuesta, String paso) {
+        Verificar.verdadero(respuesta.startsWith("OK;"), paso + ": " + respuesta);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,228 @@
+package Pruebas;
+
+import Controller.EnrutadorBanco;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Prueba la coordinación de transferencias de EnrutadorBanco contra nodos
+ * simulados, que responden lo que cada caso necesita:
+ * - Un mensaje de la segunda fase que el nodo rechaza no se descarta: queda
+ *   pendiente, se avisa una sola vez y se entrega cuando el nodo lo acepta.
+ * - Si el enrutador se cae en medio de una transferencia, su archivo de
+ *   pendientes ya tiene la transacción: antes del voto del origen, con el
+ *   aborto presunto; antes de la segunda fase, con la confirmación. Un
+ *   enrutador nuevo con ese archivo aborta o vuelve a confirmar.
+ *
+ * Uso: java -cp bin Pruebas.PruebaEnrutador
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PruebaEnrutador {
+
+    private static final long ESPERA_MILLIS = 10_000;
+
+    /**
+     * Nodo falso: anota cada línea recibida y contesta con la función dada.
+     */
+    private static final class NodoSimulado implements AutoCloseable {
+        private final ServerSocket servidor;
+        private final List<String> recibidas = Collections.synchronizedList(new ArrayList<>());
+        private volatile Function<String, String> respuesta = linea -> "OK;100.0";
+
+        NodoSimulado() throws IOException {
+            servidor = new ServerSocket(0, 16, InetAddress.getLoopbackAddress());
+            Thread aceptador = new Thread(() -> {
+                while (!servidor.isClosed()) {
+                    try {
+                        Socket socket = servidor.accept();
+                        Thread conexion = new Thread(() -> atender(socket));
+                        conexion.setDaemon(true);
+                        conexion.start();
+                    } catch (IOException e) {
+                        // Servidor cerrado
+                    }
+                }
+            });
+            aceptador.setDaemon(true);
+            aceptador.start();
+        }
+
+        private void atender(Socket socket) {
+            try (Socket s = socket;
+                 BufferedReader entrada = new BufferedReader(
+                     new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+                 BufferedWriter salida = new BufferedWriter(
+                     new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = entrada.readLine()) != null) {
+                    recibidas.add(linea);
+                    salida.write(respuesta.apply(linea));
+                    salida.newLine();
+                    salida.flush();
+                }
+            } catch (IOException e) {
+                // Conexión cerrada
+            }
+        }
+
+        /**
+         * Líneas recibidas que empiezan con el prefijo dado.
+         */
+        int contar(String prefijo) {
+            synchronized (recibidas) {
+                return (int) recibidas.stream().filter(linea -> linea.startsWith(prefijo)).count();
+            }
+        }
+
+        String primera(String prefijo) {
+            synchronized (recibidas) {
+                return recibidas.stream().filter(linea -> linea.startsWith(prefijo)).findFirst().orElse("");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            servidor.close();
+        }
+    }
+
+    /**
+     * Método principal de la prueba.
+     */
+    public static void main(String[] args) throws Exception {
+        probarRechazoSegundaFase();
+        probarCaidaDelCoordinador();
+        System.out.println("✓ PruebaEnrutador: todos los casos pasaron.");
+    }
+
+    private static void probarRechazoSegundaFase() throws Exception {
+        try (NodoSimulado origen = new NodoSimulado(); NodoSimulado destino = new NodoSimulado()) {
+            destino.respuesta = linea -> linea.startsWith("CONFIRMAR_DEPOSITO;")
+                ? "ERROR;INVALIDA;Cuenta no encontrada" : "OK;100.0";
+            try (EnrutadorBanco enrutador = new EnrutadorBanco(
+                     EnrutadorBanco.direccionesLocales(origen.servidor.getLocalPort(),
+                                                       destino.servidor.getLocalPort()))) {
+                enrutador.realizarTransferencia(cuentaDe(0), cuentaDe(1), 10);
+                Verificar.igual(1, enrutador.getMensajesPendientes(), "La confirmación rechazada queda pendiente");
+                Verificar.igual(1L, enrutador.getRechazosSegundaFase(), "El rechazo se avisa");
+
+                Verificar.igual(1, enrutador.reintentarPendientes(), "Rechazada otra vez, sigue pendiente");
+                Verificar.igual(1L, enrutador.getRechazosSegundaFase(), "El mismo rechazo se avisa una sola vez");
+
+                destino.respuesta = linea -> "OK;110.0";
+                Verificar.igual(0, enrutador.reintentarPendientes(), "Cuando el nodo la acepta, se entrega");
+                // El reintento de fondo también pudo enviarla
+                Verificar.verdadero(destino.contar("CONFIRMAR_DEPOSITO;") >= 3, "Confirmación enviada hasta que llegó");
+                Verificar.igual(0, origen.contar("ABORTAR_RETIRO;"), "La transferencia decidida no se aborta");
+            }
+        }
+    }
+
+    private static void probarCaidaDelCoordinador() throws Exception {
+        File carpeta = Files.createTempDirectory("banco-enrutador").toFile();
+        File archivo = new File(carpeta, "pendientes.txt");
+        File antesDelVoto = new File(carpeta, "antes-del-voto.txt");
+        File antesDeConfirmar = new File(carpeta, "antes-de-confirmar.txt");
+        try (NodoSimulado origen = new NodoSimulado(); NodoSimulado destino = new NodoSimulado()) {
+            // Mientras cada nodo atiende su paso se copia el archivo: es lo que dejaría un enrutador caído ahí
+            origen.respuesta = linea -> {
+                if (linea.startsWith("PREPARAR_RETIRO;")) {
+                    copiar(archivo, antesDelVoto);
+                }
+                return "OK;90.0";
+            };
+            destino.respuesta = linea -> {
+                if (linea.startsWith("CONFIRMAR_DEPOSITO;")) {
+                    copiar(archivo, antesDeConfirmar);
+                }
+                return "OK;110.0";
+            };
+            List<InetSocketAddress> direcciones = EnrutadorBanco.direccionesLocales(
+                origen.servidor.getLocalPort(), destino.servidor.getLocalPort());
+            try (EnrutadorBanco enrutador = new EnrutadorBanco(direcciones, archivo)) {
+                enrutador.realizarTransferencia(cuentaDe(0), cuentaDe(1), 10);
+            }
+            String tx = origen.primera("PREPARAR_RETIRO;").split(";")[1];
+            String voto = leer(antesDelVoto);
+            Verificar.verdadero(voto.contains("ABORTAR_RETIRO;" + tx + ";"),
+                                "Antes del voto del origen la transacción está en el archivo: " + voto);
+            String decision = leer(antesDeConfirmar);
+            Verificar.verdadero(decision.contains("CONFIRMAR_DEPOSITO;" + tx + ";") && !decision.contains("ABORTAR"),
+                                "Antes de la segunda fase la decisión está en el archivo: " + decision);
+            Verificar.igual("", leer(archivo).trim(), "Al cerrar sin pendientes el archivo queda vacío");
+
+            // Caído antes de decidir: el enrutador nuevo aborta en el origen. Los
+            // reenvíos no tienen efecto doble: un mensaje puede llegar más de una vez
+            origen.respuesta = linea -> "OK;100.0";
+            destino.respuesta = linea -> "OK;100.0";
+            try (EnrutadorBanco reiniciado = new EnrutadorBanco(direcciones, antesDelVoto)) {
+                esperarEntregas(reiniciado);
+            }
+            int abortos = origen.contar("ABORTAR_RETIRO;" + tx + ";");
+            Verificar.verdadero(abortos >= 1, "La transacción sin decisión se aborta");
+            Verificar.igual(1, destino.contar("CONFIRMAR_DEPOSITO;" + tx + ";"), "Y no se confirma");
+
+            // Caído después de decidir: el enrutador nuevo vuelve a confirmar
+            try (EnrutadorBanco reiniciado = new EnrutadorBanco(direcciones, antesDeConfirmar)) {
+                esperarEntregas(reiniciado);
+            }
+            Verificar.verdadero(destino.contar("CONFIRMAR_DEPOSITO;" + tx + ";") >= 2, "La confirmación se reenvía");
+            Verificar.igual(abortos, origen.contar("ABORTAR_RETIRO;" + tx + ";"),
+                            "La transacción confirmada no se aborta");
+        } finally {
+            for (File f : carpeta.listFiles()) {
+                f.delete();
+            }
+            carpeta.delete();
+        }
+    }
+
+    private static void esperarEntregas(EnrutadorBanco enrutador) throws InterruptedException {
+        long limite = System.currentTimeMillis() + ESPERA_MILLIS;
+        while (enrutador.reintentarPendientes() > 0 && System.currentTimeMillis() < limite) {
+            Thread.sleep(50);
+        }
+        Verificar.igual(0, enrutador.getMensajesPendientes(), "Los pendientes del archivo se entregan");
+    }
+
+    private static void copiar(File origen, File destino) {
+        try {
+            Files.copy(origen.toPath(), destino.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String leer(File archivo) throws IOException {
+        return new String(Files.readAllBytes(archivo.toPath()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Primera cuenta (desde 1) que pertenece al nodo dado, en un clúster de dos.
+     */
+    private static int cuentaDe(int nodo) {
+        int numero = 1;
+        while (EnrutadorBanco.particionDe(numero, 2) != nodo) {
+            numero++;
+        }
+        return numero;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,144 @@
+package Pruebas;
+
+import Model.CodificadorTransacciones;
+import Model.CuentaAhorros;
+import Model.EscanerParalelo;
+import Model.ReproductorRegistro;
+import Model.Transaccion;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prueba EscanerParalelo sobre un archivo de más de un fragmento:
+ * - Las cuentas con número negativo (y los extremos de int) se encuentran al
+ *   buscarlas, al recorrer todo el archivo y al leer un rango.
+ * - Las líneas que parecen registros pero no se pueden interpretar se cuentan
+ *   y no se entregan; los encabezados no cuentan como rechazados.
+ * - ReproductorRegistro restaura también las cuentas negativas.
+ *
+ * Uso: java -cp bin Pruebas.PruebaEscaner
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PruebaEscaner {
+
+    private static final int[] CUENTAS = { 5, -5, 12345, -12345, Integer.MAX_VALUE, Integer.MIN_VALUE + 1 };
+    private static final int REGISTROS = 300_000; // Unos 30 MB: varios fragmentos
+    private static final long FECHA_INICIAL = 1_700_000_000_000L;
+    private static final String[] LINEAS_INVALIDAS = {
+        "2024-01-01 00:00:00 | Cuenta: 5 | DEPOSITO | Monto: $x | Saldo Final: $1.00",
+        "2024-01-01 00:00:00 | Cuenta: -5 | DEPOSITO",
+        "2024-01-01 00:00:00 | Cuenta: 99999999999 | DEPOSITO | Monto: $1.00 | Saldo Final: $1.00",
+        "2024-01-01 00:00:00 | Cuenta: - | DEPOSITO | Monto: $1.00 | Saldo Final: $1.00",
+        "2024-01-01 00:00:00 | Cta: 5 | DEPOSITO | Monto: $1.00 | Saldo Final: $1.00",
+    };
+
+    private static File archivo;
+    private static final Map<Integer, List<Double>> saldos = new HashMap<>();
+
+    /**
+     * Método principal de la prueba.
+     */
+    public static void main(String[] args) throws Exception {
+        archivo = File.createTempFile("banco-escaner", ".txt");
+        EscanerParalelo escaner = new EscanerParalelo(archivo, 3);
+        try {
+            generarArchivo();
+            probarBusqueda(escaner);
+            probarTodas(escaner);
+            probarRango(escaner);
+            probarReproduccion(escaner);
+        } finally {
+            archivo.delete();
+        }
+        System.out.println("✓ PruebaEscaner: todos los casos pasaron.");
+    }
+
+    /**
+     * Escribe un encabezado, los registros de las cuentas (en turno) y, cada
+     * tanto, una línea inválida.
+     */
+    private static void generarArchivo() throws IOException {
+        CodificadorTransacciones codificador = new CodificadorTransacciones(ZoneOffset.UTC);
+        try (OutputStream salida = new BufferedOutputStream(new FileOutputStream(archivo))) {
+            salida.write("=== REGISTRO DE TRANSACCIONES ===\n\n".getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < REGISTROS; i++) {
+                int cuenta = CUENTAS[i % CUENTAS.length];
+                double saldo = i / 100.0;
+                saldos.computeIfAbsent(cuenta, c -> new ArrayList<>()).add(saldo);
+                int longitud = codificador.codificar(FECHA_INICIAL + i * 1000L, cuenta, "DEPOSITO", 1, saldo);
+                salida.write(codificador.getBuffer(), 0, longitud);
+                if (i % (REGISTROS / LINEAS_INVALIDAS.length) == 0) {
+                    String invalida = LINEAS_INVALIDAS[i / (REGISTROS / LINEAS_INVALIDAS.length)];
+                    salida.write((invalida + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    private static void probarBusqueda(EscanerParalelo escaner) throws IOException {
+        for (int cuenta : CUENTAS) {
+            List<Transaccion> encontradas = escaner.escanear(cuenta, Long.MAX_VALUE);
+            List<Double> esperados = saldos.get(cuenta);
+            Verificar.igual(esperados.size(), encontradas.size(), "Registros de la cuenta " + cuenta);
+            for (int i = 0; i < esperados.size(); i++) {
+                Verificar.igual(cuenta, encontradas.get(i).getNumeroCuenta(), "Cuenta del registro");
+                Verificar.igual(esperados.get(i).doubleValue(), encontradas.get(i).getSaldoFinal(),
+                                "Registro " + i + " de la cuenta " + cuenta + " en orden");
+            }
+        }
+        Verificar.igual(0, escaner.escanear(-6, Long.MAX_VALUE).size(), "Una cuenta sin registros");
+    }
+
+    private static void probarTodas(EscanerParalelo escaner) throws IOException {
+        Map<Integer, Integer> porCuenta = new HashMap<>();
+        escaner.recorrer(EscanerParalelo.TODAS_LAS_CUENTAS, Long.MAX_VALUE,
+                         t -> porCuenta.merge(t.getNumeroCuenta(), 1, Integer::sum));
+        Verificar.igual(CUENTAS.length, porCuenta.size(), "Cuentas distintas en el archivo");
+        for (int cuenta : CUENTAS) {
+            Verificar.igual(saldos.get(cuenta).size(), porCuenta.get(cuenta).intValue(),
+                            "Registros de la cuenta " + cuenta);
+        }
+        Verificar.igual((long) LINEAS_INVALIDAS.length, escaner.getLineasRechazadasUltimoRecorrido(),
+                        "Líneas rechazadas (sin contar el encabezado)");
+        System.out.printf("Recorrido completo: %,d bytes a %.3f GB/s con %d hilos%n",
+                          escaner.getBytesUltimoRecorrido(), escaner.getGigabytesPorSegundo(), escaner.getHilos());
+    }
+
+    private static void probarRango(EscanerParalelo escaner) throws IOException {
+        // Posiciones de los registros de -5 y, desde la mitad del archivo, los siguientes
+        List<Long> posiciones = new ArrayList<>();
+        escaner.recorrerConPosiciones(-5, Long.MAX_VALUE, (t, posicion) -> posiciones.add(posicion));
+        int mitad = posiciones.size() / 2;
+        List<Double> leidos = new ArrayList<>();
+        escaner.recorrerRango(-5, posiciones.get(mitad), archivo.length(),
+                              (t, posicion) -> leidos.add(t.getSaldoFinal()));
+        List<Double> esperados = saldos.get(-5);
+        Verificar.igual(esperados.subList(mitad, esperados.size()), leidos, "Registros de -5 desde la mitad");
+    }
+
+    private static void probarReproduccion(EscanerParalelo escaner) throws IOException {
+        Map<Integer, CuentaAhorros> cuentas = new HashMap<>();
+        for (int cuenta : CUENTAS) {
+            cuentas.put(cuenta, new CuentaAhorros("Cliente", 0, cuenta, 0, "Mensual", 10));
+        }
+        ReproductorRegistro.Resultado resultado =
+            new ReproductorRegistro(2).reproducir(escaner, cuentas, Long.MAX_VALUE, null);
+        Verificar.igual(CUENTAS.length, resultado.getCuentasRestauradas(), "Cuentas restauradas");
+        for (int cuenta : CUENTAS) {
+            List<Double> esperados = saldos.get(cuenta);
+            Verificar.igual(esperados.get(esperados.size() - 1).doubleValue(), cuentas.get(cuenta).getSaldo(),
+                            "Saldo restaurado de la cuenta " + cuenta);
+        }
+    }
+}
\ No newline at end of file
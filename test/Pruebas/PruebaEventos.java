@@ -0,0 +1,157 @@
+package Pruebas;
+
+import Controller.ControladorBancario;
+import Controller.InstantaneaCuentas;
+import Controller.PoliticaDesborde;
+import Controller.PublicadorEventos;
+import Model.CuentaAhorros;
+import Model.EventoTransaccion;
+import Model.PersistenciaBancaria;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prueba la política BLOQUEAR de las suscripciones a eventos:
+ * - Con la cola llena, la operación espera sin retener los bloqueos: se
+ *   puede crear una instantánea mientras tanto.
+ * - Cerrar la suscripción libera a la operación que esperaba, aunque el
+ *   suscriptor siga detenido.
+ * - Con varios hilos depositando, no se pierde ningún evento y los de la
+ *   cuenta llegan en el orden del archivo.
+ *
+ * Uso: java -cp bin Pruebas.PruebaEventos
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PruebaEventos {
+
+    private static final long ESPERA_SEGUNDOS = 10;
+    private static final int HILOS = 4;
+    private static final int DEPOSITOS_POR_HILO = 2000;
+
+    /**
+     * Método principal de la prueba.
+     */
+    public static void main(String[] args) throws Exception {
+        // Antes de usar la persistencia: el archivo de la prueba va en una carpeta temporal
+        File carpeta = Files.createTempDirectory("banco-eventos").toFile();
+        File archivo = new File(carpeta, "Transacciones.txt");
+        System.setProperty(PersistenciaBancaria.PROPIEDAD_ARCHIVO, archivo.getPath());
+        try {
+            probarSuscriptorDetenido();
+            probarOrdenSinPerdidas();
+        } finally {
+            PersistenciaBancaria.cerrarArchivo();
+            archivo.delete();
+            carpeta.delete();
+        }
+        System.out.println("✓ PruebaEventos: todos los casos pasaron.");
+    }
+
+    private static void probarSuscriptorDetenido() throws Exception {
+        ControladorBancario controlador = new ControladorBancario();
+        controlador.registrarCuenta(cuenta(1));
+
+        // El suscriptor se queda en el primer lote e ignora las interrupciones
+        CountDownLatch recibio = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        PublicadorEventos.Suscripcion suscripcion = controlador.suscribir("detenido", eventos -> {
+            recibio.countDown();
+            while (liberar.getCount() > 0) {
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    // Sigue detenido
+                }
+            }
+        }, 1, 1, PoliticaDesborde.BLOQUEAR);
+        try {
+            controlador.realizarDeposito(1, 10);
+            Verificar.verdadero(recibio.await(ESPERA_SEGUNDOS, TimeUnit.SECONDS), "El suscriptor recibe el primer lote");
+            controlador.realizarDeposito(1, 10); // Llena la cola
+
+            Thread deposito = iniciar(() -> controlador.realizarDeposito(1, 10));
+            Thread.sleep(200);
+            Verificar.verdadero(deposito.isAlive(), "Con la cola llena el depósito espera");
+
+            Thread instantanea = iniciar(() -> {
+                try (InstantaneaCuentas vista = controlador.crearInstantanea()) {
+                    vista.recorrer(cuenta -> { });
+                }
+            });
+            instantanea.join(TimeUnit.SECONDS.toMillis(ESPERA_SEGUNDOS));
+            Verificar.verdadero(!instantanea.isAlive(), "La instantánea no espera al suscriptor detenido");
+
+            suscripcion.close();
+            deposito.join(TimeUnit.SECONDS.toMillis(ESPERA_SEGUNDOS));
+            Verificar.verdadero(!deposito.isAlive(), "Cerrar la suscripción libera al depósito que esperaba");
+            Verificar.igual(1030.0, controlador.buscarCuentaPorNumero(1).getSaldo(), "Los tres depósitos se aplicaron");
+            Verificar.igual(0, suscripcion.getPendientes(), "La cola cerrada queda vacía");
+        } finally {
+            liberar.countDown();
+        }
+    }
+
+    private static void probarOrdenSinPerdidas() throws Exception {
+        ControladorBancario controlador = new ControladorBancario();
+        controlador.registrarCuenta(cuenta(2));
+        List<Double> saldos = new ArrayList<>();
+        CountDownLatch completos = new CountDownLatch(HILOS * DEPOSITOS_POR_HILO);
+        try (PublicadorEventos.Suscripcion suscripcion = controlador.suscribir("lento", eventos -> {
+                for (EventoTransaccion evento : eventos) {
+                    saldos.add(evento.getSaldoFinal());
+                    completos.countDown();
+                }
+                Thread.yield();
+            }, 4, 2, PoliticaDesborde.BLOQUEAR)) {
+            Thread[] hilos = new Thread[HILOS];
+            for (int h = 0; h < HILOS; h++) {
+                hilos[h] = iniciar(() -> {
+                    for (int i = 0; i < DEPOSITOS_POR_HILO; i++) {
+                        controlador.realizarDeposito(2, 1);
+                    }
+                });
+            }
+            for (Thread hilo : hilos) {
+                hilo.join(TimeUnit.SECONDS.toMillis(ESPERA_SEGUNDOS * 6));
+                Verificar.verdadero(!hilo.isAlive(), "Los depósitos terminan");
+            }
+            Verificar.verdadero(completos.await(ESPERA_SEGUNDOS, TimeUnit.SECONDS), "Llegan todos los eventos");
+            Verificar.igual(0L, suscripcion.getDescartados(), "BLOQUEAR no descarta eventos");
+        }
+        // Cada depósito suma 1: en el orden del archivo los saldos suben de a 1
+        for (int i = 0; i < saldos.size(); i++) {
+            Verificar.igual(1001.0 + i, saldos.get(i).doubleValue(), "Evento " + i + " en orden");
+        }
+    }
+
+    private interface Operacion {
+        void ejecutar() throws Exception;
+    }
+
+    /**
+     * Ejecuta una operación en un hilo nuevo; si falla, la prueba falla al
+     * comprobar el resultado.
+     */
+    private static Thread iniciar(Operacion operacion) {
+        Thread hilo = new Thread(() -> {
+            try {
+                operacion.ejecutar();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        hilo.setDaemon(true);
+        hilo.start();
+        return hilo;
+    }
+
+    private static CuentaAhorros cuenta(int numero) {
+        return new CuentaAhorros("Cliente " + numero, 1000, numero, 0, "Mensual", Integer.MAX_VALUE);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package Pruebas;
+
+import Controller.ControladorBancario;
+import Controller.InstantaneaCuentas;
+import Model.CuentaAhorros;
+import Model.PersistenciaBancaria;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prueba que las instantáneas de cuentas sean consistentes bajo escrituras, y
+ * mide cuánto se frenan las escrituras mientras se toman.
+ *
+ * Varios hilos hacen transferencias entre cuentas al azar (el dinero total no
+ * cambia). Primero se mide sin instantáneas y luego con un hilo que toma una
+ * instantánea tras otra y suma todos los saldos: la suma de cada instantánea
+ * debe ser el total inicial, y también la de las cuentas al terminar.
+ *
+ * Uso: java -cp bin Pruebas.PruebaInstantaneas [opciones]
+ *   --cuentas N    Cuentas a crear (2000)
+ *   --hilos N      Hilos que escriben (4)
+ *   --duracion S   Segundos de cada fase (2)
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PruebaInstantaneas {
+
+    private static final double SALDO_INICIAL = 1000;
+
+    private int cantidadCuentas = 2000;
+    private int hilos = 4;
+    private int duracionSegundos = 2;
+
+    /**
+     * Método principal de la prueba.
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        PruebaInstantaneas prueba = new PruebaInstantaneas();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--cuentas": prueba.cantidadCuentas = Integer.parseInt(args[i + 1]); break;
+                case "--hilos": prueba.hilos = Integer.parseInt(args[i + 1]); break;
+                case "--duracion": prueba.duracionSegundos = Integer.parseInt(args[i + 1]); break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+
+        // Antes de usar la persistencia: el archivo de la prueba va en una carpeta temporal
+        File carpeta = Files.createTempDirectory("banco-instantaneas").toFile();
+        File archivo = new File(carpeta, "Transacciones.txt");
+        System.setProperty(PersistenciaBancaria.PROPIEDAD_ARCHIVO, archivo.getPath());
+        try {
+            prueba.ejecutar();
+        } finally {
+            PersistenciaBancaria.cerrarArchivo();
+            archivo.delete();
+            carpeta.delete();
+        }
+        System.out.println("✓ PruebaInstantaneas: todos los casos pasaron.");
+    }
+
+    private void ejecutar() throws InterruptedException {
+        ControladorBancario controlador = new ControladorBancario();
+        for (int i = 0; i < cantidadCuentas; i++) {
+            controlador.registrarCuenta(new CuentaAhorros("Cliente " + i, SALDO_INICIAL, i, 0.0, "Mensual",
+                                                          Integer.MAX_VALUE));
+        }
+        double totalEsperado = SALDO_INICIAL * cantidadCuentas;
+
+        System.out.println("\n========== PRUEBA DE INSTANTÁNEAS ==========");
+        System.out.println("Cuentas: " + cantidadCuentas + " | Hilos: " + hilos +
+                           " | Duración por fase: " + duracionSegundos + " s");
+
+        double sinInstantaneas = medirEscrituras(controlador, null);
+
+        long[] resultados = new long[4]; // instantáneas, nanos, cuentas copiadas, inconsistencias
+        double conInstantaneas = medirEscrituras(controlador, () -> {
+            long inicio = System.nanoTime();
+            double[] suma = new double[1];
+            try (InstantaneaCuentas instantanea = controlador.crearInstantanea()) {
+                instantanea.recorrer(cuenta -> suma[0] += cuenta.getSaldo());
+                resultados[2] += instantanea.getCuentasCopiadas();
+            }
+            resultados[0]++;
+            resultados[1] += System.nanoTime() - inicio;
+            if (Math.abs(suma[0] - totalEsperado) > 0.005) {
+                resultados[3]++;
+            }
+        });
+
+        System.out.printf("Escrituras sin instantáneas: %,.0f op/s%n", sinInstantaneas);
+        System.out.printf("Escrituras con instantáneas: %,.0f op/s (%.1f%% más lento)%n",
+                          conInstantaneas, 100 * (1 - conInstantaneas / sinInstantaneas));
+        if (resultados[0] > 0) {
+            System.out.printf("Instantáneas: %,d | Promedio por recorrido: %.2f ms | Cuentas copiadas por instantánea: %,d%n",
+                              resultados[0], resultados[1] / 1e6 / resultados[0], resultados[2] / resultados[0]);
+        }
+        System.out.println("============================================\n");
+
+        Verificar.verdadero(resultados[0] > 0, "No se tomó ninguna instantánea");
+        Verificar.igual(0L, resultados[3], "Instantáneas cuya suma no es el total inicial");
+        double total = 0;
+        for (int i = 0; i < cantidadCuentas; i++) {
+            total += controlador.buscarCuentaPorNumero(i).getSaldo();
+        }
+        Verificar.verdadero(Math.abs(total - totalEsperado) <= 0.005,
+                            "El dinero total se conserva: se esperaba " + totalEsperado + " y hay " + total);
+    }
+
+    /**
+     * Ejecuta transferencias durante una fase y devuelve las operaciones por segundo.
+     * Si se indica un reporte, otro hilo lo ejecuta sin pausa durante la fase.
+     */
+    private double medirEscrituras(ControladorBancario controlador, Runnable reporte) throws InterruptedException {
+        AtomicBoolean activo = new AtomicBoolean(true);
+        LongAdder operaciones = new LongAdder();
+
+        Thread[] escritores = new Thread[hilos];
+        for (int h = 0; h < hilos; h++) {
+            escritores[h] = new Thread(() -> {
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                while (activo.get()) {
+                    int origen = azar.nextInt(cantidadCuentas);
+                    int destino = azar.nextInt(cantidadCuentas);
+                    if (origen == destino) {
+                        continue;
+                    }
+                    try {
+                        controlador.realizarTransferencia(origen, destino, 1 + azar.nextInt(10));
+                    } catch (Exception e) {
+                        // Saldo insuficiente: la transferencia no se aplica
+                    }
+                    operaciones.increment();
+                }
+            }, "escritor-" + h);
+        }
+        Thread lector = reporte == null ? null : new Thread(() -> {
+            while (activo.get()) {
+                reporte.run();
+            }
+        }, "reporte");
+
+        long inicio = System.nanoTime();
+        for (Thread escritor : escritores) {
+            escritor.start();
+        }
+        if (lector != null) {
+            lector.start();
+        }
+        Thread.sleep(duracionSegundos * 1000L);
+        activo.set(false);
+        for (Thread escritor : escritores) {
+            escritor.join();
+        }
+        if (lector != null) {
+            lector.join();
+        }
+        return operaciones.sum() / ((System.nanoTime() - inicio) / 1e9);
+    }
+}
\ No newline at end of file
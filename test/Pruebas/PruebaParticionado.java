@@ -0,0 +1,205 @@
+package Pruebas;
+
+import Controller.ControladorParticionado;
+import Excepciones.CompensacionFallidaException;
+import Model.CuentaAhorros;
+import Model.CuentaCorriente;
+import Model.PersistenciaBancaria;
+import Model.SaldoDistribuido;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Prueba ControladorParticionado:
+ * - Transferencias cruzadas entre dos particiones con colas de una sola
+ *   operación: terminan todas (sin bloqueo mutuo) y el dinero se conserva.
+ * - Las claves de idempotencia leídas del archivo al crear el controlador
+ *   reconocen los reintentos de operaciones hechas antes de reiniciar.
+ * - Si falla el depósito de una transferencia cruzada, la cuenta origen
+ *   recupera el monto y la comisión; si además falla la devolución, se
+ *   informa con CompensacionFallidaException.
+ *
+ * Uso: java -cp bin Pruebas.PruebaParticionado
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PruebaParticionado {
+
+    private static final int TRANSFERENCIAS_POR_HILO = 5000;
+    private static final int HILOS = 4;
+    private static final double SALDO_INICIAL = 1_000_000;
+    private static final long ESPERA_SEGUNDOS = 60;
+
+    /**
+     * Método principal de la prueba.
+     */
+    public static void main(String[] args) throws Exception {
+        // Antes de usar la persistencia: el archivo de la prueba va en una carpeta temporal
+        File carpeta = Files.createTempDirectory("banco-particionado").toFile();
+        File archivo = new File(carpeta, "Transacciones.txt");
+        System.setProperty(PersistenciaBancaria.PROPIEDAD_ARCHIVO, archivo.getPath());
+        try {
+            probarTransferenciasCruzadas();
+            probarIdempotenciaAlReiniciar();
+            probarCompensacion();
+        } finally {
+            PersistenciaBancaria.cerrarArchivo();
+            archivo.delete();
+            carpeta.delete();
+        }
+        System.out.println("✓ PruebaParticionado: todos los casos pasaron.");
+    }
+
+    private static void probarTransferenciasCruzadas() throws Exception {
+        try (ControladorParticionado controlador = new ControladorParticionado(2, 1)) {
+            int[] cuentas = cuentasEnParticionesDistintas(controlador);
+            for (int numero : cuentas) {
+                controlador.registrarCuenta(cuenta(numero)).get();
+            }
+
+            // Varios hilos transfieren en los dos sentidos a la vez, con las colas siempre llenas
+            List<CompletableFuture<Void>> futuros = new ArrayList<>();
+            Thread[] hilos = new Thread[HILOS];
+            for (int h = 0; h < HILOS; h++) {
+                int origen = cuentas[h % 2];
+                int destino = cuentas[(h + 1) % 2];
+                hilos[h] = new Thread(() -> {
+                    for (int i = 0; i < TRANSFERENCIAS_POR_HILO; i++) {
+                        CompletableFuture<Void> futuro = controlador.realizarTransferencia(origen, destino, 1);
+                        synchronized (futuros) {
+                            futuros.add(futuro);
+                        }
+                    }
+                });
+                hilos[h].start();
+            }
+            for (Thread hilo : hilos) {
+                hilo.join(TimeUnit.SECONDS.toMillis(ESPERA_SEGUNDOS));
+                Verificar.verdadero(!hilo.isAlive(), "Los envíos quedaron bloqueados (bloqueo mutuo entre particiones)");
+            }
+            int fallidas = 0;
+            try {
+                CompletableFuture.allOf(futuros.toArray(new CompletableFuture<?>[0])).get(ESPERA_SEGUNDOS, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                throw new AssertionError("Las transferencias no terminaron (bloqueo mutuo entre particiones)", e);
+            } catch (ExecutionException e) {
+                // Algunas pueden rechazarse por cola llena: se cuentan abajo
+            }
+            for (CompletableFuture<Void> futuro : futuros) {
+                if (futuro.isCompletedExceptionally()) {
+                    fallidas++;
+                }
+            }
+            double total = controlador.consultarSaldo(cuentas[0]).get() + controlador.consultarSaldo(cuentas[1]).get();
+            Verificar.igual(2 * SALDO_INICIAL, total, "El dinero total se conserva");
+            Verificar.verdadero(fallidas < futuros.size(), "Alguna transferencia debe completarse");
+        }
+    }
+
+    private static void probarIdempotenciaAlReiniciar() throws Exception {
+        int numero;
+        double saldoOriginal;
+        try (ControladorParticionado controlador = new ControladorParticionado(4, 16)) {
+            numero = cuentasEnParticionesDistintas(controlador)[1];
+            controlador.registrarCuenta(cuenta(numero)).get();
+            saldoOriginal = controlador.realizarDeposito(numero, 25, 4242L).get();
+        }
+        // Controlador nuevo (como al reiniciar) con la cuenta en su saldo anterior al depósito
+        try (ControladorParticionado controlador = new ControladorParticionado(4, 16)) {
+            controlador.registrarCuenta(cuenta(numero)).get();
+            double saldo = controlador.realizarDeposito(numero, 25, 4242L).get();
+            Verificar.igual(saldoOriginal, saldo, "El reintento devuelve el saldo de la operación original");
+            Verificar.igual(SALDO_INICIAL, controlador.consultarSaldo(numero).get().doubleValue(),
+                            "El reintento no vuelve a depositar");
+        }
+    }
+
+    private static void probarCompensacion() throws Exception {
+        try (ControladorParticionado controlador = new ControladorParticionado(2, 16)) {
+            int[] numeros = cuentasEnParticionesDistintas(controlador);
+            CuentaConFalla origen = new CuentaConFalla(numeros[0]);
+            CuentaConFalla destino = new CuentaConFalla(numeros[1]);
+            controlador.registrarCuenta(origen).get();
+            controlador.registrarCuenta(destino).get();
+
+            // Falla el depósito: se devuelven el monto y la comisión
+            destino.fallar = true;
+            Throwable error = errorDe(controlador.realizarTransferencia(numeros[0], numeros[1], 100));
+            Verificar.verdadero(error instanceof IllegalStateException, "Falla con el error del depósito: " + error);
+            Verificar.igual(1000.0, origen.getSaldo(), "La cuenta origen recupera monto y comisión");
+            Verificar.igual(0L, controlador.getCompensacionesFallidas(), "La devolución no falló");
+
+            // Falla también la devolución: error aparte, con el del depósito suprimido
+            destino.alFallar = origen;
+            error = errorDe(controlador.realizarTransferencia(numeros[0], numeros[1], 100));
+            Verificar.verdadero(error instanceof CompensacionFallidaException, "Falla como compensación fallida: " + error);
+            CompensacionFallidaException compensacion = (CompensacionFallidaException) error;
+            Verificar.igual(numeros[0], compensacion.getNumeroCuenta(), "Cuenta sin devolución");
+            Verificar.igual(102.0, compensacion.getMontoPendiente(), "Monto pendiente con la comisión");
+            Verificar.verdadero(compensacion.getCause().getMessage().contains("Cuenta " + numeros[0]),
+                                "La causa es el error de la devolución: " + compensacion.getCause());
+            Verificar.igual(1, compensacion.getSuppressed().length, "El error del depósito queda suprimido");
+            Verificar.igual(1L, controlador.getCompensacionesFallidas(), "Compensaciones fallidas");
+            Verificar.igual(898.0, origen.getSaldo(), "El débito sin devolver queda en la cuenta origen");
+        }
+    }
+
+    private static Throwable errorDe(CompletableFuture<Void> futuro) throws Exception {
+        try {
+            futuro.get(ESPERA_SEGUNDOS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        throw new AssertionError("La transferencia debía fallar");
+    }
+
+    /**
+     * Cuenta corriente con comisión de $2 que puede simular una falla de su
+     * partición: con "fallar" activo, sus operaciones fallan al empezar, antes
+     * de modificarla (y, si se indica, hace fallar también a otra cuenta).
+     */
+    private static class CuentaConFalla extends CuentaCorriente {
+        private volatile boolean fallar;
+        private volatile CuentaConFalla alFallar;
+
+        CuentaConFalla(int numero) {
+            super("Cliente " + numero, 1000, numero, 2, 0, numero);
+        }
+
+        @Override
+        public SaldoDistribuido getSaldoDistribuido() {
+            if (fallar) {
+                if (alFallar != null) {
+                    alFallar.fallar = true;
+                }
+                throw new IllegalStateException("Cuenta " + getNumeroCuenta() + " no disponible");
+            }
+            return super.getSaldoDistribuido();
+        }
+    }
+
+    /**
+     * Dos números de cuenta, uno en la partición 0 y otro en la 1.
+     */
+    private static int[] cuentasEnParticionesDistintas(ControladorParticionado controlador) {
+        int[] cuentas = { -1, -1 };
+        for (int numero = 1; cuentas[0] < 0 || cuentas[1] < 0; numero++) {
+            int particion = controlador.particionDe(numero);
+            if (particion < 2 && cuentas[particion] < 0) {
+                cuentas[particion] = numero;
+            }
+        }
+        return cuentas;
+    }
+
+    private static CuentaAhorros cuenta(int numero) {
+        return new CuentaAhorros("Cliente " + numero, SALDO_INICIAL, numero, 0, "Mensual", Integer.MAX_VALUE);
+    }
+}
\ No newline at end of file
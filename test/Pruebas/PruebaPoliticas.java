@@ -0,0 +1,134 @@
+package Pruebas;
+
+import Excepciones.OperacionInvalidaException;
+import Excepciones.SaldoInsuficienteException;
+import Model.CuentaAhorros;
+import Model.CuentaBancaria;
+import Model.CuentaCorriente;
+import Model.CuentaEmpresarial;
+import Model.DiccionarioTextos;
+import Model.Periodicidad;
+import Model.PoliticaCuenta;
+import java.lang.ref.WeakReference;
+
+/**
+ * Prueba las excepciones de MotorPoliticas al retirar sin saldo, que deben
+ * ser las mismas que lanzaban las subclases antes de las políticas:
+ * - Cuenta corriente (con o sin límite de sobregiro): OperacionInvalidaException
+ *   encadenada con una SaldoInsuficienteException como causa.
+ * - Cuentas de ahorros y empresarial: SaldoInsuficienteException.
+ * - El retiro rechazado no cambia el saldo.
+ * - Las políticas y los textos compartidos se liberan cuando ninguna cuenta
+ *   los usa.
+ * - La periodicidad acepta cualquier texto, como antes del enum.
+ *
+ * Uso: java -cp bin Pruebas.PruebaPoliticas
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PruebaPoliticas {
+
+    /**
+     * Método principal de la prueba.
+     */
+    public static void main(String[] args) throws Exception {
+        probarCorrienteSinSobregiro();
+        probarCorrienteConSobregiro();
+        probarSinSobregiro();
+        probarPoliticas();
+        probarInstanciasCompartidas();
+        probarPeriodicidadLibre();
+        System.out.println("✓ PruebaPoliticas: todos los casos pasaron.");
+    }
+
+    private static void probarCorrienteSinSobregiro() throws Exception {
+        CuentaCorriente cuenta = new CuentaCorriente("Cliente", 100, 1, 2, 0, 1);
+        Verificar.igual(50.0, cuenta.retirar(50), "Retiro con saldo");
+        Verificar.igual(48.0, cuenta.getSaldo(), "El retiro cobra la comisión");
+
+        // 47 + 2 de comisión deja el saldo en -1: sin sobregiro se rechaza como siempre
+        OperacionInvalidaException e = Verificar.lanza(OperacionInvalidaException.class,
+            () -> cuenta.retirar(47), "Corriente sin sobregiro");
+        Verificar.verdadero(e.getCause() instanceof SaldoInsuficienteException,
+                            "La causa es SaldoInsuficienteException: " + e.getCause());
+        Verificar.verdadero(e.getMessage().contains("límite de sobregiro de $0.0"), e.getMessage());
+        Verificar.igual(48.0, cuenta.getSaldo(), "El retiro rechazado no cambia el saldo");
+
+        Verificar.igual(46.0, cuenta.retirar(46), "Retiro que deja el saldo en 0");
+        Verificar.igual(0.0, cuenta.getSaldo(), "Saldo en 0");
+    }
+
+    private static void probarCorrienteConSobregiro() throws Exception {
+        CuentaCorriente cuenta = new CuentaCorriente("Cliente", 100, 2, 0, 500, 1);
+        cuenta.retirar(600);
+        Verificar.igual(-500.0, cuenta.getSaldo(), "Retiro hasta el límite de sobregiro");
+        Verificar.lanza(OperacionInvalidaException.class, () -> cuenta.retirar(1), "Corriente sobre el límite");
+
+        // Bajar el límite a 0 no cambia el tipo de producto
+        cuenta.setLimiteSobregiro(0);
+        OperacionInvalidaException e = Verificar.lanza(OperacionInvalidaException.class,
+            () -> cuenta.retirar(1), "Corriente con el límite bajado a 0");
+        Verificar.verdadero(e.getCause() instanceof SaldoInsuficienteException,
+                            "La causa es SaldoInsuficienteException: " + e.getCause());
+    }
+
+    private static void probarSinSobregiro() throws Exception {
+        CuentaBancaria ahorros = new CuentaAhorros("Cliente", 100, 3, 0.02, "Mensual", 10);
+        Verificar.lanza(SaldoInsuficienteException.class, () -> ahorros.retirar(101), "Ahorros sin saldo");
+        Verificar.igual(100.0, ahorros.getSaldo(), "El retiro rechazado no cambia el saldo");
+
+        CuentaBancaria empresarial = new CuentaEmpresarial("Empresa", 100, 4, "SAS", 900, 1000);
+        Verificar.lanza(SaldoInsuficienteException.class, () -> empresarial.retirar(101), "Empresarial sin saldo");
+        Verificar.igual(100.0, empresarial.getSaldo(), "El retiro rechazado no cambia el saldo");
+    }
+
+    private static void probarPoliticas() {
+        PoliticaCuenta corriente = PoliticaCuenta.corriente(2, 0);
+        Verificar.verdadero(corriente.admiteSobregiro(), "La corriente admite sobregiro");
+        Verificar.verdadero(corriente.conComisionRetiro(5).admiteSobregiro(),
+                            "Las variantes conservan el tipo de producto");
+        Verificar.verdadero(!PoliticaCuenta.ahorros(0.02, Periodicidad.MENSUAL, 10).admiteSobregiro(),
+                            "Ahorros no admite sobregiro");
+
+        // Un producto con los mismos valores pero sin sobregiro es otra política
+        PoliticaCuenta sinSobregiro = new PoliticaCuenta("CORRIENTE", 2, 0, PoliticaCuenta.SIN_LIMITE_RETIROS,
+                                                         PoliticaCuenta.SIN_LIMITE_DIARIO, 0, Periodicidad.MENSUAL);
+        Verificar.verdadero(!sinSobregiro.admiteSobregiro(), "Límite 0 sin indicarlo: no admite sobregiro");
+        Verificar.verdadero(!sinSobregiro.equals(corriente), "No comparte instancia con la corriente");
+    }
+
+    private static void probarInstanciasCompartidas() throws InterruptedException {
+        CuentaBancaria primera = new CuentaAhorros(new String("Titular único"), 0, 5, 0.0123, "Mensual", 3);
+        CuentaBancaria segunda = new CuentaAhorros(new String("Titular único"), 0, 6, 0.0123, "Mensual", 3);
+        Verificar.verdadero(primera.getPolitica() == segunda.getPolitica(), "Las cuentas iguales comparten la política");
+        Verificar.verdadero(primera.getTitular() == segunda.getTitular(), "Las cuentas comparten el titular");
+
+        // Sin cuentas que las usen, el recolector puede liberar la política y el texto
+        WeakReference<PoliticaCuenta> politica = new WeakReference<>(primera.getPolitica());
+        WeakReference<String> titular = new WeakReference<>(primera.getTitular());
+        int textos = DiccionarioTextos.getTamano();
+        primera = null;
+        segunda = null;
+        for (int i = 0; i < 50 && (politica.get() != null || titular.get() != null); i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        Verificar.verdadero(politica.get() == null, "La política sin cuentas se libera");
+        Verificar.verdadero(titular.get() == null, "El titular sin cuentas se libera");
+        Verificar.verdadero(DiccionarioTextos.getTamano() < textos, "El diccionario descuenta el texto liberado");
+    }
+
+    private static void probarPeriodicidadLibre() {
+        Verificar.igual(Periodicidad.TRIMESTRAL, new CuentaAhorros("Cliente", 0, 7, 0, " trimestral ", 3).getPeriodicidad(),
+                        "Periodicidad sin importar mayúsculas ni espacios");
+        Verificar.igual(Periodicidad.MENSUAL, new CuentaAhorros("Cliente", 0, 8, 0, "Quincenal", 3).getPeriodicidad(),
+                        "Un texto desconocido se toma como mensual");
+        CuentaAhorros sinPeriodicidad = new CuentaAhorros("Cliente", 0, 9, 0, null, 3);
+        Verificar.igual("Mensual", sinPeriodicidad.getPeriodicidadInteres(), "Sin periodicidad se toma como mensual");
+        sinPeriodicidad.setPeriodicidadInteres("Cada tanto");
+        Verificar.igual(Periodicidad.MENSUAL, sinPeriodicidad.getPeriodicidad(), "El cambio también acepta cualquier texto");
+        Verificar.lanza(IllegalArgumentException.class, () -> Periodicidad.desde("Quincenal"),
+                        "desde() sigue validando el texto");
+    }
+}
\ No newline at end of file
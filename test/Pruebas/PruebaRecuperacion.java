@@ -0,0 +1,131 @@
+package Pruebas;
+
+import Model.CodificadorTransacciones;
+import Model.CuentaCorriente;
+import Model.EscanerParalelo;
+import Model.ReproductorRegistro;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Prueba la reproducción del archivo de transacciones al iniciar
+ * (ReproductorRegistro) con distintas cantidades de hilos, y mide su velocidad.
+ *
+ * Genera un archivo temporal con --registros movimientos al azar sobre
+ * --cuentas cuentas, guardando el saldo final esperado de cada una. Para cada
+ * cantidad de hilos (1, 2, 4, ... hasta --hilos) crea cuentas nuevas con saldo
+ * cero, reproduce el archivo con ese número de hilos de lectura y de
+ * aplicadores: todas las cuentas deben terminar con su saldo esperado y se
+ * deben aplicar todos los registros.
+ *
+ * Uso: java -cp bin Pruebas.PruebaRecuperacion [opciones]
+ *   --registros N   Registros del archivo generado (300000, varios fragmentos)
+ *   --cuentas N     Cuentas distintas (20000)
+ *   --hilos N       Máximo de hilos (4, o los procesadores disponibles si son más)
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PruebaRecuperacion {
+
+    private static final long INICIO_REGISTROS = 1_700_000_000_000L;
+
+    private long registros = 300_000;
+    private int cantidadCuentas = 20_000;
+    private int maximoHilos = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Método principal de la prueba.
+     */
+    public static void main(String[] args) throws IOException {
+        PruebaRecuperacion prueba = new PruebaRecuperacion();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--registros": prueba.registros = Long.parseLong(args[i + 1]); break;
+                case "--cuentas": prueba.cantidadCuentas = Integer.parseInt(args[i + 1]); break;
+                case "--hilos": prueba.maximoHilos = Integer.parseInt(args[i + 1]); break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        prueba.ejecutar();
+        System.out.println("✓ PruebaRecuperacion: todos los casos pasaron.");
+    }
+
+    private void ejecutar() throws IOException {
+        File archivo = File.createTempFile("recuperacion", ".txt");
+        try {
+            ejecutar(archivo);
+        } finally {
+            archivo.delete();
+        }
+    }
+
+    private void ejecutar(File archivo) throws IOException {
+        System.out.println("\n========== PRUEBA DE RECUPERACIÓN ==========");
+        System.out.println("Procesadores: " + Runtime.getRuntime().availableProcessors() +
+                           " | Registros: " + String.format("%,d", registros) +
+                           " | Cuentas: " + String.format("%,d", cantidadCuentas));
+
+        long inicio = System.nanoTime();
+        double[] esperados = generar(archivo);
+        System.out.printf("Archivo generado: %,d bytes en %.1f s%n", archivo.length(), (System.nanoTime() - inicio) / 1e9);
+        System.out.printf("%6s %16s %10s %12s%n", "Hilos", "Registros/s", "MB/s", "Diferencias");
+
+        for (int hilos = 1; hilos <= maximoHilos; hilos *= 2) {
+            Map<Integer, CuentaCorriente> cuentas = new HashMap<>();
+            for (int numero = 1; numero <= cantidadCuentas; numero++) {
+                cuentas.put(numero, new CuentaCorriente("Cliente " + numero, 0, numero, 0, 0, numero));
+            }
+            ReproductorRegistro.Resultado resultado = new ReproductorRegistro(hilos)
+                .reproducir(new EscanerParalelo(archivo, hilos), cuentas, archivo.length(), null);
+
+            int diferencias = 0;
+            int primeraDiferencia = 0;
+            for (int numero = 1; numero <= cantidadCuentas; numero++) {
+                if (cuentas.get(numero).getSaldo() != esperados[numero]) {
+                    if (diferencias++ == 0) {
+                        primeraDiferencia = numero;
+                    }
+                }
+            }
+            System.out.printf("%6d %,16.0f %10.1f %,12d%n", hilos, resultado.getRegistrosPorSegundo(),
+                              resultado.getMegabytesPorSegundo(), diferencias);
+            Verificar.igual(registros, resultado.getRegistros(), "Registros aplicados con " + hilos + " hilos");
+            if (diferencias > 0) {
+                throw new AssertionError(diferencias + " cuentas con saldo distinto al del archivo con " + hilos +
+                                         " hilos; la cuenta " + primeraDiferencia + " tiene " +
+                                         cuentas.get(primeraDiferencia).getSaldo() + " y se esperaba " +
+                                         esperados[primeraDiferencia]);
+            }
+        }
+        System.out.println("============================================\n");
+    }
+
+    /**
+     * Escribe el archivo y devuelve el saldo final de cada cuenta (por número).
+     */
+    private double[] generar(File archivo) throws IOException {
+        double[] saldos = new double[cantidadCuentas + 1];
+        CodificadorTransacciones codificador = new CodificadorTransacciones();
+        SplittableRandom azar = new SplittableRandom(42);
+        try (OutputStream salida = new BufferedOutputStream(new FileOutputStream(archivo), 1 << 16)) {
+            for (long i = 0; i < registros; i++) {
+                int numero = 1 + azar.nextInt(cantidadCuentas);
+                // Montos enteros: el saldo se escribe y se lee sin redondeos
+                double monto = 1 + azar.nextInt(500);
+                String tipo = saldos[numero] >= monto && azar.nextBoolean() ? "RETIRO" : "DEPOSITO";
+                saldos[numero] += tipo.equals("RETIRO") ? -monto : monto;
+                int longitud = codificador.codificar(INICIO_REGISTROS + i, numero, tipo, monto, saldos[numero]);
+                salida.write(codificador.getBuffer(), 0, longitud);
+            }
+        }
+        return saldos;
+    }
+}
\ No newline at end of file
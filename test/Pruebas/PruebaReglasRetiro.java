@@ -0,0 +1,270 @@
+package Pruebas;
+
+import Controller.ControladorBancario;
+import Controller.DecisionRegla;
+import Controller.ReglaMontoInusual;
+import Controller.ReglaRetiro;
+import Controller.ReglaVelocidad;
+import Controller.ResultadoOperacion;
+import Excepciones.OperacionInvalidaException;
+import Model.CuentaCorriente;
+import Model.PerfilRetiros;
+import Model.PersistenciaBancaria;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Prueba las reglas de retiro (ReglaRetiro) y mide cuánta latencia agregan a
+ * ControladorBancario.realizarRetiro().
+ *
+ * Primero comprueba las reglas con instantes fijos:
+ * - ReglaVelocidad cuenta los retiros del último minuto y de la última hora, y
+ *   deja de actuar cuando los retiros salen de la ventana.
+ * - ReglaMontoInusual solo actúa con suficientes retiros previos y con montos
+ *   muy por encima del promedio.
+ * - En el controlador, una regla que bloquea rechaza el retiro sin tocar el
+ *   saldo y una que marca aplica el retiro con la alerta.
+ *
+ * Después hace los mismos retiros al azar sin reglas y con una regla de velocidad y
+ * una de monto inusual (que solo marcan), alternando rondas de cada modo para
+ * que el calentamiento y el crecimiento del archivo afecten a ambos por igual,
+ * y compara los percentiles de latencia. Aparte mide la evaluación de las
+ * reglas sola (perfil y reglas, sin el retiro), que no debe crear objetos.
+ *
+ * Uso: java -cp bin Pruebas.PruebaReglasRetiro [opciones]
+ *   --cuentas N    Cuentas que retiran (1000)
+ *   --retiros N    Retiros por modo (20000)
+ *   --rondas N     Rondas alternadas por modo (4)
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PruebaReglasRetiro {
+
+    // Instante fijo para las pruebas de las ventanas (al inicio de una hora)
+    private static final long INSTANTE = 1_700_000_000_000L - 1_700_000_000_000L % 3_600_000;
+
+    private int cantidadCuentas = 1000;
+    private int retiros = 20_000;
+    private int rondas = 4;
+
+    /**
+     * Método principal de la prueba.
+     */
+    public static void main(String[] args) throws Exception {
+        PruebaReglasRetiro prueba = new PruebaReglasRetiro();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--cuentas": prueba.cantidadCuentas = Integer.parseInt(args[i + 1]); break;
+                case "--retiros": prueba.retiros = Integer.parseInt(args[i + 1]); break;
+                case "--rondas": prueba.rondas = Integer.parseInt(args[i + 1]); break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        // Antes de usar la persistencia: el archivo de la prueba va en una carpeta temporal
+        File carpeta = Files.createTempDirectory("banco-reglas").toFile();
+        File archivo = new File(carpeta, "Transacciones.txt");
+        System.setProperty(PersistenciaBancaria.PROPIEDAD_ARCHIVO, archivo.getPath());
+        try {
+            probarVelocidad();
+            probarMontoInusual();
+            probarControlador();
+            prueba.ejecutar();
+        } finally {
+            PersistenciaBancaria.cerrarArchivo();
+            archivo.delete();
+            carpeta.delete();
+        }
+        System.out.println("✓ PruebaReglasRetiro: todos los casos pasaron.");
+    }
+
+    private static void probarVelocidad() {
+        CuentaCorriente cuenta = new CuentaCorriente("Cliente", 0, 1, 0, 1e12, 1);
+        PerfilRetiros perfil = cuenta.obtenerPerfilRetiros();
+        ReglaVelocidad regla = new ReglaVelocidad(3, 5, DecisionRegla.BLOQUEAR);
+
+        long t = INSTANTE;
+        for (int i = 0; i < 3; i++) {
+            Verificar.igual(DecisionRegla.PERMITIR, regla.evaluar(cuenta, 10, perfil, t), "Retiro " + (i + 1));
+            perfil.registrar(10, t);
+            t += 1000;
+        }
+        Verificar.igual(DecisionRegla.BLOQUEAR, regla.evaluar(cuenta, 10, perfil, t),
+                        "Cuarto retiro en un minuto");
+
+        // Dos minutos después los tres retiros salieron del último minuto, pero siguen en la hora
+        t = INSTANTE + 120_000;
+        Verificar.igual(0, perfil.getRetirosUltimoMinuto(t), "Retiros del último minuto");
+        Verificar.igual(3, perfil.getRetirosUltimaHora(t), "Retiros de la última hora");
+        Verificar.igual(DecisionRegla.PERMITIR, regla.evaluar(cuenta, 10, perfil, t), "Nuevo minuto");
+        perfil.registrar(10, t);
+        perfil.registrar(10, t + 1000);
+
+        t = INSTANTE + 240_000;
+        Verificar.igual(DecisionRegla.BLOQUEAR, regla.evaluar(cuenta, 10, perfil, t), "Sexto retiro en una hora");
+        t = INSTANTE + 2 * 3_600_000L;
+        Verificar.igual(0, perfil.getRetirosUltimaHora(t), "Retiros de la última hora dos horas después");
+        Verificar.igual(DecisionRegla.PERMITIR, regla.evaluar(cuenta, 10, perfil, t), "Nueva hora");
+    }
+
+    private static void probarMontoInusual() {
+        CuentaCorriente cuenta = new CuentaCorriente("Cliente", 0, 2, 0, 1e12, 2);
+        PerfilRetiros perfil = cuenta.obtenerPerfilRetiros();
+        ReglaMontoInusual regla = new ReglaMontoInusual(4, 5, DecisionRegla.MARCAR);
+
+        long t = INSTANTE;
+        for (int i = 0; i < 5; i++) {
+            Verificar.igual(DecisionRegla.PERMITIR, regla.evaluar(cuenta, 1000, perfil, t),
+                            "Sin retiros previos suficientes no se evalúa");
+            perfil.registrar(100, t);
+            t += 60_000;
+        }
+        // Promedio 100 sin variación: la desviación mínima es 25, así que el límite es 200
+        Verificar.igual(DecisionRegla.PERMITIR, regla.evaluar(cuenta, 200, perfil, t), "Monto en el límite");
+        Verificar.igual(DecisionRegla.MARCAR, regla.evaluar(cuenta, 201, perfil, t), "Monto sobre el límite");
+    }
+
+    private static void probarControlador() throws Exception {
+        ControladorBancario controlador = new ControladorBancario();
+        controlador.registrarCuenta(new CuentaCorriente("Cliente", 1000, 3, 0, 0, 3));
+        ReglaVelocidad bloqueo = new ReglaVelocidad(2, 100, DecisionRegla.BLOQUEAR);
+        controlador.agregarReglaRetiro(bloqueo);
+        controlador.realizarRetiro(3, 10);
+        controlador.realizarRetiro(3, 10);
+        OperacionInvalidaException e = Verificar.lanza(OperacionInvalidaException.class,
+            () -> controlador.realizarRetiro(3, 10), "Tercer retiro en un minuto");
+        Verificar.verdadero(e.getMessage().contains(bloqueo.getNombre()), e.getMessage());
+        Verificar.igual(980.0, controlador.buscarCuentaPorNumero(3).getSaldo(),
+                        "El retiro bloqueado no cambia el saldo");
+        Verificar.igual(1L, controlador.getRetirosBloqueados(), "Retiros bloqueados");
+        Verificar.verdadero(controlador.quitarReglaRetiro(bloqueo), "Quitar la regla");
+
+        controlador.agregarReglaRetiro(new ReglaMontoInusual(4, 2, DecisionRegla.MARCAR));
+        Verificar.igual(null, controlador.realizarRetiro(3, 10).getAlerta(), "Retiro normal sin alerta");
+        ResultadoOperacion inusual = controlador.realizarRetiro(3, 500);
+        Verificar.verdadero(inusual.getAlerta() != null, "El retiro inusual lleva la alerta");
+        Verificar.igual(470.0, inusual.getSaldoFinal(), "El retiro marcado se aplica");
+        Verificar.igual(1L, controlador.getRetirosMarcados(), "Retiros marcados");
+    }
+
+    private void ejecutar() throws Exception {
+        System.out.println("\n========== PRUEBA DE REGLAS DE RETIRO ==========");
+        System.out.printf("Cuentas: %,d | Retiros por modo: %,d | Rondas: %d%n", cantidadCuentas, retiros, rondas);
+
+        ControladorBancario controlador = new ControladorBancario();
+        for (int numero = 1; numero <= cantidadCuentas; numero++) {
+            // Sin comisión y con sobregiro amplio: ningún retiro falla por saldo
+            controlador.registrarCuenta(new CuentaCorriente("Cliente " + numero, 0, numero, 0, 1e12, numero));
+        }
+        ReglaRetiro[] reglas = {
+            new ReglaVelocidad(1_000_000, 1_000_000, DecisionRegla.MARCAR),
+            new ReglaMontoInusual(4, 5, DecisionRegla.MARCAR)
+        };
+
+        long[] sinReglas = new long[retiros];
+        long[] conReglas = new long[retiros];
+        int porRonda = retiros / rondas;
+        SplittableRandom azar = new SplittableRandom(42);
+        for (int ronda = 0; ronda < rondas; ronda++) {
+            medir(controlador, azar, sinReglas, ronda * porRonda, porRonda);
+            for (ReglaRetiro regla : reglas) {
+                controlador.agregarReglaRetiro(regla);
+            }
+            medir(controlador, azar, conReglas, ronda * porRonda, porRonda);
+            for (ReglaRetiro regla : reglas) {
+                controlador.quitarReglaRetiro(regla);
+            }
+        }
+        int medidos = porRonda * rondas;
+        Arrays.sort(sinReglas, 0, medidos);
+        Arrays.sort(conReglas, 0, medidos);
+
+        System.out.printf("%-12s %10s %10s %10s%n", "", "p50", "p99", "p99.9");
+        imprimir("Sin reglas", sinReglas, medidos);
+        imprimir("Con reglas", conReglas, medidos);
+        System.out.printf("Diferencia en p99: %s | Retiros marcados: %,d%n",
+                          formatear(percentil(conReglas, medidos, 0.99) - percentil(sinReglas, medidos, 0.99)),
+                          controlador.getRetirosMarcados());
+
+        medirEvaluacion(controlador, reglas);
+        System.out.println("================================================\n");
+    }
+
+    /**
+     * Hace "cantidad" retiros al azar y guarda la latencia de cada uno desde "desde".
+     */
+    private void medir(ControladorBancario controlador, SplittableRandom azar, long[] latencias,
+                       int desde, int cantidad) throws Exception {
+        for (int i = 0; i < cantidad; i++) {
+            int numero = 1 + azar.nextInt(cantidadCuentas);
+            double monto = 1 + azar.nextInt(azar.nextInt(100) == 0 ? 5000 : 100);
+            long inicio = System.nanoTime();
+            controlador.realizarRetiro(numero, monto);
+            latencias[desde + i] = System.nanoTime() - inicio;
+        }
+    }
+
+    /**
+     * Mide la evaluación de las reglas y la actualización del perfil, sin el
+     * resto del retiro, y los bytes que crea (debería ser 0).
+     */
+    private void medirEvaluacion(ControladorBancario controlador, ReglaRetiro[] reglas) {
+        CuentaCorriente cuenta = (CuentaCorriente) controlador.buscarCuentaPorNumero(1);
+        PerfilRetiros perfil = cuenta.obtenerPerfilRetiros();
+        com.sun.management.ThreadMXBean hilos =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long ahora = System.currentTimeMillis();
+        int evaluaciones = 1_000_000;
+        int marcados = 0;
+
+        for (int fase = 0; fase < 2; fase++) { // La primera fase calienta
+            long bytesAntes = hilos.getCurrentThreadAllocatedBytes();
+            long inicio = System.nanoTime();
+            for (int i = 0; i < evaluaciones; i++) {
+                double monto = 1 + (i * 31 & 127);
+                ahora += 7; // Unos 140 retiros por segundo: los contadores avanzan de intervalo
+                for (ReglaRetiro regla : reglas) {
+                    if (regla.evaluar(cuenta, monto, perfil, ahora) != DecisionRegla.PERMITIR) {
+                        marcados++;
+                    }
+                }
+                perfil.registrar(monto, ahora);
+            }
+            long nanos = System.nanoTime() - inicio;
+            long bytes = hilos.getCurrentThreadAllocatedBytes() - bytesAntes;
+            if (fase == 1) {
+                System.out.printf(Locale.ROOT, "Evaluación sola: %.1f ns por retiro | %.3f bytes creados por retiro%n",
+                                  (double) nanos / evaluaciones, (double) bytes / evaluaciones);
+                // Un solo objeto por retiro serían al menos 16 bytes
+                Verificar.verdadero(bytes < evaluaciones, "La evaluación de las reglas crea objetos: " + bytes +
+                                    " bytes en " + evaluaciones + " retiros");
+            }
+        }
+        if (marcados < 0) {
+            System.out.println(marcados); // Evita que el compilador descarte el ciclo
+        }
+    }
+
+    private static void imprimir(String nombre, long[] latencias, int cantidad) {
+        System.out.printf("%-12s %10s %10s %10s%n", nombre,
+                          formatear(percentil(latencias, cantidad, 0.50)),
+                          formatear(percentil(latencias, cantidad, 0.99)),
+                          formatear(percentil(latencias, cantidad, 0.999)));
+    }
+
+    private static long percentil(long[] ordenadas, int cantidad, double p) {
+        return ordenadas[Math.min(cantidad - 1, (int) Math.ceil(cantidad * p) - 1)];
+    }
+
+    private static String formatear(long nanos) {
+        if (Math.abs(nanos) < 1_000_000) {
+            return String.format(Locale.ROOT, "%.1fµs", nanos / 1e3);
+        }
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1e6);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+package Pruebas;
+
+import Model.CuentaEmpresarial;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prueba que el saldo repartido en celdas sea correcto bajo depósitos y
+ * retiros concurrentes, y mide cómo escalan los depósitos concurrentes en una cuenta muy usada, con
+ * el saldo en una sola variable (cada depósito toma el bloqueo de la cuenta)
+ * y con el saldo repartido en celdas (SaldoDistribuido, sin bloqueo).
+ *
+ * Para cada cantidad de hilos (1, 2, 4, ... hasta --hilos) todos depositan en
+ * la misma cuenta empresarial mientras otro hilo retira sin pausa respetando
+ * el límite diario. Al final de cada fase el saldo debe ser el esperado, no
+ * negativo, y lo retirado no debe superar el límite.
+ *
+ * Mide solo la cuenta: las operaciones del controlador además escriben cada
+ * transacción en el archivo, que es un único punto de escritura.
+ *
+ * Uso: java -cp bin Pruebas.PruebaSaldoDistribuido [opciones]
+ *   --hilos N      Máximo de hilos que depositan (8)
+ *   --duracion S   Segundos de cada fase (1)
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PruebaSaldoDistribuido {
+
+    private static final double SALDO_INICIAL = 1000;
+    private static final double LIMITE_DIARIO = 1_000_000;
+
+    private int maximoHilos = 8;
+    private int duracionSegundos = 1;
+
+    /**
+     * Método principal de la prueba.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        PruebaSaldoDistribuido prueba = new PruebaSaldoDistribuido();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--hilos": prueba.maximoHilos = Integer.parseInt(args[i + 1]); break;
+                case "--duracion": prueba.duracionSegundos = Integer.parseInt(args[i + 1]); break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        prueba.ejecutar();
+        System.out.println("✓ PruebaSaldoDistribuido: todos los casos pasaron.");
+    }
+
+    private void ejecutar() throws InterruptedException {
+        System.out.println("\n========== PRUEBA DE SALDO DISTRIBUIDO ==========");
+        System.out.println("Procesadores: " + Runtime.getRuntime().availableProcessors() +
+                           " | Duración por fase: " + duracionSegundos + " s");
+        System.out.printf("%6s %18s %18s %8s%n", "Hilos", "Una celda (dep/s)", "Celdas (dep/s)", "Mejora");
+
+        for (int hilos = 1; hilos <= maximoHilos; hilos *= 2) {
+            double unaCelda = medir(hilos, false);
+            double celdas = medir(hilos, true);
+            System.out.printf("%6d %,18.0f %,18.0f %7.2fx%n", hilos, unaCelda, celdas, celdas / unaCelda);
+        }
+        System.out.println("=================================================\n");
+    }
+
+    /**
+     * Ejecuta una fase, comprueba el saldo y el límite, y devuelve los depósitos por segundo.
+     */
+    private double medir(int hilos, boolean distribuido) throws InterruptedException {
+        CuentaEmpresarial cuenta = new CuentaEmpresarial("Recaudadora", SALDO_INICIAL, 1, "S.A.S.", 900, LIMITE_DIARIO);
+        if (distribuido) {
+            cuenta.activarSaldoDistribuido();
+        }
+        AtomicBoolean activo = new AtomicBoolean(true);
+        LongAdder depositos = new LongAdder();
+        double[] retirado = new double[1];
+        AtomicReference<Throwable> fallo = new AtomicReference<>();
+
+        Thread[] depositantes = new Thread[hilos];
+        for (int h = 0; h < hilos; h++) {
+            depositantes[h] = new Thread(() -> {
+                long hechos = 0;
+                try {
+                    while (activo.get()) {
+                        if (distribuido) {
+                            cuenta.depositar(1);
+                        } else {
+                            synchronized (cuenta) {
+                                cuenta.depositar(1);
+                            }
+                        }
+                        hechos++;
+                    }
+                } catch (Exception e) {
+                    fallo.compareAndSet(null, e);
+                }
+                depositos.add(hechos);
+            }, "depositante-" + h);
+        }
+        // Los retiros siempre van uno a la vez con el bloqueo de la cuenta
+        Thread retiros = new Thread(() -> {
+            while (activo.get()) {
+                synchronized (cuenta) {
+                    try {
+                        retirado[0] += cuenta.retirar(50);
+                    } catch (Exception e) {
+                        // Sin saldo o límite diario alcanzado
+                    }
+                }
+                Thread.yield();
+            }
+        }, "retiros");
+
+        long inicio = System.nanoTime();
+        for (Thread depositante : depositantes) {
+            depositante.start();
+        }
+        retiros.start();
+        Thread.sleep(duracionSegundos * 1000L);
+        activo.set(false);
+        for (Thread depositante : depositantes) {
+            depositante.join();
+        }
+        retiros.join();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        String fase = (distribuido ? "Celdas" : "Una celda") + " con " + hilos + " hilos";
+        if (fallo.get() != null) {
+            throw new AssertionError(fase + ": un depósito falló", fallo.get());
+        }
+        double esperado = SALDO_INICIAL + depositos.sum() - retirado[0];
+        Verificar.verdadero(Math.abs(cuenta.getSaldo() - esperado) <= 0.005,
+                            fase + ": se esperaba el saldo " + esperado + " y es " + cuenta.getSaldo());
+        Verificar.verdadero(cuenta.getSaldo() >= 0, fase + ": saldo negativo " + cuenta.getSaldo());
+        Verificar.verdadero(retirado[0] <= LIMITE_DIARIO, fase + ": se retiró " + retirado[0] +
+                            ", más que el límite diario " + LIMITE_DIARIO);
+        return depositos.sum() / segundos;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,211 @@
+package Pruebas;
+
+import Model.CodificadorTransacciones;
+import Model.PersistenciaBancaria;
+import Model.PuntosControlSaldo;
+import Model.Transaccion;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Prueba las consultas de saldo a una fecha (PersistenciaBancaria.consultarSaldoAl)
+ * sobre un archivo con varios años de movimientos, y mide su velocidad.
+ *
+ * Genera en una carpeta temporal un archivo con --registros movimientos
+ * repartidos en --anios años sobre --cuentas cuentas (unas pocas muy activas),
+ * hace --consultas consultas al azar con los puntos de control y cada saldo
+ * debe ser el esperado (NaN si la cuenta no tenía registros). Para comparar,
+ * repite unas pocas consultas leyendo el historial de la cuenta desde el
+ * inicio del archivo, como se hacía antes, que también deben coincidir.
+ *
+ * Uso: java -cp bin Pruebas.PruebaSaldoHistorico [opciones]
+ *   --registros N   Registros del archivo generado (300000)
+ *   --cuentas N     Cuentas distintas (5000)
+ *   --anios N       Años que cubre el archivo (5)
+ *   --consultas N   Consultas con puntos de control (5000)
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PruebaSaldoHistorico {
+
+    private static final long INICIO_REGISTROS = 1_500_000_000_000L;
+    private static final int CONSULTAS_SIN_PUNTOS = 10;
+
+    private int registros = 300_000;
+    private int cantidadCuentas = 5000;
+    private int anios = 5;
+    private int consultas = 5000;
+
+    // Registros generados, en orden del archivo
+    private int[] cuentaDe;
+    private long[] segundoDe;
+    private double[] saldoDe;
+    // Índices de los registros de cada cuenta: indices[inicioCuenta[c] .. inicioCuenta[c + 1])
+    private int[] inicioCuenta;
+    private int[] indices;
+
+    /**
+     * Método principal de la prueba.
+     */
+    public static void main(String[] args) throws IOException {
+        PruebaSaldoHistorico prueba = new PruebaSaldoHistorico();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--registros": prueba.registros = Integer.parseInt(args[i + 1]); break;
+                case "--cuentas": prueba.cantidadCuentas = Integer.parseInt(args[i + 1]); break;
+                case "--anios": prueba.anios = Integer.parseInt(args[i + 1]); break;
+                case "--consultas": prueba.consultas = Integer.parseInt(args[i + 1]); break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        // Antes de usar la persistencia: el archivo generado va en una carpeta temporal
+        File carpeta = Files.createTempDirectory("banco-historico").toFile();
+        File archivo = new File(carpeta, "Transacciones.txt");
+        System.setProperty(PersistenciaBancaria.PROPIEDAD_ARCHIVO, archivo.getPath());
+        try {
+            prueba.ejecutar(archivo);
+        } finally {
+            PersistenciaBancaria.cerrarArchivo();
+            for (File f : carpeta.listFiles()) {
+                f.delete();
+            }
+            carpeta.delete();
+        }
+        System.out.println("✓ PruebaSaldoHistorico: todos los casos pasaron.");
+    }
+
+    private void ejecutar(File archivo) throws IOException {
+        System.out.println("\n========== PRUEBA DE SALDO A UNA FECHA ==========");
+        System.out.printf("Registros: %,d | Cuentas: %,d | Años: %d%n", registros, cantidadCuentas, anios);
+        generar(archivo);
+
+        long inicio = System.nanoTime();
+        PuntosControlSaldo puntos = PersistenciaBancaria.getPuntosControl();
+        System.out.printf("Carga de puntos de control: %.2f s | Puntos: %,d (%.1f por cuenta)%n",
+                          (System.nanoTime() - inicio) / 1e9, puntos.getCantidadPuntos(),
+                          (double) puntos.getCantidadPuntos() / puntos.getCantidadCuentas());
+
+        SplittableRandom azar = new SplittableRandom(7);
+        long ultimoSegundo = segundoDe[registros - 1];
+        long nanos = 0;
+        long nanosMaximo = 0;
+        for (int i = 0; i < consultas; i++) {
+            int cuenta = 1 + azar.nextInt(cantidadCuentas);
+            long segundo = segundoDe[0] + azar.nextLong(ultimoSegundo - segundoDe[0] + 2);
+            LocalDateTime instante = aFecha(segundo);
+
+            long antes = System.nanoTime();
+            double saldo = PersistenciaBancaria.consultarSaldoAl(cuenta, instante);
+            long duracion = System.nanoTime() - antes;
+            nanos += duracion;
+            nanosMaximo = Math.max(nanosMaximo, duracion);
+
+            comparar(cuenta, instante, esperado(cuenta, segundo), saldo, "con puntos de control");
+        }
+        System.out.printf("Con puntos de control: %,d consultas | %.1f µs en promedio | %.2f ms como máximo%n",
+                          consultas, nanos / 1e3 / consultas, nanosMaximo / 1e6);
+
+        nanos = 0;
+        for (int i = 0; i < CONSULTAS_SIN_PUNTOS; i++) {
+            int cuenta = 1 + azar.nextInt(cantidadCuentas);
+            long segundo = ultimoSegundo - azar.nextLong(ultimoSegundo - segundoDe[0]) / 4;
+            LocalDateTime instante = aFecha(segundo);
+            long antes = System.nanoTime();
+            List<Transaccion> historial = PersistenciaBancaria.consultarPorRango(
+                cuenta, LocalDateTime.of(1970, 1, 1, 0, 0), instante);
+            nanos += System.nanoTime() - antes;
+            double saldo = historial.isEmpty() ? Double.NaN : historial.get(historial.size() - 1).getSaldoFinal();
+            comparar(cuenta, instante, esperado(cuenta, segundo), saldo, "leyendo el historial");
+        }
+        System.out.printf("Leyendo el historial:  %,d consultas | %.1f ms en promedio%n",
+                          CONSULTAS_SIN_PUNTOS, nanos / 1e6 / CONSULTAS_SIN_PUNTOS);
+        System.out.println("=================================================\n");
+    }
+
+    /**
+     * Falla si el saldo obtenido no es exactamente el esperado (NaN si no tenía registros).
+     */
+    private static void comparar(int cuenta, LocalDateTime instante, double esperado, double saldo, String forma) {
+        if (Double.doubleToLongBits(saldo) != Double.doubleToLongBits(esperado)) {
+            throw new AssertionError("Saldo de la cuenta " + cuenta + " antes de " + instante + " " + forma +
+                                     ": se esperaba <" + esperado + "> y se obtuvo <" + saldo + ">");
+        }
+    }
+
+    /**
+     * Escribe el archivo: un 20% de los movimientos son del 1% de las cuentas.
+     */
+    private void generar(File archivo) throws IOException {
+        cuentaDe = new int[registros];
+        segundoDe = new long[registros];
+        saldoDe = new double[registros];
+        double[] saldos = new double[cantidadCuentas + 1];
+        long pasoMillis = anios * 365L * 24 * 60 * 60 * 1000 / registros;
+        int cuentasActivas = Math.max(1, cantidadCuentas / 100);
+
+        CodificadorTransacciones codificador = new CodificadorTransacciones();
+        SplittableRandom azar = new SplittableRandom(42);
+        try (OutputStream salida = new BufferedOutputStream(new FileOutputStream(archivo), 1 << 16)) {
+            for (int i = 0; i < registros; i++) {
+                int numero = 1 + azar.nextInt(azar.nextInt(5) == 0 ? cuentasActivas : cantidadCuentas);
+                // Montos enteros: el saldo se escribe y se lee sin redondeos
+                double monto = 1 + azar.nextInt(500);
+                String tipo = saldos[numero] >= monto && azar.nextBoolean() ? "RETIRO" : "DEPOSITO";
+                saldos[numero] += tipo.equals("RETIRO") ? -monto : monto;
+                long millis = INICIO_REGISTROS + i * pasoMillis;
+                int longitud = codificador.codificar(millis, numero, tipo, monto, saldos[numero]);
+                salida.write(codificador.getBuffer(), 0, longitud);
+
+                cuentaDe[i] = numero;
+                segundoDe[i] = Math.floorDiv(millis, 1000L);
+                saldoDe[i] = saldos[numero];
+            }
+        }
+
+        // Registros agrupados por cuenta, en orden
+        inicioCuenta = new int[cantidadCuentas + 2];
+        for (int i = 0; i < registros; i++) {
+            inicioCuenta[cuentaDe[i] + 1]++;
+        }
+        for (int c = 1; c < inicioCuenta.length; c++) {
+            inicioCuenta[c] += inicioCuenta[c - 1];
+        }
+        indices = new int[registros];
+        int[] siguiente = inicioCuenta.clone();
+        for (int i = 0; i < registros; i++) {
+            indices[siguiente[cuentaDe[i]]++] = i;
+        }
+    }
+
+    /**
+     * Saldo esperado de la cuenta antes del segundo dado (NaN si no tenía registros).
+     */
+    private double esperado(int cuenta, long segundo) {
+        int bajo = inicioCuenta[cuenta];
+        int alto = inicioCuenta[cuenta + 1] - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (segundoDe[indices[medio]] < segundo) {
+                bajo = medio + 1;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return alto < inicioCuenta[cuenta] ? Double.NaN : saldoDe[indices[alto]];
+    }
+
+    private static LocalDateTime aFecha(long segundo) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(segundo), ZoneId.systemDefault());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+package Pruebas;
+
+import Excepciones.OperacionInvalidaException;
+import Model.CuentaEmpresarial;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Prueba el límite diario de la cuenta empresarial sobre la ventana móvil de
+ * 24 horas (VentanaRetiros), con un reloj que avanza a mano:
+ * - Un retiro sigue contando hasta 24 horas exactas después, aunque se haya
+ *   hecho al final de un intervalo de 15 minutos.
+ * - Deja de contar como mucho 15 minutos después de las 24 horas.
+ *
+ * Uso: java -cp bin Pruebas.PruebaVentanaRetiros
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public class PruebaVentanaRetiros {
+
+    private static final long MINUTO = 60_000L;
+    private static final long DIA = 24 * 60 * MINUTO;
+    private static final long INTERVALO = 15 * MINUTO;
+    // Inicio de un intervalo de 15 minutos
+    private static final long INICIO = 1_700_000_000_000L - 1_700_000_000_000L % INTERVALO;
+
+    /**
+     * Reloj de la prueba: solo cambia cuando se le asigna otro instante.
+     */
+    private static final class RelojManual extends Clock {
+        private long millis = INICIO;
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zona) {
+            return this;
+        }
+    }
+
+    /**
+     * Método principal de la prueba.
+     */
+    public static void main(String[] args) throws Exception {
+        // Retiro al final de su intervalo y al inicio de su intervalo
+        probarVentana(14 * MINUTO + 59_999);
+        probarVentana(0);
+        System.out.println("✓ PruebaVentanaRetiros: todos los casos pasaron.");
+    }
+
+    private static void probarVentana(long desplazamiento) throws Exception {
+        RelojManual reloj = new RelojManual();
+        CuentaEmpresarial cuenta = new CuentaEmpresarial("Empresa", 10_000, 1, "S.A.S.", 900, 1000);
+        cuenta.setReloj(reloj);
+
+        long retiro = INICIO + desplazamiento;
+        reloj.millis = retiro;
+        cuenta.retirar(600);
+        String caso = "Retiro a los " + desplazamiento + " ms del intervalo";
+
+        // Justo antes de cumplir 24 horas el retiro sigue contando
+        reloj.millis = retiro + DIA - 1;
+        Verificar.igual(600.0, cuenta.getRetiradoHoy(), caso + ": retirado antes de 24 horas");
+        Verificar.lanza(OperacionInvalidaException.class, () -> cuenta.retirar(500),
+                        caso + ": 1100 en menos de 24 horas supera el límite");
+
+        // Pasado el intervalo siguiente a las 24 horas ya no cuenta
+        reloj.millis = retiro + DIA + INTERVALO;
+        Verificar.igual(0.0, cuenta.getRetiradoHoy(), caso + ": retirado después de 24 horas y 15 minutos");
+        Verificar.igual(500.0, cuenta.retirar(500), caso + ": retiro con la ventana libre");
+        Verificar.igual(10_000 - 1100.0, cuenta.getSaldo(), caso + ": saldo final");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package Pruebas;
+
+/**
+ * Comprobaciones de las pruebas automáticas. Cada una lanza AssertionError
+ * con un mensaje claro si falla (no depende de la opción -ea de la JVM), así
+ * la prueba termina con error y con código de salida distinto de cero.
+ *
+ * Las pruebas están fuera de src, en test/Pruebas: cada clase tiene un main
+ * que ejecuta todos sus casos, e imprime "✓" solo si todos pasan. Las que
+ * usan el archivo de transacciones lo crean en una carpeta temporal y, como
+ * la ruta del archivo se fija al cargar PersistenciaBancaria, cada clase se
+ * ejecuta en su propia JVM:
+ *
+ *   javac -encoding UTF-8 -d bin $(find src test -name "*.java")
+ *   for p in bin/Pruebas/Prueba*.class; do
+ *       java -cp bin Pruebas.$(basename $p .class) || exit 1
+ *   done
+ *
+ * @author Andres
+ * @version 1.0
+ */
+public final class Verificar {
+
+    private Verificar() {
+    }
+
+    public static void verdadero(boolean condicion, String mensaje) {
+        if (!condicion) {
+            throw new AssertionError(mensaje);
+        }
+    }
+
+    public static void igual(Object esperado, Object obtenido, String mensaje) {
+        if (esperado == null ? obtenido != null : !esperado.equals(obtenido)) {
+            throw new AssertionError(mensaje + ": se esperaba <" + esperado + "> y se obtuvo <" + obtenido + ">");
+        }
+    }
+
+    /**
+     * Compara dos números admitiendo solo el error de redondeo de double (1e-9).
+     */
+    public static void igual(double esperado, double obtenido, String mensaje) {
+        if (Double.compare(esperado, obtenido) != 0 && Math.abs(esperado - obtenido) > 1e-9) {
+            throw new AssertionError(mensaje + ": se esperaba <" + esperado + "> y se obtuvo <" + obtenido + ">");
+        }
+    }
+
+    /**
+     * Comprueba que la tarea lance una excepción del tipo dado y la devuelve.
+     */
+    public static <T extends Throwable> T lanza(Class<T> tipo, Tarea tarea, String mensaje) {
+        try {
+            tarea.ejecutar();
+        } catch (Throwable e) {
+            if (tipo.isInstance(e)) {
+                return tipo.cast(e);
+            }
+            throw new AssertionError(mensaje + ": se esperaba " + tipo.getSimpleName() + " y se lanzó " + e, e);
+        }
+        throw new AssertionError(mensaje + ": se esperaba " + tipo.getSimpleName() + " y no se lanzó nada");
+    }
+
+    /**
+     * Código de prueba que puede lanzar cualquier excepción.
+     */
+    @FunctionalInterface
+    public interface Tarea {
+        void ejecutar() throws Exception;
+    }
+}
\ No newline at end of file